@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.GrowableByteArrayDataOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** {@link LZ4} compression and decompression of text-like data. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class LZ4Benchmark {
+
+  @Param({"4096", "16384", "61440"})
+  public int length;
+
+  private byte[] uncompressed;
+  private byte[] compressed;
+  private int compressedLength;
+  private byte[] restored;
+  private final LZ4.HashTable hashTable = new LZ4.HashTable();
+  private final LZ4.HCHashTable hcHashTable = new LZ4.HCHashTable();
+  private final GrowableByteArrayDataOutput out = new GrowableByteArrayDataOutput(1024);
+  private final ByteArrayDataInput in = new ByteArrayDataInput();
+
+  @Setup
+  public void setup() throws IOException {
+    // words from a small vocabulary, which compresses about as well as
+    // typical stored fields
+    final Random random = new Random(0);
+    final String[] vocabulary = new String[1000];
+    for (int i = 0; i < vocabulary.length; ++i) {
+      final char[] chars = new char[2 + random.nextInt(8)];
+      for (int j = 0; j < chars.length; ++j) {
+        chars[j] = (char) ('a' + random.nextInt(26));
+      }
+      vocabulary[i] = new String(chars);
+    }
+    final StringBuilder text = new StringBuilder();
+    while (text.length() < length) {
+      text.append(vocabulary[(int) Math.abs(random.nextGaussian() * 100) % vocabulary.length]).append(' ');
+    }
+    uncompressed = text.substring(0, length).getBytes(StandardCharsets.US_ASCII);
+
+    out.reset();
+    LZ4.compress(uncompressed, 0, length, out, hashTable);
+    compressedLength = out.getPosition();
+    compressed = Arrays.copyOf(out.getBytes(), compressedLength);
+    // decompression may write up to 7 bytes after the end
+    restored = new byte[length + 7];
+  }
+
+  @Benchmark
+  public int compress() throws IOException {
+    out.reset();
+    LZ4.compress(uncompressed, 0, length, out, hashTable);
+    return out.getPosition();
+  }
+
+  @Benchmark
+  public int compressHC() throws IOException {
+    out.reset();
+    LZ4.compressHC(uncompressed, 0, length, out, hcHashTable);
+    return out.getPosition();
+  }
+
+  @Benchmark
+  public int decompress() throws IOException {
+    in.reset(compressed, 0, compressedLength);
+    return LZ4.decompress(in, length, restored, 0);
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene50;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.packed.PackedInts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.lucene.codecs.lucene50.Lucene50PostingsFormat.BLOCK_SIZE;
+
+/** Decoding of blocks of postings. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ForUtilBenchmark {
+
+  @Param({"1", "2", "4", "7", "8", "12", "16", "20", "24"})
+  public int bitsPerValue;
+
+  private Directory dir;
+  private IndexInput in;
+  private ForUtil forUtil;
+  private long blockStart;
+  private final byte[] encoded = new byte[ForUtil.MAX_ENCODED_SIZE];
+  private final int[] decoded = new int[ForUtil.MAX_DATA_SIZE];
+
+  @Setup
+  public void setup() throws IOException {
+    final Random random = new Random(0);
+    final int[] values = new int[ForUtil.MAX_DATA_SIZE];
+    for (int i = 0; i < BLOCK_SIZE; ++i) {
+      values[i] = random.nextInt(1 << bitsPerValue);
+    }
+    // make sure that the block requires exactly bitsPerValue bits
+    values[0] = (1 << bitsPerValue) - 1;
+    values[1] = 0;
+
+    dir = new RAMDirectory();
+    try (IndexOutput out = dir.createOutput("for", IOContext.DEFAULT)) {
+      final ForUtil writer = new ForUtil(PackedInts.COMPACT, out);
+      writer.writeBlock(values, new byte[ForUtil.MAX_ENCODED_SIZE], out);
+    }
+    in = dir.openInput("for", IOContext.DEFAULT);
+    forUtil = new ForUtil(in);
+    blockStart = in.getFilePointer();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    in.close();
+    dir.close();
+  }
+
+  @Benchmark
+  public int readBlock() throws IOException {
+    in.seek(blockStart);
+    forUtil.readBlock(in, encoded, decoded);
+    return decoded[BLOCK_SIZE - 1];
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Window-based scoring of disjunctions with {@link BooleanScorer}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BooleanScorerBenchmark {
+
+  private static final int NUM_DOCS = 1 << 18;
+
+  /** Comma-separated terms of the disjunction: term tN matches about one doc every N docs. */
+  @Param({"t2,t2", "t2,t64", "t4,t8,t16,t32"})
+  public String terms;
+
+  @Param({"false", "true"})
+  public boolean needsScores;
+
+  private Directory dir;
+  private DirectoryReader reader;
+  private Weight weight;
+  private LeafReaderContext context;
+
+  @Setup
+  public void setup() throws IOException {
+    final Random random = new Random(0);
+    dir = new RAMDirectory();
+    try (IndexWriter w = new IndexWriter(dir, new IndexWriterConfig(new StandardAnalyzer()))) {
+      final int[] intervals = new int[] { 2, 4, 8, 16, 32, 64 };
+      for (int i = 0; i < NUM_DOCS; ++i) {
+        final StringBuilder body = new StringBuilder();
+        for (int interval : intervals) {
+          if (random.nextInt(interval) == 0) {
+            body.append('t').append(interval).append(' ');
+          }
+        }
+        final Document doc = new Document();
+        doc.add(new TextField("body", body.toString(), Store.NO));
+        w.addDocument(doc);
+      }
+      w.forceMerge(1);
+    }
+    reader = DirectoryReader.open(dir);
+    context = reader.leaves().get(0);
+
+    final BooleanQuery.Builder builder = new BooleanQuery.Builder();
+    for (String term : terms.split(",")) {
+      builder.add(new TermQuery(new Term("body", term)), Occur.SHOULD);
+    }
+    final IndexSearcher searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(null);
+    weight = searcher.createNormalizedWeight(builder.build(), needsScores);
+    if (weight.bulkScorer(context) instanceof BooleanScorer == false) {
+      throw new IllegalStateException("Expected a " + BooleanScorer.class.getSimpleName());
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    reader.close();
+    dir.close();
+  }
+
+  @Benchmark
+  public float score() throws IOException {
+    final BulkScorer scorer = weight.bulkScorer(context);
+    final float[] sum = new float[1];
+    scorer.score(new LeafCollector() {
+      private Scorer scorer;
+
+      @Override
+      public void setScorer(Scorer scorer) {
+        this.scorer = scorer;
+      }
+
+      @Override
+      public void collect(int doc) throws IOException {
+        sum[0] += needsScores ? scorer.score() : 1;
+      }
+    }, null);
+    return sum[0];
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.FixedBitSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Leap-frog intersection of iterators with {@link ConjunctionDISI}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ConjunctionBenchmark {
+
+  private static final int MAX_DOC = 1 << 20;
+
+  /** Comma-separated average intervals between matches of each clause. */
+  @Param({"2,2", "2,64", "64,4096", "2,8,64"})
+  public String intervals;
+
+  private FixedBitSet[] sets;
+  private int[] costs;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(0);
+    final String[] split = intervals.split(",");
+    sets = new FixedBitSet[split.length];
+    costs = new int[split.length];
+    for (int i = 0; i < split.length; ++i) {
+      final int interval = Integer.parseInt(split[i]);
+      sets[i] = new FixedBitSet(MAX_DOC);
+      for (int doc = random.nextInt(interval); doc < MAX_DOC; doc += 1 + random.nextInt(2 * interval - 1)) {
+        sets[i].set(doc);
+      }
+      costs[i] = sets[i].cardinality();
+    }
+  }
+
+  @Benchmark
+  public int intersect() throws IOException {
+    final List<DocIdSetIterator> iterators = new ArrayList<>();
+    for (int i = 0; i < sets.length; ++i) {
+      iterators.add(new BitSetIterator(sets[i], costs[i]));
+    }
+    final DocIdSetIterator conjunction = ConjunctionDISI.intersectIterators(iterators);
+    int count = 0;
+    for (int doc = conjunction.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = conjunction.nextDoc()) {
+      count++;
+    }
+    return count;
+  }
+
+}
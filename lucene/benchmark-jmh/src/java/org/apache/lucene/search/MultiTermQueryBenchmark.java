@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FilteredTermsEnum;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.DocIdSetBuilder;
+import org.apache.lucene.util.StringHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the doc ID set of a {@link MultiTermQuery} that matches too many
+ * terms to be rewritten to a disjunction: postings consumed one document at a
+ * time versus in bulk, and the end-to-end {@link PrefixQuery}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class MultiTermQueryBenchmark {
+
+  private static final int NUM_DOCS = 1 << 20;
+  private static final String FIELD = "f";
+  // terms are 4-digits numbers, the prefix matches a tenth of them
+  private static final String PREFIX = "1";
+
+  /** Number of distinct terms in the field, all docs have a single term. */
+  @Param({"1000", "10000"})
+  public int numTerms;
+
+  private Directory dir;
+  private DirectoryReader reader;
+  private IndexSearcher searcher;
+  private final int[] buffer = new int[128];
+
+  @Setup
+  public void setup() throws IOException {
+    final Random random = new Random(0);
+    dir = new RAMDirectory();
+    try (IndexWriter w = new IndexWriter(dir, new IndexWriterConfig(null).setRAMBufferSizeMB(64))) {
+      final Document doc = new Document();
+      final StringField field = new StringField(FIELD, "", Store.NO);
+      doc.add(field);
+      for (int i = 0; i < NUM_DOCS; ++i) {
+        field.setStringValue(String.format(Locale.ROOT, "%04d", random.nextInt(numTerms) * (10000 / numTerms)));
+        w.addDocument(doc);
+      }
+      w.forceMerge(1);
+    }
+    reader = DirectoryReader.open(dir);
+    searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(null);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    reader.close();
+    dir.close();
+  }
+
+  private TermsEnum prefixTermsEnum(LeafReader leaf) throws IOException {
+    final Terms terms = leaf.terms(FIELD);
+    final BytesRef prefix = new BytesRef(PREFIX);
+    final TermsEnum termsEnum = terms.iterator();
+    return new FilteredTermsEnum(termsEnum) {
+      {
+        setInitialSeekTerm(prefix);
+      }
+
+      @Override
+      protected AcceptStatus accept(BytesRef term) {
+        return StringHelper.startsWith(term, prefix) ? AcceptStatus.YES : AcceptStatus.END;
+      }
+    };
+  }
+
+  @Benchmark
+  public DocIdSet buildPerDoc() throws IOException {
+    final LeafReader leaf = reader.leaves().get(0).reader();
+    final DocIdSetBuilder builder = new DocIdSetBuilder(leaf.maxDoc(), leaf.terms(FIELD));
+    final TermsEnum termsEnum = prefixTermsEnum(leaf);
+    PostingsEnum postings = null;
+    while (termsEnum.next() != null) {
+      postings = termsEnum.postings(postings, PostingsEnum.NONE);
+      builder.add(postings);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public DocIdSet buildBulk() throws IOException {
+    final LeafReader leaf = reader.leaves().get(0).reader();
+    final DocIdSetBuilder builder = new DocIdSetBuilder(leaf.maxDoc(), leaf.terms(FIELD));
+    final TermsEnum termsEnum = prefixTermsEnum(leaf);
+    PostingsEnum postings = null;
+    while (termsEnum.next() != null) {
+      postings = termsEnum.postings(postings, PostingsEnum.NONE);
+      builder.add(postings, buffer);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public int prefixQuery() throws IOException {
+    return searcher.count(new PrefixQuery(new Term(FIELD, PREFIX)));
+  }
+
+}
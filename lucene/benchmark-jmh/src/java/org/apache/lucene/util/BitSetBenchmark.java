@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.search.DocIdSetIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Common operations on {@link FixedBitSet} and {@link SparseFixedBitSet}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BitSetBenchmark {
+
+  private static final int MAX_DOC = 1 << 20;
+
+  @Param({"fixed", "sparse"})
+  public String impl;
+
+  /** Average number of docs between two set bits. */
+  @Param({"2", "64", "4096"})
+  public int interval;
+
+  private int[] docs;
+  private BitSet set;
+  private FixedBitSet other;
+  private int otherCost;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(0);
+    final FixedBitSet bits = new FixedBitSet(MAX_DOC);
+    for (int doc = random.nextInt(interval); doc < MAX_DOC; doc += 1 + random.nextInt(2 * interval - 1)) {
+      bits.set(doc);
+    }
+    docs = new int[bits.cardinality()];
+    int i = 0;
+    for (int doc = bits.nextSetBit(0); doc != DocIdSetIterator.NO_MORE_DOCS; doc = doc + 1 >= MAX_DOC ? DocIdSetIterator.NO_MORE_DOCS : bits.nextSetBit(doc + 1)) {
+      docs[i++] = doc;
+    }
+    set = newSet();
+    for (int doc : docs) {
+      set.set(doc);
+    }
+    other = new FixedBitSet(MAX_DOC);
+    for (int doc = random.nextInt(interval); doc < MAX_DOC; doc += 1 + random.nextInt(2 * interval - 1)) {
+      other.set(doc);
+    }
+    otherCost = other.cardinality();
+  }
+
+  private BitSet newSet() {
+    switch (impl) {
+      case "fixed":
+        return new FixedBitSet(MAX_DOC);
+      case "sparse":
+        return new SparseFixedBitSet(MAX_DOC);
+      default:
+        throw new AssertionError(impl);
+    }
+  }
+
+  @Benchmark
+  public BitSet set() {
+    final BitSet set = newSet();
+    for (int doc : docs) {
+      set.set(doc);
+    }
+    return set;
+  }
+
+  @Benchmark
+  public int get() {
+    int count = 0;
+    for (int doc = 0; doc < MAX_DOC; doc += 7) {
+      if (set.get(doc)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int nextSetBit() {
+    int count = 0;
+    for (int doc = set.nextSetBit(0); doc != DocIdSetIterator.NO_MORE_DOCS; doc = doc + 1 >= MAX_DOC ? DocIdSetIterator.NO_MORE_DOCS : set.nextSetBit(doc + 1)) {
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int cardinality() {
+    return set.cardinality();
+  }
+
+  @Benchmark
+  public BitSet or() throws IOException {
+    final BitSet set = newSet();
+    set.or(new BitSetIterator(other, otherCost));
+    return set;
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.bkd;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.lucene.index.PointValues.IntersectVisitor;
+import org.apache.lucene.index.PointValues.Relation;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.NumericUtils;
+import org.apache.lucene.util.StringHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Range intersection of a 1-dimension {@link BKDReader}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BKDReaderBenchmark {
+
+  private static final int NUM_DOCS = 1 << 20;
+
+  /** Fraction of the points that match the range. */
+  @Param({"0.001", "0.01", "0.1", "0.5"})
+  public double selectivity;
+
+  private Directory dir;
+  private IndexInput in;
+  private BKDReader reader;
+  private final byte[] lower = new byte[Integer.BYTES];
+  private final byte[] upper = new byte[Integer.BYTES];
+
+  @Setup
+  public void setup() throws IOException {
+    final Random random = new Random(0);
+    dir = new RAMDirectory();
+    final long indexFP;
+    try (IndexOutput out = dir.createOutput("bkd", IOContext.DEFAULT)) {
+      final BKDWriter writer = new BKDWriter(NUM_DOCS, dir, "tmp", 1, Integer.BYTES,
+          BKDWriter.DEFAULT_MAX_POINTS_IN_LEAF_NODE, BKDWriter.DEFAULT_MAX_MB_SORT_IN_HEAP, NUM_DOCS, true);
+      final byte[] packedValue = new byte[Integer.BYTES];
+      for (int doc = 0; doc < NUM_DOCS; ++doc) {
+        NumericUtils.intToSortableBytes(random.nextInt(), packedValue, 0);
+        writer.add(packedValue, doc);
+      }
+      indexFP = writer.finish(out);
+      writer.close();
+    }
+    in = dir.openInput("bkd", IOContext.DEFAULT);
+    in.seek(indexFP);
+    reader = new BKDReader(in);
+
+    final int min = Integer.MIN_VALUE / 2;
+    NumericUtils.intToSortableBytes(min, lower, 0);
+    NumericUtils.intToSortableBytes((int) (min + selectivity * (1L << 32)), upper, 0);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    in.close();
+    dir.close();
+  }
+
+  @Benchmark
+  public int intersect() throws IOException {
+    final int[] count = new int[1];
+    reader.intersect(new IntersectVisitor() {
+      @Override
+      public void visit(int docID) {
+        count[0]++;
+      }
+
+      @Override
+      public void visit(int docID, byte[] packedValue) {
+        if (StringHelper.compare(Integer.BYTES, packedValue, 0, lower, 0) >= 0
+            && StringHelper.compare(Integer.BYTES, packedValue, 0, upper, 0) <= 0) {
+          count[0]++;
+        }
+      }
+
+      @Override
+      public Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+        if (StringHelper.compare(Integer.BYTES, minPackedValue, 0, upper, 0) > 0
+            || StringHelper.compare(Integer.BYTES, maxPackedValue, 0, lower, 0) < 0) {
+          return Relation.CELL_OUTSIDE_QUERY;
+        }
+        if (StringHelper.compare(Integer.BYTES, minPackedValue, 0, lower, 0) >= 0
+            && StringHelper.compare(Integer.BYTES, maxPackedValue, 0, upper, 0) <= 0) {
+          return Relation.CELL_INSIDE_QUERY;
+        }
+        return Relation.CELL_CROSSES_QUERY;
+      }
+    });
+    return count[0];
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.util.packed;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Random and sequential reads of in-memory {@link PackedInts.Reader}s. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class PackedIntsBenchmark {
+
+  private static final int SIZE = 1 << 16;
+
+  @Param({"1", "4", "7", "8", "12", "16", "21", "32", "48"})
+  public int bitsPerValue;
+
+  /** Acceptable overhead ratio, {@link PackedInts#COMPACT} (0) or {@link PackedInts#FASTEST} (7). */
+  @Param({"0", "7"})
+  public float acceptableOverheadRatio;
+
+  private PackedInts.Mutable values;
+  private int[] randomIndices;
+  private final long[] buffer = new long[128];
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(0);
+    values = PackedInts.getMutable(SIZE, bitsPerValue, acceptableOverheadRatio);
+    final long maxValue = PackedInts.maxValue(bitsPerValue);
+    for (int i = 0; i < SIZE; ++i) {
+      values.set(i, random.nextLong() & maxValue);
+    }
+    randomIndices = new int[SIZE];
+    for (int i = 0; i < SIZE; ++i) {
+      randomIndices[i] = random.nextInt(SIZE);
+    }
+  }
+
+  @Benchmark
+  public long sequentialGet() {
+    long sum = 0;
+    for (int i = 0; i < SIZE; ++i) {
+      sum += values.get(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long randomGet() {
+    long sum = 0;
+    for (int index : randomIndices) {
+      sum += values.get(index);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long bulkGet() {
+    long sum = 0;
+    for (int i = 0; i < SIZE; ) {
+      final int read = values.get(i, buffer, 0, buffer.length);
+      for (int j = 0; j < read; ++j) {
+        sum += buffer[j];
+      }
+      i += read;
+    }
+    return sum;
+  }
+
+}
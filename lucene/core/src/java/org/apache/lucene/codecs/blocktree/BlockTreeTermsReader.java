@@ -19,23 +19,28 @@ package org.apache.lucene.codecs.blocktree;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.codecs.FieldsProducer;
 import org.apache.lucene.codecs.PostingsReaderBase;
 import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.DirectoryReader; // javadocs
 import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriterConfig; // javadocs
 import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.search.PrefixQuery;  // javadocs
 import org.apache.lucene.search.TermRangeQuery;  // javadocs
+import org.apache.lucene.store.Directory; // javadocs
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.Accountable;
 import org.apache.lucene.util.Accountables;
@@ -59,6 +64,10 @@ import org.apache.lucene.util.fst.Outputs;
  *  min/maxItemsPerBlock during indexing to control how
  *  much memory the terms index uses.</p>
  *
+ *  <p>The terms index of each field is an FST, which is either
+ *  loaded on the heap or read directly from the index file,
+ *  see {@link FSTLoadMode}.</p>
+ *
  *  <p>If auto-prefix terms were indexed (see
  *  {@link BlockTreeTermsWriter}), then the {@link Terms#intersect}
  *  implementation here will make use of these terms only if the
@@ -117,9 +126,46 @@ public final class BlockTreeTermsReader extends FieldsProducer {
   static final String TERMS_INDEX_EXTENSION = "tip";
   final static String TERMS_INDEX_CODEC_NAME = "BlockTreeTermsIndex";
 
+  /** How the terms index FSTs are loaded. */
+  public enum FSTLoadMode {
+    /** Load the terms index on the heap. */
+    ON_HEAP,
+    /** Read the terms index from the index file, this
+     *  requires the terms index file to remain open. This
+     *  is typically useful when the index file is
+     *  memory-mapped. */
+    OFF_HEAP
+  }
+
+  /** Key of the {@link SegmentReadState#readerAttributes reader attribute}
+   *  that configures the {@link FSTLoadMode} of readers that are not given
+   *  an explicit mode, e.g. {@code "OFF_HEAP"}. Readers load terms index FSTs
+   *  {@link FSTLoadMode#ON_HEAP on-heap} if this attribute is not set.
+   *  @see DirectoryReader#open(Directory, Map)
+   *  @see IndexWriterConfig#setReaderAttributes(Map) */
+  public static final String FST_MODE_KEY = "blocktree.terms.fst";
+
+  /** Return the {@link FSTLoadMode} that is configured by the
+   *  {@link #FST_MODE_KEY} attribute of the given {@link SegmentReadState}. */
+  static FSTLoadMode getFSTLoadMode(SegmentReadState state) {
+    final String value = state.readerAttributes.get(FST_MODE_KEY);
+    if (value == null) {
+      return FSTLoadMode.ON_HEAP;
+    }
+    try {
+      return FSTLoadMode.valueOf(value);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("invalid value for reader attribute " + FST_MODE_KEY + ": " + value
+          + ", must be one of " + Arrays.toString(FSTLoadMode.values()), e);
+    }
+  }
+
   // Open input to the main terms dict file (_X.tib)
   final IndexInput termsIn;
 
+  // Open input to the terms index file (_X.tip) when terms index FSTs are off-heap, null otherwise
+  private final IndexInput indexIn;
+
   //private static final boolean DEBUG = BlockTreeTermsWriter.DEBUG;
 
   // Reads the terms dict entries, to gather state to
@@ -140,8 +186,14 @@ public final class BlockTreeTermsReader extends FieldsProducer {
 
   final boolean anyAutoPrefixTerms;
 
-  /** Sole constructor. */
+  /** Create a new instance that loads terms index FSTs according to
+   *  the {@link #FST_MODE_KEY} reader attribute. */
   public BlockTreeTermsReader(PostingsReaderBase postingsReader, SegmentReadState state) throws IOException {
+    this(postingsReader, state, getFSTLoadMode(state));
+  }
+
+  /** Create a new instance that loads terms index FSTs according to the given {@link FSTLoadMode}. */
+  public BlockTreeTermsReader(PostingsReaderBase postingsReader, SegmentReadState state, FSTLoadMode fstLoadMode) throws IOException {
     boolean success = false;
     IndexInput indexIn = null;
     
@@ -177,6 +229,8 @@ public final class BlockTreeTermsReader extends FieldsProducer {
       CodecUtil.checkIndexHeader(indexIn, TERMS_INDEX_CODEC_NAME, version, version, state.segmentInfo.getId(), state.segmentSuffix);
       CodecUtil.checksumEntireFile(indexIn);
 
+      final boolean offHeapIndex = fstLoadMode == FSTLoadMode.OFF_HEAP;
+
       // Have PostingsReader init itself
       postingsReader.init(termsIn, state);
       
@@ -233,13 +287,19 @@ public final class BlockTreeTermsReader extends FieldsProducer {
         final long indexStartFP = indexIn.readVLong();
         FieldReader previous = fields.put(fieldInfo.name,       
                                           new FieldReader(this, fieldInfo, numTerms, rootCode, sumTotalTermFreq, sumDocFreq, docCount,
-                                                          indexStartFP, longsSize, indexIn, minTerm, maxTerm));
+                                                          indexStartFP, longsSize, indexIn, offHeapIndex, minTerm, maxTerm));
         if (previous != null) {
           throw new CorruptIndexException("duplicate field: " + fieldInfo.name, termsIn);
         }
       }
       
-      indexIn.close();
+      if (offHeapIndex) {
+        // terms index FSTs read from this input
+        this.indexIn = indexIn;
+      } else {
+        indexIn.close();
+        this.indexIn = null;
+      }
       success = true;
     } finally {
       if (!success) {
@@ -273,7 +333,7 @@ public final class BlockTreeTermsReader extends FieldsProducer {
   @Override
   public void close() throws IOException {
     try {
-      IOUtils.close(termsIn, postingsReader);
+      IOUtils.close(termsIn, indexIn, postingsReader);
     } finally { 
       // Clear so refs to terms index is GCable even if
       // app hangs onto us:
@@ -90,6 +90,8 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
   private final BlockState state;
   private final long numChunks; // number of compressed blocks written
   private final long numDirtyChunks; // number of incomplete compressed blocks written
+  private final StoredFieldsChunkCache chunkCache;
+  private final Object coreKey; // identifies this segment in the chunk cache, shared with clones
   private boolean closed;
 
   // used by clone
@@ -108,6 +110,8 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
     this.numDirtyChunks = reader.numDirtyChunks;
     this.merging = merging;
     this.state = new BlockState();
+    this.chunkCache = reader.chunkCache;
+    this.coreKey = reader.coreKey;
     this.closed = false;
   }
 
@@ -161,6 +165,13 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
       decompressor = compressionMode.newDecompressor();
       this.merging = false;
       this.state = new BlockState();
+      if (compressionMode.supportsPartialDecompression()) {
+        // documents can be decompressed on their own, without the rest of their chunk
+        this.chunkCache = null;
+      } else {
+        this.chunkCache = StoredFieldsChunkCache.getDefault();
+      }
+      this.coreKey = new Object();
       
       if (version >= VERSION_CHUNK_STATS) {
         fieldsStream.seek(maxPointer);
@@ -197,12 +208,19 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
   }
 
   /** 
-   * Close the underlying {@link IndexInput}s.
+   * Close the underlying {@link IndexInput}s and remove the chunks of this
+   * segment from the {@link StoredFieldsChunkCache}.
    */
   @Override
   public void close() throws IOException {
     if (!closed) {
-      IOUtils.close(fieldsStream);
+      try {
+        IOUtils.close(fieldsStream);
+      } finally {
+        if (chunkCache != null) {
+          chunkCache.clearCoreCacheKey(coreKey);
+        }
+      }
       closed = true;
     }
   }
@@ -376,6 +394,8 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
 
     // the start pointer at which you can read the compressed documents
     private long startPointer;
+    // whether the compressed documents have already been prefetched
+    private boolean prefetched;
 
     private final BytesRef spare = new BytesRef();
     private final BytesRef bytes = new BytesRef();
@@ -470,6 +490,7 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
       }
 
       startPointer = fieldsStream.getFilePointer();
+      prefetched = false;
 
       if (merging) {
         final int totalLength = offsets[chunkDocs];
@@ -516,6 +537,7 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
         // already decompressed
         documentInput = new ByteArrayDataInput(bytes.bytes, bytes.offset + offset, length);
       } else if (sliced) {
+        prefetchChunk();
         fieldsStream.seek(startPointer);
         decompressor.decompress(fieldsStream, chunkSize, offset, Math.min(length, chunkSize - offset), bytes);
         documentInput = new DataInput() {
@@ -556,20 +578,63 @@ public final class CompressingStoredFieldsReader extends StoredFieldsReader {
 
         };
       } else {
-        fieldsStream.seek(startPointer);
-        decompressor.decompress(fieldsStream, totalLength, offset, length, bytes);
-        assert bytes.length == length;
-        documentInput = new ByteArrayDataInput(bytes.bytes, bytes.offset, bytes.length);
+        // merge instances never get there, they would only pollute the cache
+        final byte[] chunk = chunkCache != null && chunkCache.mayCache(totalLength) ? getCachedChunk(totalLength) : null;
+        if (chunk != null) {
+          documentInput = new ByteArrayDataInput(chunk, offset, length);
+        } else {
+          prefetchChunk();
+          fieldsStream.seek(startPointer);
+          decompressor.decompress(fieldsStream, totalLength, offset, length, bytes);
+          assert bytes.length == length;
+          documentInput = new ByteArrayDataInput(bytes.bytes, bytes.offset, bytes.length);
+        }
       }
 
       return new SerializedDocument(documentInput, length, numStoredFields);
     }
 
+    /**
+     * Get the current chunk from the cache, decompressing and caching it if
+     * it is missing, or return {@code null} if the cache is contended, in
+     * which case only the requested document should be decompressed.
+     */
+    private byte[] getCachedChunk(int totalLength) throws IOException {
+      byte[] chunk = chunkCache.get(coreKey, startPointer);
+      if (chunk == StoredFieldsChunkCache.CONTENDED) {
+        return null;
+      } else if (chunk == null) {
+        prefetchChunk();
+        fieldsStream.seek(startPointer);
+        decompressor.decompress(fieldsStream, totalLength, 0, totalLength, bytes);
+        if (bytes.length != totalLength) {
+          throw new CorruptIndexException("Corrupted: expected chunk size = " + totalLength + ", got " + bytes.length, fieldsStream);
+        }
+        chunk = Arrays.copyOfRange(bytes.bytes, bytes.offset, bytes.offset + bytes.length);
+        chunkCache.put(coreKey, startPointer, chunk);
+      }
+      return chunk;
+    }
+
+    /**
+     * Hint that the compressed documents of the current chunk are about to be
+     * read. Chunks may span several pages: ask for all of them at once.
+     */
+    private void prefetchChunk() throws IOException {
+      if (prefetched == false && fieldsStream.isPrefetchEnabled()) {
+        final long nextStartPointer = indexReader.getNextStartPointer(docBase);
+        final long endPointer = nextStartPointer == -1 ? maxPointer : nextStartPointer;
+        fieldsStream.prefetch(startPointer, endPointer - startPointer);
+      }
+      prefetched = true;
+    }
+
   }
 
   SerializedDocument document(int docID) throws IOException {
     if (state.contains(docID) == false) {
-      fieldsStream.seek(indexReader.getStartPointer(docID));
+      final long startPointer = indexReader.getStartPointer(docID);
+      fieldsStream.seek(startPointer);
       state.reset(docID);
     }
     assert state.contains(docID);
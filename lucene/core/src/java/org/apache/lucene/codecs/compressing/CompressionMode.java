@@ -25,6 +25,7 @@ import java.util.zip.Inflater;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.GrowableByteArrayDataOutput;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BytesRef;
 
@@ -113,6 +114,71 @@ public abstract class CompressionMode {
 
   };
 
+  /**
+   * This compression mode is similar to {@link #FAST} but it splits data into
+   * sub-blocks that are compressed independently, using the first bytes of
+   * the data as a preset dictionary. Loading a single document only needs to
+   * decompress the dictionary and the sub-block that contains it, so this
+   * mode can be used with chunks that are several times larger than with
+   * {@link #FAST} in order to get better compression of small documents
+   * that share a lot of content, such as field names of JSON documents,
+   * without making retrieval of a single document slower.
+   */
+  public static final CompressionMode FAST_WITH_PRESET_DICT = new CompressionMode() {
+
+    @Override
+    public Compressor newCompressor() {
+      return new LZ4WithPresetDictCompressor();
+    }
+
+    @Override
+    public Decompressor newDecompressor() {
+      return new LZ4WithPresetDictDecompressor();
+    }
+
+    @Override
+    public boolean supportsPartialDecompression() {
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "FAST_WITH_PRESET_DICT";
+    }
+
+  };
+
+  /**
+   * This compression mode is similar to {@link #HIGH_COMPRESSION} but, like
+   * {@link #FAST_WITH_PRESET_DICT}, it splits data into sub-blocks that are
+   * compressed independently using the first bytes of the data as a preset
+   * dictionary so that loading a single document does not need to
+   * decompress the whole chunk.
+   */
+  public static final CompressionMode HIGH_COMPRESSION_WITH_PRESET_DICT = new CompressionMode() {
+
+    @Override
+    public Compressor newCompressor() {
+      return new DeflateWithPresetDictCompressor(6);
+    }
+
+    @Override
+    public Decompressor newDecompressor() {
+      return new DeflateWithPresetDictDecompressor();
+    }
+
+    @Override
+    public boolean supportsPartialDecompression() {
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return "HIGH_COMPRESSION_WITH_PRESET_DICT";
+    }
+
+  };
+
   /** Sole constructor. */
   protected CompressionMode() {}
 
@@ -126,6 +192,18 @@ public abstract class CompressionMode {
    */
   public abstract Decompressor newDecompressor();
 
+  /**
+   * Return whether the {@link Decompressor}s of this mode can decompress a
+   * slice of a chunk for a fraction of the cost of decompressing the whole
+   * chunk, like modes that split chunks into independently compressed
+   * sub-blocks. Stored fields readers do not cache decompressed chunks when
+   * this returns {@code true}. The default implementation returns
+   * {@code false}.
+   */
+  public boolean supportsPartialDecompression() {
+    return false;
+  }
+
   private static final Decompressor LZ4_DECOMPRESSOR = new Decompressor() {
 
     @Override
@@ -296,4 +374,325 @@ public abstract class CompressionMode {
 
   }
 
+  // Number of sub-blocks that data is split into by compression modes that use preset dictionaries
+  static final int NUM_SUB_BLOCKS = 10;
+  // The dictionary is this many times smaller than a sub-block with LZ4
+  static final int LZ4_DICT_SIZE_FACTOR = 16;
+  // Deflate benefits from larger dictionaries than LZ4
+  static final int DEFLATE_DICT_SIZE_FACTOR = 6;
+
+  /**
+   * Write the header of data that is compressed with a preset dictionary and
+   * return the length of sub-blocks.
+   */
+  private static int writePresetDictHeader(int len, int dictLength, DataOutput out) throws IOException {
+    final int blockLength = (len - dictLength + NUM_SUB_BLOCKS - 1) / NUM_SUB_BLOCKS;
+    out.writeVInt(dictLength);
+    out.writeVInt(blockLength);
+    return blockLength;
+  }
+
+  /**
+   * Read the compressed lengths of the dictionary and of all sub-blocks into
+   * <code>compressedLengths</code>, which is returned, possibly resized.
+   */
+  private static int[] readPresetDictCompressedLengths(DataInput in, int originalLength, int dictLength, int blockLength,
+      int[] compressedLengths) throws IOException {
+    if (dictLength > originalLength || (blockLength <= 0 && originalLength > dictLength)) {
+      throw new CorruptIndexException("Illegal dictionary length " + dictLength + " or block length " + blockLength
+          + " for data of length " + originalLength, in);
+    }
+    final int numBlocks = originalLength == dictLength ? 0 : 1 + (originalLength - dictLength - 1) / blockLength;
+    if (numBlocks > NUM_SUB_BLOCKS) {
+      throw new CorruptIndexException("Illegal number of sub-blocks: " + numBlocks, in);
+    }
+    compressedLengths = ArrayUtil.grow(compressedLengths, 1 + numBlocks);
+    for (int i = 0; i <= numBlocks; ++i) {
+      compressedLengths[i] = in.readVInt();
+    }
+    return compressedLengths;
+  }
+
+  private static final class LZ4WithPresetDictCompressor extends Compressor {
+
+    final GrowableByteArrayDataOutput compressed;
+    final int[] compressedLengths;
+    final LZ4.HashTable ht;
+    byte[] buffer;
+
+    LZ4WithPresetDictCompressor() {
+      compressed = new GrowableByteArrayDataOutput(64);
+      compressedLengths = new int[1 + NUM_SUB_BLOCKS];
+      ht = new LZ4.HashTable();
+      buffer = BytesRef.EMPTY_BYTES;
+    }
+
+    private int compress(byte[] bytes, int off, int dictLength, int len) throws IOException {
+      final int start = compressed.getPosition();
+      LZ4.compressWithDictionary(bytes, off, dictLength, len, compressed, ht);
+      return compressed.getPosition() - start;
+    }
+
+    @Override
+    public void compress(byte[] bytes, int off, int len, DataOutput out) throws IOException {
+      final int dictLength = len / (NUM_SUB_BLOCKS * LZ4_DICT_SIZE_FACTOR);
+      final int blockLength = writePresetDictHeader(len, dictLength, out);
+      compressed.reset();
+
+      // the dictionary needs to be right before every sub-block
+      buffer = ArrayUtil.grow(buffer, dictLength + blockLength);
+      System.arraycopy(bytes, off, buffer, 0, dictLength);
+      int numParts = 0;
+      compressedLengths[numParts++] = compress(buffer, 0, 0, dictLength);
+
+      final int end = off + len;
+      for (int start = off + dictLength; start < end; start += blockLength) {
+        final int l = Math.min(blockLength, end - start);
+        System.arraycopy(bytes, start, buffer, dictLength, l);
+        compressedLengths[numParts++] = compress(buffer, 0, dictLength, l);
+      }
+
+      for (int i = 0; i < numParts; ++i) {
+        out.writeVInt(compressedLengths[i]);
+      }
+      out.writeBytes(compressed.getBytes(), compressed.getPosition());
+    }
+
+    @Override
+    public void close() throws IOException {
+      // no-op
+    }
+  }
+
+  private static final class LZ4WithPresetDictDecompressor extends Decompressor {
+
+    int[] compressedLengths;
+    byte[] buffer;
+
+    LZ4WithPresetDictDecompressor() {
+      compressedLengths = new int[0];
+      buffer = BytesRef.EMPTY_BYTES;
+    }
+
+    private void decompress(DataInput in, int dictLength, int length) throws IOException {
+      final int decompressedLength = LZ4.decompress(in, dictLength + length, buffer, dictLength) - dictLength;
+      if (decompressedLength != length) {
+        throw new CorruptIndexException("Corrupted: lengths mismatch: " + decompressedLength + " != " + length, in);
+      }
+    }
+
+    @Override
+    public void decompress(DataInput in, int originalLength, int offset, int length, BytesRef bytes) throws IOException {
+      assert offset + length <= originalLength;
+      if (length == 0) {
+        bytes.length = 0;
+        return;
+      }
+      final int dictLength = in.readVInt();
+      final int blockLength = in.readVInt();
+      compressedLengths = readPresetDictCompressedLengths(in, originalLength, dictLength, blockLength, compressedLengths);
+
+      // add 7 padding bytes, this is not necessary but can help decompression run faster
+      buffer = ArrayUtil.grow(buffer, dictLength + blockLength + 7);
+      bytes.bytes = ArrayUtil.grow(bytes.bytes, length);
+      bytes.offset = bytes.length = 0;
+
+      // the dictionary is always needed
+      decompress(in, 0, dictLength);
+      if (offset < dictLength) {
+        final int l = Math.min(dictLength, offset + length) - offset;
+        System.arraycopy(buffer, offset, bytes.bytes, 0, l);
+        bytes.length = l;
+      }
+
+      // only decompress the sub-blocks that contain the requested range
+      for (int i = 1, start = dictLength; start < offset + length; ++i, start += blockLength) {
+        final int l = Math.min(blockLength, originalLength - start);
+        if (start + l <= offset) {
+          in.skipBytes(compressedLengths[i]);
+        } else {
+          decompress(in, dictLength, l);
+          final int from = Math.max(start, offset);
+          final int to = Math.min(start + l, offset + length);
+          System.arraycopy(buffer, dictLength + from - start, bytes.bytes, bytes.length, to - from);
+          bytes.length += to - from;
+        }
+      }
+      assert bytes.length == length;
+    }
+
+    @Override
+    public Decompressor clone() {
+      return new LZ4WithPresetDictDecompressor();
+    }
+
+  }
+
+  private static final class DeflateWithPresetDictCompressor extends Compressor {
+
+    final Deflater compressor;
+    final GrowableByteArrayDataOutput compressed;
+    final int[] compressedLengths;
+    byte[] buffer;
+    boolean closed;
+
+    DeflateWithPresetDictCompressor(int level) {
+      compressor = new Deflater(level, true);
+      compressed = new GrowableByteArrayDataOutput(64);
+      compressedLengths = new int[1 + NUM_SUB_BLOCKS];
+      buffer = new byte[64];
+    }
+
+    private int compress(byte[] bytes, int off, int len, int dictLength, int dictOff) {
+      if (len == 0) {
+        return 0;
+      }
+      compressor.reset();
+      if (dictLength > 0) {
+        compressor.setDictionary(bytes, dictOff, dictLength);
+      }
+      compressor.setInput(bytes, off, len);
+      compressor.finish();
+
+      int totalCount = 0;
+      for (;;) {
+        final int count = compressor.deflate(buffer, totalCount, buffer.length - totalCount);
+        totalCount += count;
+        assert totalCount <= buffer.length;
+        if (compressor.finished()) {
+          break;
+        } else {
+          buffer = ArrayUtil.grow(buffer);
+        }
+      }
+
+      compressed.writeBytes(buffer, 0, totalCount);
+      return totalCount;
+    }
+
+    @Override
+    public void compress(byte[] bytes, int off, int len, DataOutput out) throws IOException {
+      final int dictLength = len / (NUM_SUB_BLOCKS * DEFLATE_DICT_SIZE_FACTOR);
+      final int blockLength = writePresetDictHeader(len, dictLength, out);
+      compressed.reset();
+
+      int numParts = 0;
+      compressedLengths[numParts++] = compress(bytes, off, dictLength, 0, off);
+
+      final int end = off + len;
+      for (int start = off + dictLength; start < end; start += blockLength) {
+        final int l = Math.min(blockLength, end - start);
+        compressedLengths[numParts++] = compress(bytes, start, l, dictLength, off);
+      }
+
+      for (int i = 0; i < numParts; ++i) {
+        out.writeVInt(compressedLengths[i]);
+      }
+      out.writeBytes(compressed.getBytes(), compressed.getPosition());
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed == false) {
+        compressor.end();
+        closed = true;
+      }
+    }
+
+  }
+
+  private static final class DeflateWithPresetDictDecompressor extends Decompressor {
+
+    int[] compressedLengths;
+    byte[] compressed;
+    byte[] buffer;
+
+    DeflateWithPresetDictDecompressor() {
+      compressedLengths = new int[0];
+      compressed = new byte[0];
+      buffer = BytesRef.EMPTY_BYTES;
+    }
+
+    private void decompress(DataInput in, Inflater decompressor, int compressedLength, int dictLength, int length) throws IOException {
+      if (length == 0) {
+        return;
+      }
+      // pad with extra "dummy byte": see javadocs for using Inflater(true)
+      // we do it for compliance, but it's unnecessary for years in zlib.
+      final int paddedLength = compressedLength + 1;
+      compressed = ArrayUtil.grow(compressed, paddedLength);
+      in.readBytes(compressed, 0, compressedLength);
+      compressed[compressedLength] = 0; // explicitly set dummy byte to 0
+
+      decompressor.reset();
+      if (dictLength > 0) {
+        decompressor.setDictionary(buffer, 0, dictLength);
+      }
+      decompressor.setInput(compressed, 0, paddedLength);
+      final int decompressedLength;
+      try {
+        decompressedLength = decompressor.inflate(buffer, dictLength, length);
+      } catch (DataFormatException e) {
+        throw new IOException(e);
+      }
+      if (!decompressor.finished()) {
+        throw new CorruptIndexException("Invalid decoder state: needsInput=" + decompressor.needsInput()
+                                                            + ", needsDict=" + decompressor.needsDictionary(), in);
+      }
+      if (decompressedLength != length) {
+        throw new CorruptIndexException("Lengths mismatch: " + decompressedLength + " != " + length, in);
+      }
+    }
+
+    @Override
+    public void decompress(DataInput in, int originalLength, int offset, int length, BytesRef bytes) throws IOException {
+      assert offset + length <= originalLength;
+      if (length == 0) {
+        bytes.length = 0;
+        return;
+      }
+      final int dictLength = in.readVInt();
+      final int blockLength = in.readVInt();
+      compressedLengths = readPresetDictCompressedLengths(in, originalLength, dictLength, blockLength, compressedLengths);
+
+      buffer = ArrayUtil.grow(buffer, dictLength + blockLength);
+      bytes.bytes = ArrayUtil.grow(bytes.bytes, length);
+      bytes.offset = bytes.length = 0;
+
+      final Inflater decompressor = new Inflater(true);
+      try {
+        // the dictionary is always needed
+        decompress(in, decompressor, compressedLengths[0], 0, dictLength);
+        if (offset < dictLength) {
+          final int l = Math.min(dictLength, offset + length) - offset;
+          System.arraycopy(buffer, offset, bytes.bytes, 0, l);
+          bytes.length = l;
+        }
+
+        // only decompress the sub-blocks that contain the requested range
+        for (int i = 1, start = dictLength; start < offset + length; ++i, start += blockLength) {
+          final int l = Math.min(blockLength, originalLength - start);
+          if (start + l <= offset) {
+            in.skipBytes(compressedLengths[i]);
+          } else {
+            decompress(in, decompressor, compressedLengths[i], dictLength, l);
+            final int from = Math.max(start, offset);
+            final int to = Math.min(start + l, offset + length);
+            System.arraycopy(buffer, dictLength + from - start, bytes.bytes, bytes.length, to - from);
+            bytes.length += to - from;
+          }
+        }
+      } finally {
+        decompressor.end();
+      }
+      assert bytes.length == length;
+    }
+
+    @Override
+    public Decompressor clone() {
+      return new DeflateWithPresetDictDecompressor();
+    }
+
+  }
+
 }
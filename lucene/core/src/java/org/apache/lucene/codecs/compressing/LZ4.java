@@ -204,20 +204,42 @@ final class LZ4 {
    * but can safely be reused.
    */
   public static void compress(byte[] bytes, int off, int len, DataOutput out, HashTable ht) throws IOException {
+    compressWithDictionary(bytes, off, 0, len, out, ht);
+  }
 
-    final int base = off;
-    final int end = off + len;
+  /**
+   * Compress <code>bytes[dictOff+dictLen:dictOff+dictLen+len]</code> into
+   * <code>out</code> using at most 16KB of memory.
+   * <code>bytes[dictOff:dictOff+dictLen]</code> will be used as a dictionary,
+   * so it needs to be copied before the decompressed bytes when decompressing,
+   * see {@link #decompress(DataInput, int, byte[], int)}. <code>ht</code>
+   * shouldn't be shared across threads but can safely be reused.
+   */
+  public static void compressWithDictionary(byte[] bytes, int dictOff, int dictLen, int len, DataOutput out, HashTable ht) throws IOException {
 
-    int anchor = off++;
+    final int base = dictOff;
+    final int end = dictOff + dictLen + len;
+
+    int off = dictOff + dictLen;
+    int anchor = off;
+    if (dictLen == 0) {
+      // there is nothing to reference before the first byte
+      ++off;
+    }
 
     if (len > LAST_LITERALS + MIN_MATCH) {
 
       final int limit = end - LAST_LITERALS;
       final int matchLimit = limit - MIN_MATCH;
-      ht.reset(len);
+      ht.reset(dictLen + len);
       final int hashLog = ht.hashLog;
       final PackedInts.Mutable hashTable = ht.hashTable;
 
+      // make positions of the dictionary available to matches
+      for (int i = base; i < anchor; ++i) {
+        hashTable.set(hash(readInt(bytes, i), hashLog), i - base);
+      }
+
       main:
       while (off <= limit) {
         // find a match
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+
+/**
+ * A memory-bounded cache of decompressed chunks of stored fields that is
+ * shared across all {@link CompressingStoredFieldsReader}s, including their
+ * clones. Documents that belong to the same chunk, such as consecutive top
+ * hits of a query or documents that are loaded by several requests, can then
+ * be loaded without decompressing the same chunk over and over again.
+ *
+ * Entries are keyed by segment core and are removed when the core of the
+ * segment is closed. The least recently used chunks are evicted when the
+ * cache exceeds its maximum memory usage, and chunks of documents that are
+ * too large to fit in the cache are never cached.
+ *
+ * Readers whose compression mode {@link
+ * CompressionMode#supportsPartialDecompression() supports partial
+ * decompression}, such as {@link CompressionMode#FAST_WITH_PRESET_DICT}, do
+ * not use this cache: they only decompress the sub-blocks that hold the
+ * requested document, while caching would require decompressing their
+ * chunks, which are about 10x larger, entirely.
+ *
+ * This cache is disabled by default, call {@link #setDefault} in order to
+ * enable it for stored fields readers that are opened afterwards.
+ *
+ * This class is thread-safe.
+ *
+ * @lucene.experimental
+ */
+public class StoredFieldsChunkCache implements Accountable {
+
+  // LinkedHashMap.Entry: hash + key, value, next, before & after references
+  static final long LINKED_HASHTABLE_ENTRY_RAM_BYTES_USED =
+      RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_OBJECT_HEADER
+          + Integer.BYTES
+          + 5 * RamUsageEstimator.NUM_BYTES_OBJECT_REF);
+
+  static final long ENTRY_RAM_BYTES_USED =
+      RamUsageEstimator.shallowSizeOfInstance(Key.class)
+      + LINKED_HASHTABLE_ENTRY_RAM_BYTES_USED
+      + RamUsageEstimator.NUM_BYTES_OBJECT_REF // slot in the hash table
+      * 2; // hash tables need to be oversized to avoid collisions, assume 2x capacity
+
+  /**
+   * Returned by {@link #get} when the cache could not be looked up because
+   * another thread held its lock.
+   */
+  static final byte[] CONTENDED = new byte[0];
+
+  private static volatile StoredFieldsChunkCache DEFAULT;
+
+  /**
+   * Expert: Get the cache that is used by stored fields readers upon opening,
+   * or {@code null} if caching is disabled, which is the default.
+   */
+  public static StoredFieldsChunkCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Expert: Set the cache to use for stored fields readers that are opened
+   * after this call, or {@code null} in order to disable caching.
+   * <p><b>NOTE</b>: the stored fields reader is part of the segment core,
+   * which near-real-time reopens share with the previous reader. Segments
+   * that are already open thus keep using the cache they were opened with
+   * until they are merged away or all readers on them are closed; only new
+   * segments use the new cache.
+   */
+  public static void setDefault(StoredFieldsChunkCache cache) {
+    DEFAULT = cache;
+  }
+
+  private final long maxRamBytesUsed;
+  private final Map<Key, byte[]> cache;
+  private final ReentrantLock lock;
+
+  // these variables are volatile so that we do not need to sync reads
+  // but increments need to be performed under the lock
+  private volatile long ramBytesUsed;
+  private volatile long hitCount;
+  private volatile long missCount;
+  private volatile long cacheCount;
+  private volatile long cacheSize;
+  private final AtomicLong lockContentionCount = new AtomicLong();
+
+  /**
+   * Create a new instance that will use at most <code>maxRamBytesUsed</code>
+   * bytes of memory.
+   */
+  public StoredFieldsChunkCache(long maxRamBytesUsed) {
+    if (maxRamBytesUsed < 0) {
+      throw new IllegalArgumentException("maxRamBytesUsed must be >= 0, got " + maxRamBytesUsed);
+    }
+    this.maxRamBytesUsed = maxRamBytesUsed;
+    cache = new LinkedHashMap<>(16, 0.75f, true);
+    lock = new ReentrantLock();
+  }
+
+  private static long ramBytesUsed(int chunkLength) {
+    return ENTRY_RAM_BYTES_USED + RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + chunkLength);
+  }
+
+  /**
+   * Return whether a decompressed chunk of <code>chunkLength</code> bytes
+   * would fit in this cache.
+   */
+  boolean mayCache(int chunkLength) {
+    return ramBytesUsed(chunkLength) <= maxRamBytesUsed;
+  }
+
+  /**
+   * Return the decompressed chunk that starts at <code>startPointer</code> in
+   * the segment that is identified by <code>coreKey</code>, {@code null}
+   * if it is not cached, or {@link #CONTENDED} if another thread holds the
+   * lock of this cache.
+   */
+  byte[] get(Object coreKey, long startPointer) {
+    if (lock.tryLock() == false) {
+      // do not wait for other threads, decompressing is cheaper
+      lockContentionCount.incrementAndGet();
+      return CONTENDED;
+    }
+    try {
+      final byte[] chunk = cache.get(new Key(coreKey, startPointer));
+      if (chunk == null) {
+        missCount += 1;
+      } else {
+        hitCount += 1;
+      }
+      return chunk;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Cache the decompressed chunk that starts at <code>startPointer</code> in
+   * the segment that is identified by <code>coreKey</code>.
+   */
+  void put(Object coreKey, long startPointer, byte[] chunk) {
+    if (mayCache(chunk.length) == false) {
+      return;
+    }
+    final long entryRamBytesUsed = ramBytesUsed(chunk.length);
+    if (lock.tryLock() == false) {
+      lockContentionCount.incrementAndGet();
+      return;
+    }
+    try {
+      final byte[] previous = cache.put(new Key(coreKey, startPointer), chunk);
+      if (previous == null) {
+        cacheCount += 1;
+        cacheSize += 1;
+        ramBytesUsed += entryRamBytesUsed;
+      } else {
+        // another clone decompressed the same chunk concurrently
+        ramBytesUsed += entryRamBytesUsed - ramBytesUsed(previous.length);
+      }
+      evictIfNecessary();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void evictIfNecessary() {
+    assert lock.isHeldByCurrentThread();
+    for (Iterator<byte[]> iterator = cache.values().iterator(); ramBytesUsed > maxRamBytesUsed && iterator.hasNext(); ) {
+      final byte[] chunk = iterator.next();
+      iterator.remove();
+      onEviction(chunk);
+    }
+  }
+
+  private void onEviction(byte[] chunk) {
+    cacheSize -= 1;
+    ramBytesUsed -= ramBytesUsed(chunk.length);
+  }
+
+  /**
+   * Remove all cache entries for the given core cache key.
+   */
+  public void clearCoreCacheKey(Object coreKey) {
+    lock.lock();
+    try {
+      for (Iterator<Map.Entry<Key, byte[]>> iterator = cache.entrySet().iterator(); iterator.hasNext(); ) {
+        final Map.Entry<Key, byte[]> entry = iterator.next();
+        if (entry.getKey().coreKey == coreKey) {
+          iterator.remove();
+          onEviction(entry.getValue());
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Clear the content of this cache.
+   */
+  public void clear() {
+    lock.lock();
+    try {
+      cache.clear();
+      cacheSize = 0;
+      ramBytesUsed = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return ramBytesUsed;
+  }
+
+  /**
+   * Return the total number of times that a chunk has been looked up in this
+   * cache.
+   * @see #getHitCount()
+   * @see #getMissCount()
+   */
+  public final long getTotalCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * Return the number of times that a decompressed chunk has been found in
+   * this cache.
+   */
+  public final long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Return the number of times that a chunk had to be decompressed because it
+   * was not contained in this cache.
+   */
+  public final long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Return the number of chunks that are currently stored in this cache.
+   */
+  public final long getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * Return the total number of chunks that have been put in this cache.
+   */
+  public final long getCacheCount() {
+    return cacheCount;
+  }
+
+  /**
+   * Return the number of chunks that have been removed from the cache either
+   * in order to stay under the maximum ram usage, because a segment has been
+   * closed or because the cache has been cleared.
+   */
+  public final long getEvictionCount() {
+    return getCacheCount() - getCacheSize();
+  }
+
+  /**
+   * Return the number of times that the cache could not be looked up or
+   * populated because its lock was held by another thread, in which case the
+   * document was decompressed without the cache.
+   */
+  public final long getLockContentionCount() {
+    return lockContentionCount.get();
+  }
+
+  private static final class Key {
+
+    final Object coreKey;
+    final long startPointer;
+
+    Key(Object coreKey, long startPointer) {
+      this.coreKey = coreKey;
+      this.startPointer = startPointer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == null || obj.getClass() != getClass()) {
+        return false;
+      }
+      final Key that = (Key) obj;
+      return coreKey == that.coreKey && startPointer == that.startPointer;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(coreKey) + Long.hashCode(startPointer);
+    }
+
+  }
+
+}
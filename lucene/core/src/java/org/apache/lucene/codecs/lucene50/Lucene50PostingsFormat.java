@@ -388,6 +388,7 @@ public final class Lucene50PostingsFormat extends PostingsFormat {
 
   private final int minTermBlockSize;
   private final int maxTermBlockSize;
+  private final BlockTreeTermsReader.FSTLoadMode fstLoadMode;
 
   /**
    * Fixed packed block size, number of integers encoded in 
@@ -407,10 +408,27 @@ public final class Lucene50PostingsFormat extends PostingsFormat {
    *  maxBlockSize} passed to block terms dictionary.
    *  @see BlockTreeTermsWriter#BlockTreeTermsWriter(SegmentWriteState,PostingsWriterBase,int,int) */
   public Lucene50PostingsFormat(int minTermBlockSize, int maxTermBlockSize) {
+    this(minTermBlockSize, maxTermBlockSize, null);
+  }
+
+  /** Creates {@code Lucene50PostingsFormat} with custom
+   *  values for {@code minBlockSize} and {@code
+   *  maxBlockSize} passed to block terms dictionary, and a custom
+   *  {@link BlockTreeTermsReader.FSTLoadMode} for the terms index, or
+   *  {@code null} to use the mode of the {@link BlockTreeTermsReader#FST_MODE_KEY}
+   *  reader attribute.
+   *  <p><b>NOTE</b>: segments are read with the format that is returned by
+   *  {@link PostingsFormat#forName}, so the load mode only applies if this
+   *  instance is used directly to read segments, e.g. by a custom codec.
+   *  Use the {@link BlockTreeTermsReader#FST_MODE_KEY} reader attribute to
+   *  change how a reader opens segments of the default codec.
+   *  @see BlockTreeTermsReader#BlockTreeTermsReader(PostingsReaderBase,SegmentReadState,BlockTreeTermsReader.FSTLoadMode) */
+  public Lucene50PostingsFormat(int minTermBlockSize, int maxTermBlockSize, BlockTreeTermsReader.FSTLoadMode fstLoadMode) {
     super("Lucene50");
     BlockTreeTermsWriter.validateSettings(minTermBlockSize, maxTermBlockSize);
     this.minTermBlockSize = minTermBlockSize;
     this.maxTermBlockSize = maxTermBlockSize;
+    this.fstLoadMode = fstLoadMode;
   }
 
   @Override
@@ -442,7 +460,12 @@ public final class Lucene50PostingsFormat extends PostingsFormat {
     PostingsReaderBase postingsReader = new Lucene50PostingsReader(state);
     boolean success = false;
     try {
-      FieldsProducer ret = new BlockTreeTermsReader(postingsReader, state);
+      FieldsProducer ret;
+      if (fstLoadMode == null) {
+        ret = new BlockTreeTermsReader(postingsReader, state);
+      } else {
+        ret = new BlockTreeTermsReader(postingsReader, state, fstLoadMode);
+      }
       success = true;
       return ret;
     } finally {
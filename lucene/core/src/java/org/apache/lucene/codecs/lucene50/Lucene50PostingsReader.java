@@ -57,6 +57,9 @@ public final class Lucene50PostingsReader extends PostingsReaderBase {
 
   private static final long BASE_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Lucene50PostingsReader.class);
 
+  /** Maximum number of bytes of doc IDs and freqs to prefetch per term. */
+  static final long MAX_PREFETCH_BYTES = 1 << 18;
+
   private final IndexInput docIn;
   private final IndexInput posIn;
   private final IndexInput payIn;
@@ -140,6 +143,26 @@ public final class Lucene50PostingsReader extends PostingsReaderBase {
     }
   }
 
+  /**
+   * Hint that the doc IDs and freqs of the given term are about to be read,
+   * so that the postings of all terms of a query can be loaded concurrently
+   * rather than one after the other as the query advances them.
+   */
+  static void prefetchDocs(IndexInput docIn, IntBlockTermState termState) throws IOException {
+    if (docIn.isPrefetchEnabled() == false) {
+      return;
+    }
+    final long length;
+    if (termState.skipOffset != -1) {
+      // skip data is written right after the doc and freq blocks
+      length = termState.skipOffset;
+    } else {
+      // at most one vInt doc delta and one vInt freq per doc
+      length = termState.docFreq * 2L * 5;
+    }
+    docIn.prefetch(termState.docStartFP, Math.min(Math.min(length, MAX_PREFETCH_BYTES), docIn.length() - termState.docStartFP));
+  }
+
   @Override
   public BlockTermState newTermState() {
     return new IntBlockTermState();
@@ -304,6 +327,7 @@ public final class Lucene50PostingsReader extends PostingsReaderBase {
           docIn = startDocIn.clone();
         }
         docIn.seek(docTermStartFP);
+        prefetchDocs(docIn, termState);
       }
 
       doc = -1;
@@ -391,6 +415,36 @@ public final class Lucene50PostingsReader extends PostingsReaderBase {
       return doc;
     }
 
+    @Override
+    public int nextDocs(int[] docs, int[] freqs) throws IOException {
+      if (docUpto == docFreq) {
+        doc = NO_MORE_DOCS;
+        return 0;
+      }
+      if (docBufferUpto == BLOCK_SIZE) {
+        refillDocs();
+      }
+
+      // copy what remains in the current block, the buffer only contains
+      // docFreq - docUpto documents if this is the last block
+      final int count = Math.min(docs.length, Math.min(BLOCK_SIZE - docBufferUpto, docFreq - docUpto));
+      int accum = this.accum;
+      for (int i = 0; i < count; ++i) {
+        accum += docDeltaBuffer[docBufferUpto + i];
+        docs[i] = accum;
+      }
+      if (freqs != null) {
+        System.arraycopy(freqBuffer, docBufferUpto, freqs, 0, count);
+      }
+      docBufferUpto += count;
+      docUpto += count;
+
+      this.accum = accum;
+      doc = accum;
+      freq = freqBuffer[docBufferUpto - 1];
+      return count;
+    }
+
     @Override
     public int advance(int target) throws IOException {
       // TODO: make frq block load lazy/skippable
@@ -559,6 +613,7 @@ public final class Lucene50PostingsReader extends PostingsReaderBase {
           docIn = startDocIn.clone();
         }
         docIn.seek(docTermStartFP);
+        prefetchDocs(docIn, termState);
       }
       posPendingFP = posTermStartFP;
       posPendingCount = 0;
@@ -931,6 +986,7 @@ public final class Lucene50PostingsReader extends PostingsReaderBase {
           docIn = startDocIn.clone();
         }
         docIn.seek(docTermStartFP);
+        prefetchDocs(docIn, termState);
       }
       posPendingFP = posTermStartFP;
       payPendingFP = payTermStartFP;
@@ -22,6 +22,8 @@ import java.io.IOException;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.RandomAccessInput;
+import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.RoaringDocIdSet;
@@ -45,20 +47,41 @@ import org.apache.lucene.util.RoaringDocIdSet;
  * <p>Only ranges that contain at least one value are encoded.
  * <p>This implementation uses 6 bytes per document in the worst-case, which happens
  * in the case that all ranges contain exactly one document.
+ * <p>Optionally, a jump table gives the offset and the index of the first
+ * document of every range so that advancing across many ranges does not need
+ * to read the headers of the skipped ranges, and {@code DENSE} ranges start with
+ * the number of documents that precede every group of 512 documents of the range
+ * so that computing the index of a document does not need to count bits from
+ * the start of the range.
  * @lucene.internal
  */
 final class IndexedDISI extends DocIdSetIterator {
 
   static final int MAX_ARRAY_LENGTH = (1 << 12) - 1;
 
-  private static void flush(int block, FixedBitSet buffer, int cardinality, IndexOutput out) throws IOException {
+  // number of longs of a DENSE bit set per entry of the rank
+  private static final int DENSE_RANK_SHIFT = 3;
+  // number of bytes of the rank of DENSE blocks
+  private static final int DENSE_RANK_BYTES = (1024 >>> DENSE_RANK_SHIFT) * Short.BYTES;
+
+  private static void flush(int block, FixedBitSet buffer, int cardinality, IndexOutput out, boolean denseRank) throws IOException {
     assert block >= 0 && block < 65536;
     out.writeShort((short) block);
     assert cardinality > 0 && cardinality <= 65536;
     out.writeShort((short) (cardinality - 1));
     if (cardinality > MAX_ARRAY_LENGTH) {
       if (cardinality != 65536) { // all docs are set
-        for (long word : buffer.getBits()) {
+        final long[] words = buffer.getBits();
+        if (denseRank) {
+          int rank = 0;
+          for (int i = 0; i < words.length; ++i) {
+            if ((i & ((1 << DENSE_RANK_SHIFT) - 1)) == 0) {
+              out.writeShort((short) rank);
+            }
+            rank += Long.bitCount(words[i]);
+          }
+        }
+        for (long word : words) {
           out.writeLong(word);
         }
       }
@@ -71,15 +94,35 @@ final class IndexedDISI extends DocIdSetIterator {
   }
 
   static void writeBitSet(DocIdSetIterator it, IndexOutput out) throws IOException {
+    writeBitSet(it, out, false);
+  }
+
+  /**
+   * Write the doc IDs of the given iterator. If {@code jumpTable} is true, the
+   * ranks of DENSE blocks and a jump table are written as well, and the data
+   * must be read with jump tables enabled.
+   */
+  static void writeBitSet(DocIdSetIterator it, IndexOutput out, boolean jumpTable) throws IOException {
+    final long origin = out.getFilePointer();
+    // for every block: the index of its first doc and its offset, or those of
+    // the next block that has docs
+    int[] jumps = new int[0];
+    int numJumps = 0;
+    int index = 0;
     int i = 0;
     final FixedBitSet buffer = new FixedBitSet(1<<16);
     int prevBlock = -1;
     for (int doc = it.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = it.nextDoc()) {
       final int block = doc >>> 16;
       if (prevBlock != -1 && block != prevBlock) {
-        flush(prevBlock, buffer, i, out);
+        if (jumpTable) {
+          jumps = ArrayUtil.grow(jumps, (prevBlock + 1) * 2);
+          numJumps = addJumps(jumps, numJumps, prevBlock, index, out.getFilePointer() - origin);
+        }
+        flush(prevBlock, buffer, i, out, jumpTable);
         buffer.clear(0, buffer.length());
         prevBlock = block;
+        index += i;
         i = 0;
       }
       buffer.set(doc & 0xFFFF);
@@ -87,21 +130,65 @@ final class IndexedDISI extends DocIdSetIterator {
       prevBlock = block;
     }
     if (i > 0) {
-      flush(prevBlock, buffer, i, out);
+      if (jumpTable) {
+        jumps = ArrayUtil.grow(jumps, (prevBlock + 1) * 2);
+        numJumps = addJumps(jumps, numJumps, prevBlock, index, out.getFilePointer() - origin);
+      }
+      flush(prevBlock, buffer, i, out, jumpTable);
       buffer.clear(0, buffer.length());
+      index += i;
     }
     // NO_MORE_DOCS is stored explicitly
+    final long noMoreDocsOffset = out.getFilePointer() - origin;
     buffer.set(DocIdSetIterator.NO_MORE_DOCS & 0xFFFF);
-    flush(DocIdSetIterator.NO_MORE_DOCS >>> 16, buffer, 1, out);
+    flush(DocIdSetIterator.NO_MORE_DOCS >>> 16, buffer, 1, out, jumpTable);
+
+    if (jumpTable) {
+      // blocks after the last block that has docs jump to NO_MORE_DOCS
+      jumps = ArrayUtil.grow(jumps, numJumps * 2 + 2);
+      jumps[numJumps * 2] = index;
+      jumps[numJumps * 2 + 1] = Math.toIntExact(noMoreDocsOffset);
+      numJumps++;
+      for (int j = 0; j < numJumps * 2; ++j) {
+        out.writeInt(jumps[j]);
+      }
+      out.writeInt(numJumps);
+    }
+  }
+
+  // make blocks up to the given block jump to the given block
+  private static int addJumps(int[] jumps, int numJumps, int block, int index, long offset) {
+    for (; numJumps <= block; ++numJumps) {
+      jumps[numJumps * 2] = index;
+      jumps[numJumps * 2 + 1] = Math.toIntExact(offset);
+    }
+    return numJumps;
   }
 
   /** The slice that stores the {@link DocIdSetIterator}. */
   private final IndexInput slice;
   private final long cost;
+  // random access to the jump table and to the ranks of DENSE blocks, or null
+  private final RandomAccessInput jumpTable;
+  private final long jumpTableOffset;
+  private final int jumpTableEntryCount;
 
   IndexedDISI(IndexInput in, long offset, long length, long cost) throws IOException {
+    this(in, offset, length, cost, false);
+  }
+
+  IndexedDISI(IndexInput in, long offset, long length, long cost, boolean jumpTable) throws IOException {
     this.slice = in.slice("docs", offset, length);
     this.cost = cost;
+    if (jumpTable) {
+      this.jumpTable = in.randomAccessSlice(offset, length);
+      jumpTableEntryCount = this.jumpTable.readInt(length - Integer.BYTES);
+      jumpTableOffset = length - Integer.BYTES - (long) jumpTableEntryCount * 2 * Integer.BYTES;
+    } else {
+      this.jumpTable = null;
+      jumpTableOffset = -1;
+      jumpTableEntryCount = 0;
+    }
   }
 
   private int block = -1;
@@ -120,6 +207,11 @@ final class IndexedDISI extends DocIdSetIterator {
   private int wordIndex = -1;
   // number of one bits encountered so far, including those of `word`
   private int numberOfOnes;
+  // index of the first doc of the block
+  private int denseOrigoIndex;
+  // offsets of the rank and of the bit set of the block
+  private long denseRankOffset;
+  private long denseBitmapOffset;
 
   // ALL variables
   private int gap;
@@ -157,6 +249,17 @@ final class IndexedDISI extends DocIdSetIterator {
   }
 
   private void advanceBlock(int targetBlock) throws IOException {
+    if (jumpTable != null && targetBlock - block > 65536) {
+      // skipping at least one block: jump directly to the first block that is
+      // greater than or equal to the target block
+      final int entry = Math.min(targetBlock >>> 16, jumpTableEntryCount - 1);
+      final long entryOffset = jumpTableOffset + (long) entry * 2 * Integer.BYTES;
+      nextBlockIndex = jumpTable.readInt(entryOffset) - 1;
+      slice.seek(jumpTable.readInt(entryOffset + Integer.BYTES));
+      readBlockHeader();
+      assert block >= targetBlock;
+      return;
+    }
     do {
       slice.seek(blockEnd);
       readBlockHeader();
@@ -178,9 +281,15 @@ final class IndexedDISI extends DocIdSetIterator {
       gap = block - index - 1;
     } else {
       method = Method.DENSE;
-      blockEnd = slice.getFilePointer() + (1 << 13);
+      if (jumpTable != null) {
+        denseRankOffset = slice.getFilePointer();
+        slice.seek(denseRankOffset + DENSE_RANK_BYTES);
+      }
+      denseBitmapOffset = slice.getFilePointer();
+      blockEnd = denseBitmapOffset + (1 << 13);
       wordIndex = -1;
       numberOfOnes = index + 1;
+      denseOrigoIndex = numberOfOnes;
     }
   }
 
@@ -244,6 +353,7 @@ final class IndexedDISI extends DocIdSetIterator {
       boolean advanceWithinBlock(IndexedDISI disi, int target) throws IOException {
         final int targetInBlock = target & 0xFFFF;
         final int targetWordIndex = targetInBlock >>> 6;
+        rankSkip(disi, targetWordIndex);
         for (int i = disi.wordIndex + 1; i <= targetWordIndex; ++i) {
           disi.word = disi.slice.readLong();
           disi.numberOfOnes += Long.bitCount(disi.word);
@@ -272,6 +382,7 @@ final class IndexedDISI extends DocIdSetIterator {
       boolean advanceExactWithinBlock(IndexedDISI disi, int target) throws IOException {
         final int targetInBlock = target & 0xFFFF;
         final int targetWordIndex = targetInBlock >>> 6;
+        rankSkip(disi, targetWordIndex);
         for (int i = disi.wordIndex + 1; i <= targetWordIndex; ++i) {
           disi.word = disi.slice.readLong();
           disi.numberOfOnes += Long.bitCount(disi.word);
@@ -282,6 +393,20 @@ final class IndexedDISI extends DocIdSetIterator {
         disi.index = disi.numberOfOnes - Long.bitCount(leftBits);
         return (leftBits & 1L) != 0;
       }
+
+      /** Use the rank of the block, if any, to skip over words that precede the target word. */
+      private void rankSkip(IndexedDISI disi, int targetWordIndex) throws IOException {
+        final int rankIndex = targetWordIndex >>> DENSE_RANK_SHIFT;
+        final int rankWordIndex = rankIndex << DENSE_RANK_SHIFT;
+        if (disi.jumpTable == null || rankWordIndex <= disi.wordIndex + 1) {
+          // reading words sequentially is as fast
+          return;
+        }
+        final int rank = Short.toUnsignedInt(disi.jumpTable.readShort(disi.denseRankOffset + rankIndex * Short.BYTES));
+        disi.numberOfOnes = disi.denseOrigoIndex + rank;
+        disi.wordIndex = rankWordIndex - 1;
+        disi.slice.seek(disi.denseBitmapOffset + rankWordIndex * Long.BYTES);
+      }
     },
     ALL {
       @Override
@@ -116,7 +116,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
   }
 
   private static class MinMaxTracker {
-    long min, max, numValues, spaceInBits;
+    long min, max, gcd, numValues, spaceInBits;
 
     MinMaxTracker() {
       reset();
@@ -126,11 +126,22 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
     private void reset() {
       min = Long.MAX_VALUE;
       max = Long.MIN_VALUE;
+      gcd = 0;
       numValues = 0;
     }
 
     /** Accumulate a new value. */
     void update(long v) {
+      if (gcd != 1) {
+        if (v < Long.MIN_VALUE / 2 || v > Long.MAX_VALUE / 2) {
+          // in that case v - minValue might overflow and make the GCD computation return
+          // wrong results. Since these extreme values are unlikely, we just discard
+          // GCD computation for them
+          gcd = 1;
+        } else if (numValues != 0) { // minValue needs to be set first
+          gcd = MathUtil.gcd(gcd, v - min);
+        }
+      }
       min = Math.min(min, v);
       max = Math.max(max, v);
       ++numValues;
@@ -139,7 +150,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
     /** Update the required space. */
     void finish() {
       if (max > min) {
-        spaceInBits += DirectWriter.unsignedBitsRequired(max - min) * numValues;
+        spaceInBits += DirectWriter.unsignedBitsRequired((max - min) / gcd) * numValues;
       }
     }
 
@@ -155,23 +166,11 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
     int numDocsWithValue = 0;
     MinMaxTracker minMax = new MinMaxTracker();
     MinMaxTracker blockMinMax = new MinMaxTracker();
-    long gcd = 0;
     Set<Long> uniqueValues = new HashSet<>();
     for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
       for (int i = 0, count = values.docValueCount(); i < count; ++i) {
         long v = values.nextValue();
 
-        if (gcd != 1) {
-          if (v < Long.MIN_VALUE / 2 || v > Long.MAX_VALUE / 2) {
-            // in that case v - minValue might overflow and make the GCD computation return
-            // wrong results. Since these extreme values are unlikely, we just discard
-            // GCD computation for them
-            gcd = 1;
-          } else if (minMax.numValues != 0) { // minValue needs to be set first
-            gcd = MathUtil.gcd(gcd, v - minMax.min);
-          }
-        }
-
         minMax.update(v);
         blockMinMax.update(v);
         if (blockMinMax.numValues == NUMERIC_BLOCK_SIZE) {
@@ -194,6 +193,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
     final long numValues = minMax.numValues;
     long min = minMax.min;
     final long max = minMax.max;
+    long gcd = minMax.gcd;
     assert blockMinMax.spaceInBits <= minMax.spaceInBits;
 
     if (numDocsWithValue == 0) {
@@ -206,7 +206,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
       long offset = data.getFilePointer();
       meta.writeLong(offset);
       values = valuesProducer.getSortedNumeric(field);
-      IndexedDISI.writeBitSet(values, data);
+      IndexedDISI.writeBitSet(values, data, true);
       meta.writeLong(data.getFilePointer() - offset);
     }
 
@@ -258,7 +258,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
     long startOffset = data.getFilePointer();
     meta.writeLong(startOffset);
     if (doBlocks) {
-      writeValuesMultipleBlocks(valuesProducer.getSortedNumeric(field), gcd);
+      writeValuesMultipleBlocks(valuesProducer.getSortedNumeric(field));
     } else if (numBitsPerValue != 0) {
       writeValuesSingleBlock(valuesProducer.getSortedNumeric(field), numValues, numBitsPerValue, min, gcd, encode);
     }
@@ -283,7 +283,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
     writer.finish();
   }
  
-  private void writeValuesMultipleBlocks(SortedNumericDocValues values, long gcd) throws IOException {
+  private void writeValuesMultipleBlocks(SortedNumericDocValues values) throws IOException {
     final long[] buffer = new long[NUMERIC_BLOCK_SIZE];
     final GrowableByteArrayDataOutput encodeBuffer = new GrowableByteArrayDataOutput(NUMERIC_BLOCK_SIZE);
     int upTo = 0;
@@ -291,31 +291,31 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
       for (int i = 0, count = values.docValueCount(); i < count; ++i) {
         buffer[upTo++] = values.nextValue();
         if (upTo == NUMERIC_BLOCK_SIZE) {
-          writeBlock(buffer, NUMERIC_BLOCK_SIZE, gcd, encodeBuffer);
+          writeBlock(buffer, NUMERIC_BLOCK_SIZE, encodeBuffer);
           upTo = 0;
         }
       }
     }
     if (upTo > 0) {
-      writeBlock(buffer, upTo, gcd, encodeBuffer);
+      writeBlock(buffer, upTo, encodeBuffer);
     }
   }
 
-  private void writeBlock(long[] values, int length, long gcd, GrowableByteArrayDataOutput buffer) throws IOException {
+  private void writeBlock(long[] values, int length, GrowableByteArrayDataOutput buffer) throws IOException {
     assert length > 0;
-    long min = values[0];
-    long max = values[0];
-    for (int i = 1; i < length; ++i) {
-      final long v = values[i];
-      assert Math.floorMod(values[i] - min, gcd) == 0;
-      min = Math.min(min, v);
-      max = Math.max(max, v);
+    final MinMaxTracker minMax = new MinMaxTracker();
+    for (int i = 0; i < length; ++i) {
+      minMax.update(values[i]);
     }
+    final long min = minMax.min;
+    final long max = minMax.max;
     if (min == max) {
       data.writeByte((byte) 0);
       data.writeLong(min);
     } else {
-      final int bitsPerValue = DirectWriter.unsignedBitsRequired(max - min);
+      // every block has its own GCD so that an outlier only affects the compression of its block
+      final long gcd = minMax.gcd;
+      final int bitsPerValue = DirectWriter.unsignedBitsRequired((max - min) / gcd);
       buffer.reset();
       assert buffer.getPosition() == 0;
       final DirectWriter w = DirectWriter.getInstance(buffer, length, bitsPerValue);
@@ -325,6 +325,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
       w.finish();
       data.writeByte((byte) bitsPerValue);
       data.writeLong(min);
+      data.writeLong(gcd);
       data.writeInt(buffer.getPosition());
       data.writeBytes(buffer.getBytes(), buffer.getPosition());
     }
@@ -362,7 +363,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
       long offset = data.getFilePointer();
       meta.writeLong(offset);
       values = valuesProducer.getBinary(field);
-      IndexedDISI.writeBitSet(values, data);
+      IndexedDISI.writeBitSet(values, data, true);
       meta.writeLong(data.getFilePointer() - offset);
     }
 
@@ -411,7 +412,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
       long offset = data.getFilePointer();
       meta.writeLong(offset);
       values = valuesProducer.getSorted(field);
-      IndexedDISI.writeBitSet(values, data);
+      IndexedDISI.writeBitSet(values, data, true);
       meta.writeLong(data.getFilePointer() - offset);
     }
 
@@ -586,7 +587,7 @@ final class Lucene70DocValuesConsumer extends DocValuesConsumer implements Close
       long offset = data.getFilePointer();
       meta.writeLong(offset);
       values = valuesProducer.getSortedSet(field);
-      IndexedDISI.writeBitSet(values, data);
+      IndexedDISI.writeBitSet(values, data, true);
       meta.writeLong(data.getFilePointer() - offset);
     }
 
@@ -57,6 +57,12 @@ import org.apache.lucene.util.packed.DirectWriter;
  *         using {@link IndexWriterConfig#setIndexSort(org.apache.lucene.search.Sort) index sorting}.
  * </ul>
  * <p>
+ * Blocks are followed by a jump table that gives the offset of every block and the index of
+ * its first document, so that advancing to a far block is performed in constant time instead of
+ * reading the headers of all blocks in-between. DENSE blocks also start with the number of
+ * documents that precede every group of 512 documents in the block, so that computing the index
+ * of a document only needs to count bits of at most 8 longs.
+ * <p>
  * Then the five per-document value types (Numeric,Binary,Sorted,SortedSet,SortedNumeric) are
  * encoded using the following strategies:
  * <p>
@@ -74,6 +80,9 @@ import org.apache.lucene.util.packed.DirectWriter;
  *        as blocks of bitpacked integers, encoding the deviation from the expected delta.
  *    <li>Const-compressed: when there is only one possible value, no per-document data is needed and
  *        this value is encoded alone.
+ *    <li>Block-compressed: when it saves at least 10% of the space, values are split into blocks of
+ *        16384 values that record their own minimum value, GCD and number of bits per value, so that
+ *        a few outliers only increase the number of bits per value of the blocks that contain them.
  * </ul>
  * <p>
  * {@link DocValuesType#BINARY BINARY}:
@@ -137,7 +146,9 @@ public final class Lucene70DocValuesFormat extends DocValuesFormat {
   static final String META_CODEC = "Lucene70DocValuesMetadata";
   static final String META_EXTENSION = "dvm";
   static final int VERSION_START = 0;
-  static final int VERSION_CURRENT = VERSION_START;
+  static final int VERSION_JUMP_TABLES = 1;
+  static final int VERSION_BLOCK_GCD = 2;
+  static final int VERSION_CURRENT = VERSION_BLOCK_GCD;
 
   // indicates docvalues type
   static final byte NUMERIC = 0;
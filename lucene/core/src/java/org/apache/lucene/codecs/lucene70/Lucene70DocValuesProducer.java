@@ -57,6 +57,9 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
   private long ramBytesUsed;
   private final IndexInput data;
   private final int maxDoc;
+  // whether docs with a value have jump tables
+  private final boolean jumpTables;
+  private final boolean blockGCDs;
 
   /** expert: instantiates a new reader */
   Lucene70DocValuesProducer(SegmentReadState state, String dataCodec, String dataExtension, String metaCodec, String metaExtension) throws IOException {
@@ -95,6 +98,8 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       if (version != version2) {
         throw new CorruptIndexException("Format versions mismatch: meta=" + version + ", data=" + version2, data);
       }
+      jumpTables = version >= Lucene70DocValuesFormat.VERSION_JUMP_TABLES;
+      blockGCDs = version >= Lucene70DocValuesFormat.VERSION_BLOCK_GCD;
 
       // NOTE: data file is too costly to verify checksum against all the bytes on open,
       // but for now we at least verify proper structure of the checksum footer: which looks
@@ -386,6 +391,48 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
 
   }
 
+  /**
+   * Wraps the values of a dense field in order to decode them in bulk when
+   * documents are visited sequentially, which is the typical access pattern of
+   * sorting, faceting or function queries. Other accesses, including forward
+   * jumps, are served one value at a time so that sparse iteration does not
+   * decode values that are never read.
+   */
+  private static final class BulkLongValues extends LongValues {
+
+    private static final int BUFFER_SIZE = 64;
+
+    final LongValues in;
+    final long numValues;
+    final long[] buffer = new long[BUFFER_SIZE];
+    // values in [bufferStart, bufferEnd) are in the buffer
+    long bufferStart, bufferEnd;
+
+    BulkLongValues(LongValues in, long numValues) {
+      this.in = in;
+      this.numValues = numValues;
+    }
+
+    @Override
+    public long get(long index) {
+      if (index >= bufferStart && index < bufferEnd) {
+        return buffer[(int) (index - bufferStart)];
+      }
+      if (index == bufferEnd) {
+        // sequential access: refill the buffer
+        final int len = (int) Math.min(BUFFER_SIZE, numValues - index);
+        in.get(index, buffer, 0, len);
+        bufferStart = index;
+        bufferEnd = index + len;
+        return buffer[0];
+      }
+      // non-sequential access, only buffer if the next read is the next value
+      bufferStart = bufferEnd = index + 1;
+      return in.get(index);
+    }
+
+  }
+
   private static abstract class SparseNumericDocValues extends NumericDocValues {
 
     final IndexedDISI disi;
@@ -438,10 +485,10 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
         if (entry.blockShift >= 0) {
           // dense but split into blocks of different bits per value
           final int shift = entry.blockShift;
-          final long mul = entry.gcd;
           final int mask = (1 << shift) - 1;
           return new DenseNumericDocValues(maxDoc) {
             int block = -1;
+            long mul = entry.gcd;
             long delta;
             long offset;
             long blockEndOffset;
@@ -460,6 +507,10 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
                   if (bitsPerValue == 0) {
                     blockEndOffset = offset;
                   } else {
+                    if (blockGCDs) {
+                      mul = slice.readLong(offset);
+                      offset += Long.BYTES;
+                    }
                     final int length = slice.readInt(offset);
                     offset += Integer.BYTES;
                     blockEndOffset = offset + length;
@@ -472,7 +523,7 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
             }
           };
         } else {
-          final LongValues values = DirectReader.getInstance(slice, entry.bitsPerValue);
+          final LongValues values = new BulkLongValues(DirectReader.getInstance(slice, entry.bitsPerValue), maxDoc);
           if (entry.table != null) {
             final long[] table = entry.table;
             return new DenseNumericDocValues(maxDoc) {
@@ -495,7 +546,7 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       }
     } else {
       // sparse
-      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numValues);
+      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numValues, jumpTables);
       if (entry.bitsPerValue == 0) {
         return new SparseNumericDocValues(disi) {
           @Override
@@ -508,10 +559,10 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
         if (entry.blockShift >= 0) {
           // sparse and split into blocks of different bits per value
           final int shift = entry.blockShift;
-          final long mul = entry.gcd;
           final int mask = (1 << shift) - 1;
           return new SparseNumericDocValues(disi) {
             int block = -1;
+            long mul = entry.gcd;
             long delta;
             long offset;
             long blockEndOffset;
@@ -531,6 +582,10 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
                   if (bitsPerValue == 0) {
                     blockEndOffset = offset;
                   } else {
+                    if (blockGCDs) {
+                      mul = slice.readLong(offset);
+                      offset += Long.BYTES;
+                    }
                     final int length = slice.readInt(offset);
                     offset += Integer.BYTES;
                     blockEndOffset = offset + length;
@@ -579,10 +634,10 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       final RandomAccessInput slice = data.randomAccessSlice(entry.valuesOffset, entry.valuesLength);
       if (entry.blockShift >= 0) {
         final int shift = entry.blockShift;
-        final long mul = entry.gcd;
         final long mask = (1L << shift) - 1;
         return new LongValues() {
           long block = -1;
+          long mul = entry.gcd;
           long delta;
           long offset;
           long blockEndOffset;
@@ -602,6 +657,10 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
                   if (bitsPerValue == 0) {
                     blockEndOffset = offset;
                   } else {
+                    if (blockGCDs) {
+                      mul = slice.readLong(offset);
+                      offset += Long.BYTES;
+                    }
                     final int length = slice.readInt(offset);
                     offset += Integer.BYTES;
                     blockEndOffset = offset + length;
@@ -766,7 +825,7 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       }
     } else {
       // sparse
-      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField);
+      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField, jumpTables);
       if (entry.minLength == entry.maxLength) {
         // fixed length
         final int length = entry.maxLength;
@@ -867,7 +926,7 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       };
     } else {
       // sparse
-      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField);
+      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField, jumpTables);
       return new BaseSortedDocValues(entry, data) {
 
         @Override
@@ -1230,7 +1289,7 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       };
     } else {
       // sparse
-      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField);
+      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField, jumpTables);
       return new SortedNumericDocValues() {
 
         boolean set;
@@ -1356,7 +1415,7 @@ final class Lucene70DocValuesProducer extends DocValuesProducer implements Close
       };
     } else {
       // sparse
-      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField);
+      final IndexedDISI disi = new IndexedDISI(data, entry.docsWithFieldOffset, entry.docsWithFieldLength, entry.numDocsWithField, jumpTables);
       return new BaseSortedSetDocValues(entry, data) {
 
         boolean set;
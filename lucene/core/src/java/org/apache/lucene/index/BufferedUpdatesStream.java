@@ -24,6 +24,10 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -34,11 +38,13 @@ import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InfoStream;
-import org.apache.lucene.util.PriorityQueue;
+import org.apache.lucene.util.ThreadInterruptedException;
 
 /* Tracks the stream of {@link BufferedDeletes}.
  * When DocumentsWriterPerThread flushes, its buffered
@@ -65,15 +71,14 @@ class BufferedUpdatesStream implements Accountable {
   // will be correct:
   private long nextGen = 1;
 
-  // used only by assert
-  private BytesRef lastDeleteTerm;
-
   private final InfoStream infoStream;
+  private final ExecutorService executor;
   private final AtomicLong bytesUsed = new AtomicLong();
   private final AtomicInteger numTerms = new AtomicInteger();
 
-  public BufferedUpdatesStream(InfoStream infoStream) {
+  public BufferedUpdatesStream(InfoStream infoStream, ExecutorService executor) {
     this.infoStream = infoStream;
+    this.executor = executor;
   }
 
   // Appends a new packet of buffered deletes to the stream,
@@ -149,7 +154,8 @@ class BufferedUpdatesStream implements Accountable {
   
   /** Resolves the buffered deleted Term/Query/docIDs, into
    *  actual deleted docIDs in the liveDocs MutableBits for
-   *  each SegmentReader. */
+   *  each SegmentReader.  Segments are resolved independently
+   *  of each other, concurrently if an executor was provided. */
   public synchronized ApplyDeletesResult applyDeletesAndUpdates(IndexWriter.ReaderPool pool, List<SegmentCommitInfo> infos) throws IOException {
     final long t0 = System.currentTimeMillis();
 
@@ -190,6 +196,12 @@ class BufferedUpdatesStream implements Accountable {
       infos = sortByDelGen(infos);
 
       CoalescedUpdates coalescedUpdates = null;
+      // For each segment, its segment private packet if any, and how many of
+      // the coalesced packets must be applied to it, or -1 if none:
+      final FrozenBufferedUpdates[] privatePackets = new FrozenBufferedUpdates[infos.size()];
+      final int[] coalescedPacketCounts = new int[infos.size()];
+      Arrays.fill(coalescedPacketCounts, -1);
+      boolean anySegmentUpdates = false;
       int infosIDX = infos.size()-1;
       int delIDX = updates.size()-1;
 
@@ -218,34 +230,13 @@ class BufferedUpdatesStream implements Accountable {
         } else if (packet != null && segGen == packet.delGen()) {
           assert packet.isSegmentPrivate : "Packet and Segments deletegen can only match on a segment private del packet gen=" + segGen;
 
-          if (segStates == null) {
-            segStates = openSegmentStates(pool, infos);
-          }
-
-          SegmentState segState = segStates[infosIDX];
-
           // Lock order: IW -> BD -> RP
           assert pool.infoIsLive(info);
-          int delCount = 0;
-          final DocValuesFieldUpdates.Container dvUpdates = new DocValuesFieldUpdates.Container();
-
-          // first apply segment-private deletes/updates
-          delCount += applyQueryDeletes(packet.queriesIterable(), segState);
-          applyDocValuesUpdates(Arrays.asList(packet.numericDVUpdates), segState, dvUpdates);
-          applyDocValuesUpdates(Arrays.asList(packet.binaryDVUpdates), segState, dvUpdates);
-
-          // ... then coalesced deletes/updates, so that if there is an update that appears in both, the coalesced updates (carried from
-          // updates ahead of the segment-privates ones) win:
+          privatePackets[infosIDX] = packet;
           if (coalescedUpdates != null) {
-            delCount += applyQueryDeletes(coalescedUpdates.queriesIterable(), segState);
-            applyDocValuesUpdatesList(coalescedUpdates.numericDVUpdates, segState, dvUpdates);
-            applyDocValuesUpdatesList(coalescedUpdates.binaryDVUpdates, segState, dvUpdates);
-          }
-          if (dvUpdates.any()) {
-            segState.rld.writeFieldUpdates(info.info.dir, dvUpdates);
+            coalescedPacketCounts[infosIDX] = coalescedUpdates.packetCount;
           }
-
-          totDelCount += delCount;
+          anySegmentUpdates = true;
 
           /*
            * Since we are on a segment private del packet we must not
@@ -257,34 +248,32 @@ class BufferedUpdatesStream implements Accountable {
 
         } else {
           if (coalescedUpdates != null) {
-            if (segStates == null) {
-              segStates = openSegmentStates(pool, infos);
-            }
-            SegmentState segState = segStates[infosIDX];
             // Lock order: IW -> BD -> RP
             assert pool.infoIsLive(info);
-            int delCount = 0;
-            delCount += applyQueryDeletes(coalescedUpdates.queriesIterable(), segState);
-            DocValuesFieldUpdates.Container dvUpdates = new DocValuesFieldUpdates.Container();
-            applyDocValuesUpdatesList(coalescedUpdates.numericDVUpdates, segState, dvUpdates);
-            applyDocValuesUpdatesList(coalescedUpdates.binaryDVUpdates, segState, dvUpdates);
-            if (dvUpdates.any()) {
-              segState.rld.writeFieldUpdates(info.info.dir, dvUpdates);
-            }
-
-            totDelCount += delCount;
+            coalescedPacketCounts[infosIDX] = coalescedUpdates.packetCount;
+            anySegmentUpdates = true;
           }
 
           infosIDX--;
         }
       }
 
-      // Now apply all term deletes:
-      if (coalescedUpdates != null && coalescedUpdates.totalTermCount != 0) {
-        if (segStates == null) {
-          segStates = openSegmentStates(pool, infos);
+      final boolean anyTermDeletes = coalescedUpdates != null && coalescedUpdates.totalTermCount != 0;
+      if (anySegmentUpdates || anyTermDeletes) {
+        segStates = openSegmentStates(pool, infos);
+        applySegmentUpdates(segStates, privatePackets, coalescedUpdates, coalescedPacketCounts, anyTermDeletes);
+
+        // Modifying live docs and writing doc values updates require the
+        // IndexWriter lock, so this happens in the current thread:
+        for (int i = 0; i < segStates.length; i++) {
+          final SegmentState segState = segStates[i];
+          segState.applyDeletes();
+          if (segState.dvUpdates.any()) {
+            segState.rld.writeFieldUpdates(infos.get(i).info.dir, segState.dvUpdates);
+          }
+          totDelCount += segState.delCount;
+          totTermVisitedCount += segState.termVisitedCount;
         }
-        totTermVisitedCount += applyTermDeletes(coalescedUpdates, segStates);
       }
 
       assert checkDeleteStats();
@@ -311,6 +300,90 @@ class BufferedUpdatesStream implements Accountable {
     return result;
   }
 
+  /** Resolves deletes and updates of all segments, each segment in its own
+   *  task.  Tasks are submitted to the executor if there is one, and the
+   *  current thread runs tasks that did not start yet. */
+  private void applySegmentUpdates(SegmentState[] segStates, FrozenBufferedUpdates[] privatePackets,
+      CoalescedUpdates coalescedUpdates, int[] coalescedPacketCounts, boolean anyTermDeletes) throws IOException {
+    final long startNS = System.nanoTime();
+
+    final List<FutureTask<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < segStates.length; i++) {
+      final SegmentState segState = segStates[i];
+      final FrozenBufferedUpdates privatePacket = privatePackets[i];
+      final int coalescedPacketCount = coalescedPacketCounts[i];
+      if (privatePacket == null && coalescedPacketCount == -1 && anyTermDeletes == false) {
+        continue;
+      }
+      tasks.add(new FutureTask<>(() -> {
+        applySegmentUpdates(segState, privatePacket, coalescedUpdates, coalescedPacketCount, anyTermDeletes);
+        return null;
+      }));
+    }
+
+    if (executor != null) {
+      // the first task runs in the current thread
+      for (int i = 1; i < tasks.size(); ++i) {
+        try {
+          executor.execute(tasks.get(i));
+        } catch (RejectedExecutionException e) {
+          // the task will run in the current thread
+        }
+      }
+    }
+
+    // Wait for all tasks before rethrowing, since segment states get closed
+    // afterwards:
+    Throwable firstExc = null;
+    for (FutureTask<Void> task : tasks) {
+      // no-op for tasks that already started
+      task.run();
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        throw new ThreadInterruptedException(e);
+      } catch (ExecutionException e) {
+        if (firstExc == null) {
+          firstExc = e.getCause();
+        }
+      }
+    }
+    IOUtils.reThrow(firstExc);
+
+    if (infoStream.isEnabled("BD")) {
+      infoStream.message("BD",
+                         String.format(Locale.ROOT, "applySegmentUpdates took %.1f msec for %d segments, concurrent=%s",
+                                       (System.nanoTime()-startNS)/1000000.,
+                                       tasks.size(), executor != null));
+    }
+  }
+
+  /** Resolves the deletes and updates that apply to a single segment.  This
+   *  only modifies the given segment state so that it can run concurrently
+   *  with other segments. */
+  private static void applySegmentUpdates(SegmentState segState, FrozenBufferedUpdates privatePacket,
+      CoalescedUpdates coalescedUpdates, int coalescedPacketCount, boolean anyTermDeletes) throws IOException {
+    // first apply segment-private deletes/updates
+    if (privatePacket != null) {
+      segState.delCount += applyQueryDeletes(privatePacket.queriesIterable(), segState);
+      applyDocValuesUpdates(Arrays.asList(privatePacket.numericDVUpdates), segState, segState.dvUpdates);
+      applyDocValuesUpdates(Arrays.asList(privatePacket.binaryDVUpdates), segState, segState.dvUpdates);
+    }
+
+    // ... then coalesced deletes/updates, so that if there is an update that appears in both, the coalesced updates (carried from
+    // updates ahead of the segment-privates ones) win:
+    if (coalescedPacketCount != -1) {
+      segState.delCount += applyQueryDeletes(coalescedUpdates.queriesIterable(coalescedPacketCount), segState);
+      applyDocValuesUpdatesList(coalescedUpdates.numericDVUpdates.subList(0, coalescedPacketCount), segState, segState.dvUpdates);
+      applyDocValuesUpdatesList(coalescedUpdates.binaryDVUpdates.subList(0, coalescedPacketCount), segState, segState.dvUpdates);
+    }
+
+    // Now apply all term deletes:
+    if (anyTermDeletes) {
+      segState.termVisitedCount += applyTermDeletes(coalescedUpdates, segState);
+    }
+  }
+
   private List<SegmentCommitInfo> sortByDelGen(List<SegmentCommitInfo> infos) {
     infos = new ArrayList<>(infos);
     // Smaller delGens come first:
@@ -372,17 +445,52 @@ class BufferedUpdatesStream implements Accountable {
     final ReadersAndUpdates rld;
     final SegmentReader reader;
     final int startDelCount;
+    // live docs when the segment state was opened: segments are resolved
+    // without holding the IndexWriter lock, which is required in order to
+    // read or modify the live docs of ReadersAndUpdates
+    final Bits liveDocs;
+    final DocValuesFieldUpdates.Container dvUpdates = new DocValuesFieldUpdates.Container();
 
-    TermsEnum termsEnum;
-    PostingsEnum postingsEnum;
-    BytesRef term;
-    boolean any;
+    FixedBitSet deletedDocs;
+    long delCount;
+    long termVisitedCount;
 
     public SegmentState(IndexWriter.ReaderPool pool, SegmentCommitInfo info) throws IOException {
       rld = pool.get(info, true);
       startDelCount = rld.getPendingDeleteCount();
       reader = rld.getReader(IOContext.READ);
       delGen = info.getBufferedDeletesGen();
+      liveDocs = rld.getLiveDocs();
+    }
+
+    /** Returns true if the document is neither deleted nor about to be deleted. */
+    boolean isLive(int docID) {
+      return (liveDocs == null || liveDocs.get(docID))
+          && (deletedDocs == null || deletedDocs.get(docID) == false);
+    }
+
+    /** Marks the document as deleted, returns true if it was live. */
+    boolean delete(int docID) {
+      if (isLive(docID) == false) {
+        return false;
+      }
+      if (deletedDocs == null) {
+        deletedDocs = new FixedBitSet(reader.maxDoc());
+      }
+      deletedDocs.set(docID);
+      return true;
+    }
+
+    /** Applies deletes that have been resolved to the live docs, must be
+     *  called while holding the IndexWriter lock. */
+    void applyDeletes() throws IOException {
+      if (deletedDocs != null) {
+        rld.initWritableLiveDocs();
+        final DocIdSetIterator it = new BitSetIterator(deletedDocs, 0);
+        for (int docID = it.nextDoc(); docID != DocIdSetIterator.NO_MORE_DOCS; docID = it.nextDoc()) {
+          rld.delete(docID);
+        }
+      }
     }
 
     public void finish(IndexWriter.ReaderPool pool) throws IOException {
@@ -394,18 +502,6 @@ class BufferedUpdatesStream implements Accountable {
     }
   }
 
-  /** Does a merge sort by current term across all segments. */
-  static class SegmentQueue extends PriorityQueue<SegmentState> {
-    public SegmentQueue(int size) {
-      super(size);
-    }
-
-    @Override
-    protected boolean lessThan(SegmentState a, SegmentState b) {
-      return a.term.compareTo(b.term) < 0;
-    }
-  }
-
   /** Opens SegmentReader and inits SegmentState for each segment. */
   private SegmentState[] openSegmentStates(IndexWriter.ReaderPool pool, List<SegmentCommitInfo> infos) throws IOException {
     int numReaders = infos.size();
@@ -474,20 +570,16 @@ class BufferedUpdatesStream implements Accountable {
     return new ApplyDeletesResult(totDelCount > 0, gen, allDeleted);      
   }
 
-  /** Merge sorts the deleted terms and all segments to resolve terms to docIDs for deletion. */
-  private synchronized long applyTermDeletes(CoalescedUpdates updates, SegmentState[] segStates) throws IOException {
-
-    long startNS = System.nanoTime();
-
-    int numReaders = segStates.length;
+  /** Seeks the deleted terms in the segment to resolve them to docIDs for deletion. */
+  private static long applyTermDeletes(CoalescedUpdates updates, SegmentState segState) throws IOException {
 
     long delTermVisitedCount = 0;
-    long segTermVisitedCount = 0;
 
     FieldTermIterator iter = updates.termIterator();
 
     String field = null;
-    SegmentQueue queue = null;
+    TermsEnum termsEnum = null;
+    PostingsEnum postingsEnum = null;
 
     BytesRef term;
 
@@ -497,114 +589,52 @@ class BufferedUpdatesStream implements Accountable {
         // field changed
         field = iter.field();
 
-        queue = new SegmentQueue(numReaders);
-
-        long segTermCount = 0;
-        for(int i=0;i<numReaders;i++) {
-          SegmentState state = segStates[i];
-          Terms terms = state.reader.fields().terms(field);
-          if (terms != null) {
-            segTermCount += terms.size();
-            state.termsEnum = terms.iterator();
-            state.term = state.termsEnum.next();
-            if (state.term != null) {
-              queue.add(state);
-            }
-          }
+        Terms terms = segState.reader.fields().terms(field);
+        if (terms != null) {
+          termsEnum = terms.iterator();
+        } else {
+          termsEnum = null;
         }
-
-        assert checkDeleteTerm(null);
       }
 
-      assert checkDeleteTerm(term);
+      if (termsEnum == null) {
+        // no terms in this field
+        continue;
+      }
 
       delTermVisitedCount++;
 
       long delGen = iter.delGen();
 
-      while (queue.size() != 0) {
-
-        // Get next term merged across all segments
-        SegmentState state = queue.top();
-        segTermVisitedCount++;
-
-        int cmp = term.compareTo(state.term);
-
-        if (cmp < 0) {
-          break;
-        } else if (cmp == 0) {
-          // fall through
-        } else {
-          TermsEnum.SeekStatus status = state.termsEnum.seekCeil(term);
-          if (status == TermsEnum.SeekStatus.FOUND) {
-            // fallthrough
-          } else {
-            if (status == TermsEnum.SeekStatus.NOT_FOUND) {
-              state.term = state.termsEnum.term();
-              queue.updateTop();
-            } else {
-              // No more terms in this segment
-              queue.pop();
-            }
-
-            continue;
-          }
-        }
-
-        assert state.delGen != delGen;
+      assert segState.delGen != delGen;
 
-        if (state.delGen < delGen) {
+      if (segState.delGen < delGen && termsEnum.seekExact(term)) {
 
-          // we don't need term frequencies for this
-          final Bits acceptDocs = state.rld.getLiveDocs();
-          state.postingsEnum = state.termsEnum.postings(state.postingsEnum, PostingsEnum.NONE);
+        // we don't need term frequencies for this
+        postingsEnum = termsEnum.postings(postingsEnum, PostingsEnum.NONE);
 
-          assert state.postingsEnum != null;
+        assert postingsEnum != null;
 
-          while (true) {
-            final int docID = state.postingsEnum.nextDoc();
-            if (docID == DocIdSetIterator.NO_MORE_DOCS) {
-              break;
-            }
-            if (acceptDocs != null && acceptDocs.get(docID) == false) {
-              continue;
-            }
-            if (!state.any) {
-              state.rld.initWritableLiveDocs();
-              state.any = true;
-            }
-
-            // NOTE: there is no limit check on the docID
-            // when deleting by Term (unlike by Query)
-            // because on flush we apply all Term deletes to
-            // each segment.  So all Term deleting here is
-            // against prior segments:
-            state.rld.delete(docID);
+        while (true) {
+          final int docID = postingsEnum.nextDoc();
+          if (docID == DocIdSetIterator.NO_MORE_DOCS) {
+            break;
           }
-        }
 
-        state.term = state.termsEnum.next();
-        if (state.term == null) {
-          queue.pop();
-        } else {
-          queue.updateTop();
+          // NOTE: there is no limit check on the docID
+          // when deleting by Term (unlike by Query)
+          // because on flush we apply all Term deletes to
+          // each segment.  So all Term deleting here is
+          // against prior segments:
+          segState.delete(docID);
         }
       }
     }
 
-    if (infoStream.isEnabled("BD")) {
-      infoStream.message("BD",
-                         String.format(Locale.ROOT, "applyTermDeletes took %.1f msec for %d segments and %d packets; %d del terms visited; %d seg terms visited",
-                                       (System.nanoTime()-startNS)/1000000.,
-                                       numReaders,
-                                       updates.terms.size(),
-                                       delTermVisitedCount, segTermVisitedCount));
-    }
-
     return delTermVisitedCount;
   }
 
-  private synchronized void applyDocValuesUpdatesList(List<List<DocValuesUpdate>> updates, 
+  private static void applyDocValuesUpdatesList(List<List<DocValuesUpdate>> updates, 
       SegmentState segState, DocValuesFieldUpdates.Container dvUpdatesContainer) throws IOException {
     // we walk backwards through the segments, appending deletion packets to the coalesced updates, so we must apply the packets in reverse
     // so that newer packets override older ones:
@@ -614,7 +644,7 @@ class BufferedUpdatesStream implements Accountable {
   }
 
   // DocValues updates
-  private synchronized void applyDocValuesUpdates(List<DocValuesUpdate> updates, 
+  private static void applyDocValuesUpdates(List<DocValuesUpdate> updates, 
       SegmentState segState, DocValuesFieldUpdates.Container dvUpdatesContainer) throws IOException {
     Fields fields = segState.reader.fields();
 
@@ -665,7 +695,6 @@ class BufferedUpdatesStream implements Accountable {
 
       if (termsEnum.seekExact(term.bytes())) {
         // we don't need term frequencies for this
-        final Bits acceptDocs = segState.rld.getLiveDocs();
         postingsEnum = termsEnum.postings(postingsEnum, PostingsEnum.NONE);
 
         DocValuesFieldUpdates dvUpdates = dvUpdatesContainer.getUpdates(update.field, update.type);
@@ -677,7 +706,7 @@ class BufferedUpdatesStream implements Accountable {
           if (doc >= limit) {
             break; // no more docs that can be updated for this term
           }
-          if (acceptDocs != null && acceptDocs.get(doc) == false) {
+          if (segState.isLive(doc) == false) {
             continue;
           }
           dvUpdates.add(doc, update.value);
@@ -708,21 +737,12 @@ class BufferedUpdatesStream implements Accountable {
       final Scorer scorer = weight.scorer(readerContext);
       if (scorer != null) {
         final DocIdSetIterator it = scorer.iterator();
-        final Bits liveDocs = readerContext.reader().getLiveDocs();
         while (true)  {
           int doc = it.nextDoc();
           if (doc >= limit) {
             break;
           }
-          if (liveDocs != null && liveDocs.get(doc) == false) {
-            continue;
-          }
-
-          if (!segState.any) {
-            segState.rld.initWritableLiveDocs();
-            segState.any = true;
-          }
-          if (segState.rld.delete(doc)) {
+          if (segState.delete(doc)) {
             delCount++;
           }
         }
@@ -732,16 +752,6 @@ class BufferedUpdatesStream implements Accountable {
     return delCount;
   }
 
-  // used only by assert
-  private boolean checkDeleteTerm(BytesRef term) {
-    if (term != null) {
-      assert lastDeleteTerm == null || term.compareTo(lastDeleteTerm) >= 0: "lastTerm=" + lastDeleteTerm + " vs term=" + term;
-    }
-    // TODO: we re-use term now in our merged iterable, but we shouldn't clone, instead copy for this assert
-    lastDeleteTerm = term == null ? null : BytesRef.deepCopyOf(term);
-    return true;
-  }
-
   // only for assert
   private boolean checkDeleteStats() {
     int numTerms2 = 0;
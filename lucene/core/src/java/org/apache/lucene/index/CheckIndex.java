@@ -17,20 +17,33 @@
 package org.apache.lucene.index;
 
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.codecs.DocValuesProducer;
@@ -62,8 +75,10 @@ import org.apache.lucene.util.CommandLineUtil;
 import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.StringHelper;
 import org.apache.lucene.util.SuppressForbidden;
+import org.apache.lucene.util.ThreadInterruptedException;
 import org.apache.lucene.util.Version;
 import org.apache.lucene.util.automaton.Automata;
 import org.apache.lucene.util.automaton.CompiledAutomaton;
@@ -157,6 +172,12 @@ public final class CheckIndex implements Closeable {
     /** Holds the userData of the last commit in the index */
     public Map<String, String> userData;
 
+    /** Keys of the segments that passed checks or that were not checked
+     *  because a previous check verified them. Pass these keys to
+     *  {@link CheckIndex#setVerifiedSegments} in order to only check new or
+     *  modified segments next time. */
+    public List<String> verifiedSegments = new ArrayList<>();
+
     /** Holds the status of each segment in the index.
      *  See {@link #segmentInfos}.
      *
@@ -227,6 +248,15 @@ public final class CheckIndex implements Closeable {
 
       /** Status of index sort */
       public IndexSortStatus indexSortStatus;
+
+      /** True if this segment was not checked because a previous check
+       *  verified it.
+       *  @see CheckIndex#setVerifiedSegments */
+      public boolean previouslyVerified;
+
+      /** Key of this segment in {@link Status#verifiedSegments}, or null if
+       *  this segment failed checks. */
+      public String verificationKey;
     }
     
     /**
@@ -464,14 +494,46 @@ public final class CheckIndex implements Closeable {
   }
   
   /** 
-   * If true, only validate physical integrity for all files. 
-   * Note that the returned nested status objects (e.g. storedFieldStatus) will be null.  */
+   * If true, only validate physical integrity for all files, plus cheap
+   * structural checks of live docs and field infos. 
+   * Note that the other returned nested status objects (e.g. storedFieldStatus) will be null.  */
   public void setChecksumsOnly(boolean v) {
     checksumsOnly = v;
   }
   
   private boolean checksumsOnly;
 
+  private int threadCount = 1;
+
+  /** See {@link #setThreadCount}. */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Set the number of threads that check segments concurrently. Messages are
+   * still reported segment by segment, in order. Defaults to 1.
+   */
+  public void setThreadCount(int threadCount) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >= 1, got " + threadCount);
+    }
+    this.threadCount = threadCount;
+  }
+
+  private Set<String> verifiedSegments = Collections.emptySet();
+
+  /**
+   * Set the keys of segments that have been verified by a previous check, as
+   * reported by {@link Status#verifiedSegments}. These segments are not
+   * checked again unless their deletions or doc values updates changed. Keys
+   * of segments that passed checksums only are ignored unless
+   * {@link #setChecksumsOnly checksumsOnly} is set.
+   */
+  public void setVerifiedSegments(Collection<String> verifiedSegments) {
+    this.verifiedSegments = new HashSet<>(verifiedSegments);
+  }
+
   /** Set infoStream where messages should go.  If null, no
    *  messages are printed.  If verbose is true then more
    *  details are printed. */
@@ -514,7 +576,6 @@ public final class CheckIndex implements Closeable {
   public Status checkIndex(List<String> onlySegments) throws IOException {
     ensureOpen();
     long startNS = System.nanoTime();
-    NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);
     SegmentInfos sis = null;
     Status result = new Status();
     result.dir = dir;
@@ -631,6 +692,8 @@ public final class CheckIndex implements Closeable {
     result.newSegments.clear();
     result.maxSegmentName = -1;
 
+    final List<SegmentCommitInfo> segmentsToCheck = new ArrayList<>();
+    final List<Integer> segmentOrds = new ArrayList<>();
     for(int i=0;i<numSegments;i++) {
       final SegmentCommitInfo info = sis.info(i);
       int segmentName = Integer.parseInt(info.info.name.substring(1), Character.MAX_RADIX);
@@ -640,174 +703,51 @@ public final class CheckIndex implements Closeable {
       if (onlySegments != null && !onlySegments.contains(info.info.name)) {
         continue;
       }
-      Status.SegmentInfoStatus segInfoStat = new Status.SegmentInfoStatus();
-      result.segmentInfos.add(segInfoStat);
-      msg(infoStream, "  " + (1+i) + " of " + numSegments + ": name=" + info.info.name + " maxDoc=" + info.info.maxDoc());
-      segInfoStat.name = info.info.name;
-      segInfoStat.maxDoc = info.info.maxDoc();
-      
-      final Version version = info.info.getVersion();
-      if (info.info.maxDoc() <= 0) {
-        throw new RuntimeException("illegal number of documents: maxDoc=" + info.info.maxDoc());
-      }
-
-      int toLoseDocCount = info.info.maxDoc();
-
-      SegmentReader reader = null;
-      Sort previousIndexSort = null;
+      segmentsToCheck.add(info);
+      segmentOrds.add(i);
+    }
 
+    if (threadCount == 1 || segmentsToCheck.size() <= 1) {
+      for (int i = 0; i < segmentsToCheck.size(); i++) {
+        final SegmentCommitInfo info = segmentsToCheck.get(i);
+        addSegmentCheck(result, info, checkSegment(info, segmentOrds.get(i), numSegments, infoStream));
+      }
+    } else {
+      // segments are checked concurrently but reported in order: messages of
+      // each segment are buffered until all previous segments are reported
+      final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, segmentsToCheck.size()),
+          new NamedThreadFactory("CheckIndex"));
       try {
-        msg(infoStream, "    version=" + (version == null ? "3.0" : version));
-        msg(infoStream, "    id=" + StringHelper.idToString(info.info.getId()));
-        final Codec codec = info.info.getCodec();
-        msg(infoStream, "    codec=" + codec);
-        segInfoStat.codec = codec;
-        msg(infoStream, "    compound=" + info.info.getUseCompoundFile());
-        segInfoStat.compound = info.info.getUseCompoundFile();
-        msg(infoStream, "    numFiles=" + info.files().size());
-        Sort indexSort = info.info.getIndexSort();
-        if (indexSort != null) {
-          msg(infoStream, "    sort=" + indexSort);
-          if (previousIndexSort != null) {
-            if (previousIndexSort.equals(indexSort) == false) {
-              throw new RuntimeException("index sort changed from " + previousIndexSort + " to " + indexSort);
+        final List<Future<SegmentCheck>> futures = new ArrayList<>();
+        final List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        for (int i = 0; i < segmentsToCheck.size(); i++) {
+          final SegmentCommitInfo info = segmentsToCheck.get(i);
+          final int segmentOrd = segmentOrds.get(i);
+          final ByteArrayOutputStream output = new ByteArrayOutputStream();
+          final PrintStream segmentInfoStream = infoStream == null ? null : new PrintStream(output, true, IOUtils.UTF_8);
+          outputs.add(output);
+          futures.add(executor.submit(() -> checkSegment(info, segmentOrd, numSegments, segmentInfoStream)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+          final SegmentCheck check;
+          try {
+            check = futures.get(i).get();
+          } catch (InterruptedException ie) {
+            throw new ThreadInterruptedException(ie);
+          } catch (ExecutionException ee) {
+            IOUtils.reThrow(ee.getCause());
+            // never reached but javac disagrees:
+            return null;
+          } finally {
+            if (infoStream != null) {
+              infoStream.print(outputs.get(i).toString(IOUtils.UTF_8));
             }
-          } else {
-            previousIndexSort = indexSort;
           }
+          addSegmentCheck(result, segmentsToCheck.get(i), check);
         }
-        segInfoStat.numFiles = info.files().size();
-        segInfoStat.sizeMB = info.sizeInBytes()/(1024.*1024.);
-        msg(infoStream, "    size (MB)=" + nf.format(segInfoStat.sizeMB));
-        Map<String,String> diagnostics = info.info.getDiagnostics();
-        segInfoStat.diagnostics = diagnostics;
-        if (diagnostics.size() > 0) {
-          msg(infoStream, "    diagnostics = " + diagnostics);
-        }
-
-        if (!info.hasDeletions()) {
-          msg(infoStream, "    no deletions");
-          segInfoStat.hasDeletions = false;
-        } else {
-          msg(infoStream, "    has deletions [delGen=" + info.getDelGen() + "]");
-          segInfoStat.hasDeletions = true;
-          segInfoStat.deletionsGen = info.getDelGen();
-        }
-        
-        long startOpenReaderNS = System.nanoTime();
-        if (infoStream != null)
-          infoStream.print("    test: open reader.........");
-        reader = new SegmentReader(info, IOContext.DEFAULT);
-        msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startOpenReaderNS)));
-
-        segInfoStat.openReaderPassed = true;
-        
-        long startIntegrityNS = System.nanoTime();
-        if (infoStream != null)
-          infoStream.print("    test: check integrity.....");
-        reader.checkIntegrity();
-        msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startIntegrityNS)));
-
-        if (reader.maxDoc() != info.info.maxDoc()) {
-          throw new RuntimeException("SegmentReader.maxDoc() " + reader.maxDoc() + " != SegmentInfo.maxDoc " + info.info.maxDoc());
-        }
-        
-        final int numDocs = reader.numDocs();
-        toLoseDocCount = numDocs;
-        
-        if (reader.hasDeletions()) {
-          if (reader.numDocs() != info.info.maxDoc() - info.getDelCount()) {
-            throw new RuntimeException("delete count mismatch: info=" + (info.info.maxDoc() - info.getDelCount()) + " vs reader=" + reader.numDocs());
-          }
-          if ((info.info.maxDoc() - reader.numDocs()) > reader.maxDoc()) {
-            throw new RuntimeException("too many deleted docs: maxDoc()=" + reader.maxDoc() + " vs del count=" + (info.info.maxDoc() - reader.numDocs()));
-          }
-          if (info.info.maxDoc() - reader.numDocs() != info.getDelCount()) {
-            throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
-          }
-        } else {
-          if (info.getDelCount() != 0) {
-            throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
-          }
-        }
-        
-        if (checksumsOnly == false) {
-          // Test Livedocs
-          segInfoStat.liveDocStatus = testLiveDocs(reader, infoStream, failFast);
-
-          // Test Fieldinfos
-          segInfoStat.fieldInfoStatus = testFieldInfos(reader, infoStream, failFast);
-        
-          // Test Field Norms
-          segInfoStat.fieldNormStatus = testFieldNorms(reader, infoStream, failFast);
-
-          // Test the Term Index
-          segInfoStat.termIndexStatus = testPostings(reader, infoStream, verbose, failFast, version);
-
-          // Test Stored Fields
-          segInfoStat.storedFieldStatus = testStoredFields(reader, infoStream, failFast);
-
-          // Test Term Vectors
-          segInfoStat.termVectorStatus = testTermVectors(reader, infoStream, verbose, crossCheckTermVectors, failFast, version);
-
-          // Test Docvalues
-          segInfoStat.docValuesStatus = testDocValues(reader, infoStream, failFast);
-
-          // Test PointValues
-          segInfoStat.pointsStatus = testPoints(reader, infoStream, failFast);
-
-          // Test index sort
-          segInfoStat.indexSortStatus = testSort(reader, indexSort, infoStream, failFast);
-
-          // Rethrow the first exception we encountered
-          //  This will cause stats for failed segments to be incremented properly
-          if (segInfoStat.liveDocStatus.error != null) {
-            throw new RuntimeException("Live docs test failed");
-          } else if (segInfoStat.fieldInfoStatus.error != null) {
-            throw new RuntimeException("Field Info test failed");
-          } else if (segInfoStat.fieldNormStatus.error != null) {
-            throw new RuntimeException("Field Norm test failed");
-          } else if (segInfoStat.termIndexStatus.error != null) {
-            throw new RuntimeException("Term Index test failed");
-          } else if (segInfoStat.storedFieldStatus.error != null) {
-            throw new RuntimeException("Stored Field test failed");
-          } else if (segInfoStat.termVectorStatus.error != null) {
-            throw new RuntimeException("Term Vector test failed");
-          } else if (segInfoStat.docValuesStatus.error != null) {
-            throw new RuntimeException("DocValues test failed");
-          } else if (segInfoStat.pointsStatus.error != null) {
-            throw new RuntimeException("Points test failed");
-          }
-        }
-
-        msg(infoStream, "");
-        
-        if (verbose) {
-          msg(infoStream, "detailed segment RAM usage: ");
-          msg(infoStream, Accountables.toString(reader));
-        }
-
-      } catch (Throwable t) {
-        if (failFast) {
-          IOUtils.reThrow(t);
-        }
-        msg(infoStream, "FAILED");
-        String comment;
-        comment = "exorciseIndex() would remove reference to this segment";
-        msg(infoStream, "    WARNING: " + comment + "; full exception:");
-        if (infoStream != null)
-          t.printStackTrace(infoStream);
-        msg(infoStream, "");
-        result.totLoseDocCount += toLoseDocCount;
-        result.numBadSegments++;
-        continue;
       } finally {
-        if (reader != null)
-          reader.close();
+        executor.shutdownNow();
       }
-
-      // Keeper
-      result.newSegments.add(info.clone());
     }
 
     if (0 == result.numBadSegments) {
@@ -830,6 +770,236 @@ public final class CheckIndex implements Closeable {
     return result;
   }
 
+  /** Check a single segment, reporting messages to the given infoStream. */
+  private SegmentCheck checkSegment(SegmentCommitInfo info, int segmentOrd, int numSegments, PrintStream infoStream) throws IOException {
+    final NumberFormat nf = NumberFormat.getInstance(Locale.ROOT);
+    Status.SegmentInfoStatus segInfoStat = new Status.SegmentInfoStatus();
+    msg(infoStream, "  " + (1+segmentOrd) + " of " + numSegments + ": name=" + info.info.name + " maxDoc=" + info.info.maxDoc());
+    segInfoStat.name = info.info.name;
+    segInfoStat.maxDoc = info.info.maxDoc();
+    
+    final Version version = info.info.getVersion();
+    if (info.info.maxDoc() <= 0) {
+      throw new RuntimeException("illegal number of documents: maxDoc=" + info.info.maxDoc());
+    }
+
+    int toLoseDocCount = info.info.maxDoc();
+
+    SegmentReader reader = null;
+    Sort previousIndexSort = null;
+
+    try {
+      msg(infoStream, "    version=" + (version == null ? "3.0" : version));
+      msg(infoStream, "    id=" + StringHelper.idToString(info.info.getId()));
+      final Codec codec = info.info.getCodec();
+      msg(infoStream, "    codec=" + codec);
+      segInfoStat.codec = codec;
+      msg(infoStream, "    compound=" + info.info.getUseCompoundFile());
+      segInfoStat.compound = info.info.getUseCompoundFile();
+      msg(infoStream, "    numFiles=" + info.files().size());
+      Sort indexSort = info.info.getIndexSort();
+      if (indexSort != null) {
+        msg(infoStream, "    sort=" + indexSort);
+        if (previousIndexSort != null) {
+          if (previousIndexSort.equals(indexSort) == false) {
+            throw new RuntimeException("index sort changed from " + previousIndexSort + " to " + indexSort);
+          }
+        } else {
+          previousIndexSort = indexSort;
+        }
+      }
+      segInfoStat.numFiles = info.files().size();
+      segInfoStat.sizeMB = info.sizeInBytes()/(1024.*1024.);
+      msg(infoStream, "    size (MB)=" + nf.format(segInfoStat.sizeMB));
+      Map<String,String> diagnostics = info.info.getDiagnostics();
+      segInfoStat.diagnostics = diagnostics;
+      if (diagnostics.size() > 0) {
+        msg(infoStream, "    diagnostics = " + diagnostics);
+      }
+
+      if (!info.hasDeletions()) {
+        msg(infoStream, "    no deletions");
+        segInfoStat.hasDeletions = false;
+      } else {
+        msg(infoStream, "    has deletions [delGen=" + info.getDelGen() + "]");
+        segInfoStat.hasDeletions = true;
+        segInfoStat.deletionsGen = info.getDelGen();
+      }
+
+      if (verifiedSegments.isEmpty() == false) {
+        final String key = verificationKey(info, false);
+        if (verifiedSegments.contains(key) || (checksumsOnly && verifiedSegments.contains(verificationKey(info, true)))) {
+          msg(infoStream, "    previously verified; skipping");
+          msg(infoStream, "");
+          segInfoStat.previouslyVerified = true;
+          segInfoStat.verificationKey = verifiedSegments.contains(key) ? key : verificationKey(info, true);
+          return new SegmentCheck(segInfoStat, 0, true);
+        }
+      }
+      
+      long startOpenReaderNS = System.nanoTime();
+      if (infoStream != null)
+        infoStream.print("    test: open reader.........");
+      reader = new SegmentReader(info, IOContext.DEFAULT);
+      msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startOpenReaderNS)));
+
+      segInfoStat.openReaderPassed = true;
+      
+      long startIntegrityNS = System.nanoTime();
+      if (infoStream != null)
+        infoStream.print("    test: check integrity.....");
+      reader.checkIntegrity();
+      msg(infoStream, String.format(Locale.ROOT, "OK [took %.3f sec]", nsToSec(System.nanoTime()-startIntegrityNS)));
+
+      if (reader.maxDoc() != info.info.maxDoc()) {
+        throw new RuntimeException("SegmentReader.maxDoc() " + reader.maxDoc() + " != SegmentInfo.maxDoc " + info.info.maxDoc());
+      }
+      
+      final int numDocs = reader.numDocs();
+      toLoseDocCount = numDocs;
+      
+      if (reader.hasDeletions()) {
+        if (reader.numDocs() != info.info.maxDoc() - info.getDelCount()) {
+          throw new RuntimeException("delete count mismatch: info=" + (info.info.maxDoc() - info.getDelCount()) + " vs reader=" + reader.numDocs());
+        }
+        if ((info.info.maxDoc() - reader.numDocs()) > reader.maxDoc()) {
+          throw new RuntimeException("too many deleted docs: maxDoc()=" + reader.maxDoc() + " vs del count=" + (info.info.maxDoc() - reader.numDocs()));
+        }
+        if (info.info.maxDoc() - reader.numDocs() != info.getDelCount()) {
+          throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
+        }
+      } else {
+        if (info.getDelCount() != 0) {
+          throw new RuntimeException("delete count mismatch: info=" + info.getDelCount() + " vs reader=" + (info.info.maxDoc() - reader.numDocs()));
+        }
+      }
+      
+      if (checksumsOnly == false) {
+        // Test Livedocs
+        segInfoStat.liveDocStatus = testLiveDocs(reader, infoStream, failFast);
+
+        // Test Fieldinfos
+        segInfoStat.fieldInfoStatus = testFieldInfos(reader, infoStream, failFast);
+      
+        // Test Field Norms
+        segInfoStat.fieldNormStatus = testFieldNorms(reader, infoStream, failFast);
+
+        // Test the Term Index
+        segInfoStat.termIndexStatus = testPostings(reader, infoStream, verbose, failFast, version);
+
+        // Test Stored Fields
+        segInfoStat.storedFieldStatus = testStoredFields(reader, infoStream, failFast);
+
+        // Test Term Vectors
+        segInfoStat.termVectorStatus = testTermVectors(reader, infoStream, verbose, crossCheckTermVectors, failFast, version);
+
+        // Test Docvalues
+        segInfoStat.docValuesStatus = testDocValues(reader, infoStream, failFast);
+
+        // Test PointValues
+        segInfoStat.pointsStatus = testPoints(reader, infoStream, failFast);
+
+        // Test index sort
+        segInfoStat.indexSortStatus = testSort(reader, indexSort, infoStream, failFast);
+
+        // Rethrow the first exception we encountered
+        //  This will cause stats for failed segments to be incremented properly
+        if (segInfoStat.liveDocStatus.error != null) {
+          throw new RuntimeException("Live docs test failed");
+        } else if (segInfoStat.fieldInfoStatus.error != null) {
+          throw new RuntimeException("Field Info test failed");
+        } else if (segInfoStat.fieldNormStatus.error != null) {
+          throw new RuntimeException("Field Norm test failed");
+        } else if (segInfoStat.termIndexStatus.error != null) {
+          throw new RuntimeException("Term Index test failed");
+        } else if (segInfoStat.storedFieldStatus.error != null) {
+          throw new RuntimeException("Stored Field test failed");
+        } else if (segInfoStat.termVectorStatus.error != null) {
+          throw new RuntimeException("Term Vector test failed");
+        } else if (segInfoStat.docValuesStatus.error != null) {
+          throw new RuntimeException("DocValues test failed");
+        } else if (segInfoStat.pointsStatus.error != null) {
+          throw new RuntimeException("Points test failed");
+        }
+      } else {
+        // Only run cheap structural checks in addition to checksums
+        segInfoStat.liveDocStatus = testLiveDocs(reader, infoStream, failFast);
+        segInfoStat.fieldInfoStatus = testFieldInfos(reader, infoStream, failFast);
+        if (segInfoStat.liveDocStatus.error != null) {
+          throw new RuntimeException("Live docs test failed");
+        } else if (segInfoStat.fieldInfoStatus.error != null) {
+          throw new RuntimeException("Field Info test failed");
+        }
+      }
+
+      msg(infoStream, "");
+      
+      if (verbose) {
+        msg(infoStream, "detailed segment RAM usage: ");
+        msg(infoStream, Accountables.toString(reader));
+      }
+
+    } catch (Throwable t) {
+      if (failFast) {
+        IOUtils.reThrow(t);
+      }
+      msg(infoStream, "FAILED");
+      String comment;
+      comment = "exorciseIndex() would remove reference to this segment";
+      msg(infoStream, "    WARNING: " + comment + "; full exception:");
+      if (infoStream != null)
+        t.printStackTrace(infoStream);
+      msg(infoStream, "");
+      return new SegmentCheck(segInfoStat, toLoseDocCount, false);
+    } finally {
+      if (reader != null)
+        reader.close();
+    }
+
+    // Keeper
+    segInfoStat.verificationKey = verificationKey(info, checksumsOnly);
+    return new SegmentCheck(segInfoStat, 0, true);
+  }
+
+  /** Outcome of checking a single segment. */
+  private static final class SegmentCheck {
+    final Status.SegmentInfoStatus status;
+    final int toLoseDocCount;
+    final boolean passed;
+
+    SegmentCheck(Status.SegmentInfoStatus status, int toLoseDocCount, boolean passed) {
+      this.status = status;
+      this.toLoseDocCount = toLoseDocCount;
+      this.passed = passed;
+    }
+  }
+
+  private static void addSegmentCheck(Status result, SegmentCommitInfo info, SegmentCheck check) {
+    result.segmentInfos.add(check.status);
+    if (check.passed) {
+      result.newSegments.add(info.clone());
+      result.verifiedSegments.add(check.status.verificationKey);
+    } else {
+      result.totLoseDocCount += check.toLoseDocCount;
+      result.numBadSegments++;
+    }
+  }
+
+  /** Returns a key that identifies the given segment together with its
+   *  deletions and doc values updates, and the kind of checks it passed. */
+  private static String verificationKey(SegmentCommitInfo info, boolean checksumsOnly) throws IOException {
+    long filesHash = 0;
+    for (String file : new TreeSet<>(info.files())) {
+      filesHash = 31 * filesHash + file.hashCode();
+      filesHash = 31 * filesHash + info.info.dir.fileLength(file);
+    }
+    final byte[] id = info.info.getId();
+    return (id == null ? info.info.name : StringHelper.idToString(id))
+        + "_" + info.getDelGen() + "_" + info.getFieldInfosGen() + "_" + info.getDocValuesGen()
+        + "_" + Long.toHexString(filesHash)
+        + (checksumsOnly ? "_checksums" : "");
+  }
+
   /**
    * Tests index sort order.
    * @lucene.experimental
@@ -2620,7 +2790,7 @@ public final class CheckIndex implements Closeable {
     <p>
     Run it like this:
     <pre>
-    java -ea:org.apache.lucene... org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-verbose] [-segment X] [-segment Y]
+    java -ea:org.apache.lucene... org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-verbose] [-segment X] [-segment Y] [-threadCount N] [-verifiedSegments F]
     </pre>
     <ul>
     <li><code>-exorcise</code>: actually write a new segments_N file, removing any problematic segments. *LOSES DATA*
@@ -2630,6 +2800,11 @@ public final class CheckIndex implements Closeable {
     to check more than one segment, eg <code>-segment _2
     -segment _a</code>.  You can't use this with the -exorcise
     option.
+
+    <li><code>-threadCount N</code>: check up to N segments concurrently.
+
+    <li><code>-verifiedSegments F</code>: skip segments that file F records
+    as verified by a previous run, and record segments that pass checks in F.
     </ul>
 
     <p><b>WARNING</b>: <code>-exorcise</code> should only be used on an emergency basis as it will cause
@@ -2660,6 +2835,8 @@ public final class CheckIndex implements Closeable {
     boolean doCrossCheckTermVectors = false;
     boolean verbose = false;
     boolean doChecksumsOnly = false;
+    int threadCount = 1;
+    String verifiedSegmentsFile = null;
     List<String> onlySegments = new ArrayList<>();
     String indexPath = null;
     String dirImpl = null;
@@ -2752,6 +2929,25 @@ public final class CheckIndex implements Closeable {
         }
         i++;
         opts.onlySegments.add(args[i]);
+      } else if ("-threadCount".equals(arg)) {
+        if (i == args.length - 1) {
+          throw new IllegalArgumentException("ERROR: missing value for -threadCount option");
+        }
+        i++;
+        try {
+          opts.threadCount = Integer.parseInt(args[i]);
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("ERROR: invalid value for -threadCount option: " + args[i]);
+        }
+        if (opts.threadCount < 1) {
+          throw new IllegalArgumentException("ERROR: -threadCount must be >= 1, got " + opts.threadCount);
+        }
+      } else if ("-verifiedSegments".equals(arg)) {
+        if (i == args.length - 1) {
+          throw new IllegalArgumentException("ERROR: missing file for -verifiedSegments option");
+        }
+        i++;
+        opts.verifiedSegmentsFile = args[i];
       } else if ("-dir-impl".equals(arg)) {
         if (i == args.length - 1) {
           throw new IllegalArgumentException("ERROR: missing value for -dir-impl option");
@@ -2769,16 +2965,20 @@ public final class CheckIndex implements Closeable {
 
     if (opts.indexPath == null) {
       throw new IllegalArgumentException("\nERROR: index path not specified" +
-                         "\nUsage: java org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-crossCheckTermVectors] [-segment X] [-segment Y] [-dir-impl X]\n" +
+                         "\nUsage: java org.apache.lucene.index.CheckIndex pathToIndex [-exorcise] [-crossCheckTermVectors] [-segment X] [-segment Y] [-threadCount N] [-verifiedSegments F] [-dir-impl X]\n" +
                          "\n" +
                          "  -exorcise: actually write a new segments_N file, removing any problematic segments\n" +
-                         "  -fast: just verify file checksums, omitting logical integrity checks\n" + 
+                         "  -fast: just verify file checksums and the structure of live docs and field infos, omitting\n" +
+                         "         other logical integrity checks\n" + 
                          "  -crossCheckTermVectors: verifies that term vectors match postings; THIS IS VERY SLOW!\n" +
                          "  -codec X: when exorcising, codec to write the new segments_N file with\n" +
                          "  -verbose: print additional details\n" +
                          "  -segment X: only check the specified segments.  This can be specified multiple\n" + 
                          "              times, to check more than one segment, eg '-segment _2 -segment _a'.\n" +
                          "              You can't use this with the -exorcise option\n" +
+                         "  -threadCount N: check up to N segments concurrently\n" +
+                         "  -verifiedSegments F: only check segments that are not recorded as verified in file F, and\n" +
+                         "                       record the segments that pass checks in F\n" +
                          "  -dir-impl X: use a specific " + FSDirectory.class.getSimpleName() + " implementation. " +
                          "If no package is specified the " + FSDirectory.class.getPackage().getName() + " package will be used.\n" +
                          "\n" +
@@ -2819,12 +3019,29 @@ public final class CheckIndex implements Closeable {
     setCrossCheckTermVectors(opts.doCrossCheckTermVectors);
     setChecksumsOnly(opts.doChecksumsOnly);
     setInfoStream(opts.out, opts.verbose);
+    setThreadCount(opts.threadCount);
+
+    final Path verifiedSegmentsFile = opts.verifiedSegmentsFile == null ? null : Paths.get(opts.verifiedSegmentsFile);
+    List<String> previouslyVerified = Collections.emptyList();
+    if (verifiedSegmentsFile != null && Files.exists(verifiedSegmentsFile)) {
+      previouslyVerified = Files.readAllLines(verifiedSegmentsFile, StandardCharsets.UTF_8);
+      setVerifiedSegments(previouslyVerified);
+    }
 
     Status result = checkIndex(opts.onlySegments);
     if (result.missingSegments) {
       return 1;
     }
 
+    if (verifiedSegmentsFile != null) {
+      final Set<String> verified = new LinkedHashSet<>(result.verifiedSegments);
+      if (result.partial) {
+        // keep records of the segments that we did not check
+        verified.addAll(previouslyVerified);
+      }
+      Files.write(verifiedSegmentsFile, verified, StandardCharsets.UTF_8);
+    }
+
     if (!result.clean) {
       if (!opts.doExorcise) {
         opts.out.println("WARNING: would write new segments file, and " + result.totLoseDocCount + " documents would be lost, if -exorcise were specified\n");
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.apache.lucene.index.BufferedUpdatesStream.QueryAndLimit;
 import org.apache.lucene.index.DocValuesUpdate.BinaryDocValuesUpdate;
@@ -30,11 +31,13 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.util.BytesRef;
 
 class CoalescedUpdates {
+  // maps each query to the index of the first packet that deletes by it
   final Map<Query,Integer> queries = new HashMap<>();
   final List<PrefixCodedTerms> terms = new ArrayList<>();
   final List<List<DocValuesUpdate>> numericDVUpdates = new ArrayList<>();
   final List<List<DocValuesUpdate>> binaryDVUpdates = new ArrayList<>();
   long totalTermCount;
+  int packetCount;
   
   @Override
   public String toString() {
@@ -51,7 +54,7 @@ class CoalescedUpdates {
 
     for (int queryIdx = 0; queryIdx < in.queries.length; queryIdx++) {
       final Query query = in.queries[queryIdx];
-      queries.put(query, BufferedUpdates.MAX_INT);
+      queries.putIfAbsent(query, packetCount);
     }
 
     List<DocValuesUpdate> numericPacket = new ArrayList<>();
@@ -69,6 +72,8 @@ class CoalescedUpdates {
       clone.docIDUpto = Integer.MAX_VALUE;
       binaryPacket.add(clone);
     }
+
+    packetCount++;
   }
 
   public FieldTermIterator termIterator() {
@@ -79,23 +84,40 @@ class CoalescedUpdates {
     }
   }
 
-  public Iterable<QueryAndLimit> queriesIterable() {
+  /** Returns the delete queries of the first {@code numPackets} coalesced
+   *  packets, ie. the packets that are newer than a given segment. */
+  public Iterable<QueryAndLimit> queriesIterable(final int numPackets) {
     return new Iterable<QueryAndLimit>() {
       
       @Override
       public Iterator<QueryAndLimit> iterator() {
         return new Iterator<QueryAndLimit>() {
           private final Iterator<Map.Entry<Query,Integer>> iter = queries.entrySet().iterator();
+          private QueryAndLimit next = advance();
+
+          private QueryAndLimit advance() {
+            while (iter.hasNext()) {
+              final Map.Entry<Query,Integer> ent = iter.next();
+              if (ent.getValue() < numPackets) {
+                return new QueryAndLimit(ent.getKey(), BufferedUpdates.MAX_INT);
+              }
+            }
+            return null;
+          }
 
           @Override
           public boolean hasNext() {
-            return iter.hasNext();
+            return next != null;
           }
 
           @Override
           public QueryAndLimit next() {
-            final Map.Entry<Query,Integer> ent = iter.next();
-            return new QueryAndLimit(ent.getKey(), ent.getValue());
+            if (next == null) {
+              throw new NoSuchElementException();
+            }
+            final QueryAndLimit current = next;
+            next = advance();
+            return current;
           }
 
           @Override
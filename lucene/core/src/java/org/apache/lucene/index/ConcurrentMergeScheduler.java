@@ -55,6 +55,14 @@ import org.apache.lucene.util.ThreadInterruptedException;
  *  disk for backwards compatibility.  To enable default
  *  settings for spinning or solid state disks for such
  *  operating systems, use {@link #setDefaultMaxMergesAndThreads(boolean)}.
+ *
+ *  <p>Applications that observe search latency or IO pressure can
+ *  react to it at runtime: {@link #setMaxMergesAndThreads} takes effect
+ *  immediately on running merges, and {@link #pauseMergesAbove} stops
+ *  large merges while smaller merges, which are the ones that quickly
+ *  reduce the number of segments that near-real-time readers have to
+ *  search, keep running.  {@link #getPausedMergeCount} reports how many
+ *  merges are currently stopped.</p>
  */ 
 
 public class ConcurrentMergeScheduler extends MergeScheduler {
@@ -116,6 +124,9 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
 
   private double forceMergeMBPerSec = Double.POSITIVE_INFINITY;
 
+  /** Merges whose estimated size is above this are stopped, see {@link #pauseMergesAbove} */
+  private double pauseMergeMB = Double.POSITIVE_INFINITY;
+
   /** Sole constructor, with all settings set to default
    *  values. */
   public ConcurrentMergeScheduler() {
@@ -155,6 +166,8 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
       }
       this.maxThreadCount = maxThreadCount;
       this.maxMergeCount = maxMergeCount;
+      // Pause or resume running merges according to the new thread count:
+      updateMergeThreads();
     }
   }
 
@@ -229,6 +242,56 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     }
   }
 
+  /** Expert: stop running and future merges whose estimated size is above
+   *  the given number of MB, until {@link #resumeMerges} is called.  This
+   *  is typically useful to give priority to searches when they exceed
+   *  their latency budget: smaller merges keep running, so the number of
+   *  segments does not grow too much.  Forced merges are never paused.
+   *
+   *  <p><b>NOTE</b>: paused merges still count against {@link
+   *  #getMaxMergeCount}, so indexing threads will stall if that many merges
+   *  are paused.  Paused merges are resumed when the writer is closed. */
+  public synchronized void pauseMergesAbove(double mergeMB) {
+    if (mergeMB < 0.0) {
+      throw new IllegalArgumentException("mergeMB must be >= 0, got " + mergeMB);
+    }
+    if (verbose()) {
+      message(String.format(Locale.ROOT, "pause merges above %.1f MB", mergeMB));
+    }
+    pauseMergeMB = mergeMB;
+    updateMergeThreads();
+  }
+
+  /** Resume merges that were paused by {@link #pauseMergesAbove}. */
+  public synchronized void resumeMerges() {
+    if (verbose() && pauseMergeMB != Double.POSITIVE_INFINITY) {
+      message("resume merges");
+    }
+    pauseMergeMB = Double.POSITIVE_INFINITY;
+    updateMergeThreads();
+  }
+
+  /** Returns the size above which merges are paused, or {@code
+   *  Double.POSITIVE_INFINITY} if merges are not paused.
+   *
+   * @see #pauseMergesAbove */
+  public synchronized double getPauseMergesAboveMB() {
+    return pauseMergeMB;
+  }
+
+  /** Returns the number of running merges that are currently stopped,
+   *  either because more than {@link #getMaxThreadCount} big merges are
+   *  running or because of {@link #pauseMergesAbove}. */
+  public synchronized int getPausedMergeCount() {
+    int count = 0;
+    for (MergeThread mergeThread : mergeThreads) {
+      if (mergeThread.isAlive() && mergeThread.merge.rateLimiter.getMBPerSec() == 0.0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   /** Returns {@code maxThreadCount}.
    *
    * @see #setMaxMergesAndThreads(int, int) */
@@ -300,7 +363,8 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     StringBuilder message;
     if (verbose()) {
       message = new StringBuilder();
-      message.append(String.format(Locale.ROOT, "updateMergeThreads ioThrottle=%s targetMBPerSec=%.1f MB/sec", doAutoIOThrottle, targetMBPerSec));
+      message.append(String.format(Locale.ROOT, "updateMergeThreads ioThrottle=%s targetMBPerSec=%.1f MB/sec pauseMergesAbove=%s",
+                                   doAutoIOThrottle, targetMBPerSec, mbToString(pauseMergeMB)));
     } else {
       message = null;
     }
@@ -310,8 +374,9 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
 
       OneMerge merge = mergeThread.merge;
 
-      // pause the thread if maxThreadCount is smaller than the number of merge threads.
-      final boolean doPause = threadIdx < bigMergeCount - maxThreadCount;
+      // pause the thread if maxThreadCount is smaller than the number of merge threads,
+      // or if the application asked to pause merges of this size.
+      final boolean doPause = threadIdx < bigMergeCount - maxThreadCount || isPausedBySize(merge);
 
       double newMBPerSec;
       if (doPause) {
@@ -371,6 +436,10 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     }
   }
 
+  private boolean isPausedBySize(OneMerge merge) {
+    return merge.maxNumSegments == -1 && bytesToMB(merge.estimatedMergeBytes) > pauseMergeMB;
+  }
+
   private synchronized void initDynamicDefaults(IndexWriter writer) throws IOException {
     if (maxThreadCount == AUTO_DETECT_MERGES_AND_THREADS) {
       boolean spins = IOUtils.spins(writer.getDirectory());
@@ -391,6 +460,14 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     }
   }
 
+  private static String mbToString(double mb) {
+    if (mb == Double.POSITIVE_INFINITY) {
+      return "none";
+    } else {
+      return String.format(Locale.ROOT, "%.1f MB", mb);
+    }
+  }
+
   private static String rateToString(double mbPerSec) {
     if (mbPerSec == 0.0) {
       return "stopped";
@@ -466,6 +543,12 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     if (trigger == MergeTrigger.CLOSING) {
       // Disable throttling on close:
       targetMBPerSec = MAX_MERGE_MB_PER_SEC;
+      // ... and resume paused merges, since close waits for them:
+      pauseMergeMB = Double.POSITIVE_INFINITY;
+      updateMergeThreads();
+    } else if (trigger == MergeTrigger.EXPLICIT || pauseMergeMB != Double.POSITIVE_INFINITY) {
+      // forceMerge may have turned running merges into forced merges, which
+      // must not stay paused:
       updateMergeThreads();
     }
 
@@ -498,6 +581,10 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
       }
 
       updateIOThrottle(merge);
+      if (isPausedBySize(merge)) {
+        // Don't let the merge run until updateMergeThreads is called:
+        merge.rateLimiter.setMBPerSec(0.0);
+      }
 
       boolean success = false;
       try {
@@ -692,6 +779,9 @@ public class ConcurrentMergeScheduler extends MergeScheduler {
     sb.append("maxThreadCount=").append(maxThreadCount).append(", ");    
     sb.append("maxMergeCount=").append(maxMergeCount).append(", ");    
     sb.append("ioThrottle=").append(doAutoIOThrottle);
+    if (pauseMergeMB != Double.POSITIVE_INFINITY) {
+      sb.append(", pauseMergesAboveMB=").append(pauseMergeMB);
+    }
     return sb.toString();
   }
 
@@ -25,6 +25,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
@@ -45,6 +50,7 @@ import org.apache.lucene.util.BytesRefHash.MaxBytesLengthExceededException;
 import org.apache.lucene.util.Counter;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.ThreadInterruptedException;
 
 /** Default general purpose indexing chain, which handles
  *  indexing all types of fields. */
@@ -73,8 +79,12 @@ final class DefaultIndexingChain extends DocConsumer {
 
   private final Set<String> finishedDocValues = new HashSet<>();
 
+  // Writes the files of a segment concurrently on flush, may be null:
+  private final ExecutorService flushExecutor;
+
   public DefaultIndexingChain(DocumentsWriterPerThread docWriter) throws IOException {
     this.docWriter = docWriter;
+    this.flushExecutor = docWriter.getFlushExecutor();
     this.fieldInfos = docWriter.getFieldInfosBuilder();
     this.docState = docWriter.docState;
     this.bytesUsed = docWriter.bytesUsed;
@@ -120,36 +130,10 @@ final class DefaultIndexingChain extends DocConsumer {
 
     // NOTE: caller (DocumentsWriterPerThread) handles
     // aborting on any exception from this method
-    Sorter.DocMap sortMap = maybeSortSegment(state);
-    int maxDoc = state.segmentInfo.maxDoc();
-    long t0 = System.nanoTime();
-    writeNorms(state, sortMap);
-    if (docState.infoStream.isEnabled("IW")) {
-      docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write norms");
-    }
-    
-    t0 = System.nanoTime();
-    writeDocValues(state, sortMap);
-    if (docState.infoStream.isEnabled("IW")) {
-      docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write docValues");
-    }
+    final Sorter.DocMap sortMap = maybeSortSegment(state);
+    final int maxDoc = state.segmentInfo.maxDoc();
 
-    t0 = System.nanoTime();
-    writePoints(state, sortMap);
-    if (docState.infoStream.isEnabled("IW")) {
-      docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write points");
-    }
-    
-    // it's possible all docs hit non-aborting exceptions...
-    t0 = System.nanoTime();
-    storedFieldsConsumer.finish(maxDoc);
-    storedFieldsConsumer.flush(state, sortMap);
-    if (docState.infoStream.isEnabled("IW")) {
-      docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to finish stored fields");
-    }
-
-    t0 = System.nanoTime();
-    Map<String,TermsHashPerField> fieldsToFlush = new HashMap<>();
+    final Map<String,TermsHashPerField> fieldsToFlush = new HashMap<>();
     for (int i=0;i<fieldHash.length;i++) {
       PerField perField = fieldHash[i];
       while (perField != null) {
@@ -160,16 +144,25 @@ final class DefaultIndexingChain extends DocConsumer {
       }
     }
 
-    termsHash.flush(fieldsToFlush, state, sortMap);
-    if (docState.infoStream.isEnabled("IW")) {
-      docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write postings and finish vectors");
-    }
+    // Each of these steps writes its own files, so they can run concurrently
+    // if there is a flush executor:
+    final List<FutureTask<Void>> steps = new ArrayList<>();
+    steps.add(newFlushStep("write norms", () -> writeNorms(state, sortMap)));
+    steps.add(newFlushStep("write docValues", () -> writeDocValues(state, sortMap)));
+    steps.add(newFlushStep("write points", () -> writePoints(state, sortMap)));
+    // it's possible all docs hit non-aborting exceptions...
+    steps.add(newFlushStep("finish stored fields", () -> {
+      storedFieldsConsumer.finish(maxDoc);
+      storedFieldsConsumer.flush(state, sortMap);
+    }));
+    steps.add(newFlushStep("write postings and finish vectors", () -> termsHash.flush(fieldsToFlush, state, sortMap)));
+    runFlushSteps(steps);
 
     // Important to save after asking consumer to flush so
     // consumer can alter the FieldInfo* if necessary.  EG,
     // FreqProxTermsWriter does this with
     // FieldInfo.storePayload.
-    t0 = System.nanoTime();
+    long t0 = System.nanoTime();
     docWriter.codec.fieldInfosFormat().write(state.directory, state.segmentInfo, "", state.fieldInfos, IOContext.DEFAULT);
     if (docState.infoStream.isEnabled("IW")) {
       docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to write fieldInfos");
@@ -178,6 +171,64 @@ final class DefaultIndexingChain extends DocConsumer {
     return sortMap;
   }
 
+  /** A step of the flush that writes its own files. */
+  @FunctionalInterface
+  private interface FlushStep {
+    void write() throws IOException;
+  }
+
+  private FutureTask<Void> newFlushStep(String description, FlushStep step) {
+    return new FutureTask<>(() -> {
+      long t0 = System.nanoTime();
+      step.write();
+      if (docState.infoStream.isEnabled("IW")) {
+        docState.infoStream.message("IW", ((System.nanoTime()-t0)/1000000) + " msec to " + description);
+      }
+      return null;
+    });
+  }
+
+  /** Runs the given flush steps, on the flush executor if there is one, and
+   *  waits for all of them to complete.  The current thread runs the first
+   *  step and any step that the executor did not start yet. */
+  private void runFlushSteps(List<FutureTask<Void>> steps) throws IOException {
+    if (flushExecutor != null) {
+      for (int i = 1; i < steps.size(); ++i) {
+        try {
+          flushExecutor.execute(steps.get(i));
+        } catch (RejectedExecutionException e) {
+          // the step will run in the current thread
+        }
+      }
+    }
+
+    // Wait for all steps even if one fails, since the caller aborts and
+    // deletes files on exception:
+    Throwable firstExc = null;
+    for (FutureTask<Void> step : steps) {
+      if (firstExc != null) {
+        // don't start new steps once a step failed
+        step.cancel(false);
+      }
+      // no-op for steps that already started
+      step.run();
+      try {
+        step.get();
+      } catch (CancellationException e) {
+        // never started
+      } catch (InterruptedException e) {
+        throw new ThreadInterruptedException(e);
+      } catch (ExecutionException e) {
+        if (firstExc == null) {
+          firstExc = e.getCause();
+        } else {
+          firstExc.addSuppressed(e.getCause());
+        }
+      }
+    }
+    IOUtils.reThrow(firstExc);
+  }
+
   /** Writes all buffered points. */
   private void writePoints(SegmentWriteState state, Sorter.DocMap sortMap) throws IOException {
     PointsWriter pointsWriter = null;
@@ -22,7 +22,9 @@ import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.lucene.search.SearcherManager; // javadocs
 import org.apache.lucene.store.Directory;
@@ -60,7 +62,20 @@ public abstract class DirectoryReader extends BaseCompositeReader<LeafReader> {
    * @throws IOException if there is a low-level IO error
    */
   public static DirectoryReader open(final Directory directory) throws IOException {
-    return StandardDirectoryReader.open(directory, null);
+    return StandardDirectoryReader.open(directory, null, Collections.emptyMap());
+  }
+
+  /** Expert: returns an IndexReader reading the index in the given
+   *  Directory, whose segments are opened with the given reader
+   *  attributes. Formats may use these attributes to change how they
+   *  read their files, see {@link SegmentReadState#readerAttributes}.
+   * @param directory the index directory
+   * @param readerAttributes the reader attributes, copied by this method
+   * @throws IOException if there is a low-level IO error
+   * @lucene.experimental
+   */
+  public static DirectoryReader open(final Directory directory, final Map<String, String> readerAttributes) throws IOException {
+    return StandardDirectoryReader.open(directory, null, copyReaderAttributes(readerAttributes));
   }
   
   /**
@@ -109,7 +124,27 @@ public abstract class DirectoryReader extends BaseCompositeReader<LeafReader> {
    * @throws IOException if there is a low-level IO error
    */
   public static DirectoryReader open(final IndexCommit commit) throws IOException {
-    return StandardDirectoryReader.open(commit.getDirectory(), commit);
+    return StandardDirectoryReader.open(commit.getDirectory(), commit, Collections.emptyMap());
+  }
+
+  /** Expert: returns an IndexReader reading the index in the given
+   *  {@link IndexCommit}, whose segments are opened with the given reader
+   *  attributes.
+   * @param commit the commit point to open
+   * @param readerAttributes the reader attributes, copied by this method
+   * @throws IOException if there is a low-level IO error
+   * @see #open(Directory, Map)
+   * @lucene.experimental
+   */
+  public static DirectoryReader open(final IndexCommit commit, final Map<String, String> readerAttributes) throws IOException {
+    return StandardDirectoryReader.open(commit.getDirectory(), commit, copyReaderAttributes(readerAttributes));
+  }
+
+  static Map<String, String> copyReaderAttributes(Map<String, String> readerAttributes) {
+    if (readerAttributes == null) {
+      throw new IllegalArgumentException("readerAttributes must not be null");
+    }
+    return Collections.unmodifiableMap(new HashMap<>(readerAttributes));
   }
 
   /**
@@ -123,6 +123,8 @@ final class DocumentsWriter implements Closeable, Accountable {
   private final IndexWriter writer;
   private final Queue<Event> events;
   private long lastSeqNo;
+  // null if indexing buffers are not recycled across DWPTs
+  private final IndexingBlockRecycler blockRecycler;
   
   DocumentsWriter(IndexWriter writer, LiveIndexWriterConfig config, Directory directoryOrig, Directory directory) {
     this.directoryOrig = directoryOrig;
@@ -133,6 +135,8 @@ final class DocumentsWriter implements Closeable, Accountable {
     flushPolicy = config.getFlushPolicy();
     this.writer = writer;
     this.events = new ConcurrentLinkedQueue<>();
+    final double maxRecycledMB = config.getMaxRecycledIndexingBufferMB();
+    blockRecycler = maxRecycledMB > 0 ? new IndexingBlockRecycler((long) (maxRecycledMB * 1024 * 1024)) : null;
     flushControl = new DocumentsWriterFlushControl(this, config, writer.bufferedUpdatesStream);
   }
   
@@ -409,7 +413,7 @@ final class DocumentsWriter implements Closeable, Accountable {
       final FieldInfos.Builder infos = new FieldInfos.Builder(writer.globalFieldNumberMap);
       state.dwpt = new DocumentsWriterPerThread(writer, writer.newSegmentName(), directoryOrig,
                                                 directory, config, infoStream, deleteQueue, infos,
-                                                writer.pendingNumDocs, writer.enableTestPoints);
+                                                writer.pendingNumDocs, writer.enableTestPoints, blockRecycler);
     }
   }
 
@@ -699,6 +703,12 @@ final class DocumentsWriter implements Closeable, Accountable {
     events.add(event);
   }
 
+  /** Return the number of bytes held by indexing buffer blocks that are
+   *  retained for reuse by future {@link DocumentsWriterPerThread}s. */
+  long getRecycledBytesUsed() {
+    return blockRecycler == null ? 0 : blockRecycler.ramBytesUsed();
+  }
+
   @Override
   public long ramBytesUsed() {
     return flushControl.ramBytesUsed();
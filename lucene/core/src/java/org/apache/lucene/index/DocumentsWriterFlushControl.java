@@ -442,10 +442,16 @@ final class DocumentsWriterFlushControl implements Accountable {
     return documentsWriter.deleteQueue.ramBytesUsed() + bufferedUpdatesStream.ramBytesUsed();
   }
 
+  /** Return the number of bytes held by indexing buffer blocks that have
+   *  been released by flushed DWPTs and are retained for reuse. */
+  public long getRecycledBytesUsed() {
+    return documentsWriter.getRecycledBytesUsed();
+  }
+
   @Override
   public long ramBytesUsed() {
     // TODO: improve this to return more detailed info?
-    return getDeleteBytesUsed() + netBytes();
+    return getDeleteBytesUsed() + getRecycledBytesUsed() + netBytes();
   }
   
   synchronized int numFlushingDWPT() {
@@ -18,11 +18,15 @@ package org.apache.lucene.index;
 
 import java.io.IOException;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -126,6 +130,7 @@ class DocumentsWriterPerThread {
 
       pendingUpdates.clear();
     } finally {
+      releaseBlocks();
       if (infoStream.isEnabled("DWPT")) {
         infoStream.message("DWPT", "done abort");
       }
@@ -159,7 +164,8 @@ class DocumentsWriterPerThread {
   private final IndexWriter indexWriter;
   
   public DocumentsWriterPerThread(IndexWriter writer, String segmentName, Directory directoryOrig, Directory directory, LiveIndexWriterConfig indexWriterConfig, InfoStream infoStream, DocumentsWriterDeleteQueue deleteQueue,
-                                  FieldInfos.Builder fieldInfos, AtomicLong pendingNumDocs, boolean enableTestPoints) throws IOException {
+                                  FieldInfos.Builder fieldInfos, AtomicLong pendingNumDocs, boolean enableTestPoints,
+                                  IndexingBlockRecycler blockRecycler) throws IOException {
     this.indexWriter = writer;
     this.directoryOrig = directoryOrig;
     this.directory = new TrackingDirectoryWrapper(directory);
@@ -170,10 +176,17 @@ class DocumentsWriterPerThread {
     this.docState = new DocState(this, infoStream);
     this.docState.similarity = indexWriterConfig.getSimilarity();
     this.pendingNumDocs = pendingNumDocs;
-    bytesUsed = Counter.newCounter();
-    byteBlockAllocator = new DirectTrackingAllocator(bytesUsed);
+    // writers update RAM usage when they finish, which happens concurrently
+    // if flushes use an executor:
+    bytesUsed = Counter.newCounter(indexWriterConfig.getFlushExecutor() != null);
+    if (blockRecycler == null) {
+      byteBlockAllocator = new DirectTrackingAllocator(bytesUsed);
+      intBlockAllocator = new IntBlockAllocator(bytesUsed);
+    } else {
+      byteBlockAllocator = new SharedByteBlockAllocator(blockRecycler, bytesUsed);
+      intBlockAllocator = new SharedIntBlockAllocator(blockRecycler, bytesUsed);
+    }
     pendingUpdates = new BufferedUpdates(segmentName);
-    intBlockAllocator = new IntBlockAllocator(bytesUsed);
     this.deleteQueue = deleteQueue;
     assert numDocsInRAM == 0 : "num docs " + numDocsInRAM;
     deleteSlice = deleteQueue.newSlice();
@@ -193,6 +206,11 @@ class DocumentsWriterPerThread {
     return fieldInfos;
   }
 
+  /** Returns the executor that writes the files of the segment concurrently on flush, or null. */
+  ExecutorService getFlushExecutor() {
+    return indexWriterConfig.getFlushExecutor();
+  }
+
   final void testPoint(String message) {
     if (enableTestPoints) {
       assert infoStream.isEnabled("TP"); // don't enable unless you need them.
@@ -442,6 +460,8 @@ class DocumentsWriterPerThread {
     final Sorter.DocMap sortMap;
     try {
       sortMap = consumer.flush(flushState);
+      // the in-memory buffers are not needed anymore
+      releaseBlocks();
       pendingUpdates.terms.clear();
       segmentInfo.setFiles(new HashSet<>(directory.getCreatedFiles()));
 
@@ -592,6 +612,22 @@ class DocumentsWriterPerThread {
     return bytesUsed.get() + pendingUpdates.bytesUsed.get();
   }
 
+  /** Hands the blocks of the in-memory indexing buffers over to the
+   *  {@link IndexingBlockRecycler}, if any. Must only be called once these
+   *  buffers are not used anymore. */
+  private void releaseBlocks() {
+    if (byteBlockAllocator instanceof SharedByteBlockAllocator) {
+      // retained blocks count towards the RAM buffer: if they took most of
+      // it, new DWPTs would be flushed as soon as they allocate new blocks
+      final double ramBufferSizeMB = indexWriterConfig.getRAMBufferSizeMB();
+      final long limit = ramBufferSizeMB == IndexWriterConfig.DISABLE_AUTO_FLUSH
+          ? Long.MAX_VALUE
+          : (long) (ramBufferSizeMB * 1024 * 1024 / 2);
+      ((SharedByteBlockAllocator) byteBlockAllocator).release(limit);
+      ((SharedIntBlockAllocator) intBlockAllocator).release(limit);
+    }
+  }
+
   /* Initial chunks size of the shared byte[] blocks used to
      store postings data */
   final static int BYTE_BLOCK_NOT_MASK = ~BYTE_BLOCK_MASK;
@@ -623,6 +659,112 @@ class DocumentsWriterPerThread {
     }
     
   }
+
+  /** Takes byte blocks from an {@link IndexingBlockRecycler} when possible,
+   *  and gives all blocks back to it on {@link #release(long)}. Blocks that the
+   *  pools recycle in the meantime are kept for reuse by this DWPT. */
+  private static class SharedByteBlockAllocator extends Allocator {
+    private final IndexingBlockRecycler recycler;
+    private final Counter bytesUsed;
+    // all blocks that this allocator handed out
+    private final List<byte[]> blocks = new ArrayList<>();
+    private final List<byte[]> freeBlocks = new ArrayList<>();
+    private boolean released;
+
+    SharedByteBlockAllocator(IndexingBlockRecycler recycler, Counter bytesUsed) {
+      super(BYTE_BLOCK_SIZE);
+      this.recycler = recycler;
+      this.bytesUsed = bytesUsed;
+    }
+
+    @Override
+    public byte[] getByteBlock() {
+      assert released == false;
+      if (freeBlocks.isEmpty() == false) {
+        final byte[] b = freeBlocks.remove(freeBlocks.size() - 1);
+        Arrays.fill(b, (byte) 0);
+        return b;
+      }
+      byte[] b = recycler.takeByteBlock(blockSize);
+      if (b == null) {
+        b = new byte[blockSize];
+      }
+      blocks.add(b);
+      bytesUsed.addAndGet(blockSize);
+      return b;
+    }
+
+    @Override
+    public void recycleByteBlocks(byte[][] blocks, int start, int end) {
+      for (int i = start; i < end; i++) {
+        if (released == false) {
+          freeBlocks.add(blocks[i]);
+        }
+        blocks[i] = null;
+      }
+    }
+
+    void release(long limit) {
+      if (released == false) {
+        released = true;
+        recycler.recycleByteBlocks(blocks, limit);
+        bytesUsed.addAndGet(-((long) blocks.size() * blockSize));
+        blocks.clear();
+        freeBlocks.clear();
+      }
+    }
+  }
+
+  /** Same as {@link SharedByteBlockAllocator} for int blocks. */
+  private static class SharedIntBlockAllocator extends IntBlockPool.Allocator {
+    private final IndexingBlockRecycler recycler;
+    private final Counter bytesUsed;
+    private final List<int[]> blocks = new ArrayList<>();
+    private final List<int[]> freeBlocks = new ArrayList<>();
+    private boolean released;
+
+    SharedIntBlockAllocator(IndexingBlockRecycler recycler, Counter bytesUsed) {
+      super(IntBlockPool.INT_BLOCK_SIZE);
+      this.recycler = recycler;
+      this.bytesUsed = bytesUsed;
+    }
+
+    @Override
+    public int[] getIntBlock() {
+      assert released == false;
+      if (freeBlocks.isEmpty() == false) {
+        final int[] b = freeBlocks.remove(freeBlocks.size() - 1);
+        Arrays.fill(b, 0);
+        return b;
+      }
+      int[] b = recycler.takeIntBlock(blockSize);
+      if (b == null) {
+        b = new int[blockSize];
+      }
+      blocks.add(b);
+      bytesUsed.addAndGet(blockSize * Integer.BYTES);
+      return b;
+    }
+
+    @Override
+    public void recycleIntBlocks(int[][] blocks, int start, int end) {
+      if (released == false) {
+        for (int i = start; i < end; i++) {
+          freeBlocks.add(blocks[i]);
+        }
+      }
+    }
+
+    void release(long limit) {
+      if (released == false) {
+        released = true;
+        recycler.recycleIntBlocks(blocks, limit);
+        bytesUsed.addAndGet(-((long) blocks.size() * blockSize * Integer.BYTES));
+        blocks.clear();
+        freeBlocks.clear();
+      }
+    }
+  }
   
   @Override
   public String toString() {
@@ -311,7 +311,9 @@ public final class FieldInfo {
    * Get a codec attribute value, or null if it does not exist
    */
   public String getAttribute(String key) {
-    return attributes.get(key);
+    synchronized (attributes) {
+      return attributes.get(key);
+    }
   }
   
   /**
@@ -325,7 +327,10 @@ public final class FieldInfo {
    * the new value.
    */
   public String putAttribute(String key, String value) {
-    return attributes.put(key, value);
+    // synchronized since codec writers may run concurrently on flush
+    synchronized (attributes) {
+      return attributes.put(key, value);
+    }
   }
   
   /**
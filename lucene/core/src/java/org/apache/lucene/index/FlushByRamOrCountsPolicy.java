@@ -86,10 +86,12 @@ class FlushByRamOrCountsPolicy extends FlushPolicy {
       control.setFlushPending(state);
     } else if (flushOnRAM()) {// flush by RAM
       final long limit = (long) (indexWriterConfig.getRAMBufferSizeMB() * 1024.d * 1024.d);
-      final long totalRam = control.activeBytes() + control.getDeleteBytesUsed();
+      // blocks that are retained for reuse count towards the buffer: new
+      // DWPTs take them before allocating new blocks
+      final long totalRam = control.activeBytes() + control.getDeleteBytesUsed() + control.getRecycledBytesUsed();
       if (totalRam >= limit) {
         if (infoStream.isEnabled("FP")) {
-          infoStream.message("FP", "trigger flush: activeBytes=" + control.activeBytes() + " deleteBytes=" + control.getDeleteBytesUsed() + " vs limit=" + limit);
+          infoStream.message("FP", "trigger flush: activeBytes=" + control.activeBytes() + " deleteBytes=" + control.getDeleteBytesUsed() + " recycledBytes=" + control.getRecycledBytesUsed() + " vs limit=" + limit);
         }
         markLargestWriterPending(control, state, totalRam);
       }
@@ -33,6 +33,7 @@ import java.util.Map.Entry;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -460,6 +461,13 @@ public class IndexWriter implements Closeable, TwoPhaseCommit, Accountable {
             // if we flushed anything.
             flushCount.incrementAndGet();
           }
+          final long maxFullFlushMergeWaitMillis = config.getMaxFullFlushMergeWaitMillis();
+          if (maxFullFlushMergeWaitMillis > 0) {
+            // Give the merge policy a chance to merge away the small
+            // segments that were flushed since the last reader was opened
+            // before the new reader sees them:
+            mergeOnGetReader(maxFullFlushMergeWaitMillis);
+          }
           // Prevent segmentInfos from changing while opening the
           // reader; in theory we could instead do similar retry logic,
           // just like we do when loading segments_N
@@ -508,6 +516,127 @@ public class IndexWriter implements Closeable, TwoPhaseCommit, Accountable {
     return r;
   }
 
+  /** Registers the merges that the merge policy wants to run before a
+   *  near-real-time reader is opened, runs them on a dedicated thread and
+   *  waits for at most {@code maxWaitMillis} for them to complete. These
+   *  merges are never handed to the {@link MergeScheduler}, so that the
+   *  calling thread neither runs nor stalls on other pending merges. Merges
+   *  that do not complete in time keep running in the background, and the
+   *  reader will see the segments that they are merging instead of the merged
+   *  segment. */
+  private void mergeOnGetReader(long maxWaitMillis) throws IOException {
+    final List<MergePolicy.OneMerge> merges = new ArrayList<>();
+    synchronized (this) {
+      if (stopMerges || tragedy != null) {
+        return;
+      }
+      final MergePolicy.MergeSpecification spec = config.getMergePolicy().findFullFlushMerges(MergeTrigger.GET_READER, segmentInfos, this);
+      if (spec != null) {
+        for (MergePolicy.OneMerge merge : spec.merges) {
+          if (registerMerge(merge)) {
+            // advance the merge from pending to running right away so that
+            // the merge scheduler does not pick it up
+            pendingMerges.remove(merge);
+            runningMerges.add(merge);
+            merges.add(merge);
+          }
+        }
+      }
+    }
+    if (merges.isEmpty()) {
+      return;
+    }
+
+    final long startNS = System.nanoTime();
+    final GetReaderMergeThread mergeThread = new GetReaderMergeThread(merges);
+    mergeThread.start();
+
+    Throwable exc = null;
+    synchronized (this) {
+      final long maxWaitNS = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+      try {
+        while (mergeThread.exc == null && isRunning(merges)) {
+          final long remainingNS = maxWaitNS - (System.nanoTime() - startNS);
+          if (remainingNS <= 0) {
+            if (infoStream.isEnabled("IW")) {
+              infoStream.message("IW", "merges on getReader did not complete within " + maxWaitMillis + " msec; open reader on flushed segments");
+            }
+            break;
+          }
+          try {
+            wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNS)));
+          } catch (InterruptedException ie) {
+            throw new ThreadInterruptedException(ie);
+          }
+        }
+      } finally {
+        // from now on, the merge thread reports its exceptions itself
+        exc = mergeThread.exc;
+        mergeThread.waiting = false;
+      }
+    }
+    if (exc != null) {
+      IOUtils.reThrow(exc);
+    }
+    if (infoStream.isEnabled("IW")) {
+      infoStream.message("IW", "merges on getReader took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNS) + " msec");
+    }
+  }
+
+  private synchronized boolean isRunning(List<MergePolicy.OneMerge> merges) {
+    for (MergePolicy.OneMerge merge : merges) {
+      if (runningMerges.contains(merge)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Runs the merges registered by {@link #mergeOnGetReader}. Exceptions are
+   *  handed to the thread that opens the reader while it is waiting, and are
+   *  thrown from this thread otherwise, like merge threads of
+   *  {@link ConcurrentMergeScheduler} do. */
+  private class GetReaderMergeThread extends Thread {
+
+    private final List<MergePolicy.OneMerge> merges;
+    // guarded by IndexWriter.this
+    private Throwable exc;
+    private boolean waiting = true;
+
+    GetReaderMergeThread(List<MergePolicy.OneMerge> merges) {
+      this.merges = merges;
+      setName("Lucene getReader Merge Thread");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      Throwable th = null;
+      for (MergePolicy.OneMerge merge : merges) {
+        try {
+          merge(merge);
+        } catch (Throwable t) {
+          if (th == null) {
+            th = t;
+          }
+        }
+      }
+      if (th != null) {
+        synchronized (IndexWriter.this) {
+          if (waiting) {
+            exc = th;
+            IndexWriter.this.notifyAll();
+            return;
+          }
+        }
+        if (th instanceof Error) {
+          throw (Error) th;
+        }
+        throw new MergePolicy.MergeException(th, directory);
+      }
+    }
+  }
+
   @Override
   public final long ramBytesUsed() {
     ensureOpen();
@@ -768,6 +897,7 @@ public class IndexWriter implements Closeable, TwoPhaseCommit, Accountable {
   }
 
   final Codec codec; // for writing new segments
+  final Map<String,String> readerAttributes; // for opening segments
 
   /**
    * Constructs a new IndexWriter per the settings given in <code>conf</code>.
@@ -817,8 +947,9 @@ public class IndexWriter implements Closeable, TwoPhaseCommit, Accountable {
       mergeScheduler.setInfoStream(infoStream);
       codec = config.getCodec();
 
-      bufferedUpdatesStream = new BufferedUpdatesStream(infoStream);
+      bufferedUpdatesStream = new BufferedUpdatesStream(infoStream, config.getApplyUpdatesExecutor());
       poolReaders = config.getReaderPooling();
+      readerAttributes = config.getReaderAttributes();
 
       OpenMode mode = config.getOpenMode();
       boolean create;
@@ -20,6 +20,8 @@ package org.apache.lucene.index;
 import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.analysis.Analyzer;
@@ -104,6 +106,15 @@ public final class IndexWriterConfig extends LiveIndexWriterConfig {
   
   /** Default value for whether calls to {@link IndexWriter#close()} include a commit. */
   public final static boolean DEFAULT_COMMIT_ON_CLOSE = true;
+
+  /** Default value for the amount of time to wait for full-flush merges when
+   *  opening a near-real-time reader (set to <code>0</code>, disabled). */
+  public final static long DEFAULT_MAX_FULL_FLUSH_MERGE_WAIT_MILLIS = 0;
+
+  /** Default value for the maximum amount of memory of indexing buffers that
+   *  are retained for reuse after segments are flushed (set to
+   *  <code>0</code>, disabled). */
+  public final static double DEFAULT_MAX_RECYCLED_INDEXING_BUFFER_MB = 0;
   
   // indicates whether this config instance is already attached to a writer.
   // not final so that it can be cloned properly.
@@ -439,6 +450,11 @@ public final class IndexWriterConfig extends LiveIndexWriterConfig {
     return (IndexWriterConfig) super.setMergedSegmentWarmer(mergeSegmentWarmer);
   }
   
+  @Override
+  public IndexWriterConfig setMaxFullFlushMergeWaitMillis(long maxFullFlushMergeWaitMillis) {
+    return (IndexWriterConfig) super.setMaxFullFlushMergeWaitMillis(maxFullFlushMergeWaitMillis);
+  }
+  
   @Override
   public IndexWriterConfig setRAMBufferSizeMB(double ramBufferSizeMB) {
     return (IndexWriterConfig) super.setRAMBufferSizeMB(ramBufferSizeMB);
@@ -458,6 +474,71 @@ public final class IndexWriterConfig extends LiveIndexWriterConfig {
     return this;
   }
 
+  /**
+   * Expert: sets the {@link ExecutorService} that is used to resolve buffered
+   * deletes and updates against segments concurrently, one task per segment.
+   * This reduces the time it takes to apply deletes when opening a
+   * near-real-time reader on an index that has many segments. The default is
+   * null, which resolves deletes and updates in the calling thread.
+   * IndexWriter will not close this ExecutorService.
+   *
+   * <p>Only takes effect when IndexWriter is first created. */
+  public IndexWriterConfig setApplyUpdatesExecutor(ExecutorService applyUpdatesExecutor) {
+    this.applyUpdatesExecutor = applyUpdatesExecutor;
+    return this;
+  }
+
+  /**
+   * Expert: sets the {@link ExecutorService} that is used to write the
+   * postings, stored fields, doc values, points and norms of a flushed
+   * segment concurrently. This reduces the time that an indexing thread
+   * spends flushing a large segment. The default is null, which writes them
+   * in the flushing thread. IndexWriter will not close this ExecutorService.
+   *
+   * <p><b>NOTE</b>: codecs must support writing their different formats
+   * concurrently, which is the case of the default codec.
+   *
+   * <p>Only takes effect when IndexWriter is first created. */
+  public IndexWriterConfig setFlushExecutor(ExecutorService flushExecutor) {
+    this.flushExecutor = flushExecutor;
+    return this;
+  }
+
+  /**
+   * Expert: sets the maximum amount of memory, in MB, of the blocks of the
+   * in-memory term hash and points buffers that {@link IndexWriter} retains
+   * after segments are flushed, so that they can be reused to buffer new
+   * documents instead of being garbage collected. This reduces garbage
+   * collection pressure when many threads index with large RAM buffers, at
+   * the cost of holding on to this amount of memory between flushes.
+   * Retained memory is reported by {@link IndexWriter#ramBytesUsed()} and
+   * counts towards {@link #setRAMBufferSizeMB(double)}, so at most half of
+   * the RAM buffer is retained when flushing by RAM usage. The default is
+   * {@code 0}, which disables recycling.
+   *
+   * <p>Only takes effect when IndexWriter is first created. */
+  public IndexWriterConfig setMaxRecycledIndexingBufferMB(double maxRecycledIndexingBufferMB) {
+    if (maxRecycledIndexingBufferMB < 0 || Double.isNaN(maxRecycledIndexingBufferMB)) {
+      throw new IllegalArgumentException("maxRecycledIndexingBufferMB must be >= 0, got " + maxRecycledIndexingBufferMB);
+    }
+    this.maxRecycledIndexingBufferMB = maxRecycledIndexingBufferMB;
+    return this;
+  }
+
+  /**
+   * Expert: sets the attributes that are given to the formats of the
+   * segments that {@link IndexWriter} opens, including those of near
+   * real-time readers. This is the equivalent of
+   * {@link DirectoryReader#open(org.apache.lucene.store.Directory, Map)}
+   * for readers that are obtained from the writer. The default is an empty
+   * map.
+   *
+   * <p>Only takes effect when IndexWriter is first created. */
+  public IndexWriterConfig setReaderAttributes(Map<String, String> readerAttributes) {
+    this.readerAttributes = DirectoryReader.copyReaderAttributes(readerAttributes);
+    return this;
+  }
+
   /** We only allow sorting on these types */
   private static final EnumSet<SortField.Type> ALLOWED_INDEX_SORT_TYPES = EnumSet.of(SortField.Type.STRING,
                                                                                      SortField.Type.LONG,
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.lucene.util.Accountable;
+
+/**
+ * Retains the byte and int blocks of the in-memory indexing buffers of
+ * {@link DocumentsWriterPerThread}s that have been flushed or aborted, so that
+ * new {@link DocumentsWriterPerThread}s can reuse them instead of allocating
+ * new blocks. This reduces garbage collection pressure when many threads
+ * index with large RAM buffers. At most {@code maxBytes} worth of blocks are
+ * retained, additional blocks are left to the garbage collector. Retained
+ * blocks count towards the RAM buffer of the {@link IndexWriter}, so that
+ * recycling does not increase the memory used by indexing.
+ *
+ * This class is thread-safe.
+ */
+final class IndexingBlockRecycler implements Accountable {
+
+  private final long maxBytes;
+  // blocks are reused in LIFO order since recently released blocks are more
+  // likely to still be in the CPU caches
+  private final Deque<byte[]> byteBlocks = new ArrayDeque<>();
+  private final Deque<int[]> intBlocks = new ArrayDeque<>();
+  private long bytesUsed;
+
+  IndexingBlockRecycler(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be > 0, got " + maxBytes);
+    }
+    this.maxBytes = maxBytes;
+  }
+
+  /** Return a zero-filled byte block of the given size, or null if no block
+   *  is available. */
+  byte[] takeByteBlock(int blockSize) {
+    final byte[] block;
+    synchronized (this) {
+      block = byteBlocks.peekFirst();
+      if (block == null || block.length != blockSize) {
+        return null;
+      }
+      byteBlocks.removeFirst();
+      bytesUsed -= block.length;
+    }
+    // zero-fill outside of the lock, blocks may be used with slices
+    Arrays.fill(block, (byte) 0);
+    return block;
+  }
+
+  /** Return a zero-filled int block of the given size, or null if no block
+   *  is available. */
+  int[] takeIntBlock(int blockSize) {
+    final int[] block;
+    synchronized (this) {
+      block = intBlocks.peekFirst();
+      if (block == null || block.length != blockSize) {
+        return null;
+      }
+      intBlocks.removeFirst();
+      bytesUsed -= (long) block.length * Integer.BYTES;
+    }
+    Arrays.fill(block, 0);
+    return block;
+  }
+
+  /** Make the given byte blocks available for reuse, as long as this
+   *  recycler holds less than {@code limit} bytes. The caller must not use
+   *  these blocks anymore. */
+  synchronized void recycleByteBlocks(List<byte[]> blocks, long limit) {
+    final long maxBytes = Math.min(this.maxBytes, limit);
+    for (byte[] block : blocks) {
+      if (bytesUsed + block.length > maxBytes) {
+        break;
+      }
+      byteBlocks.addFirst(block);
+      bytesUsed += block.length;
+    }
+  }
+
+  /** Make the given int blocks available for reuse, as long as this
+   *  recycler holds less than {@code limit} bytes. The caller must not use
+   *  these blocks anymore. */
+  synchronized void recycleIntBlocks(List<int[]> blocks, long limit) {
+    final long maxBytes = Math.min(this.maxBytes, limit);
+    for (int[] block : blocks) {
+      final long blockBytes = (long) block.length * Integer.BYTES;
+      if (bytesUsed + blockBytes > maxBytes) {
+        break;
+      }
+      intBlocks.addFirst(block);
+      bytesUsed += blockBytes;
+    }
+  }
+
+  /** Return the number of bytes held by blocks that are available for reuse. */
+  @Override
+  public synchronized long ramBytesUsed() {
+    return bytesUsed;
+  }
+}
@@ -18,7 +18,9 @@ package org.apache.lucene.index;
 
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.codecs.Codec;
@@ -104,6 +106,28 @@ public class LiveIndexWriterConfig {
   /** The field names involved in the index sort */
   protected Set<String> indexSortFields = Collections.emptySet();
 
+  /** {@link ExecutorService} used to resolve buffered deletes and updates
+   *  against segments concurrently, or null to resolve them in the calling
+   *  thread. */
+  protected volatile ExecutorService applyUpdatesExecutor;
+
+  /** {@link ExecutorService} used to write the files of a flushed segment
+   *  concurrently, or null to write them in the flushing thread. */
+  protected volatile ExecutorService flushExecutor;
+
+  /** Amount of time to wait for merges returned by
+   *  {@link MergePolicy#findFullFlushMerges} to complete when opening a
+   *  near-real-time reader. */
+  protected volatile long maxFullFlushMergeWaitMillis;
+
+  /** Maximum amount of memory, in MB, of indexing buffers that are retained
+   *  for reuse after segments are flushed. */
+  protected volatile double maxRecycledIndexingBufferMB;
+
+  /** Attributes given to the formats of the segments that are opened by
+   *  {@link IndexWriter}. */
+  protected volatile Map<String, String> readerAttributes = Collections.emptyMap();
+
   // used by IndexWriterConfig
   LiveIndexWriterConfig(Analyzer analyzer) {
     this.analyzer = analyzer;
@@ -128,6 +152,8 @@ public class LiveIndexWriterConfig {
     readerPooling = IndexWriterConfig.DEFAULT_READER_POOLING;
     indexerThreadPool = new DocumentsWriterPerThreadPool();
     perThreadHardLimitMB = IndexWriterConfig.DEFAULT_RAM_PER_THREAD_HARD_LIMIT_MB;
+    maxFullFlushMergeWaitMillis = IndexWriterConfig.DEFAULT_MAX_FULL_FLUSH_MERGE_WAIT_MILLIS;
+    maxRecycledIndexingBufferMB = IndexWriterConfig.DEFAULT_MAX_RECYCLED_INDEXING_BUFFER_MB;
   }
   
   /** Returns the default analyzer to use for indexing documents. */
@@ -317,6 +343,36 @@ public class LiveIndexWriterConfig {
   public IndexReaderWarmer getMergedSegmentWarmer() {
     return mergedSegmentWarmer;
   }
+
+  /**
+   * Expert: sets the amount of time, in milliseconds, that opening a
+   * near-real-time reader may wait for merges of the segments that were just
+   * flushed. When positive, {@link IndexWriter} asks the {@link MergePolicy}
+   * for {@link MergePolicy#findFullFlushMerges full-flush merges} before
+   * opening the reader, and the returned reader will see the merged segments
+   * if these merges complete within this amount of time. Otherwise merges
+   * keep running in the background and the reader sees the flushed segments.
+   * The default is {@code 0}, which disables merging on refresh.
+   * 
+   * <p>
+   * Takes effect on the next refresh.
+   */
+  public LiveIndexWriterConfig setMaxFullFlushMergeWaitMillis(long maxFullFlushMergeWaitMillis) {
+    if (maxFullFlushMergeWaitMillis < 0) {
+      throw new IllegalArgumentException("maxFullFlushMergeWaitMillis must be >= 0, got " + maxFullFlushMergeWaitMillis);
+    }
+    this.maxFullFlushMergeWaitMillis = maxFullFlushMergeWaitMillis;
+    return this;
+  }
+
+  /**
+   * Returns the amount of time, in milliseconds, that opening a
+   * near-real-time reader may wait for full-flush merges to complete.
+   * @see #setMaxFullFlushMergeWaitMillis(long)
+   */
+  public long getMaxFullFlushMergeWaitMillis() {
+    return maxFullFlushMergeWaitMillis;
+  }
   
   /** Returns the {@link OpenMode} set by {@link IndexWriterConfig#setOpenMode(OpenMode)}. */
   public OpenMode getOpenMode() {
@@ -470,6 +526,42 @@ public class LiveIndexWriterConfig {
     return indexSortFields;
   }
 
+  /**
+   * Returns the {@link ExecutorService} that is used to resolve buffered
+   * deletes and updates against segments concurrently, or null if they are
+   * resolved in the calling thread.
+   */
+  public ExecutorService getApplyUpdatesExecutor() {
+    return applyUpdatesExecutor;
+  }
+
+  /**
+   * Returns the {@link ExecutorService} that is used to write the files of
+   * a flushed segment concurrently, or null if they are written by the
+   * flushing thread.
+   */
+  public ExecutorService getFlushExecutor() {
+    return flushExecutor;
+  }
+
+  /**
+   * Returns the maximum amount of memory, in MB, of indexing buffers that
+   * are retained for reuse after segments are flushed.
+   * @see IndexWriterConfig#setMaxRecycledIndexingBufferMB(double)
+   */
+  public double getMaxRecycledIndexingBufferMB() {
+    return maxRecycledIndexingBufferMB;
+  }
+
+  /**
+   * Returns the attributes that are given to the formats of the segments
+   * that {@link IndexWriter} opens.
+   * @see IndexWriterConfig#setReaderAttributes(Map)
+   */
+  public Map<String, String> getReaderAttributes() {
+    return readerAttributes;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
@@ -493,6 +585,11 @@ public class LiveIndexWriterConfig {
     sb.append("useCompoundFile=").append(getUseCompoundFile()).append("\n");
     sb.append("commitOnClose=").append(getCommitOnClose()).append("\n");
     sb.append("indexSort=").append(getIndexSort()).append("\n");
+    sb.append("applyUpdatesExecutor=").append(getApplyUpdatesExecutor()).append("\n");
+    sb.append("flushExecutor=").append(getFlushExecutor()).append("\n");
+    sb.append("maxFullFlushMergeWaitMillis=").append(getMaxFullFlushMergeWaitMillis()).append("\n");
+    sb.append("maxRecycledIndexingBufferMB=").append(getMaxRecycledIndexingBufferMB()).append("\n");
+    sb.append("readerAttributes=").append(getReaderAttributes()).append("\n");
     return sb.toString();
   }
 }
@@ -363,6 +363,27 @@ public abstract class MergePolicy {
   public abstract MergeSpecification findForcedDeletesMerges(
       SegmentInfos segmentInfos, IndexWriter writer) throws IOException;
 
+  /**
+   * Determine what set of merge operations should run before a
+   * near-real-time reader is opened, typically in order to merge away the
+   * small segments that have just been flushed. {@link IndexWriter} only
+   * calls this method if
+   * {@link IndexWriterConfig#setMaxFullFlushMergeWaitMillis(long)} is
+   * positive, and the returned merges only make it into the reader if they
+   * complete within that amount of time. Returned merges should thus be
+   * small. This call is always synchronized on the {@link IndexWriter}
+   * instance. The default implementation returns {@code null}, ie. no merges.
+   *
+   * @param mergeTrigger the event that triggered the merge
+   * @param segmentInfos
+   *          the total set of segments in the index
+   * @param writer the IndexWriter to find the merges on
+   */
+  public MergeSpecification findFullFlushMerges(MergeTrigger mergeTrigger, SegmentInfos segmentInfos, IndexWriter writer)
+      throws IOException {
+    return null;
+  }
+
   /**
    * Returns true if a new segment (regardless of its origin) should use the
    * compound file format. The default implementation returns <code>true</code>
@@ -47,5 +47,11 @@ public enum MergeTrigger {
   /**
    * Merge was triggered by a closing IndexWriter.
    */
-  CLOSING
+  CLOSING,
+
+  /**
+   * Merge was triggered on the segments that were just flushed, before
+   * opening a near-real-time reader.
+   */
+  GET_READER
 }
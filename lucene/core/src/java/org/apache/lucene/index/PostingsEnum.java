@@ -108,4 +108,38 @@ public abstract class PostingsEnum extends DocIdSetIterator {
    *  in the byte[]). */
   public abstract BytesRef getPayload() throws IOException;
 
+  /**
+   * Advance to the next documents in bulk: fill {@code docs} with up to
+   * {@code docs.length} doc IDs that follow the current document and, if
+   * {@code freqs} is not null, fill {@code freqs} with their frequencies.
+   * This returns the number of documents that have been filled, which is
+   * always greater than 0 unless the enum is exhausted, in which case 0 is
+   * returned and the enum is positioned on {@link #NO_MORE_DOCS}. After this
+   * method returns a value greater than 0, the enum is positioned on the
+   * last returned document.
+   * <p>
+   * The default implementation calls {@link #nextDoc()} and {@link #freq()}
+   * in a loop, but codecs that decode postings by blocks may override it in
+   * order to copy decoded documents directly.
+   * <p>
+   * <b>NOTE:</b> {@code docs} must have a length of at least 1 and
+   * {@code freqs}, if not null, must be at least as large as {@code docs}.
+   * @lucene.experimental
+   */
+  public int nextDocs(int[] docs, int[] freqs) throws IOException {
+    int count = 0;
+    while (count < docs.length) {
+      final int doc = nextDoc();
+      if (doc == NO_MORE_DOCS) {
+        break;
+      }
+      docs[count] = doc;
+      if (freqs != null) {
+        freqs[count] = freq();
+      }
+      count++;
+    }
+    return count;
+  }
+
 }
@@ -287,7 +287,9 @@ public final class SegmentInfo {
    * Get a codec attribute value, or null if it does not exist
    */
   public String getAttribute(String key) {
-    return attributes.get(key);
+    synchronized (attributes) {
+      return attributes.get(key);
+    }
   }
   
   /**
@@ -301,7 +303,10 @@ public final class SegmentInfo {
    * value.
    */
   public String putAttribute(String key, String value) {
-    return attributes.put(key, value);
+    // synchronized since codec writers may run concurrently on flush
+    synchronized (attributes) {
+      return attributes.put(key, value);
+    }
   }
   
   /**
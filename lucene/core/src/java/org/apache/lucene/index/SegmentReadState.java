@@ -17,6 +17,10 @@
 package org.apache.lucene.index;
 
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.lucene.codecs.PostingsFormat; // javadocs
 import org.apache.lucene.codecs.perfield.PerFieldPostingsFormat; // javadocs
 import org.apache.lucene.store.Directory;
@@ -49,11 +53,23 @@ public class SegmentReadState {
    *  {@link IndexFileNames#segmentFileName(String,String,String)}). */
   public final String segmentSuffix;
 
+  /** Configuration of the reader that is opening this segment, that
+   *  formats may use to change how they read their files.
+   *  @see DirectoryReader#open(Directory, Map)
+   *  @see IndexWriterConfig#setReaderAttributes(Map) */
+  public final Map<String, String> readerAttributes;
+
   /** Create a {@code SegmentReadState}. */
   public SegmentReadState(Directory dir, SegmentInfo info,
       FieldInfos fieldInfos, IOContext context) {
     this(dir, info, fieldInfos,  context, "");
   }
+
+  /** Create a {@code SegmentReadState}. */
+  public SegmentReadState(Directory dir, SegmentInfo info,
+      FieldInfos fieldInfos, IOContext context, Map<String, String> readerAttributes) {
+    this(dir, info, fieldInfos,  context, "", readerAttributes);
+  }
   
   /** Create a {@code SegmentReadState}. */
   public SegmentReadState(Directory dir,
@@ -61,11 +77,22 @@ public class SegmentReadState {
                           FieldInfos fieldInfos,
                           IOContext context,
                           String segmentSuffix) {
+    this(dir, info, fieldInfos, context, segmentSuffix, Collections.emptyMap());
+  }
+
+  /** Create a {@code SegmentReadState}. */
+  public SegmentReadState(Directory dir,
+                          SegmentInfo info,
+                          FieldInfos fieldInfos,
+                          IOContext context,
+                          String segmentSuffix,
+                          Map<String, String> readerAttributes) {
     this.directory = dir;
     this.segmentInfo = info;
     this.fieldInfos = fieldInfos;
     this.context = context;
     this.segmentSuffix = segmentSuffix;
+    this.readerAttributes = Collections.unmodifiableMap(new HashMap<>(readerAttributes));
   }
 
   /** Create a {@code SegmentReadState}. */
@@ -76,5 +103,6 @@ public class SegmentReadState {
     this.fieldInfos = other.fieldInfos;
     this.context = other.context;
     this.segmentSuffix = newSegmentSuffix;
+    this.readerAttributes = other.readerAttributes;
   }
 }
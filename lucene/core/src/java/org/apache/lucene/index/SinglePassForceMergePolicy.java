@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/** This {@link MergePolicy} defers all merges to
+  * {@link IndexWriter#forceMerge(int)}. While documents are being added, no merges are selected, so that
+  * flushed segments are only written once. Then {@link IndexWriter#forceMerge(int)}
+  * merges all segments at once into the requested number of segments of
+  * similar sizes, rather than cascading through intermediate merges. This
+  * reduces the number of times that every byte is written when an index is
+  * built from scratch and force-merged afterwards, such as an offline rebuild.
+  * Forced deletes merges are delegated to the base {@code MergePolicy} given to
+  * the constructor.
+  * <p>This is only a merge policy, not a bulk loading API: documents still go
+  * through the regular indexing chain and its RAM buffer, and the only saving
+  * is on merges.
+  * <p>Large flushed segments, and thus fewer segments to merge, can be obtained
+  * by configuring a large {@link IndexWriterConfig#setRAMBufferSizeMB(double) RAM buffer}.
+  * Once the index is built, the base merge policy can be restored:
+  * <pre class="prettyprint lang-java">
+  *  IndexWriterConfig iwc = new IndexWriterConfig(new StandardAnalyzer());
+  *  iwc.setRAMBufferSizeMB(1024);
+  *  MergePolicy mergePolicy = iwc.getMergePolicy();
+  *  iwc.setMergePolicy(new SinglePassForceMergePolicy(mergePolicy));
+  *  IndexWriter w = new IndexWriter(dir, iwc);
+  *  // add documents
+  *  w.forceMerge(1);
+  *  w.getConfig().setMergePolicy(mergePolicy);
+  * </pre>
+  * <p>Merging segments at once requires keeping the files of all of them
+  * open at the same time, so a single merge never merges more than {@link
+  * #setMaxMergeAtOnce maxMergeAtOnce} segments. When there are more flushed
+  * segments than that, {@link IndexWriter#forceMerge(int)} takes several
+  * passes, which write some bytes more than once.
+  * @lucene.experimental
+  */
+public class SinglePassForceMergePolicy extends MergePolicyWrapper {
+
+  /** Default maximum number of segments that are merged at once. */
+  public static final int DEFAULT_MAX_MERGE_AT_ONCE = 100;
+
+  private int maxMergeAtOnce = DEFAULT_MAX_MERGE_AT_ONCE;
+
+  /** Wrap the given {@link MergePolicy} and disable natural merges so that
+   * segments only get merged by {@link IndexWriter#forceMerge(int)}. */
+  public SinglePassForceMergePolicy(MergePolicy in) {
+    super(in);
+  }
+
+  /** Maximum number of segments to be merged at a time by {@link
+   *  IndexWriter#forceMerge(int)}, which bounds the number of files that a
+   *  merge keeps open. Default is {@value #DEFAULT_MAX_MERGE_AT_ONCE}. */
+  public SinglePassForceMergePolicy setMaxMergeAtOnce(int v) {
+    if (v < 2) {
+      throw new IllegalArgumentException("maxMergeAtOnce must be > 1 (got " + v + ")");
+    }
+    maxMergeAtOnce = v;
+    return this;
+  }
+
+  /** Returns the current maxMergeAtOnce setting.
+   *
+   * @see #setMaxMergeAtOnce */
+  public int getMaxMergeAtOnce() {
+    return maxMergeAtOnce;
+  }
+
+  @Override
+  public MergeSpecification findMerges(MergeTrigger mergeTrigger, SegmentInfos segmentInfos, IndexWriter writer) {
+    return null;
+  }
+
+  @Override
+  public MergeSpecification findFullFlushMerges(MergeTrigger mergeTrigger, SegmentInfos segmentInfos, IndexWriter writer) {
+    return null;
+  }
+
+  @Override
+  public MergeSpecification findForcedMerges(SegmentInfos segmentInfos, int maxSegmentCount,
+      Map<SegmentCommitInfo,Boolean> segmentsToMerge, IndexWriter writer) throws IOException {
+    final Collection<SegmentCommitInfo> merging = writer.getMergingSegments();
+    final List<SegmentCommitInfo> eligible = new ArrayList<>();
+    long totalBytes = 0;
+    for (SegmentCommitInfo info : segmentInfos) {
+      if (segmentsToMerge.containsKey(info)) {
+        if (merging.contains(info)) {
+          // the single pass is still running
+          return null;
+        }
+        eligible.add(info);
+        totalBytes += size(info, writer);
+      }
+    }
+
+    if (eligible.size() <= maxSegmentCount) {
+      if (maxSegmentCount == 1 && eligible.size() == 1 && isMerged(segmentInfos, eligible.get(0), writer) == false) {
+        // rewrite the only segment, eg. to reclaim deleted documents
+        MergeSpecification spec = new MergeSpecification();
+        spec.add(new OneMerge(eligible));
+        return spec;
+      }
+      return null;
+    }
+
+    // split eligible segments into maxSegmentCount groups of adjacent segments
+    // that have roughly the same size, and merge each group at once, or in
+    // several passes if it has more than maxMergeAtOnce segments
+    MergeSpecification spec = new MergeSpecification();
+    List<SegmentCommitInfo> group = new ArrayList<>();
+    long groupsBytes = 0;
+    int remainingGroups = maxSegmentCount;
+    for (int i = 0; i < eligible.size(); ++i) {
+      final SegmentCommitInfo info = eligible.get(i);
+      group.add(info);
+      groupsBytes += size(info, writer);
+      final int remainingSegments = eligible.size() - i - 1;
+      final boolean lastGroup = remainingGroups == 1;
+      final boolean groupFull = groupsBytes * maxSegmentCount >= totalBytes * (maxSegmentCount - remainingGroups + 1);
+      if (remainingSegments == 0
+          || (lastGroup == false && (groupFull || remainingSegments == remainingGroups - 1))) {
+        addMerges(spec, group, segmentInfos, writer);
+        group = new ArrayList<>();
+        remainingGroups--;
+      }
+    }
+    return spec.merges.isEmpty() ? null : spec;
+  }
+
+  /** Merge the given group of segments, split into chunks of at most
+   *  maxMergeAtOnce adjacent segments. */
+  private void addMerges(MergeSpecification spec, List<SegmentCommitInfo> group,
+      SegmentInfos segmentInfos, IndexWriter writer) throws IOException {
+    final int numChunks = 1 + (group.size() - 1) / maxMergeAtOnce;
+    for (int i = 0; i < numChunks; ++i) {
+      final List<SegmentCommitInfo> chunk = group.subList(
+          (int) ((long) group.size() * i / numChunks),
+          (int) ((long) group.size() * (i + 1) / numChunks));
+      if (chunk.size() > 1 || isMerged(segmentInfos, chunk.get(0), writer) == false) {
+        spec.add(new OneMerge(chunk));
+      }
+    }
+  }
+
+}
@@ -38,19 +38,23 @@ public final class StandardDirectoryReader extends DirectoryReader {
   final SegmentInfos segmentInfos;
   private final boolean applyAllDeletes;
   private final boolean writeAllDeletes;
+  private final Map<String, String> readerAttributes;
   
   /** called only from static open() methods */
   StandardDirectoryReader(Directory directory, LeafReader[] readers, IndexWriter writer,
-                          SegmentInfos sis, boolean applyAllDeletes, boolean writeAllDeletes) throws IOException {
+                          SegmentInfos sis, boolean applyAllDeletes, boolean writeAllDeletes,
+                          Map<String, String> readerAttributes) throws IOException {
     super(directory, readers);
     this.writer = writer;
     this.segmentInfos = sis;
     this.applyAllDeletes = applyAllDeletes;
     this.writeAllDeletes = writeAllDeletes;
+    this.readerAttributes = readerAttributes;
   }
 
   /** called from DirectoryReader.open(...) methods */
-  static DirectoryReader open(final Directory directory, final IndexCommit commit) throws IOException {
+  static DirectoryReader open(final Directory directory, final IndexCommit commit,
+                              final Map<String, String> readerAttributes) throws IOException {
     return new SegmentInfos.FindSegmentsFile<DirectoryReader>(directory) {
       @Override
       protected DirectoryReader doBody(String segmentFileName) throws IOException {
@@ -59,12 +63,12 @@ public final class StandardDirectoryReader extends DirectoryReader {
         boolean success = false;
         try {
           for (int i = sis.size()-1; i >= 0; i--) {
-            readers[i] = new SegmentReader(sis.info(i), IOContext.READ);
+            readers[i] = new SegmentReader(sis.info(i), IOContext.READ, readerAttributes);
           }
 
           // This may throw CorruptIndexException if there are too many docs, so
           // it must be inside try clause so we close readers in that case:
-          DirectoryReader reader = new StandardDirectoryReader(directory, readers, null, sis, false, false);
+          DirectoryReader reader = new StandardDirectoryReader(directory, readers, null, sis, false, false, readerAttributes);
           success = true;
 
           return reader;
@@ -118,7 +122,8 @@ public final class StandardDirectoryReader extends DirectoryReader {
       
       StandardDirectoryReader result = new StandardDirectoryReader(dir,
                                                                    readers.toArray(new SegmentReader[readers.size()]), writer,
-                                                                   segmentInfos, applyAllDeletes, writeAllDeletes);
+                                                                   segmentInfos, applyAllDeletes, writeAllDeletes,
+                                                                   writer.readerAttributes);
       success = true;
       return result;
     } finally {
@@ -139,6 +144,15 @@ public final class StandardDirectoryReader extends DirectoryReader {
    *
    *  @lucene.internal */
   public static DirectoryReader open(Directory directory, SegmentInfos infos, List<? extends LeafReader> oldReaders) throws IOException {
+    return open(directory, infos, oldReaders, Collections.emptyMap());
+  }
+
+  /** Same as {@link #open(Directory, SegmentInfos, List)}, but new segments
+   *  are opened with the given reader attributes.
+   *
+   *  @lucene.internal */
+  public static DirectoryReader open(Directory directory, SegmentInfos infos, List<? extends LeafReader> oldReaders,
+                                     Map<String, String> readerAttributes) throws IOException {
 
     // we put the old SegmentReaders in a map, that allows us
     // to lookup a reader using its segment name
@@ -179,7 +193,7 @@ public final class StandardDirectoryReader extends DirectoryReader {
         if (oldReader == null || commitInfo.info.getUseCompoundFile() != oldReader.getSegmentInfo().info.getUseCompoundFile()) {
 
           // this is a new reader; in case we hit an exception we can decRef it safely
-          newReader = new SegmentReader(commitInfo, IOContext.READ);
+          newReader = new SegmentReader(commitInfo, IOContext.READ, readerAttributes);
           newReaders[i] = newReader;
         } else {
           if (oldReader.isNRT) {
@@ -215,7 +229,7 @@ public final class StandardDirectoryReader extends DirectoryReader {
         }
       }
     }    
-    return new StandardDirectoryReader(directory, newReaders, null, infos, false, false);
+    return new StandardDirectoryReader(directory, newReaders, null, infos, false, false, readerAttributes);
   }
 
   // TODO: move somewhere shared if it's useful elsewhere
@@ -328,7 +342,7 @@ public final class StandardDirectoryReader extends DirectoryReader {
   }
 
   DirectoryReader doOpenIfChanged(SegmentInfos infos) throws IOException {
-    return StandardDirectoryReader.open(directory, infos, getSequentialSubReaders());
+    return StandardDirectoryReader.open(directory, infos, getSequentialSubReaders(), readerAttributes);
   }
 
   @Override
@@ -624,6 +624,38 @@ public class TieredMergePolicy extends MergePolicy {
     return spec;
   }
 
+  /**
+   * Merges together the segments that are smaller than the
+   * {@link #setFloorSegmentMB floor segment size}, at most
+   * {@link #setMaxMergeAtOnce maxMergeAtOnce} at a time, so that a
+   * near-real-time reader does not see many tiny flushed segments.
+   */
+  @Override
+  public MergeSpecification findFullFlushMerges(MergeTrigger mergeTrigger, SegmentInfos infos, IndexWriter writer) throws IOException {
+    final Collection<SegmentCommitInfo> merging = writer.getMergingSegments();
+    final List<SegmentCommitInfo> eligible = new ArrayList<>();
+    for(SegmentCommitInfo info : infos) {
+      if (merging.contains(info) == false && size(info, writer) < floorSegmentBytes) {
+        eligible.add(info);
+      }
+    }
+
+    if (eligible.size() < 2) {
+      return null;
+    }
+
+    // merge the smallest segments first
+    Collections.sort(eligible, Collections.reverseOrder(new SegmentByteSizeDescending(writer)));
+
+    final MergeSpecification spec = new MergeSpecification();
+    final OneMerge merge = new OneMerge(eligible.subList(0, Math.min(maxMergeAtOnce, eligible.size())));
+    if (verbose(writer)) {
+      message("add full flush merge=" + writer.segString(merge.segments), writer);
+    }
+    spec.add(merge);
+    return spec;
+  }
+
   private long floorSize(long bytes) {
     return Math.max(floorSegmentBytes, bytes);
   }
@@ -296,7 +296,19 @@ final class BooleanWeight extends Weight {
     if (scorerSupplier == null) {
       return null;
     }
-    return scorerSupplier.get(false);
+    return scorerSupplier.get(Long.MAX_VALUE);
+  }
+
+  @Override
+  public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+    ScorerSupplier scorerSupplier = scorerSupplier(context);
+    if (scorerSupplier == null) {
+      return null;
+    }
+    if (scorerSupplier instanceof Boolean2ScorerSupplier) {
+      return ((Boolean2ScorerSupplier) scorerSupplier).get(Long.MAX_VALUE, true);
+    }
+    return scorerSupplier.get(Long.MAX_VALUE);
   }
 
   @Override
@@ -316,6 +328,8 @@ final class BooleanWeight extends Weight {
         if (c.isRequired()) {
           return null;
         }
+      } else if (c.isScoring() == false || needsScores == false) {
+        addNonScoringClause(scorers, c.getOccur(), subScorer);
       } else {
         scorers.get(c.getOccur()).add(subScorer);
       }
@@ -348,4 +362,23 @@ final class BooleanWeight extends Weight {
     return new Boolean2ScorerSupplier(this, scorers, needsScores, minShouldMatch);
   }
 
+  /** Add a clause that does not participate in scoring. Required clauses that
+   *  are pure conjunctions themselves are flattened into this query so that
+   *  all required clauses are taken into account when picking the clause that
+   *  leads iteration, and so that more clauses may be verified rather than
+   *  iterated. */
+  private static void addNonScoringClause(Map<Occur, Collection<ScorerSupplier>> scorers, Occur occur, ScorerSupplier subScorer) {
+    if ((occur == Occur.FILTER || occur == Occur.MUST)
+        && subScorer instanceof Boolean2ScorerSupplier
+        && ((Boolean2ScorerSupplier) subScorer).isPureConjunction()) {
+      // +(+a +b -c) is equivalent to +a +b -c
+      final Boolean2ScorerSupplier nested = (Boolean2ScorerSupplier) subScorer;
+      scorers.get(occur).addAll(nested.getSubs(Occur.FILTER));
+      scorers.get(occur).addAll(nested.getSubs(Occur.MUST));
+      scorers.get(Occur.MUST_NOT).addAll(nested.getSubs(Occur.MUST_NOT));
+    } else {
+      scorers.get(occur).add(subScorer);
+    }
+  }
+
 }
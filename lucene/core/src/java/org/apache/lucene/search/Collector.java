@@ -79,4 +79,18 @@ public interface Collector {
    * @return {@code true} if scores are needed.
    */
   boolean needsScores();
+
+  /**
+   * Indicates if this collector may call {@link Scorer#setMinCompetitiveScore(float)}
+   * on the scorers that it is given, meaning that it does not need all matching
+   * documents to be collected. When this returns {@code true},
+   * {@link IndexSearcher} iterates over matches using {@link Scorer}s rather
+   * than {@link BulkScorer}s since the latter always collect all matches.
+   * The default implementation returns {@code false}.
+   *
+   * @lucene.experimental
+   */
+  default boolean skipsNonCompetitiveHits() {
+    return false;
+  }
 }
@@ -43,6 +43,9 @@ public class DisiWrapper {
   public int lastApproxMatchDoc; // last doc of approximation that did match
   public int lastApproxNonMatchDoc; // last doc of approximation that did not match
 
+  // For WANDScorer
+  long maxScore;
+
   public DisiWrapper(Scorer scorer) {
     this.scorer = scorer;
     this.spans = null;
@@ -48,6 +48,9 @@ import org.apache.lucene.search.TotalHitCountCollector;
  * will be correct. However the total of {@link TopDocsCollector#getTotalHits()
  * hit count} will be vastly underestimated since not all matching documents will have
  * been collected.
+ * <p>
+ * <b>NOTE</b>: {@link TopFieldCollector} early terminates sorted segments on
+ * its own when it is created with {@code trackTotalHits=false}.
  *
  * @lucene.experimental
  */
@@ -49,4 +49,9 @@ public abstract class FilterCollector implements Collector {
   public boolean needsScores() {
     return in.needsScores();
   }
+
+  @Override
+  public boolean skipsNonCompetitiveHits() {
+    return in.skipsNonCompetitiveHits();
+  }
 }
@@ -31,6 +31,10 @@ import org.apache.lucene.index.Term;
  * {@code FilterWeight} must provide their bulkScorer implementation
  * if required.
  *
+ * {@link #topScoresScorer(LeafReaderContext)} is delegated to the contained
+ * weight, so subclasses that override {@link #scorer(LeafReaderContext)} in
+ * order to change the matches or scores must override it too.
+ *
  * @lucene.internal
  */
 public abstract class FilterWeight extends Weight {
@@ -70,4 +74,9 @@ public abstract class FilterWeight extends Weight {
     return in.scorer(context);
   }
 
+  @Override
+  public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+    return in.topScoresScorer(context);
+  }
+
 }
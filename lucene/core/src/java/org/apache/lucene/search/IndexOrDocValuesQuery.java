@@ -44,7 +44,9 @@ import org.apache.lucene.index.Term;
  * perform better, ie. when we need a good lead iterator that will be almost
  * entirely consumed; and doc values otherwise, ie. in the case that another
  * part of the query is already leading iteration but we still need the ability
- * to verify that some documents match.
+ * to verify that some documents match. The decision is made based on the cost
+ * of the clause that leads iteration, which is propagated through enclosing
+ * boolean queries, so nested filters benefit from it too.
  * <p><b>NOTE</b>This query currently only works well with point range/exact
  * queries and their equivalent doc values queries.
  * @lucene.experimental
@@ -141,8 +143,17 @@ public final class IndexOrDocValuesQuery extends Query {
         }
         return new ScorerSupplier() {
           @Override
-          public Scorer get(boolean randomAccess) throws IOException {
-            return (randomAccess ? dvScorerSupplier : indexScorerSupplier).get(randomAccess);
+          public Scorer get(long leadCost) throws IOException {
+            // At equal costs, doc values tend to be worse than points since they
+            // still need to perform one comparison per document while points can
+            // do much better than that given how values are organized. So we give
+            // an arbitrary 8x penalty to doc values.
+            final long threshold = cost() >>> 3;
+            if (threshold <= leadCost) {
+              return indexScorerSupplier.get(leadCost);
+            } else {
+              return dvScorerSupplier.get(leadCost);
+            }
           }
 
           @Override
@@ -158,7 +169,7 @@ public final class IndexOrDocValuesQuery extends Query {
         if (scorerSupplier == null) {
           return null;
         }
-        return scorerSupplier.get(false);
+        return scorerSupplier.get(Long.MAX_VALUE);
       }
     };
   }
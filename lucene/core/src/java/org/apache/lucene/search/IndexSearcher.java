@@ -188,6 +188,11 @@ public class IndexSearcher {
   /** The Similarity implementation used by this searcher. */
   private Similarity similarity = defaultSimilarity;
 
+  /** Default value of {@link #getConcurrentPointsIntersectMinCost()}. */
+  public static final long DEFAULT_CONCURRENT_POINTS_INTERSECT_MIN_COST = 1L << 23;
+
+  private long concurrentPointsIntersectMinCost = DEFAULT_CONCURRENT_POINTS_INTERSECT_MIN_COST;
+
   /** Creates a searcher searching the provided index. */
   public IndexSearcher(IndexReader r) {
     this(r, null);
@@ -294,6 +299,7 @@ public class IndexSearcher {
    * Expert: Creates an array of leaf slices each holding a subset of the given leaves.
    * Each {@link LeafSlice} is executed in a single thread. By default there
    * will be one {@link LeafSlice} per leaf ({@link org.apache.lucene.index.LeafReaderContext}).
+   * @see #slices(List, int, int)
    */
   protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
     LeafSlice[] slices = new LeafSlice[leaves.size()];
@@ -302,12 +308,100 @@ public class IndexSearcher {
     }
     return slices;
   }
+
+  /**
+   * Expert: Creates slices that do not depend on the geometry of the index.
+   * Leaves that have more than {@code maxDocsPerSlice} documents are split
+   * into ranges of doc IDs that are searched concurrently, while consecutive
+   * small leaves are grouped together so that each slice has at most
+   * {@code maxDocsPerSlice} documents and {@code maxSegmentsPerSlice} leaves.
+   * Slices are returned in doc ID order and cover contiguous ranges of doc
+   * IDs so that ties are broken the same way as with a sequential search.
+   * This can be used by sub-classes that override {@link #slices(List)} in
+   * order to make query latency scale with the number of threads of the
+   * executor even on force-merged indices.
+   * @lucene.experimental
+   */
+  public static LeafSlice[] slices(List<LeafReaderContext> leaves, int maxDocsPerSlice, int maxSegmentsPerSlice) {
+    if (maxDocsPerSlice < 1) {
+      throw new IllegalArgumentException("maxDocsPerSlice must be >= 1, got " + maxDocsPerSlice);
+    }
+    if (maxSegmentsPerSlice < 1) {
+      throw new IllegalArgumentException("maxSegmentsPerSlice must be >= 1, got " + maxSegmentsPerSlice);
+    }
+
+    final List<LeafSlice> slices = new ArrayList<>();
+    List<LeafReaderContext> group = new ArrayList<>();
+    long docsInGroup = 0;
+    for (LeafReaderContext ctx : leaves) {
+      final int maxDoc = ctx.reader().maxDoc();
+      if (maxDoc > maxDocsPerSlice) {
+        if (group.isEmpty() == false) {
+          slices.add(new LeafSlice(group.toArray(new LeafReaderContext[group.size()])));
+          group = new ArrayList<>();
+          docsInGroup = 0;
+        }
+        // split the leaf into ranges of equal sizes
+        final int numPartitions = (int) ((maxDoc + (long) maxDocsPerSlice - 1) / maxDocsPerSlice);
+        for (int i = 0; i < numPartitions; ++i) {
+          final int minDoc = (int) ((long) maxDoc * i / numPartitions);
+          final int maxDocExclusive = (int) ((long) maxDoc * (i + 1) / numPartitions);
+          slices.add(new LeafSlice(ctx, minDoc, maxDocExclusive));
+        }
+        continue;
+      }
+      if (group.isEmpty() == false
+          && (docsInGroup + maxDoc > maxDocsPerSlice || group.size() == maxSegmentsPerSlice)) {
+        slices.add(new LeafSlice(group.toArray(new LeafReaderContext[group.size()])));
+        group = new ArrayList<>();
+        docsInGroup = 0;
+      }
+      group.add(ctx);
+      docsInGroup += maxDoc;
+    }
+    if (group.isEmpty() == false) {
+      slices.add(new LeafSlice(group.toArray(new LeafReaderContext[group.size()])));
+    }
+
+    return slices.toArray(new LeafSlice[slices.size()]);
+  }
   
   /** Return the {@link IndexReader} this searches. */
   public IndexReader getIndexReader() {
     return reader;
   }
 
+  /** Return the {@link ExecutorService} that this searcher uses, or
+   *  {@code null} if it searches leaves sequentially. Queries may use it
+   *  in order to parallelize work within a single leaf.
+   *  @lucene.experimental */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /** Expert: Set the minimum estimated number of matching points in a leaf
+   *  for {@link PointRangeQuery} to intersect its points tree concurrently
+   *  on the {@link #getExecutor() executor} of this searcher. Each sub-tree
+   *  builds its own set of doc IDs before they are merged, so this requires
+   *  more memory than a sequential intersection. Use {@link Long#MAX_VALUE}
+   *  to disable concurrent intersection. Default is
+   *  {@value #DEFAULT_CONCURRENT_POINTS_INTERSECT_MIN_COST}.
+   *  @lucene.experimental */
+  public void setConcurrentPointsIntersectMinCost(long minCost) {
+    if (minCost < 0) {
+      throw new IllegalArgumentException("minCost must be >= 0, got " + minCost);
+    }
+    this.concurrentPointsIntersectMinCost = minCost;
+  }
+
+  /** Return the minimum estimated number of matching points in a leaf for
+   *  its points tree to be intersected concurrently.
+   *  @see #setConcurrentPointsIntersectMinCost(long)
+   *  @lucene.experimental */
+  public long getConcurrentPointsIntersectMinCost() {
+    return concurrentPointsIntersectMinCost;
+  }
+
   /** 
    * Sugar for <code>.getIndexReader().document(docID)</code> 
    * @see IndexReader#document(int) 
@@ -593,12 +687,17 @@ public class IndexSearcher {
       final Weight weight = createNormalizedWeight(query, needsScores);
       final List<Future<C>> topDocsFutures = new ArrayList<>(leafSlices.length);
       for (int i = 0; i < leafSlices.length; ++i) {
-        final LeafReaderContext[] leaves = leafSlices[i].leaves;
+        final LeafSlice slice = leafSlices[i];
         final C collector = collectors.get(i);
         topDocsFutures.add(executor.submit(new Callable<C>() {
           @Override
           public C call() throws Exception {
-            search(Arrays.asList(leaves), weight, collector);
+            if (slice.minDoc == 0 && slice.maxDoc == DocIdSetIterator.NO_MORE_DOCS) {
+              search(Arrays.asList(slice.leaves), weight, collector);
+            } else {
+              // only search a range of doc IDs of a single leaf
+              search(slice.leaves[0], slice.minDoc, slice.maxDoc, weight, collector);
+            }
             return collector;
           }
         }));
@@ -645,22 +744,40 @@ public class IndexSearcher {
     // threaded...?  the Collector could be sync'd?
     // always use single thread:
     for (LeafReaderContext ctx : leaves) { // search each subreader
-      final LeafCollector leafCollector;
+      search(ctx, 0, DocIdSetIterator.NO_MORE_DOCS, weight, collector);
+    }
+  }
+
+  /** Search documents whose ID is in {@code [minDoc, maxDoc)} in the given leaf. */
+  private void search(LeafReaderContext ctx, int minDoc, int maxDoc, Weight weight, Collector collector)
+      throws IOException {
+    final LeafCollector leafCollector;
+    try {
+      leafCollector = collector.getLeafCollector(ctx);
+    } catch (CollectionTerminatedException e) {
+      // there is no doc of interest in this reader context
+      // continue with the following leaf
+      return;
+    }
+    BulkScorer scorer;
+    if (collector.skipsNonCompetitiveHits()) {
+      // bulk scorers collect all matches, go through the Scorer API so that the
+      // collector can tell the scorer to skip over non-competitive documents
+      Scorer s = weight.topScoresScorer(ctx);
+      scorer = s == null ? null : new Weight.DefaultBulkScorer(s);
+    } else {
+      scorer = weight.bulkScorer(ctx);
+    }
+    if (scorer != null) {
       try {
-        leafCollector = collector.getLeafCollector(ctx);
-      } catch (CollectionTerminatedException e) {
-        // there is no doc of interest in this reader context
-        // continue with the following leaf
-        continue;
-      }
-      BulkScorer scorer = weight.bulkScorer(ctx);
-      if (scorer != null) {
-        try {
+        if (minDoc == 0 && maxDoc == DocIdSetIterator.NO_MORE_DOCS) {
           scorer.score(leafCollector, ctx.reader().getLiveDocs());
-        } catch (CollectionTerminatedException e) {
-          // collection was terminated prematurely
-          // continue with the following leaf
+        } else {
+          scorer.score(leafCollector, ctx.reader().getLiveDocs(), minDoc, maxDoc);
         }
+      } catch (CollectionTerminatedException e) {
+        // collection was terminated prematurely
+        // continue with the following leaf
       }
     }
   }
@@ -756,9 +873,24 @@ public class IndexSearcher {
    */
   public static class LeafSlice {
     final LeafReaderContext[] leaves;
+    // range of doc IDs to search, only used when the slice has a single leaf
+    final int minDoc, maxDoc;
     
     public LeafSlice(LeafReaderContext... leaves) {
       this.leaves = leaves;
+      this.minDoc = 0;
+      this.maxDoc = DocIdSetIterator.NO_MORE_DOCS;
+    }
+
+    /** Create a slice that only searches documents whose ID is in
+     *  {@code [minDoc, maxDoc)} in the given leaf. */
+    public LeafSlice(LeafReaderContext leaf, int minDoc, int maxDoc) {
+      if (minDoc < 0 || minDoc > maxDoc) {
+        throw new IllegalArgumentException("Illegal doc ID range: [" + minDoc + ", " + maxDoc + ")");
+      }
+      this.leaves = new LeafReaderContext[] { leaf };
+      this.minDoc = minDoc;
+      this.maxDoc = maxDoc;
     }
   }
 
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 
@@ -81,6 +82,11 @@ import org.apache.lucene.util.RoaringDocIdSet;
  * It is better to not perform heavy computations in these methods though since
  * they are called synchronously and under a lock.
  *
+ * Lookups are skipped rather than waiting when the lock is held by another
+ * thread, see {@link #getLockContentionCount()}. Applications that run many
+ * cached queries concurrently can reduce contention by using a
+ * {@link StripedLRUQueryCache}.
+ *
  * @see QueryCachingPolicy
  * @lucene.experimental
  */
@@ -117,6 +123,8 @@ public class LRUQueryCache implements QueryCache, Accountable {
   private volatile long missCount;
   private volatile long cacheCount;
   private volatile long cacheSize;
+  // incremented without holding the lock
+  private final AtomicLong lockContentionCount = new AtomicLong();
 
   /**
    * Expert: Create a new instance that will cache at most <code>maxSize</code>
@@ -614,6 +622,19 @@ public class LRUQueryCache implements QueryCache, Accountable {
     return getCacheCount() - getCacheSize();
   }
 
+  /**
+   * Return the number of times that the cache could not be looked up because
+   * its lock was held by another thread, in which case the query was run
+   * without the cache. These lookups are not included in the
+   * {@link #getTotalCount() total count}. A high value relative to the total
+   * count indicates contention on this cache, which can be reduced by using a
+   * {@link StripedLRUQueryCache}.
+   * @see #getTotalCount()
+   */
+  public final long getLockContentionCount() {
+    return lockContentionCount.get();
+  }
+
   // this class is not thread-safe, everything but ramBytesUsed needs to be called under a lock
   private class LeafCache implements Accountable {
 
@@ -716,19 +737,20 @@ public class LRUQueryCache implements QueryCache, Accountable {
     }
 
     @Override
-    public Scorer scorer(LeafReaderContext context) throws IOException {
+    public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
       if (used.compareAndSet(false, true)) {
         policy.onUse(getQuery());
       }
       // Short-circuit: Check whether this segment is eligible for caching
       // before we take a lock because of #get
       if (shouldCache(context) == false) {
-        return in.scorer(context);
+        return in.scorerSupplier(context);
       }
 
       // If the lock is already busy, prefer using the uncached version than waiting
       if (lock.tryLock() == false) {
-        return in.scorer(context);
+        lockContentionCount.incrementAndGet();
+        return in.scorerSupplier(context);
       }
 
       DocIdSet docIdSet;
@@ -743,7 +765,7 @@ public class LRUQueryCache implements QueryCache, Accountable {
           docIdSet = cache(context);
           putIfAbsent(in.getQuery(), context, docIdSet);
         } else {
-          return in.scorer(context);
+          return in.scorerSupplier(context);
         }
       }
 
@@ -756,7 +778,26 @@ public class LRUQueryCache implements QueryCache, Accountable {
         return null;
       }
 
-      return new ConstantScoreScorer(this, 0f, disi);
+      return new ScorerSupplier() {
+        @Override
+        public Scorer get(long leadCost) throws IOException {
+          return new ConstantScoreScorer(CachingWrapperWeight.this, 0f, disi);
+        }
+
+        @Override
+        public long cost() {
+          return disi.cost();
+        }
+      };
+    }
+
+    @Override
+    public Scorer scorer(LeafReaderContext context) throws IOException {
+      ScorerSupplier scorerSupplier = scorerSupplier(context);
+      if (scorerSupplier == null) {
+        return null;
+      }
+      return scorerSupplier.get(Long.MAX_VALUE);
     }
 
     @Override
@@ -772,6 +813,7 @@ public class LRUQueryCache implements QueryCache, Accountable {
 
       // If the lock is already busy, prefer using the uncached version than waiting
       if (lock.tryLock() == false) {
+        lockContentionCount.incrementAndGet();
         return in.bulkScorer(context);
       }
 
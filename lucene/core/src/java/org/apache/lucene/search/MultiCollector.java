@@ -89,17 +89,23 @@ public class MultiCollector implements Collector {
   }
   
   private final boolean cacheScores;
+  private final boolean ignoreMinCompetitiveScore;
   private final Collector[] collectors;
 
   private MultiCollector(Collector... collectors) {
     this.collectors = collectors;
     int numNeedsScores = 0;
+    boolean skipsNonCompetitiveHits = false;
     for (Collector collector : collectors) {
       if (collector.needsScores()) {
         numNeedsScores += 1;
       }
+      skipsNonCompetitiveHits |= collector.skipsNonCompetitiveHits();
     }
     this.cacheScores = numNeedsScores >= 2;
+    // a sub collector may only skip non-competitive hits if it is the
+    // only one that collects the segment
+    this.ignoreMinCompetitiveScore = skipsNonCompetitiveHits;
   }
 
   @Override
@@ -131,19 +137,21 @@ public class MultiCollector implements Collector {
       case 1:
         return leafCollectors.get(0);
       default:
-        return new MultiLeafCollector(leafCollectors, cacheScores);
+        return new MultiLeafCollector(leafCollectors, cacheScores, ignoreMinCompetitiveScore);
     }
   }
 
   private static class MultiLeafCollector implements LeafCollector {
 
     private final boolean cacheScores;
+    private final boolean ignoreMinCompetitiveScore;
     private final LeafCollector[] collectors;
     private int numCollectors;
 
-    private MultiLeafCollector(List<LeafCollector> collectors, boolean cacheScores) {
+    private MultiLeafCollector(List<LeafCollector> collectors, boolean cacheScores, boolean ignoreMinCompetitiveScore) {
       this.collectors = collectors.toArray(new LeafCollector[collectors.size()]);
       this.cacheScores = cacheScores;
+      this.ignoreMinCompetitiveScore = ignoreMinCompetitiveScore;
       this.numCollectors = this.collectors.length;
     }
 
@@ -152,6 +160,11 @@ public class MultiCollector implements Collector {
       if (cacheScores) {
         scorer = new ScoreCachingWrappingScorer(scorer);
       }
+      if (ignoreMinCompetitiveScore) {
+        // other collectors might need the hits that one collector considers
+        // non competitive, FilterScorer does not propagate the min score
+        scorer = new FilterScorer(scorer) {};
+      }
       for (int i = 0; i < numCollectors; ++i) {
         final LeafCollector c = collectors[i];
         c.setScorer(scorer);
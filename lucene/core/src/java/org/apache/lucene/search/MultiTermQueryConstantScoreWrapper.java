@@ -39,13 +39,19 @@ import org.apache.lucene.util.DocIdSetBuilder;
  * It tries to rewrite per-segment as a boolean query
  * that returns a constant score and otherwise fills a
  * bit set with matches and builds a Scorer on top of
- * this bit set.
+ * this bit set. Terms are enumerated with
+ * {@link MultiTermQuery#getTermsEnum(Terms)}, which
+ * intersects the terms dictionary directly for automaton
+ * queries, and postings are consumed in bulk.
  */
 final class MultiTermQueryConstantScoreWrapper<Q extends MultiTermQuery> extends Query {
 
   // mtq that matches 16 terms or less will be executed as a regular disjunction
   private static final int BOOLEAN_REWRITE_TERM_COUNT_THRESHOLD = 16;
 
+  // number of doc IDs that are pulled at once from postings when building the bit set
+  private static final int POSTINGS_BUFFER_SIZE = 128;
+
   private static class TermAndState {
     final BytesRef term;
     final TermState state;
@@ -159,19 +165,21 @@ final class MultiTermQueryConstantScoreWrapper<Q extends MultiTermQuery> extends
 
         // Too many terms: go back to the terms we already collected and start building the bit set
         DocIdSetBuilder builder = new DocIdSetBuilder(context.reader().maxDoc(), terms);
+        final int[] buffer = new int[POSTINGS_BUFFER_SIZE];
         if (collectedTerms.isEmpty() == false) {
           TermsEnum termsEnum2 = terms.iterator();
           for (TermAndState t : collectedTerms) {
             termsEnum2.seekExact(t.term, t.state);
             docs = termsEnum2.postings(docs, PostingsEnum.NONE);
-            builder.add(docs);
+            builder.add(docs, buffer);
           }
         }
 
-        // Then keep filling the bit set with remaining terms
+        // Then keep filling the bit set with remaining terms, postings are
+        // pulled in bulk since there are likely many of them
         do {
           docs = termsEnum.postings(docs, PostingsEnum.NONE);
-          builder.add(docs);
+          builder.add(docs, buffer);
         } while (termsEnum.next() != null);
 
         return new WeightOrDocIdSet(builder.build());
@@ -17,8 +17,14 @@
 package org.apache.lucene.search;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.PointValues.IntersectVisitor;
@@ -29,7 +35,10 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.DocIdSetBuilder;
 import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.StringHelper;
+import org.apache.lucene.util.ThreadInterruptedException;
+import org.apache.lucene.util.bkd.BKDReader;
 
 /** 
  * Abstract class for range queries against single or multidimensional points such as
@@ -41,10 +50,22 @@ import org.apache.lucene.util.StringHelper;
  * fields indexed with {@link IntPoint}.
  * <p>
  * For a single-dimensional field this query is a simple range query; in a multi-dimensional field it's a box shape.
+ * <p>
+ * When the {@link IndexSearcher} has an {@link IndexSearcher#getExecutor() executor}
+ * and the estimated number of matching points in a leaf is at least
+ * {@link IndexSearcher#getConcurrentPointsIntersectMinCost()}, the points tree of the leaf is split
+ * into sub-trees that are intersected in parallel. This only happens when the
+ * query leads iteration, since verifying matches of another clause with
+ * doc values is cheaper, see {@link IndexOrDocValuesQuery}.
  * @see PointValues
  * @lucene.experimental
  */
 public abstract class PointRangeQuery extends Query {
+
+  /** Number of levels of the points tree to split on in order to create
+   *  concurrent tasks, ie. leaves are split into at most 4 sub-trees. */
+  static final int CONCURRENT_INTERSECT_SPLIT_DEPTH = 2;
+
   final String field;
   final int numDims;
   final int bytesPerDim;
@@ -104,6 +125,9 @@ public abstract class PointRangeQuery extends Query {
     // We don't use RandomAccessWeight here: it's no good to approximate with "match all docs".
     // This is an inverted structure and should be used in the first pass:
 
+    final ExecutorService executor = searcher.getExecutor();
+    final long concurrentIntersectMinCost = searcher.getConcurrentPointsIntersectMinCost();
+
     return new ConstantScoreWeight(this, boost) {
 
       private IntersectVisitor getIntersectVisitor(DocIdSetBuilder result) {
@@ -223,6 +247,54 @@ public abstract class PointRangeQuery extends Query {
         };
       }
 
+      /**
+       * Intersect sub-trees of the points tree concurrently, each of them
+       * into its own {@link DocIdSetBuilder}, and merge the results.
+       */
+      private DocIdSetIterator intersectConcurrently(BKDReader values, int maxDoc) throws IOException {
+        // the builder is not used since split() only calls compare()
+        final List<BKDReader.SubTree> subTrees = values.split(getIntersectVisitor(null), CONCURRENT_INTERSECT_SPLIT_DEPTH);
+        final List<DocIdSetBuilder> results = new ArrayList<>();
+        final List<FutureTask<Void>> tasks = new ArrayList<>();
+        for (BKDReader.SubTree subTree : subTrees) {
+          final DocIdSetBuilder result = new DocIdSetBuilder(maxDoc, values, field);
+          final IntersectVisitor visitor = getIntersectVisitor(result);
+          results.add(result);
+          tasks.add(new FutureTask<>(() -> {
+            subTree.intersect(visitor);
+            return null;
+          }));
+        }
+
+        // the first task runs in the current thread
+        for (int i = 1; i < tasks.size(); ++i) {
+          try {
+            executor.execute(tasks.get(i));
+          } catch (RejectedExecutionException e) {
+            // the task will run in the current thread
+          }
+        }
+        for (FutureTask<Void> task : tasks) {
+          // Run tasks that did not start yet in the current thread: this is a
+          // no-op for tasks that already started, and it prevents dead locks
+          // if all threads of the executor are waiting on sub-tree intersections
+          task.run();
+          try {
+            task.get();
+          } catch (InterruptedException e) {
+            throw new ThreadInterruptedException(e);
+          } catch (ExecutionException e) {
+            IOUtils.reThrow(e.getCause());
+          }
+        }
+
+        final DocIdSetBuilder result = new DocIdSetBuilder(maxDoc, values, field);
+        for (DocIdSetBuilder partialResult : results) {
+          result.add(partialResult.build().iterator());
+        }
+        return result.build().iterator();
+      }
+
       @Override
       public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
         LeafReader reader = context.reader();
@@ -262,7 +334,7 @@ public abstract class PointRangeQuery extends Query {
           // all docs have a value and all points are within bounds, so everything matches
           return new ScorerSupplier() {
             @Override
-            public Scorer get(boolean randomAccess) {
+            public Scorer get(long leadCost) {
               return new ConstantScoreScorer(weight, score(),
                   DocIdSetIterator.all(reader.maxDoc()));
             }
@@ -280,7 +352,7 @@ public abstract class PointRangeQuery extends Query {
             long cost = -1;
 
             @Override
-            public Scorer get(boolean randomAccess) throws IOException {
+            public Scorer get(long leadCost) throws IOException {
               if (values.getDocCount() == reader.maxDoc()
                   && values.getDocCount() == values.size()
                   && cost() > reader.maxDoc() / 2) {
@@ -295,6 +367,15 @@ public abstract class PointRangeQuery extends Query {
                 return new ConstantScoreScorer(weight, score(), iterator);
               }
 
+              if (cost() <= leadCost
+                  && executor != null
+                  && values instanceof BKDReader
+                  && cost() >= concurrentIntersectMinCost) {
+                // Large leaf that leads iteration: intersect sub-trees in parallel
+                DocIdSetIterator iterator = intersectConcurrently((BKDReader) values, reader.maxDoc());
+                return new ConstantScoreScorer(weight, score(), iterator);
+              }
+
               values.intersect(visitor);
               DocIdSetIterator iterator = result.build().iterator();
               return new ConstantScoreScorer(weight, score(), iterator);
@@ -319,7 +400,7 @@ public abstract class PointRangeQuery extends Query {
         if (scorerSupplier == null) {
           return null;
         }
-        return scorerSupplier.get(false);
+        return scorerSupplier.get(Long.MAX_VALUE);
       }
     };
   }
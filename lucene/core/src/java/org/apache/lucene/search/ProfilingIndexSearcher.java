@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.QueryProfile.Breakdown;
+import org.apache.lucene.search.QueryProfile.Timing;
+import org.apache.lucene.util.Bits;
+
+/**
+ * An {@link IndexSearcher} that records how much time is spent on every node
+ * of the queries that it runs. Every {@link Weight} that is created by this
+ * searcher, including the weights of sub queries, is wrapped in order to
+ * record timings and call counts of its scorers, which can then be retrieved
+ * through {@link #getProfiles()}:
+ * <pre class="prettyprint">
+ *   ProfilingIndexSearcher searcher = new ProfilingIndexSearcher(reader);
+ *   TopDocs topDocs = searcher.search(query, 10);
+ *   QueryProfile profile = searcher.getProfiles().get(0);
+ * </pre>
+ *
+ * Profiling has an overhead and prevents some optimizations that rely on the
+ * concrete type of scorers, so it should only be enabled for a sample of the
+ * searches. Creating a new profiling searcher per profiled search is cheap.
+ * Weights must be created by a single thread at a time, but searches may run
+ * concurrently on an {@link ExecutorService}.
+ *
+ * @see QueryProfile
+ * @lucene.experimental
+ */
+public class ProfilingIndexSearcher extends IndexSearcher {
+
+  private final List<QueryProfile> profiles = new ArrayList<>();
+  // profiles of the weights that are being created
+  private final Deque<QueryProfile> stack = new ArrayDeque<>();
+  private long rewriteTime;
+
+  /** Creates a searcher searching the provided index. */
+  public ProfilingIndexSearcher(IndexReader r) {
+    super(r);
+  }
+
+  /** Creates a searcher searching the provided index, using the provided
+   *  ExecutorService. */
+  public ProfilingIndexSearcher(IndexReader r, ExecutorService executor) {
+    super(r, executor);
+  }
+
+  @Override
+  public Query rewrite(Query original) throws IOException {
+    final long start = System.nanoTime();
+    try {
+      return super.rewrite(original);
+    } finally {
+      rewriteTime += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public Weight createWeight(Query query, boolean needsScores, float boost) throws IOException {
+    final QueryProfile profile = new QueryProfile(query);
+    if (stack.isEmpty()) {
+      profiles.add(profile);
+    } else {
+      stack.peek().addChild(profile);
+    }
+    stack.push(profile);
+    final Weight weight;
+    profile.weightBreakdown.start(Timing.CREATE_WEIGHT);
+    try {
+      weight = super.createWeight(query, needsScores, boost);
+    } finally {
+      profile.weightBreakdown.stop(Timing.CREATE_WEIGHT);
+      stack.pop();
+    }
+    return new ProfileWeight(weight, profile);
+  }
+
+  /** Return the profiles of the top-level queries that have been run by this
+   *  searcher, in order. */
+  public List<QueryProfile> getProfiles() {
+    return Collections.unmodifiableList(profiles);
+  }
+
+  /** Return the time in nanoseconds that has been spent rewriting queries. */
+  public long getRewriteTime() {
+    return rewriteTime;
+  }
+
+  private static final class ProfileWeight extends Weight {
+
+    private final Weight in;
+    private final QueryProfile profile;
+
+    ProfileWeight(Weight in, QueryProfile profile) {
+      super(in.getQuery());
+      this.in = in;
+      this.profile = profile;
+    }
+
+    @Override
+    public void extractTerms(Set<Term> terms) {
+      in.extractTerms(terms);
+    }
+
+    @Override
+    public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+      return in.explain(context, doc);
+    }
+
+    @Override
+    public Scorer scorer(LeafReaderContext context) throws IOException {
+      final Breakdown breakdown = profile.newLeafBreakdown(context.ord);
+      final Scorer scorer;
+      breakdown.start(Timing.BUILD_SCORER);
+      try {
+        scorer = in.scorer(context);
+      } finally {
+        breakdown.stop(Timing.BUILD_SCORER);
+      }
+      return scorer == null ? null : new ProfileScorer(this, scorer, breakdown);
+    }
+
+    @Override
+    public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+      final Breakdown breakdown = profile.newLeafBreakdown(context.ord);
+      final Scorer scorer;
+      breakdown.start(Timing.BUILD_SCORER);
+      try {
+        scorer = in.topScoresScorer(context);
+      } finally {
+        breakdown.stop(Timing.BUILD_SCORER);
+      }
+      return scorer == null ? null : new ProfileScorer(this, scorer, breakdown);
+    }
+
+    @Override
+    public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
+      final Breakdown breakdown = profile.newLeafBreakdown(context.ord);
+      final ScorerSupplier supplier;
+      breakdown.start(Timing.BUILD_SCORER);
+      try {
+        supplier = in.scorerSupplier(context);
+      } finally {
+        breakdown.stop(Timing.BUILD_SCORER);
+      }
+      if (supplier == null) {
+        return null;
+      }
+      final Weight weight = this;
+      return new ScorerSupplier() {
+        @Override
+        public Scorer get(long leadCost) throws IOException {
+          final Scorer scorer;
+          breakdown.start(Timing.BUILD_SCORER);
+          try {
+            scorer = supplier.get(leadCost);
+          } finally {
+            breakdown.stop(Timing.BUILD_SCORER);
+          }
+          return new ProfileScorer(weight, scorer, breakdown);
+        }
+
+        @Override
+        public long cost() {
+          return supplier.cost();
+        }
+      };
+    }
+
+    @Override
+    public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+      final Breakdown breakdown = profile.newLeafBreakdown(context.ord);
+      final BulkScorer bulkScorer;
+      breakdown.start(Timing.BUILD_SCORER);
+      try {
+        bulkScorer = in.bulkScorer(context);
+      } finally {
+        breakdown.stop(Timing.BUILD_SCORER);
+      }
+      if (bulkScorer == null) {
+        return null;
+      }
+      return new BulkScorer() {
+        @Override
+        public int score(LeafCollector collector, Bits acceptDocs, int min, int max) throws IOException {
+          breakdown.start(Timing.BULK_SCORE);
+          try {
+            return bulkScorer.score(collector, acceptDocs, min, max);
+          } finally {
+            breakdown.stop(Timing.BULK_SCORE);
+          }
+        }
+
+        @Override
+        public long cost() {
+          return bulkScorer.cost();
+        }
+      };
+    }
+
+  }
+
+  private static final class ProfileScorer extends Scorer {
+
+    private final Scorer in;
+    private final Breakdown breakdown;
+
+    ProfileScorer(Weight weight, Scorer in, Breakdown breakdown) {
+      super(weight);
+      this.in = in;
+      this.breakdown = breakdown;
+    }
+
+    @Override
+    public int docID() {
+      return in.docID();
+    }
+
+    @Override
+    public float score() throws IOException {
+      breakdown.start(Timing.SCORE);
+      try {
+        return in.score();
+      } finally {
+        breakdown.stop(Timing.SCORE);
+      }
+    }
+
+    @Override
+    public int freq() throws IOException {
+      return in.freq();
+    }
+
+    @Override
+    public Collection<ChildScorer> getChildren() throws IOException {
+      return in.getChildren();
+    }
+
+    @Override
+    public DocIdSetIterator iterator() {
+      return new ProfileIterator(in.iterator(), breakdown);
+    }
+
+    @Override
+    public TwoPhaseIterator twoPhaseIterator() {
+      final TwoPhaseIterator twoPhase = in.twoPhaseIterator();
+      if (twoPhase == null) {
+        return null;
+      }
+      return new TwoPhaseIterator(new ProfileIterator(twoPhase.approximation(), breakdown)) {
+        @Override
+        public boolean matches() throws IOException {
+          breakdown.start(Timing.MATCHES);
+          try {
+            return twoPhase.matches();
+          } finally {
+            breakdown.stop(Timing.MATCHES);
+          }
+        }
+
+        @Override
+        public float matchCost() {
+          return twoPhase.matchCost();
+        }
+      };
+    }
+
+    @Override
+    public void setMinCompetitiveScore(float minScore) {
+      in.setMinCompetitiveScore(minScore);
+    }
+
+    @Override
+    public float maxScore() {
+      return in.maxScore();
+    }
+
+  }
+
+  private static final class ProfileIterator extends DocIdSetIterator {
+
+    private final DocIdSetIterator in;
+    private final Breakdown breakdown;
+
+    ProfileIterator(DocIdSetIterator in, Breakdown breakdown) {
+      this.in = in;
+      this.breakdown = breakdown;
+    }
+
+    @Override
+    public int docID() {
+      return in.docID();
+    }
+
+    @Override
+    public int nextDoc() throws IOException {
+      breakdown.start(Timing.NEXT_DOC);
+      try {
+        return in.nextDoc();
+      } finally {
+        breakdown.stop(Timing.NEXT_DOC);
+      }
+    }
+
+    @Override
+    public int advance(int target) throws IOException {
+      breakdown.start(Timing.ADVANCE);
+      try {
+        return in.advance(target);
+      } finally {
+        breakdown.stop(Timing.ADVANCE);
+      }
+    }
+
+    @Override
+    public long cost() {
+      return in.cost();
+    }
+
+  }
+
+}
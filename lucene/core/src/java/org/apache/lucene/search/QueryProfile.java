@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Timings and call counts that have been recorded by a
+ * {@link ProfilingIndexSearcher} for a node of a {@link Query} tree. There is
+ * one profile per call to {@link IndexSearcher#createWeight}, so profiles
+ * form a tree that is aligned with the structure of the rewritten query.
+ *
+ * Timings of a node include the time spent in its children. In order to keep
+ * the overhead low, only a sample of the calls to methods that are called many
+ * times, such as {@link DocIdSetIterator#nextDoc()}, is timed, and the time of
+ * other calls is extrapolated, so timings are approximate while counts are
+ * exact.
+ *
+ * @lucene.experimental
+ */
+public final class QueryProfile {
+
+  /** The operations that are profiled. */
+  public enum Timing {
+    /** {@link IndexSearcher#createWeight}, including caching. */
+    CREATE_WEIGHT,
+    /** {@link Weight#scorer}, {@link Weight#scorerSupplier}, {@link ScorerSupplier#get} and {@link Weight#bulkScorer}. */
+    BUILD_SCORER,
+    /** {@link DocIdSetIterator#nextDoc()} on the iterator or the approximation of a {@link Scorer}. */
+    NEXT_DOC,
+    /** {@link DocIdSetIterator#advance(int)} on the iterator or the approximation of a {@link Scorer}. */
+    ADVANCE,
+    /** {@link TwoPhaseIterator#matches()}. */
+    MATCHES,
+    /** {@link Scorer#score()}. */
+    SCORE,
+    /** {@link BulkScorer#score(LeafCollector, org.apache.lucene.util.Bits, int, int)}, including collection. */
+    BULK_SCORE;
+  }
+
+  /** Timings and counts of every {@link Timing} on a leaf, or across all leaves. */
+  public static final class Breakdown {
+
+    private static final Timing[] TIMINGS = Timing.values();
+
+    final int leafOrd;
+    private final long[] times = new long[TIMINGS.length];
+    private final long[] counts = new long[TIMINGS.length];
+    // state of the sampling of timings
+    private final long[] timedCounts = new long[TIMINGS.length];
+    private final boolean[] timed = new boolean[TIMINGS.length];
+    private final long[] starts = new long[TIMINGS.length];
+
+    Breakdown(int leafOrd) {
+      this.leafOrd = leafOrd;
+    }
+
+    void start(Timing timing) {
+      final int i = timing.ordinal();
+      final long timedCount = timedCounts[i];
+      // time every call at first, then less and less often, up to 1 call out of 1024
+      timed[i] = counts[i] - timedCount >= Math.min(timedCount >>> 8, 1024);
+      if (timed[i]) {
+        starts[i] = System.nanoTime();
+      }
+      counts[i]++;
+    }
+
+    void stop(Timing timing) {
+      final int i = timing.ordinal();
+      if (timed[i]) {
+        // extrapolate to the calls that have not been timed
+        times[i] += (counts[i] - timedCounts[i]) * Math.max(System.nanoTime() - starts[i], 1L);
+        timedCounts[i] = counts[i];
+      }
+    }
+
+    void add(Breakdown other) {
+      for (int i = 0; i < TIMINGS.length; ++i) {
+        times[i] += other.times[i];
+        counts[i] += other.counts[i];
+      }
+    }
+
+    /** Return the approximate time in nanoseconds spent on the given operation. */
+    public long getTime(Timing timing) {
+      return times[timing.ordinal()];
+    }
+
+    /** Return the number of calls to the given operation. */
+    public long getCount(Timing timing) {
+      return counts[timing.ordinal()];
+    }
+
+    /** Return the approximate time in nanoseconds spent on all operations. */
+    public long getTotalTime() {
+      long totalTime = 0;
+      for (long time : times) {
+        totalTime += time;
+      }
+      return totalTime;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      for (Timing timing : TIMINGS) {
+        if (getCount(timing) != 0) {
+          if (sb.length() > 0) {
+            sb.append(", ");
+          }
+          sb.append(timing.name().toLowerCase(Locale.ROOT)).append('=')
+              .append(String.format(Locale.ROOT, "%.3fms", getTime(timing) / 1000000.))
+              .append('/').append(getCount(timing));
+        }
+      }
+      return sb.toString();
+    }
+  }
+
+  private final Query query;
+  private final List<QueryProfile> children = new ArrayList<>();
+  final Breakdown weightBreakdown = new Breakdown(-1);
+  private final List<Breakdown> leafBreakdowns = new ArrayList<>();
+
+  QueryProfile(Query query) {
+    this.query = query;
+  }
+
+  void addChild(QueryProfile child) {
+    children.add(child);
+  }
+
+  /** Create the breakdown of a new scorer on the given leaf. */
+  Breakdown newLeafBreakdown(int leafOrd) {
+    final Breakdown breakdown = new Breakdown(leafOrd);
+    synchronized (leafBreakdowns) {
+      leafBreakdowns.add(breakdown);
+    }
+    return breakdown;
+  }
+
+  /** Return the profiled query. */
+  public Query getQuery() {
+    return query;
+  }
+
+  /** Return the profiles of the sub queries of this query. */
+  public List<QueryProfile> getChildren() {
+    return Collections.unmodifiableList(children);
+  }
+
+  /** Return timings and counts across all leaves. */
+  public Breakdown getBreakdown() {
+    final Breakdown breakdown = new Breakdown(-1);
+    breakdown.add(weightBreakdown);
+    synchronized (leafBreakdowns) {
+      for (Breakdown leafBreakdown : leafBreakdowns) {
+        breakdown.add(leafBreakdown);
+      }
+    }
+    return breakdown;
+  }
+
+  /** Return timings and counts per leaf, keyed by {@link org.apache.lucene.index.LeafReaderContext#ord ord}. */
+  public Map<Integer, Breakdown> getLeafBreakdowns() {
+    final Map<Integer, Breakdown> breakdowns = new TreeMap<>();
+    synchronized (leafBreakdowns) {
+      for (Breakdown leafBreakdown : leafBreakdowns) {
+        breakdowns.computeIfAbsent(leafBreakdown.leafOrd, Breakdown::new).add(leafBreakdown);
+      }
+    }
+    return breakdowns;
+  }
+
+  /** Return the approximate time in nanoseconds spent on this query, including its children. */
+  public long getTotalTime() {
+    return getBreakdown().getTotalTime();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    toString(sb, 0);
+    return sb.toString();
+  }
+
+  private void toString(StringBuilder sb, int depth) {
+    for (int i = 0; i < depth; ++i) {
+      sb.append("  ");
+    }
+    String name = query.getClass().getSimpleName();
+    if (name.isEmpty()) {
+      // anonymous sub-class
+      name = query.getClass().getSuperclass().getSimpleName();
+    }
+    sb.append(name).append(' ').append(query)
+        .append(" [").append(getBreakdown()).append("]\n");
+    for (QueryProfile child : children) {
+      child.toString(sb, depth + 1);
+    }
+  }
+
+}
@@ -81,6 +81,17 @@ class ReqExclScorer extends Scorer {
     return reqScorer.score(); // reqScorer may be null when next() or skipTo() already return false
   }
 
+  @Override
+  public void setMinCompetitiveScore(float minScore) {
+    // the score is the score of the required clause
+    reqScorer.setMinCompetitiveScore(minScore);
+  }
+
+  @Override
+  public float maxScore() {
+    return reqScorer.maxScore();
+  }
+
   @Override
   public Collection<ChildScorer> getChildren() {
     return Collections.singleton(new ChildScorer(reqScorer, "MUST"));
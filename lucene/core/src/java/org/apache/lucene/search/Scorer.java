@@ -146,4 +146,30 @@ public abstract class Scorer {
   public TwoPhaseIterator twoPhaseIterator() {
     return null;
   }
+
+  /**
+   * Optional method: Tell the scorer that its iterator may safely ignore all
+   * documents whose score is less than the given {@code minScore}. This is a
+   * no-op by default.
+   *
+   * This method may only be called from collectors that do not need to
+   * collect all matching documents, see {@link Collector#skipsNonCompetitiveHits()}.
+   * Successive calls must pass non-decreasing values.
+   *
+   * @lucene.experimental
+   */
+  public void setMinCompetitiveScore(float minScore) {
+    // no-op by default
+  }
+
+  /**
+   * Return an upper bound of the scores that this scorer may produce, or
+   * {@link Float#POSITIVE_INFINITY} if scores are not bounded, which is the
+   * default.
+   *
+   * @lucene.experimental
+   */
+  public float maxScore() {
+    return Float.POSITIVE_INFINITY;
+  }
 }
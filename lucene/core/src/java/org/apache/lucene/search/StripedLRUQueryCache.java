@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Accountables;
+
+/**
+ * A {@link QueryCache} that partitions queries across several
+ * {@link LRUQueryCache} stripes based on their hash code in order to reduce
+ * lock contention when many threads run cached queries concurrently.
+ *
+ * Each stripe has its own lock and evicts queries in LRU order
+ * independently of other stripes, so eviction is only an approximation of a
+ * global LRU policy. The maximum number of queries and the maximum amount of
+ * memory are evenly split across stripes so that the sum of the memory used
+ * by all stripes never exceeds the configured maximum. Note that stripes only
+ * cache on segments whose worst-case cache entry is reasonably small compared
+ * to their share of the memory, so the number of stripes should remain low
+ * when caching on large segments.
+ *
+ * This class is thread-safe.
+ *
+ * @see LRUQueryCache
+ * @lucene.experimental
+ */
+public class StripedLRUQueryCache implements QueryCache, Accountable {
+
+  // pkg-private for testing
+  final LRUQueryCache[] stripes;
+
+  /**
+   * Expert: Create a new instance that will cache at most <code>maxSize</code>
+   * queries with at most <code>maxRamBytesUsed</code> bytes of memory across
+   * <code>numStripes</code> stripes, only on leaves that satisfy
+   * {@code leavesToCache}.
+   */
+  public StripedLRUQueryCache(int numStripes, int maxSize, long maxRamBytesUsed,
+      Predicate<LeafReaderContext> leavesToCache) {
+    if (numStripes < 1) {
+      throw new IllegalArgumentException("numStripes must be >= 1, got " + numStripes);
+    }
+    stripes = new LRUQueryCache[numStripes];
+    for (int i = 0; i < numStripes; ++i) {
+      // distribute the remainder over the first stripes
+      final int stripeMaxSize = maxSize / numStripes + (i < maxSize % numStripes ? 1 : 0);
+      final long stripeMaxRamBytesUsed = maxRamBytesUsed / numStripes;
+      stripes[i] = newStripe(stripeMaxSize, stripeMaxRamBytesUsed, leavesToCache);
+    }
+  }
+
+  /**
+   * Create a new instance that will cache at most <code>maxSize</code> queries
+   * with at most <code>maxRamBytesUsed</code> bytes of memory across
+   * <code>numStripes</code> stripes. Queries are cached on the same leaves as
+   * {@link LRUQueryCache#LRUQueryCache(int, long)}.
+   */
+  public StripedLRUQueryCache(int numStripes, int maxSize, long maxRamBytesUsed) {
+    this(numStripes, maxSize, maxRamBytesUsed, new LRUQueryCache.MinSegmentSizePredicate(10000, .03f));
+  }
+
+  /**
+   * Expert: create the {@link LRUQueryCache} that is used as a stripe.
+   * Overriding this method is typically useful in order to compute more
+   * fine-grained statistics about the query cache through the
+   * {@link LRUQueryCache} callbacks.
+   */
+  protected LRUQueryCache newStripe(int maxSize, long maxRamBytesUsed,
+      Predicate<LeafReaderContext> leavesToCache) {
+    return new LRUQueryCache(maxSize, maxRamBytesUsed, leavesToCache);
+  }
+
+  /** Return the stripe that is responsible for the given query. */
+  LRUQueryCache stripe(Query query) {
+    int h = query.hashCode();
+    // queries often have poorly distributed low bits, mix them
+    h *= 0x9E3779B9;
+    h ^= h >>> 16;
+    return stripes[Math.floorMod(h, stripes.length)];
+  }
+
+  /** Return the number of stripes. */
+  public int getNumStripes() {
+    return stripes.length;
+  }
+
+  @Override
+  public Weight doCache(Weight weight, QueryCachingPolicy policy) {
+    return stripe(weight.getQuery()).doCache(weight, policy);
+  }
+
+  /**
+   * Remove all cache entries for the given core cache key.
+   */
+  public void clearCoreCacheKey(Object coreKey) {
+    for (LRUQueryCache stripe : stripes) {
+      stripe.clearCoreCacheKey(coreKey);
+    }
+  }
+
+  /**
+   * Remove all cache entries for the given query.
+   */
+  public void clearQuery(Query query) {
+    stripe(query).clearQuery(query);
+  }
+
+  /**
+   * Clear the content of this cache.
+   */
+  public void clear() {
+    for (LRUQueryCache stripe : stripes) {
+      stripe.clear();
+    }
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    long ramBytesUsed = 0;
+    for (LRUQueryCache stripe : stripes) {
+      ramBytesUsed += stripe.ramBytesUsed();
+    }
+    return ramBytesUsed;
+  }
+
+  @Override
+  public Collection<Accountable> getChildResources() {
+    List<Accountable> resources = new ArrayList<>();
+    for (int i = 0; i < stripes.length; ++i) {
+      resources.add(Accountables.namedAccountable("stripe " + i, stripes[i]));
+    }
+    return Collections.unmodifiableList(resources);
+  }
+
+  /**
+   * Return the total number of times that a {@link Query} has been looked up
+   * in this {@link QueryCache}.
+   * @see LRUQueryCache#getTotalCount()
+   */
+  public final long getTotalCount() {
+    return getHitCount() + getMissCount();
+  }
+
+  /**
+   * Return the sum of the {@link LRUQueryCache#getHitCount() hit counts} of
+   * all stripes.
+   */
+  public final long getHitCount() {
+    long hitCount = 0;
+    for (LRUQueryCache stripe : stripes) {
+      hitCount += stripe.getHitCount();
+    }
+    return hitCount;
+  }
+
+  /**
+   * Return the sum of the {@link LRUQueryCache#getMissCount() miss counts} of
+   * all stripes.
+   */
+  public final long getMissCount() {
+    long missCount = 0;
+    for (LRUQueryCache stripe : stripes) {
+      missCount += stripe.getMissCount();
+    }
+    return missCount;
+  }
+
+  /**
+   * Return the sum of the {@link LRUQueryCache#getCacheSize() cache sizes} of
+   * all stripes.
+   */
+  public final long getCacheSize() {
+    long cacheSize = 0;
+    for (LRUQueryCache stripe : stripes) {
+      cacheSize += stripe.getCacheSize();
+    }
+    return cacheSize;
+  }
+
+  /**
+   * Return the sum of the {@link LRUQueryCache#getCacheCount() cache counts} of
+   * all stripes.
+   */
+  public final long getCacheCount() {
+    long cacheCount = 0;
+    for (LRUQueryCache stripe : stripes) {
+      cacheCount += stripe.getCacheCount();
+    }
+    return cacheCount;
+  }
+
+  /**
+   * Return the number of cache entries that have been removed from the cache.
+   * @see LRUQueryCache#getEvictionCount()
+   */
+  public final long getEvictionCount() {
+    return getCacheCount() - getCacheSize();
+  }
+
+  /**
+   * Return the sum of the {@link LRUQueryCache#getLockContentionCount() lock
+   * contention counts} of all stripes.
+   */
+  public final long getLockContentionCount() {
+    long lockContentionCount = 0;
+    for (LRUQueryCache stripe : stripes) {
+      lockContentionCount += stripe.getLockContentionCount();
+    }
+    return lockContentionCount;
+  }
+
+}
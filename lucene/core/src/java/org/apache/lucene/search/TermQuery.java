@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.Objects;
 import java.util.Set;
 
+import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
@@ -33,6 +34,7 @@ import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.search.similarities.Similarity;
 import org.apache.lucene.search.similarities.Similarity.SimScorer;
+import org.apache.lucene.util.Bits;
 
 /**
  * A Query that matches documents containing a term. This may be combined with
@@ -93,7 +95,39 @@ public class TermQuery extends Query {
       }
       PostingsEnum docs = termsEnum.postings(null, needsScores ? PostingsEnum.FREQS : PostingsEnum.NONE);
       assert docs != null;
-      return new TermScorer(this, docs, similarity.simScorer(stats, context));
+      // the total term freq is an upper bound of the freq of any document,
+      // and freqs are 1 when they are not indexed
+      final IndexOptions indexOptions = context.reader().getFieldInfos().fieldInfo(term.field()).getIndexOptions();
+      final long totalTermFreq = termsEnum.totalTermFreq();
+      final float maxFreq;
+      if (indexOptions == IndexOptions.DOCS) {
+        maxFreq = 1;
+      } else if (totalTermFreq == -1) {
+        maxFreq = Float.POSITIVE_INFINITY;
+      } else {
+        maxFreq = totalTermFreq;
+      }
+      return new TermScorer(this, docs, similarity.simScorer(stats, context), maxFreq);
+    }
+
+    @Override
+    public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+      final TermScorer scorer = (TermScorer) scorer(context);
+      if (scorer == null) {
+        return null;
+      }
+      return new DefaultBulkScorer(scorer) {
+        @Override
+        public int score(LeafCollector collector, Bits acceptDocs, int min, int max) throws IOException {
+          if (scorer.docID() == -1 && min == 0 && max == DocIdSetIterator.NO_MORE_DOCS) {
+            // decode postings by blocks rather than one doc at a time
+            collector.setScorer(scorer);
+            scorer.scoreAll(collector, acceptDocs);
+            return DocIdSetIterator.NO_MORE_DOCS;
+          }
+          return super.score(collector, acceptDocs, min, max);
+        }
+      };
     }
 
     /**
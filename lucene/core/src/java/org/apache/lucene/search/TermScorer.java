@@ -21,12 +21,23 @@ import java.io.IOException;
 
 import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.search.similarities.Similarity;
+import org.apache.lucene.util.Bits;
 
 /** Expert: A <code>Scorer</code> for documents matching a <code>Term</code>.
  */
 final class TermScorer extends Scorer {
+
+  /** Number of documents to decode at once in {@link #scoreAll}. */
+  static final int BULK_SIZE = 128;
+
   private final PostingsEnum postingsEnum;
   private final Similarity.SimScorer docScorer;
+  private final float maxFreq;
+
+  // current doc and freq while the postings are consumed in bulk
+  private boolean bulk;
+  private int doc = -1;
+  private int freq;
 
   /**
    * Construct a <code>TermScorer</code>.
@@ -40,19 +51,29 @@ final class TermScorer extends Scorer {
    *          to be used for score computations.
    */
   TermScorer(Weight weight, PostingsEnum td, Similarity.SimScorer docScorer) {
+    this(weight, td, docScorer, Float.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Construct a <code>TermScorer</code> whose frequencies are known to be
+   * less than or equal to {@code maxFreq}, which allows to compute an
+   * upper bound of the produced scores.
+   */
+  TermScorer(Weight weight, PostingsEnum td, Similarity.SimScorer docScorer, float maxFreq) {
     super(weight);
     this.docScorer = docScorer;
     this.postingsEnum = td;
+    this.maxFreq = maxFreq;
   }
 
   @Override
   public int docID() {
-    return postingsEnum.docID();
+    return bulk ? doc : postingsEnum.docID();
   }
 
   @Override
   public int freq() throws IOException {
-    return postingsEnum.freq();
+    return bulk ? freq : postingsEnum.freq();
   }
 
   @Override
@@ -63,7 +84,35 @@ final class TermScorer extends Scorer {
   @Override
   public float score() throws IOException {
     assert docID() != DocIdSetIterator.NO_MORE_DOCS;
-    return docScorer.score(postingsEnum.docID(), postingsEnum.freq());
+    return docScorer.score(docID(), freq());
+  }
+
+  /**
+   * Collect all matches of this scorer, which must not be positioned yet.
+   * Postings are consumed through {@link PostingsEnum#nextDocs} so that doc
+   * IDs and frequencies are decoded by blocks rather than one at a time.
+   */
+  void scoreAll(LeafCollector collector, Bits acceptDocs) throws IOException {
+    assert postingsEnum.docID() == -1;
+    final int[] docs = new int[(int) Math.min(BULK_SIZE, Math.max(1, postingsEnum.cost()))];
+    final int[] freqs = new int[docs.length];
+    bulk = true;
+    for (int count = postingsEnum.nextDocs(docs, freqs); count != 0; count = postingsEnum.nextDocs(docs, freqs)) {
+      for (int i = 0; i < count; ++i) {
+        final int doc = docs[i];
+        if (acceptDocs == null || acceptDocs.get(doc)) {
+          this.doc = doc;
+          this.freq = freqs[i];
+          collector.collect(doc);
+        }
+      }
+    }
+    bulk = false;
+  }
+
+  @Override
+  public float maxScore() {
+    return docScorer.maxScore(maxFreq);
   }
 
   /** Returns a string representation of this <code>TermScorer</code>. */
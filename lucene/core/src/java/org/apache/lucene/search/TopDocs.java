@@ -30,6 +30,9 @@ public class TopDocs {
 
   /** Stores the maximum score value encountered, needed for normalizing. */
   private float maxScore;
+
+  /** Whether {@link #totalHits} is only a lower bound of the number of hits. */
+  private boolean totalHitsLowerBound;
   
   /**
    * Returns the maximum score value encountered. Note that in case
@@ -44,6 +47,20 @@ public class TopDocs {
     this.maxScore = maxScore;
   }
 
+  /**
+   * Returns whether {@link #totalHits} is only a lower bound of the number of
+   * hits, which happens when the collector skipped non-competitive hits
+   * without counting them.
+   */
+  public boolean isTotalHitsLowerBound() {
+    return totalHitsLowerBound;
+  }
+
+  /** Sets whether {@link #totalHits} is only a lower bound of the number of hits. */
+  public void setTotalHitsLowerBound(boolean totalHitsLowerBound) {
+    this.totalHitsLowerBound = totalHitsLowerBound;
+  }
+
   /** Constructs a TopDocs with a default maxScore=Float.NaN. */
   TopDocs(int totalHits, ScoreDoc[] scoreDocs) {
     this(totalHits, scoreDocs, Float.NaN);
@@ -267,6 +284,7 @@ public class TopDocs {
     }
 
     int totalHitCount = 0;
+    boolean totalHitsLowerBound = false;
     int availHitCount = 0;
     float maxScore = Float.MIN_VALUE;
     for(int shardIDX=0;shardIDX<shardHits.length;shardIDX++) {
@@ -274,6 +292,7 @@ public class TopDocs {
       // totalHits can be non-zero even if no hits were
       // collected, when searchAfter was used:
       totalHitCount += shard.totalHits;
+      totalHitsLowerBound |= shard.isTotalHitsLowerBound();
       if (shard.scoreDocs != null && shard.scoreDocs.length > 0) {
         availHitCount += shard.scoreDocs.length;
         queue.add(new ShardRef(shardIDX, setShardIndex == false));
@@ -319,10 +338,13 @@ public class TopDocs {
       }
     }
 
+    final TopDocs topDocs;
     if (sort == null) {
-      return new TopDocs(totalHitCount, hits, maxScore);
+      topDocs = new TopDocs(totalHitCount, hits, maxScore);
     } else {
-      return new TopFieldDocs(totalHitCount, hits, sort.getSort(), maxScore);
+      topDocs = new TopFieldDocs(totalHitCount, hits, sort.getSort(), maxScore);
     }
+    topDocs.setTotalHitsLowerBound(totalHitsLowerBound);
+    return topDocs;
   }
 }
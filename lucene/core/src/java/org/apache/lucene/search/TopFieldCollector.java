@@ -137,20 +137,24 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
    */
   private static class SimpleFieldCollector extends TopFieldCollector {
 
+    final Sort sort;
     final FieldValueHitQueue<Entry> queue;
     final boolean trackDocScores;
     final boolean trackMaxScore;
+    final boolean trackTotalHits;
     final boolean mayNeedScoresTwice;
 
     public SimpleFieldCollector(Sort sort, FieldValueHitQueue<Entry> queue, int numHits, boolean fillFields,
-        boolean trackDocScores, boolean trackMaxScore) {
+        boolean trackDocScores, boolean trackMaxScore, boolean trackTotalHits) {
       super(queue, numHits, fillFields, sort.needsScores() || trackDocScores || trackMaxScore);
+      this.sort = sort;
       this.queue = queue;
       if (trackMaxScore) {
         maxScore = Float.NEGATIVE_INFINITY; // otherwise we would keep NaN
       }
       this.trackDocScores = trackDocScores;
       this.trackMaxScore = trackMaxScore;
+      this.trackTotalHits = trackTotalHits;
       // If one of the sort fields needs scores, and if we also track scores, then
       // we might call scorer.score() several times per doc so wrapping the scorer
       // to cache scores would help
@@ -163,6 +167,9 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
 
       final LeafFieldComparator[] comparators = queue.getComparators(context);
       final int[] reverseMul = queue.getReverseMul();
+      final boolean canEarlyTerminate = trackTotalHits == false
+          && trackMaxScore == false
+          && canEarlyTerminate(sort, context.reader().getIndexSort());
 
       if (comparators.length == 1) {
         return new OneComparatorLeafCollector(comparators[0], reverseMul[0], mayNeedScoresTwice) {
@@ -183,6 +190,11 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
                 // since docs are visited in doc Id order, if compare is 0, it means
                 // this document is largest than anything else in the queue, and
                 // therefore not competitive.
+                if (canEarlyTerminate) {
+                  // the segment is sorted, so all remaining docs are not competitive either
+                  earlyTerminated = true;
+                  throw new CollectionTerminatedException();
+                }
                 return;
               }
 
@@ -231,6 +243,11 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
                 // since docs are visited in doc Id order, if compare is 0, it means
                 // this document is largest than anything else in the queue, and
                 // therefore not competitive.
+                if (canEarlyTerminate) {
+                  // the segment is sorted, so all remaining docs are not competitive either
+                  earlyTerminated = true;
+                  throw new CollectionTerminatedException();
+                }
                 return;
               }
 
@@ -272,17 +289,21 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
 
     int collectedHits;
     final FieldValueHitQueue<Entry> queue;
+    final Sort sort;
     final boolean trackDocScores;
     final boolean trackMaxScore;
+    final boolean trackTotalHits;
     final FieldDoc after;
     final boolean mayNeedScoresTwice;
 
     public PagingFieldCollector(Sort sort, FieldValueHitQueue<Entry> queue, FieldDoc after, int numHits, boolean fillFields,
-                                boolean trackDocScores, boolean trackMaxScore) {
+                                boolean trackDocScores, boolean trackMaxScore, boolean trackTotalHits) {
       super(queue, numHits, fillFields, trackDocScores || trackMaxScore || sort.needsScores());
+      this.sort = sort;
       this.queue = queue;
       this.trackDocScores = trackDocScores;
       this.trackMaxScore = trackMaxScore;
+      this.trackTotalHits = trackTotalHits;
       this.after = after;
       this.mayNeedScoresTwice = sort.needsScores() && (trackDocScores || trackMaxScore);
 
@@ -302,6 +323,9 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
     public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
       docBase = context.docBase;
       final int afterDoc = after.doc - docBase;
+      final boolean canEarlyTerminate = trackTotalHits == false
+          && trackMaxScore == false
+          && canEarlyTerminate(sort, context.reader().getIndexSort());
       return new MultiComparatorLeafCollector(queue.getComparators(context), queue.getReverseMul(), mayNeedScoresTwice) {
 
         @Override
@@ -324,6 +348,11 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
             final int cmp = compareBottom(doc);
             if (cmp <= 0) {
               // not competitive since documents are visited in doc id order
+              if (canEarlyTerminate) {
+                // the segment is sorted, so all remaining docs are not competitive either
+                earlyTerminated = true;
+                throw new CollectionTerminatedException();
+              }
               return;
             }
           }
@@ -385,6 +414,7 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
   boolean queueFull;
   int docBase;
   final boolean needsScores;
+  boolean earlyTerminated = false;
 
   // Declaring the constructor private prevents extending this class by anyone
   // else. Note that the class cannot be final since it's extended by the
@@ -403,6 +433,14 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
     return needsScores;
   }
 
+  /** Return whether collection can be terminated on a segment sorted with
+   *  {@code indexSort} as soon as the queue is full and a hit is not
+   *  competitive. This is the case if {@code sort} is a prefix of the index
+   *  sort. */
+  static boolean canEarlyTerminate(Sort sort, Sort indexSort) {
+    return indexSort != null && EarlyTerminatingSortingCollector.canEarlyTerminate(sort, indexSort);
+  }
+
   /**
    * Creates a new {@link TopFieldCollector} from the given
    * arguments.
@@ -478,6 +516,49 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
    */
   public static TopFieldCollector create(Sort sort, int numHits, FieldDoc after,
       boolean fillFields, boolean trackDocScores, boolean trackMaxScore) {
+    return create(sort, numHits, after, fillFields, trackDocScores, trackMaxScore, true);
+  }
+
+  /**
+   * Creates a new {@link TopFieldCollector} from the given
+   * arguments.
+   *
+   * <p>When {@code trackTotalHits} is {@code false} and {@code trackMaxScore}
+   * is {@code false}, collection of segments whose
+   * {@link org.apache.lucene.index.LeafReader#getIndexSort() index sort}
+   * starts with the sort criteria is terminated as soon as the queue is full
+   * and a non-competitive hit is collected, since all subsequent documents
+   * of the segment are not competitive either. In that case,
+   * {@link TopDocs#totalHits} is only a lower bound of the number of matches,
+   * which is reported by {@link TopDocs#isTotalHitsLowerBound()}.
+   *
+   * <p><b>NOTE</b>: The instances returned by this method
+   * pre-allocate a full array of length
+   * <code>numHits</code>.
+   *
+   * @param sort
+   *          the sort criteria (SortFields).
+   * @param numHits
+   *          the number of results to collect.
+   * @param after
+   *          only hits after this FieldDoc will be collected, may be null
+   * @param fillFields
+   *          specifies whether the actual field values should be returned on
+   *          the results (FieldDoc).
+   * @param trackDocScores
+   *          specifies whether document scores should be tracked and set on the
+   *          results.
+   * @param trackMaxScore
+   *          specifies whether the query's maxScore should be tracked and set
+   *          on the resulting {@link TopDocs}.
+   * @param trackTotalHits
+   *          specifies whether the total number of hits must be accurate.
+   * @return a {@link TopFieldCollector} instance which will sort the results by
+   *         the sort criteria.
+   * @lucene.experimental
+   */
+  public static TopFieldCollector create(Sort sort, int numHits, FieldDoc after,
+      boolean fillFields, boolean trackDocScores, boolean trackMaxScore, boolean trackTotalHits) {
 
     if (sort.fields.length == 0) {
       throw new IllegalArgumentException("Sort must contain at least one field");
@@ -490,7 +571,7 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
     FieldValueHitQueue<Entry> queue = FieldValueHitQueue.create(sort.fields, numHits);
 
     if (after == null) {
-      return new SimpleFieldCollector(sort, queue, numHits, fillFields, trackDocScores, trackMaxScore);
+      return new SimpleFieldCollector(sort, queue, numHits, fillFields, trackDocScores, trackMaxScore, trackTotalHits);
     } else {
       if (after.fields == null) {
         throw new IllegalArgumentException("after.fields wasn't set; you must pass fillFields=true for the previous search");
@@ -500,7 +581,7 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
         throw new IllegalArgumentException("after.fields has " + after.fields.length + " values but sort has " + sort.getSort().length);
       }
 
-      return new PagingFieldCollector(sort, queue, after, numHits, fillFields, trackDocScores, trackMaxScore);
+      return new PagingFieldCollector(sort, queue, after, numHits, fillFields, trackDocScores, trackMaxScore, trackTotalHits);
     }
   }
 
@@ -551,11 +632,20 @@ public abstract class TopFieldCollector extends TopDocsCollector<Entry> {
     }
 
     // If this is a maxScoring tracking collector and there were no results,
-    return new TopFieldDocs(totalHits, results, ((FieldValueHitQueue<Entry>) pq).getFields(), maxScore);
+    TopFieldDocs topDocs = new TopFieldDocs(totalHits, results, ((FieldValueHitQueue<Entry>) pq).getFields(), maxScore);
+    topDocs.setTotalHitsLowerBound(earlyTerminated);
+    return topDocs;
   }
 
   @Override
   public TopFieldDocs topDocs() {
     return (TopFieldDocs) super.topDocs();
   }
+
+  /** Return whether collection terminated early on at least one segment
+   *  because the segment was sorted in a way that made remaining hits not
+   *  competitive. */
+  public boolean isEarlyTerminated() {
+    return earlyTerminated;
+  }
 }
@@ -36,21 +36,22 @@ import org.apache.lucene.index.LeafReaderContext;
  */
 public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
 
-  abstract static class ScorerLeafCollector implements LeafCollector {
+  abstract class ScorerLeafCollector implements LeafCollector {
 
     Scorer scorer;
 
     @Override
     public void setScorer(Scorer scorer) throws IOException {
       this.scorer = scorer;
+      updateMinCompetitiveScore(scorer);
     }
 
   }
 
   private static class SimpleTopScoreDocCollector extends TopScoreDocCollector {
 
-    SimpleTopScoreDocCollector(int numHits) {
-      super(numHits);
+    SimpleTopScoreDocCollector(int numHits, boolean trackTotalHits) {
+      super(numHits, trackTotalHits);
     }
 
     @Override
@@ -77,6 +78,7 @@ public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
           pqTop.doc = doc + docBase;
           pqTop.score = score;
           pqTop = pq.updateTop();
+          updateMinCompetitiveScore(scorer);
         }
 
       };
@@ -89,8 +91,8 @@ public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
     private final ScoreDoc after;
     private int collectedHits;
 
-    PagingTopScoreDocCollector(int numHits, ScoreDoc after) {
-      super(numHits);
+    PagingTopScoreDocCollector(int numHits, ScoreDoc after, boolean trackTotalHits) {
+      super(numHits, trackTotalHits);
       this.after = after;
       this.collectedHits = 0;
     }
@@ -102,7 +104,12 @@ public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
 
     @Override
     protected TopDocs newTopDocs(ScoreDoc[] results, int start) {
-      return results == null ? new TopDocs(totalHits, new ScoreDoc[0], Float.NaN) : new TopDocs(totalHits, results);
+      if (results == null) {
+        return new TopDocs(totalHits, new ScoreDoc[0], Float.NaN);
+      }
+      TopDocs topDocs = new TopDocs(totalHits, results);
+      topDocs.setTotalHitsLowerBound(trackTotalHits == false);
+      return topDocs;
     }
 
     @Override
@@ -135,6 +142,7 @@ public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
           pqTop.doc = doc + docBase;
           pqTop.score = score;
           pqTop = pq.updateTop();
+          updateMinCompetitiveScore(scorer);
         }
       };
     }
@@ -165,26 +173,60 @@ public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
    * objects.
    */
   public static TopScoreDocCollector create(int numHits, ScoreDoc after) {
+    return create(numHits, after, true);
+  }
+
+  /**
+   * Creates a new {@link TopScoreDocCollector} given the number of hits to
+   * collect, the bottom of the previous page, and whether the total hit count
+   * needs to be accurate.
+   *
+   * <p>When {@code trackTotalHits} is {@code false}, the collector tells
+   * scorers about the minimum score that a hit must have in order to be
+   * competitive through {@link Scorer#setMinCompetitiveScore(float)}, which
+   * allows them to skip over non-competitive hits. In that case,
+   * {@link TopDocs#totalHits} is only a lower bound of the number of matches,
+   * see {@link TopDocs#isTotalHitsLowerBound()}.
+   *
+   * <p><b>NOTE</b>: The instances returned by this method
+   * pre-allocate a full array of length
+   * <code>numHits</code>, and fill the array with sentinel
+   * objects.
+   *
+   * @lucene.experimental
+   */
+  public static TopScoreDocCollector create(int numHits, ScoreDoc after, boolean trackTotalHits) {
 
     if (numHits <= 0) {
       throw new IllegalArgumentException("numHits must be > 0; please use TotalHitCountCollector if you just need the total hit count");
     }
 
     if (after == null) {
-      return new SimpleTopScoreDocCollector(numHits);
+      return new SimpleTopScoreDocCollector(numHits, trackTotalHits);
     } else {
-      return new PagingTopScoreDocCollector(numHits, after);
+      return new PagingTopScoreDocCollector(numHits, after, trackTotalHits);
     }
   }
 
   ScoreDoc pqTop;
+  final boolean trackTotalHits;
 
   // prevents instantiation
-  TopScoreDocCollector(int numHits) {
+  TopScoreDocCollector(int numHits, boolean trackTotalHits) {
     super(new HitQueue(numHits, true));
     // HitQueue implements getSentinelObject to return a ScoreDoc, so we know
     // that at this point top() is already initialized.
     pqTop = pq.top();
+    this.trackTotalHits = trackTotalHits;
+  }
+
+  /** Tell the scorer about the minimum competitive score once the queue is full. */
+  void updateMinCompetitiveScore(Scorer scorer) {
+    if (trackTotalHits == false && pqTop.score >= 0) {
+      // since we tie-break on doc id and collect in doc id order, we can require
+      // the next float
+      scorer.setMinCompetitiveScore(Math.nextUp(pqTop.score));
+    }
   }
 
   @Override
@@ -205,11 +247,18 @@ public abstract class TopScoreDocCollector extends TopDocsCollector<ScoreDoc> {
       maxScore = pq.pop().score;
     }
 
-    return new TopDocs(totalHits, results, maxScore);
+    TopDocs topDocs = new TopDocs(totalHits, results, maxScore);
+    topDocs.setTotalHitsLowerBound(trackTotalHits == false);
+    return topDocs;
   }
 
   @Override
   public boolean needsScores() {
     return true;
   }
+
+  @Override
+  public boolean skipsNonCompetitiveHits() {
+    return trackTotalHits == false;
+  }
 }
@@ -102,6 +102,19 @@ public abstract class Weight {
    */
   public abstract Scorer scorer(LeafReaderContext context) throws IOException;
 
+  /**
+   * Expert: Same as {@link #scorer(LeafReaderContext)}, but the returned
+   * {@link Scorer} is consumed by a {@link Collector} that
+   * {@link Collector#skipsNonCompetitiveHits() skips non-competitive hits}
+   * through {@link Scorer#setMinCompetitiveScore(float)}. This allows to
+   * return a scorer that is slower to iterate over all matches, but that
+   * can skip documents that may not be competitive. The default
+   * implementation calls {@link #scorer(LeafReaderContext)}.
+   */
+  public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+    return scorer(context);
+  }
+
   /**
    * Optional method.
    * Get a {@link ScorerSupplier}, which allows to know the cost of the {@link Scorer}
@@ -116,7 +129,7 @@ public abstract class Weight {
     }
     return new ScorerSupplier() {
       @Override
-      public Scorer get(boolean randomAccess) {
+      public Scorer get(long leadCost) {
         return scorer;
       }
 
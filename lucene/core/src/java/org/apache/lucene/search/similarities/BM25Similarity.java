@@ -252,6 +252,28 @@ public class BM25Similarity extends Similarity {
       }
       return weightValue * freq / (freq + norm);
     }
+
+    @Override
+    public float maxScore(float maxFreq) {
+      if (weightValue < 0) {
+        // negative boost, scores are maximized by low freqs
+        return Float.POSITIVE_INFINITY;
+      }
+      // the score is maximized by high freqs and low norms
+      float minNorm;
+      if (norms == null) {
+        minNorm = k1;
+      } else {
+        minNorm = Float.POSITIVE_INFINITY;
+        for (float norm : cache) {
+          minNorm = Math.min(minNorm, norm);
+        }
+      }
+      if (Float.isInfinite(maxFreq)) {
+        return weightValue;
+      }
+      return weightValue * maxFreq / (maxFreq + minNorm);
+    }
     
     @Override
     public Explanation explain(int doc, Explanation freq) throws IOException {
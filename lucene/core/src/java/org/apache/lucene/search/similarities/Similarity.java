@@ -163,6 +163,16 @@ public abstract class Similarity {
      */
     public abstract float score(int doc, float freq) throws IOException;
 
+    /**
+     * Return the maximum score that this scorer may produce for freqs in {@code ]0, maxFreq]}.
+     * {@code Float.POSITIVE_INFINITY} is a fine return value if scores are not bounded.
+     * @param maxFreq the maximum frequency
+     * @lucene.experimental
+     */
+    public float maxScore(float maxFreq) {
+      return Float.POSITIVE_INFINITY;
+    }
+
     /** Computes the amount of a sloppy phrase match, based on an edit distance. */
     public abstract float computeSlopFactor(int distance);
     
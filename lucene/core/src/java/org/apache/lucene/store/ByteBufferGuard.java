@@ -42,6 +42,7 @@ final class ByteBufferGuard {
   
   private final String resourceDescription;
   private final BufferCleaner cleaner;
+  private final MMapDirectory.Prefetcher prefetcher;
   
   /** Not volatile; see comments on visibility below! */
   private boolean invalidated = false;
@@ -54,8 +55,23 @@ final class ByteBufferGuard {
    * must be shared by all of its clones.
    */
   public ByteBufferGuard(String resourceDescription, BufferCleaner cleaner) {
+    this(resourceDescription, cleaner, null);
+  }
+
+  /**
+   * Same as {@link #ByteBufferGuard(String, BufferCleaner)} but also takes
+   * the {@link MMapDirectory.Prefetcher} that prefetch hints are forwarded to,
+   * or {@code null} to ignore them.
+   */
+  public ByteBufferGuard(String resourceDescription, BufferCleaner cleaner, MMapDirectory.Prefetcher prefetcher) {
     this.resourceDescription = resourceDescription;
     this.cleaner = cleaner;
+    this.prefetcher = prefetcher;
+  }
+
+  /** Returns {@code true} if prefetch hints are forwarded to a {@link MMapDirectory.Prefetcher}. */
+  public boolean hasPrefetcher() {
+    return prefetcher != null;
   }
   
   /**
@@ -132,5 +148,10 @@ final class ByteBufferGuard {
     ensureValid();
     return receiver.getLong(pos);
   }
+
+  public void prefetch(ByteBuffer region) throws IOException {
+    ensureValid();
+    prefetcher.prefetch(region);
+  }
     
 }
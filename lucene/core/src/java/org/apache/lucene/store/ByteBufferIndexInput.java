@@ -239,6 +239,45 @@ abstract class ByteBufferIndexInput extends IndexInput implements RandomAccessIn
     }
   }
 
+  @Override
+  public final void prefetch(long offset, long length) throws IOException {
+    if (isPrefetchEnabled() == false) {
+      return;
+    }
+    // this is only a hint: ignore bytes that are out of bounds
+    final long start = Math.max(0L, offset);
+    final long end = length > this.length - offset ? this.length : offset + length;
+    if (start < end) {
+      prefetchBuffers(start, end);
+    }
+  }
+
+  @Override
+  public final boolean isPrefetchEnabled() {
+    return guard.hasPrefetcher();
+  }
+
+  // forwards the regions of the buffers that cover [start, end) to the guard
+  void prefetchBuffers(long start, long end) throws IOException {
+    try {
+      for (long pos = start; pos < end; ) {
+        final ByteBuffer b = buffers[(int) (pos >> chunkSizePower)];
+        final int from = (int) (pos & chunkSizeMask);
+        final int to = (int) Math.min(b.limit(), from + (end - pos));
+        if (to <= from) {
+          break;
+        }
+        final ByteBuffer region = b.duplicate();
+        region.limit(to);
+        region.position(from);
+        guard.prefetch(region.slice());
+        pos += to - from;
+      }
+    } catch (NullPointerException npe) {
+      throw new AlreadyClosedException("Already closed: " + this);
+    }
+  }
+
   @Override
   public final long length() {
     return length;
@@ -486,6 +525,11 @@ abstract class ByteBufferIndexInput extends IndexInput implements RandomAccessIn
       return super.readLong(pos + offset);
     }
 
+    @Override
+    void prefetchBuffers(long start, long end) throws IOException {
+      super.prefetchBuffers(start + offset, end + offset);
+    }
+
     @Override
     protected ByteBufferIndexInput buildSlice(String sliceDescription, long ofs, long length) {
       return super.buildSlice(sliceDescription, this.offset + ofs, length);
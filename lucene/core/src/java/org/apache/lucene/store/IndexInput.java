@@ -102,6 +102,29 @@ public abstract class IndexInput extends DataInput implements Cloneable,Closeabl
    */
   public abstract IndexInput slice(String sliceDescription, long offset, long length) throws IOException;
 
+  /**
+   * Expert: Hint that the bytes in <code>[offset, offset+length)</code> are
+   * about to be read, so that implementations may start loading them, for
+   * instance into the OS page cache, before they are actually needed.
+   * Offsets are relative to this input, like {@link #seek}, and bytes that
+   * are out of the bounds of this input are ignored. This method does not
+   * change the file pointer.
+   * <p>
+   * This is only a hint: the default implementation does nothing.
+   * @see #isPrefetchEnabled()
+   */
+  public void prefetch(long offset, long length) throws IOException {
+  }
+
+  /**
+   * Expert: Return whether {@link #prefetch} hints may have an effect on this
+   * input. Callers may skip computing the ranges to prefetch when this returns
+   * {@code false}, which is what the default implementation does.
+   */
+  public boolean isPrefetchEnabled() {
+    return false;
+  }
+
   /** Subclasses call this to get the String for resourceDescription of a slice of this {@code IndexInput}. */
   protected String getFullSliceDescription(String sliceDescription) {
     if (sliceDescription == null) {
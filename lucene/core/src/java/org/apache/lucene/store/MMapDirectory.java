@@ -93,6 +93,7 @@ import org.apache.lucene.util.SuppressForbidden;
 public class MMapDirectory extends FSDirectory {
   private boolean useUnmapHack = UNMAP_SUPPORTED;
   private boolean preload;
+  private Prefetcher prefetcher;
 
   /** 
    * Default max chunk size.
@@ -220,6 +221,46 @@ public class MMapDirectory extends FSDirectory {
   public boolean getPreload() {
     return preload;
   }
+
+  /**
+   * Expert: A hook that {@link IndexInput#prefetch} hints are forwarded to
+   * for inputs opened by a {@link MMapDirectory}.
+   * @see #setPrefetcher
+   */
+  @FunctionalInterface
+  public static interface Prefetcher {
+    /**
+     * Hint that the bytes between the position and the limit of the given
+     * region of a mapped file are about to be read. The region must not be
+     * accessed after this method returns.
+     * <p>Since prefetching is only advisory, implementations must not throw
+     * when the hint can't be applied, eg. because the underlying system call
+     * failed: such exceptions would fail the search or merge that issued the
+     * hint although the data can still be read.
+     */
+    void prefetch(ByteBuffer region) throws IOException;
+  }
+
+  /**
+   * Expert: Set the {@link Prefetcher} that {@link IndexInput#prefetch}
+   * hints of inputs that are opened after this call are forwarded to, or
+   * {@code null} (the default) to ignore these hints. Java has no API to
+   * advise the operating system about future reads of a mapped region, but
+   * the Lucene {@code misc} module provides a native implementation that
+   * calls {@code madvise(MADV_WILLNEED)}.
+   */
+  public void setPrefetcher(Prefetcher prefetcher) {
+    this.prefetcher = prefetcher;
+  }
+
+  /**
+   * Returns the {@link Prefetcher} that prefetch hints are forwarded to,
+   * or {@code null} if they are ignored.
+   * @see #setPrefetcher
+   */
+  public Prefetcher getPrefetcher() {
+    return prefetcher;
+  }
   
   /**
    * Returns the current mmap chunk size.
@@ -240,7 +281,7 @@ public class MMapDirectory extends FSDirectory {
       final boolean useUnmap = getUseUnmap();
       return ByteBufferIndexInput.newInstance(resourceDescription,
           map(resourceDescription, c, 0, c.size()), 
-          c.size(), chunkSizePower, new ByteBufferGuard(resourceDescription, useUnmap ? CLEANER : null));
+          c.size(), chunkSizePower, new ByteBufferGuard(resourceDescription, useUnmap ? CLEANER : null, prefetcher));
     }
   }
 
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
@@ -43,6 +44,13 @@ public final class DocIdSetBuilder {
    *  @see DocIdSetBuilder#grow */
   public static abstract class BulkAdder {
     public abstract void add(int doc);
+
+    /** Add the first {@code count} doc IDs of {@code docs}. */
+    public void add(int[] docs, int count) {
+      for (int i = 0; i < count; ++i) {
+        add(docs[i]);
+      }
+    }
   }
 
   private static class FixedBitSetAdder extends BulkAdder {
@@ -84,6 +92,12 @@ public final class DocIdSetBuilder {
     public void add(int doc) {
       buffer.array[buffer.length++] = doc;
     }
+
+    @Override
+    public void add(int[] docs, int count) {
+      System.arraycopy(docs, 0, buffer.array, buffer.length, count);
+      buffer.length += count;
+    }
   }
 
   private final int maxDoc;
@@ -166,6 +180,18 @@ public final class DocIdSetBuilder {
     }
   }
 
+  /**
+   * Add the documents of the provided {@link PostingsEnum} to this builder.
+   * Unlike {@link #add(DocIdSetIterator)}, postings are consumed in bulk
+   * through {@link PostingsEnum#nextDocs}, using {@code buffer} as scratch
+   * space, which is faster with codecs that decode postings by blocks.
+   */
+  public void add(PostingsEnum postings, int[] buffer) throws IOException {
+    for (int count = postings.nextDocs(buffer, null); count != 0; count = postings.nextDocs(buffer, null)) {
+      grow(count).add(buffer, count);
+    }
+  }
+
   /**
    * Reserve space and return a {@link BulkAdder} object that can be used to
    * add up to {@code numDocs} documents.
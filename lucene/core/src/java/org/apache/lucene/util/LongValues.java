@@ -16,6 +16,8 @@
  */
 package org.apache.lucene.util;
 
+import java.util.Arrays;
+
 /** Abstraction over an array of longs.
  *  @lucene.internal */
 public abstract class LongValues  {
@@ -37,9 +39,26 @@ public abstract class LongValues  {
       return 0;
     }
 
+    @Override
+    public void get(long index, long[] arr, int off, int len) {
+      Arrays.fill(arr, off, off + len, 0L);
+    }
+
   };
 
   /** Get value at <code>index</code>. */
   public abstract long get(long index);
 
+  /**
+   * Bulk get: read <code>len</code> values starting from <code>index</code>
+   * into <code>arr[off:off+len]</code>. The default implementation calls
+   * {@link #get(long)} for every value, sub-classes may decode values more
+   * efficiently.
+   */
+  public void get(long index, long[] arr, int off, int len) {
+    for (int i = 0; i < len; ++i) {
+      arr[off + i] = get(index + i);
+    }
+  }
+
 }
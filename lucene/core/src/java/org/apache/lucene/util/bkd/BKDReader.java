@@ -17,6 +17,8 @@
 package org.apache.lucene.util.bkd;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.index.CorruptIndexException;
@@ -386,6 +388,7 @@ public final class BKDReader extends PointValues implements Accountable {
       index.leftNodePositions[level] = leftNodePositions[level];
       index.rightNodePositions[level] = rightNodePositions[level];
       index.splitValuesStack[index.level] = splitValuesStack[index.level].clone();
+      index.splitPackedValueStack[index.level] = splitPackedValueStack[index.level].clone();
       System.arraycopy(negativeDeltas, level*numDims, index.negativeDeltas, level*numDims, numDims);
       index.splitDims[level] = splitDims[level];
       return index;
@@ -527,6 +530,89 @@ public final class BKDReader extends PointValues implements Accountable {
     return estimatePointCount(getIntersectState(visitor), minPackedValue, maxPackedValue);
   }
 
+  /** A sub-tree of a {@link BKDReader}, see {@link BKDReader#split}.
+   *
+   * @lucene.internal */
+  public final class SubTree {
+    private final IndexTree index;
+    private final byte[] cellMinPacked, cellMaxPacked;
+
+    private SubTree(IndexTree index, byte[] cellMinPacked, byte[] cellMaxPacked) {
+      this.index = index;
+      this.cellMinPacked = cellMinPacked;
+      this.cellMaxPacked = cellMaxPacked;
+    }
+
+    /** Same as {@link BKDReader#intersect(IntersectVisitor)} but only for
+     *  points that are under this sub-tree. */
+    public void intersect(IntersectVisitor visitor) throws IOException {
+      BKDReader.this.intersect(newIntersectState(visitor), cellMinPacked, cellMaxPacked);
+    }
+
+    /** Same as {@link BKDReader#estimatePointCount(IntersectVisitor)} but
+     *  only for points that are under this sub-tree. */
+    public long estimatePointCount(IntersectVisitor visitor) {
+      return BKDReader.this.estimatePointCount(newIntersectState(visitor), cellMinPacked, cellMaxPacked);
+    }
+
+    private IntersectState newIntersectState(IntersectVisitor visitor) {
+      return new IntersectState(in.clone(), numDims,
+                                packedBytesLength,
+                                maxPointsInLeafNode,
+                                visitor,
+                                index.clone());
+    }
+  }
+
+  /**
+   * Split this tree into the sub-trees whose root is {@code depth} levels
+   * below the root of this tree, or leaves if the tree is not that deep.
+   * Sub-trees whose cell is {@link Relation#CELL_OUTSIDE_QUERY outside of the
+   * query} according to {@code visitor} are omitted. Sub-trees are returned in
+   * the order in which {@link #intersect(IntersectVisitor)} would visit them,
+   * and each sub-tree may be intersected from a different thread.
+   */
+  public List<SubTree> split(IntersectVisitor visitor, int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("depth must be >= 0, got " + depth);
+    }
+    final List<SubTree> subTrees = new ArrayList<>();
+    split(getIntersectState(visitor), minPackedValue.clone(), maxPackedValue.clone(), depth, subTrees);
+    return subTrees;
+  }
+
+  private void split(IntersectState state, byte[] cellMinPacked, byte[] cellMaxPacked, int depth, List<SubTree> subTrees) {
+    Relation r = state.visitor.compare(cellMinPacked, cellMaxPacked);
+
+    if (r == Relation.CELL_OUTSIDE_QUERY) {
+      // This cell is fully outside of the query shape: nothing to intersect
+    } else if (depth == 0 || state.index.isLeafNode()) {
+      if (state.index.nodeExists()) {
+        subTrees.add(new SubTree(state.index.clone(), cellMinPacked.clone(), cellMaxPacked.clone()));
+      }
+    } else {
+      // Non-leaf node: recurse on the split left and right nodes, like intersect()
+      int splitDim = state.index.getSplitDim();
+      byte[] splitPackedValue = state.index.getSplitPackedValue();
+      BytesRef splitDimValue = state.index.getSplitDimValue();
+
+      System.arraycopy(cellMaxPacked, 0, splitPackedValue, 0, packedBytesLength);
+      System.arraycopy(splitDimValue.bytes, splitDimValue.offset, splitPackedValue, splitDim*bytesPerDim, bytesPerDim);
+      state.index.pushLeft();
+      split(state, cellMinPacked, splitPackedValue, depth - 1, subTrees);
+      state.index.pop();
+
+      // Restore the split dim value since it may have been overwritten while recursing:
+      System.arraycopy(splitPackedValue, splitDim*bytesPerDim, splitDimValue.bytes, splitDimValue.offset, bytesPerDim);
+
+      System.arraycopy(cellMinPacked, 0, splitPackedValue, 0, packedBytesLength);
+      System.arraycopy(splitDimValue.bytes, splitDimValue.offset, splitPackedValue, splitDim*bytesPerDim, bytesPerDim);
+      state.index.pushRight();
+      split(state, splitPackedValue, cellMaxPacked, depth - 1, subTrees);
+      state.index.pop();
+    }
+  }
+
   /** Fast path: this is called when the query box fully encompasses all cells under this node. */
   private void addAll(IntersectState state, boolean grown) throws IOException {
     //System.out.println("R: addAll nodeID=" + nodeID);
@@ -557,6 +643,30 @@ public final class BKDReader extends PointValues implements Accountable {
     }
   }
 
+  /**
+   * Hint that all leaf blocks under the current node are about to be read.
+   * Leaf blocks are written in order, so they are contiguous on disk.
+   */
+  private void prefetchLeafBlocks(IndexInput in, IndexTree index) throws IOException {
+    if (index.isLeafNode() || in.isPrefetchEnabled() == false) {
+      // a single block that is read right away, or hints would be ignored
+      return;
+    }
+    final IndexTree leftMost = index.clone();
+    while (leftMost.isLeafNode() == false) {
+      leftMost.pushLeft();
+    }
+    final IndexTree rightMost = index.clone();
+    while (rightMost.isLeafNode() == false) {
+      rightMost.pushRight();
+    }
+    final long startFP = leftMost.getLeafBlockFP();
+    // the size of the last block is unknown, but bounded by the size of its doc IDs and values
+    final long endFP = Math.min(in.length(),
+        rightMost.getLeafBlockFP() + (long) maxPointsInLeafNode * (Integer.BYTES + packedBytesLength + 1));
+    in.prefetch(startFP, endFP - startFP);
+  }
+
   /** Create a new {@link IntersectState} */
   public IntersectState getIntersectState(IntersectVisitor visitor) {
     IndexTree index;
@@ -696,6 +806,7 @@ public final class BKDReader extends PointValues implements Accountable {
       // This cell is fully outside of the query shape: stop recursing
     } else if (r == Relation.CELL_INSIDE_QUERY) {
       // This cell is fully inside of the query shape: recursively add all points in this cell without filtering
+      prefetchLeafBlocks(state.in, state.index);
       addAll(state, false);
       // The cell crosses the shape boundary, or the cell fully contains the query, so we fall through and do full filtering:
     } else if (state.index.isLeafNode()) {
@@ -149,6 +149,29 @@ public class Builder<T> {
   public Builder(FST.INPUT_TYPE inputType, int minSuffixCount1, int minSuffixCount2, boolean doShareSuffix,
                  boolean doShareNonSingletonNodes, int shareMaxTailLength, Outputs<T> outputs,
                  boolean allowArrayArcs, int bytesPageBits) {
+    this(inputType, minSuffixCount1, minSuffixCount2, doShareSuffix, doShareNonSingletonNodes, shareMaxTailLength,
+        outputs, allowArrayArcs, bytesPageBits, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Instantiates an FST/FSA builder whose hash of shared suffixes uses a bounded
+   * amount of memory. See {@link #Builder(FST.INPUT_TYPE, int, int, boolean,
+   * boolean, int, Outputs, boolean, int)} for the documentation of other
+   * parameters.
+   *
+   * @param suffixRAMLimitMB
+   *    Only used if doShareSuffix is true. Maximum amount of memory in MB used
+   *    to look up shared suffixes. Once this limit is reached, the least recently
+   *    shared suffixes are forgotten, so the FST may no longer be minimal but
+   *    building it needs bounded memory. Pass {@link Double#POSITIVE_INFINITY}
+   *    to ensure the FST is fully minimal.
+   */
+  public Builder(FST.INPUT_TYPE inputType, int minSuffixCount1, int minSuffixCount2, boolean doShareSuffix,
+                 boolean doShareNonSingletonNodes, int shareMaxTailLength, Outputs<T> outputs,
+                 boolean allowArrayArcs, int bytesPageBits, double suffixRAMLimitMB) {
+    if (suffixRAMLimitMB <= 0 || Double.isNaN(suffixRAMLimitMB)) {
+      throw new IllegalArgumentException("suffixRAMLimitMB must be > 0, got " + suffixRAMLimitMB);
+    }
     this.minSuffixCount1 = minSuffixCount1;
     this.minSuffixCount2 = minSuffixCount2;
     this.doShareNonSingletonNodes = doShareNonSingletonNodes;
@@ -158,7 +181,9 @@ public class Builder<T> {
     bytes = fst.bytes;
     assert bytes != null;
     if (doShareSuffix) {
-      dedupHash = new NodeHash<>(fst, bytes.getReverseReader(false));
+      final long suffixRAMLimitBytes = suffixRAMLimitMB >= Long.MAX_VALUE / 1024. / 1024.
+          ? Long.MAX_VALUE : (long) (suffixRAMLimitMB * 1024 * 1024);
+      dedupHash = new NodeHash<>(fst, bytes.getReverseReader(false), suffixRAMLimitBytes);
     } else {
       dedupHash = null;
     }
@@ -30,6 +30,7 @@ import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.store.ByteArrayDataOutput;
 import org.apache.lucene.store.DataInput;
 import org.apache.lucene.store.DataOutput;
+import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.InputStreamDataInput;
 import org.apache.lucene.store.OutputStreamDataOutput;
 import org.apache.lucene.store.RAMOutputStream;
@@ -150,6 +151,10 @@ public final class FST<T> implements Accountable {
   /** Used at read time when the FST fits into a single byte[]. */
   final byte[] bytesArray;
 
+  /** Used at read time when the FST is read directly from an
+   *  {@link IndexInput} rather than loaded on the heap. */
+  private final IndexInput bytesInput;
+
   private long startNode = -1;
 
   public final Outputs<T> outputs;
@@ -265,6 +270,7 @@ public final class FST<T> implements Accountable {
     this.outputs = outputs;
     version = VERSION_CURRENT;
     bytesArray = null;
+    bytesInput = null;
     bytes = new BytesStore(bytesPageBits);
     // pad: ensure no node gets address 0 which is reserved to mean
     // the stop state w/ no arcs
@@ -283,6 +289,19 @@ public final class FST<T> implements Accountable {
   /** Load a previously saved FST; maxBlockBits allows you to
    *  control the size of the byte[] pages used to hold the FST bytes. */
   public FST(DataInput in, Outputs<T> outputs, int maxBlockBits) throws IOException {
+    this(in, outputs, maxBlockBits, false);
+  }
+
+  /** Load a previously saved FST. If {@code offHeap} is true, the FST bytes
+   *  are not loaded on the heap but read directly from {@code in} when
+   *  traversing the FST, so {@code in} must not be closed for as long as
+   *  this FST is in use. This is typically useful when {@code in} is
+   *  memory-mapped. */
+  public FST(IndexInput in, Outputs<T> outputs, boolean offHeap) throws IOException {
+    this(in, outputs, DEFAULT_MAX_BLOCK_BITS, offHeap);
+  }
+
+  private FST(DataInput in, Outputs<T> outputs, int maxBlockBits, boolean offHeap) throws IOException {
     this.outputs = outputs;
 
     if (maxBlockBits < 1 || maxBlockBits > 30) {
@@ -338,15 +357,25 @@ public final class FST<T> implements Accountable {
     }
 
     long numBytes = in.readVLong();
-    if (numBytes > 1 << maxBlockBits) {
+    if (offHeap) {
+      // FST bytes stay in the index input, only skip over them
+      final IndexInput indexInput = (IndexInput) in;
+      final long offset = indexInput.getFilePointer();
+      bytesInput = indexInput.slice("fst", offset, numBytes);
+      indexInput.seek(offset + numBytes);
+      bytes = null;
+      bytesArray = null;
+    } else if (numBytes > 1 << maxBlockBits) {
       // FST is big: we need multiple pages
       bytes = new BytesStore(in, numBytes, 1<<maxBlockBits);
       bytesArray = null;
+      bytesInput = null;
     } else {
       // FST fits into a single block: use ByteArrayBytesStoreReader for less overhead
       bytes = null;
       bytesArray = new byte[(int) numBytes];
       in.readBytes(bytesArray, 0, bytesArray.length);
+      bytesInput = null;
     }
     
     cacheRootArcs();
@@ -382,7 +411,7 @@ public final class FST<T> implements Accountable {
     long size = BASE_RAM_BYTES_USED;
     if (bytesArray != null) {
       size += bytesArray.length;
-    } else {
+    } else if (bytes != null) {
       size += bytes.ramBytesUsed();
     }
     size += cachedArcsBytesUsed;
@@ -502,6 +531,11 @@ public final class FST<T> implements Accountable {
       long numBytes = bytes.getPosition();
       out.writeVLong(numBytes);
       bytes.writeTo(out);
+    } else if (bytesInput != null) {
+      final IndexInput clone = bytesInput.clone();
+      clone.seek(0);
+      out.writeVLong(clone.length());
+      out.copyBytes(clone, clone.length());
     } else {
       assert bytesArray != null;
       out.writeVLong(bytesArray.length);
@@ -1206,6 +1240,10 @@ public final class FST<T> implements Accountable {
   public BytesReader getBytesReader() {
     if (bytesArray != null) {
       return new ReverseBytesReader(bytesArray);
+    } else if (bytesInput != null) {
+      // the slice is created once when loading the FST, clones are cheap
+      // and give every reader its own file pointer
+      return new ReverseIndexInputReader(bytesInput.clone());
     } else {
       return bytes.getReverseReader();
     }
@@ -23,18 +23,33 @@ import org.apache.lucene.util.packed.PackedInts;
 import org.apache.lucene.util.packed.PagedGrowableWriter;
 
 // Used to dedup states (lookup already-frozen states)
+// If the RAM usage is bounded, two generations of tables are kept: when the
+// primary table is full, it becomes the fallback table and a new primary
+// table is started. Nodes that are found in the fallback table are copied to
+// the primary table, so recently used nodes survive, like in a LRU cache. The
+// FST is no longer guaranteed to be minimal once a table has been dropped.
 final class NodeHash<T> {
 
   private PagedGrowableWriter table;
   private long count;
   private long mask;
+  // the previous generation, or null
+  private PagedGrowableWriter fallbackTable;
+  private long fallbackMask;
+  private final long maxTableBytes;
   private final FST<T> fst;
   private final FST.Arc<T> scratchArc = new FST.Arc<>();
   private final FST.BytesReader in;
 
   public NodeHash(FST<T> fst, FST.BytesReader in) {
+    this(fst, in, Long.MAX_VALUE);
+  }
+
+  /** Create a hash whose tables use at most {@code maxRamBytes} bytes of memory in total. */
+  public NodeHash(FST<T> fst, FST.BytesReader in, long maxRamBytes) {
     table = new PagedGrowableWriter(16, 1<<27, 8, PackedInts.COMPACT);
     mask = 15;
+    this.maxTableBytes = maxRamBytes / 2;
     this.fst = fst;
     this.in = in;
   }
@@ -122,15 +137,22 @@ final class NodeHash<T> {
     while(true) {
       final long v = table.get(pos);
       if (v == 0) {
-        // freeze & add
-        final long node = fst.addNode(builder, nodeIn);
-        //System.out.println("  now freeze node=" + node);
-        assert hash(node) == h : "frozenHash=" + hash(node) + " vs h=" + h;
+        long node = getFallback(nodeIn, h);
+        if (node == 0) {
+          // freeze & add
+          node = fst.addNode(builder, nodeIn);
+          //System.out.println("  now freeze node=" + node);
+          assert hash(node) == h : "frozenHash=" + hash(node) + " vs h=" + h;
+        }
         count++;
         table.set(pos, node);
         // Rehash at 2/3 occupancy:
         if (count > 2*table.size()/3) {
-          rehash();
+          if (2*table.ramBytesUsed() <= maxTableBytes) {
+            rehash();
+          } else {
+            startGeneration();
+          }
         }
         return node;
       } else if (nodesEqual(nodeIn, v)) {
@@ -143,6 +165,32 @@ final class NodeHash<T> {
     }
   }
 
+  // returns the address of the node in the fallback table, or 0 if absent
+  private long getFallback(Builder.UnCompiledNode<T> nodeIn, long h) throws IOException {
+    if (fallbackTable == null) {
+      return 0;
+    }
+    long pos = h & fallbackMask;
+    int c = 0;
+    while(true) {
+      final long v = fallbackTable.get(pos);
+      if (v == 0 || nodesEqual(nodeIn, v)) {
+        return v;
+      }
+
+      // quadratic probe
+      pos = (pos + (++c)) & fallbackMask;
+    }
+  }
+
+  // the primary table is full and may not grow: demote it
+  private void startGeneration() {
+    fallbackTable = table;
+    fallbackMask = mask;
+    table = new PagedGrowableWriter(fallbackTable.size(), 1<<30, PackedInts.bitsRequired(fst.bytes.getPosition()), PackedInts.COMPACT);
+    count = 0;
+  }
+
   // called only by rehash
   private void addNew(long address) throws IOException {
     long pos = hash(address) & mask;
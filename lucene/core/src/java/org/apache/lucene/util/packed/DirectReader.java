@@ -70,13 +70,68 @@ public class DirectReader {
     }
   }
   
-  static final class DirectPackedReader1 extends LongValues {
+  /** Base class for readers of values that are packed with a fixed number of bits. */
+  abstract static class DirectPackedReader extends LongValues {
+    /** Maximum number of longs to read from the slice at once when decoding in bulk. */
+    private static final int MAX_BLOCKS = 64;
+
     final RandomAccessInput in;
     final long offset;
-    
-    DirectPackedReader1(RandomAccessInput in, long offset) {
+    final BulkOperation decoder;
+    // scratch space for bulk decoding, allocated on the first bulk get
+    private long[] blocks;
+
+    DirectPackedReader(RandomAccessInput in, long offset, int bitsPerValue) {
       this.in = in;
       this.offset = offset;
+      // DirectWriter uses the same encoding
+      this.decoder = BulkOperation.of(PackedInts.Format.PACKED, bitsPerValue);
+    }
+
+    @Override
+    public void get(long index, long[] arr, int off, int len) {
+      final int valueCount = decoder.longValueCount();
+      final int blockCount = decoder.longBlockCount();
+      // read values one by one up to the first boundary of a block
+      for (; len > 0 && index % valueCount != 0; ++index, ++off, --len) {
+        arr[off] = get(index);
+      }
+      int iterations = len / valueCount;
+      if (iterations > 0) {
+        if (blocks == null) {
+          blocks = new long[Math.max(1, MAX_BLOCKS / blockCount) * blockCount];
+        }
+        long blockOffset = offset + (index / valueCount) * blockCount * Long.BYTES;
+        while (iterations > 0) {
+          final int chunkIterations = Math.min(iterations, blocks.length / blockCount);
+          final int chunkBlocks = chunkIterations * blockCount;
+          try {
+            for (int i = 0; i < chunkBlocks; ++i) {
+              blocks[i] = in.readLong(blockOffset);
+              blockOffset += Long.BYTES;
+            }
+          } catch (IOException e) {
+            throw new RuntimeException(e);
+          }
+          decoder.decode(blocks, 0, arr, off, chunkIterations);
+          final int chunkValues = chunkIterations * valueCount;
+          index += chunkValues;
+          off += chunkValues;
+          len -= chunkValues;
+          iterations -= chunkIterations;
+        }
+      }
+      // and the remaining values one by one
+      for (; len > 0; ++index, ++off, --len) {
+        arr[off] = get(index);
+      }
+    }
+  }
+
+  static final class DirectPackedReader1 extends DirectPackedReader {
+
+    DirectPackedReader1(RandomAccessInput in, long offset) {
+      super(in, offset, 1);
     }
 
     @Override
@@ -90,13 +145,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader2 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader2 extends DirectPackedReader {
+
     DirectPackedReader2(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 2);
     }
 
     @Override
@@ -110,13 +162,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader4 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
+  static final class DirectPackedReader4 extends DirectPackedReader {
 
     DirectPackedReader4(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 4);
     }
 
     @Override
@@ -130,13 +179,10 @@ public class DirectReader {
     }    
   }
     
-  static final class DirectPackedReader8 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
+  static final class DirectPackedReader8 extends DirectPackedReader {
 
     DirectPackedReader8(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 8);
     }
 
     @Override
@@ -149,13 +195,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader12 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader12 extends DirectPackedReader {
+
     DirectPackedReader12(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 12);
     }
 
     @Override
@@ -170,13 +213,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader16 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader16 extends DirectPackedReader {
+
     DirectPackedReader16(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 16);
     }
 
     @Override
@@ -189,13 +229,10 @@ public class DirectReader {
     }
   }
   
-  static final class DirectPackedReader20 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
+  static final class DirectPackedReader20 extends DirectPackedReader {
 
     DirectPackedReader20(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 20);
     }
 
     @Override
@@ -212,13 +249,10 @@ public class DirectReader {
     }
   }
   
-  static final class DirectPackedReader24 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader24 extends DirectPackedReader {
+
     DirectPackedReader24(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 24);
     }
 
     @Override
@@ -231,13 +265,10 @@ public class DirectReader {
     }
   }
   
-  static final class DirectPackedReader28 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader28 extends DirectPackedReader {
+
     DirectPackedReader28(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 28);
     }
     
     @Override
@@ -252,13 +283,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader32 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader32 extends DirectPackedReader {
+
     DirectPackedReader32(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 32);
     }
     
     @Override
@@ -271,13 +299,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader40 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader40 extends DirectPackedReader {
+
     DirectPackedReader40(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 40);
     }
     
     @Override
@@ -290,13 +315,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader48 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader48 extends DirectPackedReader {
+
     DirectPackedReader48(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 48);
     }
     
     @Override
@@ -309,13 +331,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader56 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader56 extends DirectPackedReader {
+
     DirectPackedReader56(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 56);
     }
     
     @Override
@@ -328,13 +347,10 @@ public class DirectReader {
     }    
   }
   
-  static final class DirectPackedReader64 extends LongValues {
-    final RandomAccessInput in;
-    final long offset;
-    
+  static final class DirectPackedReader64 extends DirectPackedReader {
+
     DirectPackedReader64(RandomAccessInput in, long offset) {
-      this.in = in;
-      this.offset = offset;
+      super(in, offset, 64);
     }
     
     @Override
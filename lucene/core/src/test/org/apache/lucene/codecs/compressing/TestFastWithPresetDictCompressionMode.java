@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.store.ByteArrayDataOutput;
+import org.apache.lucene.util.TestUtil;
+
+public class TestFastWithPresetDictCompressionMode extends AbstractTestCompressionMode {
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    mode = CompressionMode.FAST_WITH_PRESET_DICT;
+  }
+
+  public void testDictionary() throws IOException {
+    final int dictLength = TestUtil.nextInt(random(), 16, 1024);
+    final byte[] dict = randomArray(dictLength, 255);
+    // the data to compress is a copy of the dictionary
+    final byte[] bytes = new byte[2 * dictLength];
+    System.arraycopy(dict, 0, bytes, 0, dictLength);
+    System.arraycopy(dict, 0, bytes, dictLength, dictLength);
+
+    final byte[] compressed = new byte[dictLength * 2];
+    final ByteArrayDataOutput out = new ByteArrayDataOutput(compressed);
+    LZ4.compressWithDictionary(bytes, 0, dictLength, dictLength, out, new LZ4.HashTable());
+    // a single match that references the dictionary, and the last literals
+    assertTrue(out.getPosition() < 32);
+
+    final byte[] restored = new byte[2 * dictLength];
+    System.arraycopy(dict, 0, restored, 0, dictLength);
+    final int end = LZ4.decompress(new ByteArrayDataInput(compressed, 0, out.getPosition()), 2 * dictLength, restored, dictLength);
+    assertEquals(2 * dictLength, end);
+    assertArrayEquals(Arrays.copyOfRange(bytes, dictLength, 2 * dictLength), Arrays.copyOfRange(restored, dictLength, 2 * dictLength));
+  }
+}
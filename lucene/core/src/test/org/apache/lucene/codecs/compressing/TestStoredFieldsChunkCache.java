@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.TestUtil;
+
+public class TestStoredFieldsChunkCache extends LuceneTestCase {
+
+  public void testLRU() {
+    final Object coreKey = new Object();
+    final byte[] chunk = new byte[100];
+    final long entryRamBytesUsed = StoredFieldsChunkCache.ENTRY_RAM_BYTES_USED + RamUsageEstimator.sizeOf(chunk);
+    final StoredFieldsChunkCache cache = new StoredFieldsChunkCache(2 * entryRamBytesUsed);
+
+    assertNull(cache.get(coreKey, 0));
+    cache.put(coreKey, 0, chunk);
+    cache.put(coreKey, 10, chunk);
+    assertSame(chunk, cache.get(coreKey, 0));
+    assertNull(cache.get(new Object(), 0));
+    // evicts the least recently used chunk, which starts at 10
+    cache.put(coreKey, 20, chunk);
+    assertSame(chunk, cache.get(coreKey, 0));
+    assertNull(cache.get(coreKey, 10));
+    assertSame(chunk, cache.get(coreKey, 20));
+
+    assertEquals(3, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(2, cache.getCacheSize());
+    assertEquals(3, cache.getCacheCount());
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2 * entryRamBytesUsed, cache.ramBytesUsed());
+
+    // too large
+    assertFalse(cache.mayCache(1000));
+    cache.put(coreKey, 30, new byte[1000]);
+    assertNull(cache.get(coreKey, 30));
+    assertEquals(2, cache.getCacheSize());
+
+    cache.clearCoreCacheKey(coreKey);
+    assertEquals(0, cache.getCacheSize());
+    assertEquals(0, cache.ramBytesUsed());
+  }
+
+  public void testStoredFields() throws Exception {
+    final StoredFieldsChunkCache previous = StoredFieldsChunkCache.getDefault();
+    final StoredFieldsChunkCache cache = new StoredFieldsChunkCache(1 << 20);
+    StoredFieldsChunkCache.setDefault(cache);
+    try {
+      Directory dir = newDirectory();
+      IndexWriter w = new IndexWriter(dir, newIndexWriterConfig().setCodec(TestUtil.getDefaultCodec()));
+      final int numDocs = atLeast(1000);
+      for (int i = 0; i < numDocs; ++i) {
+        Document doc = new Document();
+        doc.add(new StoredField("id", i));
+        doc.add(new StoredField("text", TestUtil.randomSimpleString(random())));
+        w.addDocument(doc);
+      }
+      w.close();
+
+      final DirectoryReader reader = DirectoryReader.open(dir);
+      final Document[] docs = new Document[numDocs];
+      for (int i = 0; i < numDocs; ++i) {
+        docs[i] = reader.document(i);
+        assertEquals(i, docs[i].getField("id").numericValue().intValue());
+      }
+      assertTrue(cache.getCacheSize() > 0);
+      final long hitCount = cache.getHitCount();
+      for (int i = 0; i < numDocs; ++i) {
+        final Document doc = reader.document(i);
+        assertEquals(i, doc.getField("id").numericValue().intValue());
+        assertEquals(docs[i].get("text"), doc.get("text"));
+      }
+      assertEquals(hitCount + numDocs, cache.getHitCount());
+      assertTrue(cache.ramBytesUsed() <= 1 << 20);
+
+      // closing the reader evicts its chunks
+      reader.close();
+      assertEquals(0, cache.getCacheSize());
+      assertEquals(0, cache.ramBytesUsed());
+      dir.close();
+    } finally {
+      StoredFieldsChunkCache.setDefault(previous);
+    }
+  }
+
+  public void testPresetDictIsNotCached() throws Exception {
+    final StoredFieldsChunkCache previous = StoredFieldsChunkCache.getDefault();
+    final StoredFieldsChunkCache cache = new StoredFieldsChunkCache(1 << 20);
+    StoredFieldsChunkCache.setDefault(cache);
+    try {
+      Directory dir = newDirectory();
+      IndexWriter w = new IndexWriter(dir, newIndexWriterConfig().setCodec(new FastWithPresetDictCompressingCodec()));
+      final int numDocs = atLeast(100);
+      for (int i = 0; i < numDocs; ++i) {
+        Document doc = new Document();
+        doc.add(new StoredField("id", i));
+        w.addDocument(doc);
+      }
+      w.close();
+
+      final DirectoryReader reader = DirectoryReader.open(dir);
+      for (int i = 0; i < numDocs; ++i) {
+        assertEquals(i, reader.document(i).getField("id").numericValue().intValue());
+      }
+      assertEquals(0, cache.getTotalCount());
+      assertEquals(0, cache.getCacheSize());
+      reader.close();
+      dir.close();
+    } finally {
+      StoredFieldsChunkCache.setDefault(previous);
+    }
+  }
+
+  public void testSupportsPartialDecompression() {
+    assertFalse(CompressionMode.FAST.supportsPartialDecompression());
+    assertFalse(CompressionMode.FAST_DECOMPRESSION.supportsPartialDecompression());
+    assertFalse(CompressionMode.HIGH_COMPRESSION.supportsPartialDecompression());
+    assertTrue(CompressionMode.FAST_WITH_PRESET_DICT.supportsPartialDecompression());
+    assertTrue(CompressionMode.HIGH_COMPRESSION_WITH_PRESET_DICT.supportsPartialDecompression());
+  }
+
+}
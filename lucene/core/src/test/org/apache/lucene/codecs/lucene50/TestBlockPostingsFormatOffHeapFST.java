@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.lucene50;
+
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.apache.lucene.codecs.blocktree.BlockTreeTermsReader;
+import org.apache.lucene.codecs.blocktree.BlockTreeTermsReader.FSTLoadMode;
+import org.apache.lucene.codecs.blocktree.FieldReader;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+/**
+ * Tests that BlockPostingsFormat reads terms index FSTs off-heap when
+ * readers are configured to do so.
+ */
+public class TestBlockPostingsFormatOffHeapFST extends LuceneTestCase {
+
+  private static final Map<String, String> OFF_HEAP =
+      Collections.singletonMap(BlockTreeTermsReader.FST_MODE_KEY, FSTLoadMode.OFF_HEAP.name());
+
+  private static IndexWriterConfig newConfig() {
+    return newIndexWriterConfig(new MockAnalyzer(random()))
+        .setCodec(TestUtil.getDefaultCodec());
+  }
+
+  private static void addDocuments(IndexWriter w) throws IOException {
+    final int numDocs = atLeast(1000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(newStringField("field", TestUtil.randomSimpleString(random(), 4, 10), Field.Store.NO));
+      w.addDocument(doc);
+    }
+  }
+
+  private static FieldReader fieldReader(IndexReader reader, int leaf) throws IOException {
+    LeafReader leafReader = reader.leaves().get(leaf).reader();
+    return (FieldReader) leafReader.terms("field");
+  }
+
+  /** Check that both readers have the same terms, and that the terms index
+   *  of the off-heap reader uses less memory. */
+  private static void assertOffHeap(IndexReader onHeap, IndexReader offHeap, int leaf) throws IOException {
+    FieldReader onHeapTerms = fieldReader(onHeap, leaf);
+    FieldReader offHeapTerms = fieldReader(offHeap, leaf);
+    assertTrue(offHeapTerms.ramBytesUsed() < onHeapTerms.ramBytesUsed());
+
+    TermsEnum onHeapEnum = onHeapTerms.iterator();
+    TermsEnum offHeapEnum = offHeapTerms.iterator();
+    for (BytesRef term = onHeapEnum.next(); term != null; term = onHeapEnum.next()) {
+      assertEquals(term, offHeapEnum.next());
+      assertEquals(onHeapEnum.docFreq(), offHeapEnum.docFreq());
+    }
+    assertNull(offHeapEnum.next());
+
+    for (int i = 0; i < 100; ++i) {
+      BytesRef target = new BytesRef(TestUtil.randomSimpleString(random(), 4, 10));
+      assertEquals(onHeapEnum.seekCeil(target), offHeapEnum.seekCeil(target));
+      if (onHeapEnum.term() != null) {
+        assertEquals(onHeapEnum.term(), offHeapEnum.term());
+      }
+    }
+  }
+
+  public void testReaderAttribute() throws IOException {
+    Directory dir = newDirectory();
+    IndexWriter w = new IndexWriter(dir, newConfig());
+    addDocuments(w);
+    w.forceMerge(1);
+    w.commit();
+
+    DirectoryReader onHeap = DirectoryReader.open(dir);
+    DirectoryReader offHeap = DirectoryReader.open(dir, OFF_HEAP);
+    assertOffHeap(onHeap, offHeap, 0);
+
+    // new segments are opened with the attributes of the reader
+    addDocuments(w);
+    w.forceMerge(1);
+    w.commit();
+    DirectoryReader onHeap2 = DirectoryReader.openIfChanged(onHeap);
+    DirectoryReader offHeap2 = DirectoryReader.openIfChanged(offHeap);
+    assertNotNull(onHeap2);
+    assertNotNull(offHeap2);
+    assertOffHeap(onHeap2, offHeap2, 0);
+
+    IOUtils.close(onHeap, offHeap, onHeap2, offHeap2, w, dir);
+  }
+
+  public void testIndexWriterReaderAttributes() throws IOException {
+    Directory dir = newDirectory();
+    IndexWriter w = new IndexWriter(dir, newConfig().setReaderAttributes(OFF_HEAP));
+    assertEquals(OFF_HEAP, w.getConfig().getReaderAttributes());
+    addDocuments(w);
+    w.forceMerge(1);
+
+    DirectoryReader offHeap = DirectoryReader.open(w);
+    w.commit();
+    DirectoryReader onHeap = DirectoryReader.open(dir);
+    assertOffHeap(onHeap, offHeap, 0);
+
+    IOUtils.close(onHeap, offHeap, w, dir);
+  }
+
+  public void testInvalidAttribute() throws IOException {
+    Directory dir = newDirectory();
+    IndexWriter w = new IndexWriter(dir, newConfig());
+    addDocuments(w);
+    w.close();
+
+    IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+        () -> DirectoryReader.open(dir, Collections.singletonMap(BlockTreeTermsReader.FST_MODE_KEY, "foo")));
+    assertTrue(e.getMessage(), e.getMessage().contains(BlockTreeTermsReader.FST_MODE_KEY));
+    expectThrows(IllegalArgumentException.class, () -> DirectoryReader.open(dir, null));
+    dir.close();
+  }
+}
@@ -549,12 +549,22 @@ public class TestLucene70DocValuesFormat extends BaseCompressingDocValuesFormatT
 
   @Slow
   public void testNumericBlocksOfVariousBitsPerValue() throws Exception {
-    doTestSparseNumericBlocksOfVariousBitsPerValue(1);
+    doTestSparseNumericBlocksOfVariousBitsPerValue(1, blocksOfVariousBPV());
   }
 
   @Slow
   public void testSparseNumericBlocksOfVariousBitsPerValue() throws Exception {
-    doTestSparseNumericBlocksOfVariousBitsPerValue(random().nextDouble());
+    doTestSparseNumericBlocksOfVariousBitsPerValue(random().nextDouble(), blocksOfVariousBPV());
+  }
+
+  @Slow
+  public void testNumericBlocksOfVariousGCDs() throws Exception {
+    doTestSparseNumericBlocksOfVariousBitsPerValue(1, blocksOfVariousGCDs());
+  }
+
+  @Slow
+  public void testSparseNumericBlocksOfVariousGCDs() throws Exception {
+    doTestSparseNumericBlocksOfVariousBitsPerValue(random().nextDouble(), blocksOfVariousGCDs());
   }
 
   private static LongSupplier blocksOfVariousBPV() {
@@ -575,6 +585,27 @@ public class TestLucene70DocValuesFormat extends BaseCompressingDocValuesFormatT
     };
   }
 
+  // every block has its own GCD and rare outliers that would otherwise disable block encoding
+  private static LongSupplier blocksOfVariousGCDs() {
+    final long min = random().nextInt();
+    return new LongSupplier() {
+      int i = Lucene70DocValuesFormat.NUMERIC_BLOCK_SIZE;
+      long mul;
+      @Override
+      public long getAsLong() {
+        if (i == Lucene70DocValuesFormat.NUMERIC_BLOCK_SIZE) {
+          mul = TestUtil.nextLong(random(), 1, 1L << 20);
+          i = 0;
+        }
+        i++;
+        if (random().nextInt(100000) == 0) {
+          return min + TestUtil.nextLong(random(), 0, 1L << 50);
+        }
+        return min + mul * random().nextInt(16);
+      }
+    };
+  }
+
   private void doTestSortedNumericBlocksOfVariousBitsPerValue(LongSupplier counts) throws Exception {
     Directory dir = newDirectory();
     IndexWriterConfig conf = newIndexWriterConfig(new MockAnalyzer(random()));
@@ -634,7 +665,7 @@ public class TestLucene70DocValuesFormat extends BaseCompressingDocValuesFormatT
     dir.close();
   }
 
-  private void doTestSparseNumericBlocksOfVariousBitsPerValue(double density) throws Exception {
+  private void doTestSparseNumericBlocksOfVariousBitsPerValue(double density, LongSupplier longs) throws Exception {
     Directory dir = newDirectory();
     IndexWriterConfig conf = newIndexWriterConfig(new MockAnalyzer(random()));
     conf.setMaxBufferedDocs(atLeast(Lucene70DocValuesFormat.NUMERIC_BLOCK_SIZE));
@@ -648,7 +679,6 @@ public class TestLucene70DocValuesFormat extends BaseCompressingDocValuesFormatT
     doc.add(dvField);
 
     final int numDocs = atLeast(Lucene70DocValuesFormat.NUMERIC_BLOCK_SIZE*3);
-    final LongSupplier longs = blocksOfVariousBPV();
     for (int i = 0; i < numDocs; i++) {
       if (random().nextDouble() > density) {
         writer.addDocument(new Document());
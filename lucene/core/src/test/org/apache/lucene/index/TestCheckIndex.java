@@ -52,6 +52,16 @@ public class TestCheckIndex extends BaseTestCheckIndex {
     testChecksumsOnlyVerbose(directory);
   }
 
+  @Test
+  public void testConcurrentChecks() throws IOException {
+    testConcurrentChecks(directory);
+  }
+
+  @Test
+  public void testVerifiedSegments() throws IOException {
+    testVerifiedSegments(directory);
+  }
+
   @Test
   public void testObtainsLock() throws IOException {
     testObtainsLock(directory);
@@ -670,4 +670,73 @@ public class TestConcurrentMergeScheduler extends LuceneTestCase {
 
     assertFalse(failed.get());
   }
+
+  public void testPauseMergesAbove() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    ConcurrentMergeScheduler cms = new ConcurrentMergeScheduler();
+    cms.setMaxMergesAndThreads(6, 1);
+    assertEquals(Double.POSITIVE_INFINITY, cms.getPauseMergesAboveMB(), 0d);
+    cms.pauseMergesAbove(0.0);
+    assertEquals(0.0, cms.getPauseMergesAboveMB(), 0d);
+    iwc.setMergeScheduler(cms);
+    iwc.setMaxBufferedDocs(2);
+    iwc.setRAMBufferSizeMB(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+    LogDocMergePolicy mp = new LogDocMergePolicy();
+    mp.setMergeFactor(2);
+    mp.setMinMergeDocs(1);
+    iwc.setMergePolicy(mp);
+    IndexWriter w = new IndexWriter(dir, iwc);
+    for (int i = 0; i < 4; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("id", Integer.toString(i), Field.Store.NO));
+      w.addDocument(doc);
+    }
+    // the merge of the first two segments was registered but it can't make progress
+    assertTrue(cms.getPausedMergeCount() > 0);
+    assertTrue(w.getSegmentCount() >= 2);
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      cms.pauseMergesAbove(-1);
+    });
+
+    cms.resumeMerges();
+    assertEquals(Double.POSITIVE_INFINITY, cms.getPauseMergesAboveMB(), 0d);
+    w.forceMerge(1);
+    assertEquals(0, cms.getPausedMergeCount());
+    assertEquals(1, w.getSegmentCount());
+    w.close();
+    dir.close();
+  }
+
+  public void testForceMergeResumesPausedMerges() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    ConcurrentMergeScheduler cms = new ConcurrentMergeScheduler();
+    cms.setMaxMergesAndThreads(6, 1);
+    cms.pauseMergesAbove(0.0);
+    iwc.setMergeScheduler(cms);
+    iwc.setMaxBufferedDocs(2);
+    iwc.setRAMBufferSizeMB(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+    LogDocMergePolicy mp = new LogDocMergePolicy();
+    mp.setMergeFactor(2);
+    mp.setMinMergeDocs(1);
+    iwc.setMergePolicy(mp);
+    IndexWriter w = new IndexWriter(dir, iwc);
+    for (int i = 0; i < 4; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("id", Integer.toString(i), Field.Store.NO));
+      w.addDocument(doc);
+    }
+    assertTrue(cms.getPausedMergeCount() > 0);
+
+    // merges are still paused, but the running merge is now part of a forced
+    // merge, which is never paused
+    w.forceMerge(1);
+    assertEquals(0.0, cms.getPauseMergesAboveMB(), 0d);
+    assertEquals(0, cms.getPausedMergeCount());
+    assertEquals(1, w.getSegmentCount());
+    w.close();
+    dir.close();
+  }
 }
@@ -37,6 +37,9 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.CannedTokenStream;
@@ -53,6 +56,7 @@ import org.apache.lucene.document.BinaryDocValuesField;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.SortedNumericDocValuesField;
@@ -68,11 +72,14 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.BaseDirectoryWrapper;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
@@ -90,6 +97,7 @@ import org.apache.lucene.util.Constants;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.InfoStream;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.SetOnce;
 import org.apache.lucene.util.StringHelper;
 import org.apache.lucene.util.TestUtil;
@@ -2799,5 +2807,155 @@ public class TestIndexWriter extends LuceneTestCase {
     dir.close();
   }
 
-}
+  public void testFlushExecutor() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4),
+        new NamedThreadFactory("testFlushExecutor"));
+    try {
+      Directory dir = newDirectory();
+      IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+      iwc.setFlushExecutor(executor);
+      iwc.setMaxBufferedDocs(TestUtil.nextInt(random(), 10, 100));
+      if (random().nextBoolean()) {
+        iwc.setIndexSort(new Sort(new SortField("number", SortField.Type.LONG)));
+      }
+      IndexWriter w = new IndexWriter(dir, iwc);
+      FieldType vectorsType = new FieldType(TextField.TYPE_STORED);
+      vectorsType.setStoreTermVectors(true);
+      vectorsType.setStoreTermVectorPositions(true);
+      final int numDocs = atLeast(500);
+      int numEven = 0;
+      for (int i = 0; i < numDocs; i++) {
+        Document doc = new Document();
+        doc.add(new StringField("id", Integer.toString(i), Field.Store.YES));
+        doc.add(new Field("body", (i % 2 == 0 ? "even " : "odd ") + TestUtil.randomSimpleString(random()), vectorsType));
+        doc.add(new NumericDocValuesField("number", random().nextInt(1000)));
+        doc.add(new SortedDocValuesField("sorted", new BytesRef(Integer.toString(i % 10))));
+        doc.add(new IntPoint("point", i));
+        w.addDocument(doc);
+        if (i % 2 == 0) {
+          numEven++;
+        }
+      }
+      DirectoryReader r = DirectoryReader.open(w);
+      IndexSearcher searcher = newSearcher(r);
+      assertEquals(numDocs, r.numDocs());
+      assertEquals(numEven, searcher.count(new TermQuery(new Term("body", "even"))));
+      assertEquals(10, searcher.count(IntPoint.newRangeQuery("point", 0, 9)));
+      for (LeafReaderContext context : r.leaves()) {
+        LeafReader leafReader = context.reader();
+        assertEquals(leafReader.maxDoc(), leafReader.getDocCount("body"));
+        assertNotNull(leafReader.getTermVectors(0));
+        assertNotNull(leafReader.document(0).get("id"));
+        NumericDocValues numbers = leafReader.getNumericDocValues("number");
+        for (int doc = 0; doc < leafReader.maxDoc(); doc++) {
+          assertEquals(doc, numbers.nextDoc());
+        }
+      }
+      r.close();
+      w.close();
+      // the directory runs CheckIndex on close
+      dir.close();
+    } finally {
+      TestUtil.shutdownExecutorService(executor);
+    }
+  }
+
+  public void testFlushExecutorFailure() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 1, 4),
+        new NamedThreadFactory("testFlushExecutorFailure"));
+    try {
+      final AtomicBoolean failPoints = new AtomicBoolean();
+      Directory dir = new FilterDirectory(newDirectory()) {
+        @Override
+        public IndexOutput createOutput(String name, IOContext context) throws IOException {
+          if (failPoints.get() && "dim".equals(IndexFileNames.getExtension(name))) {
+            throw new IOException("fake points failure");
+          }
+          return super.createOutput(name, context);
+        }
+      };
+      // files of the aborted segment must be deletable
+      TestUtil.disableVirusChecker(dir);
+      IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()))
+          .setCodec(TestUtil.getDefaultCodec())
+          .setMergePolicy(NoMergePolicy.INSTANCE)
+          .setFlushExecutor(executor);
+      IndexWriter w = new IndexWriter(dir, iwc);
+      w.commit();
+      for (int i = 0; i < 100; i++) {
+        Document doc = new Document();
+        doc.add(new StringField("id", Integer.toString(i), Field.Store.YES));
+        doc.add(new NumericDocValuesField("number", i));
+        doc.add(new IntPoint("point", i));
+        w.addDocument(doc);
+      }
 
+      // the points step fails while the other steps may run on the executor
+      failPoints.set(true);
+      IOException e = expectThrows(IOException.class, () -> {
+        w.commit();
+      });
+      assertEquals("fake points failure", e.getMessage());
+      assertFalse(w.isOpen());
+      assertSame(e, w.getTragicException());
+      failPoints.set(false);
+
+      // the last commit is intact, and the next writer removes the files of
+      // the aborted segment
+      new IndexWriter(dir, newIndexWriterConfig(new MockAnalyzer(random()))).close();
+      Set<String> files = new HashSet<>();
+      for (String file : dir.listAll()) {
+        if (IndexFileNames.CODEC_FILE_PATTERN.matcher(file).matches()) {
+          files.add(file);
+        }
+      }
+      files.removeAll(SegmentInfos.readLatestCommit(dir).files(false));
+      assertTrue(files.toString(), files.isEmpty());
+      DirectoryReader r = DirectoryReader.open(dir);
+      assertEquals(0, r.numDocs());
+      r.close();
+      dir.close();
+    } finally {
+      TestUtil.shutdownExecutorService(executor);
+    }
+  }
+
+  public void testRecycleIndexingBuffers() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    final double maxRecycledMB = 1;
+    iwc.setMaxRecycledIndexingBufferMB(maxRecycledMB);
+    iwc.setMaxBufferedDocs(TestUtil.nextInt(random(), 10, 100));
+    IndexWriter w = new IndexWriter(dir, iwc);
+    FieldType vectorsType = new FieldType(TextField.TYPE_NOT_STORED);
+    vectorsType.setStoreTermVectors(true);
+    vectorsType.setStoreTermVectorPositions(true);
+    final int numDocs = atLeast(500);
+    int numEven = 0;
+    for (int i = 0; i < numDocs; i++) {
+      Document doc = new Document();
+      doc.add(new Field("body", (i % 2 == 0 ? "even " : "odd ") + TestUtil.randomSimpleString(random()), vectorsType));
+      doc.add(new IntPoint("point", i));
+      w.addDocument(doc);
+      if (i % 2 == 0) {
+        numEven++;
+      }
+    }
+    w.flush();
+    // blocks of flushed segments have been retained, up to the configured maximum,
+    // and they count towards the RAM buffer
+    assertTrue(w.ramBytesUsed() > 0);
+    assertTrue(w.ramBytesUsed() <= maxRecycledMB * 1024 * 1024);
+
+    DirectoryReader r = DirectoryReader.open(w);
+    IndexSearcher searcher = newSearcher(r);
+    assertEquals(numDocs, r.numDocs());
+    assertEquals(numEven, searcher.count(new TermQuery(new Term("body", "even"))));
+    assertEquals(10, searcher.count(IntPoint.newRangeQuery("point", 0, 9)));
+    r.close();
+    w.close();
+    // the directory runs CheckIndex on close
+    dir.close();
+  }
+
+}
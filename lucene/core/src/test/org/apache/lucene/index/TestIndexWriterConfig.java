@@ -20,6 +20,7 @@ package org.apache.lucene.index;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -75,6 +76,11 @@ public class TestIndexWriterConfig extends LuceneTestCase {
     assertEquals(Codec.getDefault(), conf.getCodec());
     assertEquals(InfoStream.getDefault(), conf.getInfoStream());
     assertEquals(IndexWriterConfig.DEFAULT_USE_COMPOUND_FILE_SYSTEM, conf.getUseCompoundFile());
+    assertNull(conf.getApplyUpdatesExecutor());
+    assertNull(conf.getFlushExecutor());
+    assertEquals(IndexWriterConfig.DEFAULT_MAX_FULL_FLUSH_MERGE_WAIT_MILLIS, conf.getMaxFullFlushMergeWaitMillis());
+    assertEquals(IndexWriterConfig.DEFAULT_MAX_RECYCLED_INDEXING_BUFFER_MB, conf.getMaxRecycledIndexingBufferMB(), 0d);
+    assertEquals(Collections.emptyMap(), conf.getReaderAttributes());
     // Sanity check - validate that all getters are covered.
     Set<String> getters = new HashSet<>();
     getters.add("getAnalyzer");
@@ -260,6 +266,18 @@ public class TestIndexWriterConfig extends LuceneTestCase {
     expectThrows(IllegalArgumentException.class, () -> {
       conf.setRAMPerThreadHardLimitMB(0);
     });
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      conf.setMaxFullFlushMergeWaitMillis(-1);
+    });
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      conf.setMaxRecycledIndexingBufferMB(-1);
+    });
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      conf.setReaderAttributes(null);
+    });
     
     // Test MergePolicy
     assertEquals(TieredMergePolicy.class, conf.getMergePolicy().getClass());
@@ -22,9 +22,13 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -42,9 +46,11 @@ import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MockDirectoryWrapper;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LuceneTestCase;
 import org.apache.lucene.util.LuceneTestCase.SuppressCodecs;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.TestUtil;
 
 @SuppressCodecs("SimpleText") // too slow here
@@ -1400,4 +1406,95 @@ public class TestIndexWriterDelete extends LuceneTestCase {
     w.close();
     dir.close();
   }
+
+  // Deletes and updates that are resolved concurrently against many segments
+  // must give the same result as if they were resolved sequentially
+  public void testApplyUpdatesConcurrently() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(TestUtil.nextInt(random(), 2, 4),
+        new NamedThreadFactory("testApplyUpdatesConcurrently"));
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    iwc.setApplyUpdatesExecutor(executor);
+    iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+    iwc.setMaxBufferedDocs(TestUtil.nextInt(random(), 10, 50));
+    iwc.setRAMBufferSizeMB(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+    IndexWriter w = new IndexWriter(dir, iwc);
+
+    final int numIds = atLeast(200);
+    final int numGroups = TestUtil.nextInt(random(), 5, 20);
+    final Map<Integer,Long> expected = new HashMap<>();
+    DirectoryReader reader = null;
+    final int numIters = atLeast(1000);
+    for (int i = 0; i < numIters; i++) {
+      final int id = random().nextInt(numIds);
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(id), Field.Store.YES));
+      doc.add(new StringField("group", Integer.toString(id % numGroups), Field.Store.NO));
+      doc.add(new NumericDocValuesField("value", i));
+      w.updateDocument(new Term("id", Integer.toString(id)), doc);
+      expected.put(id, (long) i);
+
+      switch (random().nextInt(30)) {
+        case 0: {
+          final int group = random().nextInt(numGroups);
+          w.deleteDocuments(new TermQuery(new Term("group", Integer.toString(group))));
+          expected.keySet().removeIf(k -> k % numGroups == group);
+          break;
+        }
+        case 1: {
+          final int group = random().nextInt(numGroups);
+          w.updateNumericDocValue(new Term("group", Integer.toString(group)), "value", -i);
+          for (Map.Entry<Integer,Long> entry : expected.entrySet()) {
+            if (entry.getKey() % numGroups == group) {
+              entry.setValue((long) -i);
+            }
+          }
+          break;
+        }
+        case 2: {
+          final int deleteId = random().nextInt(numIds);
+          w.deleteDocuments(new Term("id", Integer.toString(deleteId)));
+          expected.remove(deleteId);
+          break;
+        }
+        case 3: {
+          if (reader == null) {
+            reader = DirectoryReader.open(w);
+          } else {
+            DirectoryReader newReader = DirectoryReader.openIfChanged(reader);
+            if (newReader != null) {
+              reader.close();
+              reader = newReader;
+            }
+          }
+          break;
+        }
+        default:
+          break;
+      }
+    }
+    IOUtils.close(reader);
+
+    reader = DirectoryReader.open(w);
+    assertEquals(expected.size(), reader.numDocs());
+    for (LeafReaderContext context : reader.leaves()) {
+      final LeafReader leafReader = context.reader();
+      final Bits liveDocs = leafReader.getLiveDocs();
+      final NumericDocValues values = leafReader.getNumericDocValues("value");
+      for (int doc = 0; doc < leafReader.maxDoc(); doc++) {
+        assertEquals(doc, values.advance(doc));
+        if (liveDocs != null && liveDocs.get(doc) == false) {
+          continue;
+        }
+        final int id = Integer.parseInt(leafReader.document(doc).get("id"));
+        assertEquals(expected.get(id).longValue(), values.longValue());
+      }
+    }
+    reader.close();
+
+    w.close();
+    dir.close();
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+  }
 }
@@ -18,6 +18,7 @@ package org.apache.lucene.index;
 
 import java.io.IOException;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.lucene.analysis.MockAnalyzer;
@@ -457,4 +458,163 @@ public class TestIndexWriterMerging extends LuceneTestCase {
 
     directory.close();
   }
+
+  public void testMergeOnGetReader() throws IOException {
+    Directory dir = newDirectory();
+    TieredMergePolicy mp = new TieredMergePolicy();
+    // make sure that regular merges do not kick in
+    mp.setMaxMergeAtOnce(100);
+    mp.setSegmentsPerTier(100);
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()))
+        .setMergePolicy(mp)
+        .setMergeScheduler(new SerialMergeScheduler())
+        .setMaxBufferedDocs(10)
+        .setMaxFullFlushMergeWaitMillis(Long.MAX_VALUE);
+    IndexWriter writer = new IndexWriter(dir, iwc);
+
+    int numDocs = 0;
+    DirectoryReader reader = null;
+    for (int iter = 0; iter < 5; iter++) {
+      for (int i = 0; i < 45; i++) {
+        Document doc = new Document();
+        doc.add(newStringField("id", Integer.toString(numDocs++), Field.Store.NO));
+        writer.addDocument(doc);
+      }
+      DirectoryReader newReader = reader == null ? DirectoryReader.open(writer) : DirectoryReader.openIfChanged(reader, writer);
+      assertNotNull(newReader);
+      if (reader != null) {
+        reader.close();
+      }
+      reader = newReader;
+      assertEquals(numDocs, reader.numDocs());
+      // tiny flushed segments have been merged before the reader was opened
+      assertEquals(1, reader.leaves().size());
+    }
+
+    writer.getConfig().setMaxFullFlushMergeWaitMillis(0);
+    for (int i = 0; i < 45; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("id", Integer.toString(numDocs++), Field.Store.NO));
+      writer.addDocument(doc);
+    }
+    DirectoryReader newReader = DirectoryReader.openIfChanged(reader, writer);
+    assertNotNull(newReader);
+    reader.close();
+    reader = newReader;
+    assertEquals(numDocs, reader.numDocs());
+    assertTrue(reader.leaves().size() > 1);
+
+    reader.close();
+    writer.close();
+    dir.close();
+  }
+
+  /** Wraps full-flush merges of {@link TieredMergePolicy} so that they block
+   *  until {@code release} is counted down, when run by the given thread type. */
+  private static MergePolicy blockingMergePolicy(CountDownLatch started, CountDownLatch release, boolean onlyOnCMSThreads) {
+    TieredMergePolicy mp = new TieredMergePolicy();
+    // make sure that regular merges do not kick in
+    mp.setMaxMergeAtOnce(100);
+    mp.setSegmentsPerTier(100);
+    return new OneMergeWrappingMergePolicy(mp, merge -> new MergePolicy.OneMerge(merge.segments) {
+      @Override
+      public CodecReader wrapForMerge(CodecReader reader) throws IOException {
+        if (onlyOnCMSThreads == false || Thread.currentThread() instanceof ConcurrentMergeScheduler.MergeThread) {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+        }
+        return reader;
+      }
+    });
+  }
+
+  public void testMergeOnGetReaderBudgetExpires() throws Exception {
+    Directory dir = newDirectory();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()))
+        .setMergePolicy(blockingMergePolicy(started, release, false))
+        .setMergeScheduler(new SerialMergeScheduler())
+        .setMaxBufferedDocs(10)
+        .setMaxFullFlushMergeWaitMillis(100);
+    IndexWriter writer = new IndexWriter(dir, iwc);
+    for (int i = 0; i < 45; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("id", Integer.toString(i), Field.Store.NO));
+      writer.addDocument(doc);
+    }
+
+    // the merge never completes within the budget: the reader is opened on
+    // the flushed segments
+    DirectoryReader reader = DirectoryReader.open(writer);
+    assertEquals(45, reader.numDocs());
+    assertTrue(reader.leaves().size() > 1);
+    started.await();
+    reader.close();
+
+    // the merge keeps running in the background
+    release.countDown();
+    writer.close();
+    reader = DirectoryReader.open(dir);
+    assertEquals(45, reader.numDocs());
+    assertEquals(1, reader.leaves().size());
+    reader.close();
+    dir.close();
+  }
+
+  public void testMergeOnGetReaderDoesNotStallWithCMS() throws Exception {
+    Directory dir = newDirectory();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ConcurrentMergeScheduler cms = new ConcurrentMergeScheduler();
+    // a single running merge is enough for the scheduler to stall incoming threads
+    cms.setMaxMergesAndThreads(1, 1);
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()))
+        .setMergePolicy(blockingMergePolicy(started, release, true))
+        .setMergeScheduler(cms)
+        .setMaxBufferedDocs(10)
+        .setMaxFullFlushMergeWaitMillis(Long.MAX_VALUE);
+    IndexWriter writer = new IndexWriter(dir, iwc);
+    for (int i = 0; i < 30; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("id", Integer.toString(i), Field.Store.NO));
+      writer.addDocument(doc);
+    }
+    writer.commit();
+
+    Thread forceMerge = new Thread() {
+      @Override
+      public void run() {
+        try {
+          writer.forceMerge(1);
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+      }
+    };
+    forceMerge.start();
+    started.await();
+
+    // the scheduler is busy with the forced merge, yet getReader runs its own
+    // merges and does not wait for the scheduler
+    for (int i = 30; i < 75; i++) {
+      Document doc = new Document();
+      doc.add(newStringField("id", Integer.toString(i), Field.Store.NO));
+      writer.addDocument(doc);
+    }
+    DirectoryReader reader = DirectoryReader.open(writer);
+    assertEquals(75, reader.numDocs());
+    // 3 segments being force-merged, plus the merged flushed segments
+    assertEquals(4, reader.leaves().size());
+    reader.close();
+
+    release.countDown();
+    forceMerge.join();
+    writer.close();
+    dir.close();
+  }
 }
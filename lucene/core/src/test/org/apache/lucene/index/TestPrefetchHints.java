@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+/** Checks that the postings, points and stored fields readers of the default
+ *  codec issue prefetch hints that are in the bounds of their files. */
+public class TestPrefetchHints extends LuceneTestCase {
+
+  /** Records the extensions of the files that prefetch hints were issued on,
+   *  and fails if a hint is out of the bounds of its file. */
+  private static class PrefetchRecordingIndexInput extends IndexInput {
+
+    private final String name;
+    private final IndexInput in;
+    private final Set<String> prefetched;
+
+    PrefetchRecordingIndexInput(String name, IndexInput in, Set<String> prefetched) {
+      super("PrefetchRecordingIndexInput(" + in + ")");
+      this.name = name;
+      this.in = in;
+      this.prefetched = prefetched;
+    }
+
+    @Override
+    public boolean isPrefetchEnabled() {
+      return true;
+    }
+
+    @Override
+    public void prefetch(long offset, long length) throws IOException {
+      assertTrue("offset=" + offset, offset >= 0);
+      assertTrue("length=" + length, length > 0);
+      assertTrue("offset=" + offset + ", length=" + length + ", file length=" + length(), offset + length <= length());
+      prefetched.add(IndexFileNames.getExtension(name));
+      in.prefetch(offset, length);
+    }
+
+    @Override
+    public PrefetchRecordingIndexInput clone() {
+      return new PrefetchRecordingIndexInput(name, in.clone(), prefetched);
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+      return new PrefetchRecordingIndexInput(name, in.slice(sliceDescription, offset, length), prefetched);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+
+    @Override
+    public long getFilePointer() {
+      return in.getFilePointer();
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+      in.seek(pos);
+    }
+
+    @Override
+    public long length() {
+      return in.length();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      return in.readByte();
+    }
+
+    @Override
+    public void readBytes(byte[] b, int offset, int len) throws IOException {
+      in.readBytes(b, offset, len);
+    }
+  }
+
+  public void testHintsAreInBounds() throws Exception {
+    final Set<String> prefetched = ConcurrentHashMap.newKeySet();
+    Directory dir = new FilterDirectory(newDirectory()) {
+      @Override
+      public IndexInput openInput(String name, IOContext context) throws IOException {
+        return new PrefetchRecordingIndexInput(name, super.openInput(name, context), prefetched);
+      }
+    };
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()))
+        .setCodec(TestUtil.getDefaultCodec())
+        .setMergePolicy(newLogMergePolicy(false));
+    IndexWriter w = new IndexWriter(dir, iwc);
+    // enough points for the BKD tree to have several leaves, and enough
+    // docs per term for postings to have skip data
+    final int numDocs = atLeast(5000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("f", i % 2 == 0 ? "even" : "odd", Store.NO));
+      doc.add(new IntPoint("p", i));
+      doc.add(new StoredField("s", TestUtil.randomSimpleString(random(), 10, 100)));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    w.close();
+
+    DirectoryReader reader = DirectoryReader.open(dir);
+    IndexSearcher searcher = new IndexSearcher(reader);
+    // do not use IndexSearcher#count, which may not read postings or points
+    TotalHitCountCollector collector = new TotalHitCountCollector();
+    searcher.search(new TermQuery(new Term("f", "even")), collector);
+    assertEquals((numDocs + 1) / 2, collector.getTotalHits());
+    collector = new TotalHitCountCollector();
+    // the range must not match all docs, which is computed without the BKD tree
+    searcher.search(IntPoint.newRangeQuery("p", numDocs / 4, numDocs - 1), collector);
+    assertEquals(numDocs - numDocs / 4, collector.getTotalHits());
+    for (int i = 0; i < numDocs; i += 100) {
+      assertNotNull(reader.document(i).get("s"));
+    }
+    assertTrue(prefetched.toString(), prefetched.contains("doc"));
+    assertTrue(prefetched.toString(), prefetched.contains("dim"));
+    assertTrue(prefetched.toString(), prefetched.contains("fdt"));
+    reader.close();
+    dir.close();
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.index;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.TestUtil;
+
+public class TestSinglePassForceMergePolicy extends BaseMergePolicyTestCase {
+
+  public MergePolicy mergePolicy() {
+    return new SinglePassForceMergePolicy(newMergePolicy(random()));
+  }
+
+  public void testSinglePass() throws Exception {
+    Directory dir = newDirectory();
+    final AtomicInteger mergeCount = new AtomicInteger();
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    iwc.setMaxBufferedDocs(10);
+    iwc.setRAMBufferSizeMB(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+    // merge all flushed segments at once
+    MergePolicy mp = new SinglePassForceMergePolicy(newMergePolicy(random())).setMaxMergeAtOnce(Integer.MAX_VALUE);
+    mp.setNoCFSRatio(random().nextBoolean() ? 0 : 1);
+    iwc.setMergePolicy(mp);
+    iwc.setMergeScheduler(new SerialMergeScheduler() {
+      @Override
+      public synchronized void merge(IndexWriter writer, MergeTrigger trigger, boolean newMergesFound) throws java.io.IOException {
+        MergePolicy.OneMerge merge;
+        while ((merge = writer.getNextMerge()) != null) {
+          mergeCount.incrementAndGet();
+          writer.merge(merge);
+        }
+      }
+    });
+    IndexWriter w = new IndexWriter(dir, iwc);
+    final int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(i), Store.NO));
+      w.addDocument(doc);
+    }
+    w.commit();
+    // flushed segments never get merged while documents are added
+    assertEquals(0, mergeCount.get());
+    final int flushedSegments = w.getSegmentCount();
+    assertEquals((numDocs + 9) / 10, flushedSegments);
+
+    final int maxSegmentCount = TestUtil.nextInt(random(), 1, 5);
+    w.forceMerge(maxSegmentCount);
+    assertEquals(maxSegmentCount, w.getSegmentCount());
+    // every merged segment was written exactly once
+    assertEquals(maxSegmentCount, mergeCount.get());
+    // nothing left to do
+    w.forceMerge(maxSegmentCount);
+    assertEquals(maxSegmentCount, mergeCount.get());
+    w.close();
+
+    DirectoryReader reader = DirectoryReader.open(dir);
+    assertEquals(numDocs, reader.numDocs());
+    assertEquals(maxSegmentCount, reader.leaves().size());
+    reader.close();
+    dir.close();
+  }
+
+  public void testMaxMergeAtOnce() throws Exception {
+    Directory dir = newDirectory();
+    final int maxMergeAtOnce = TestUtil.nextInt(random(), 2, 10);
+    final AtomicInteger maxFanIn = new AtomicInteger();
+    IndexWriterConfig iwc = newIndexWriterConfig(new MockAnalyzer(random()));
+    iwc.setMaxBufferedDocs(10);
+    iwc.setRAMBufferSizeMB(IndexWriterConfig.DISABLE_AUTO_FLUSH);
+    SinglePassForceMergePolicy mp = new SinglePassForceMergePolicy(newMergePolicy(random()));
+    assertEquals(SinglePassForceMergePolicy.DEFAULT_MAX_MERGE_AT_ONCE, mp.getMaxMergeAtOnce());
+    expectThrows(IllegalArgumentException.class, () -> {
+      mp.setMaxMergeAtOnce(1);
+    });
+    mp.setMaxMergeAtOnce(maxMergeAtOnce);
+    iwc.setMergePolicy(mp);
+    iwc.setMergeScheduler(new SerialMergeScheduler() {
+      @Override
+      public synchronized void merge(IndexWriter writer, MergeTrigger trigger, boolean newMergesFound) throws java.io.IOException {
+        MergePolicy.OneMerge merge;
+        while ((merge = writer.getNextMerge()) != null) {
+          maxFanIn.accumulateAndGet(merge.segments.size(), Math::max);
+          writer.merge(merge);
+        }
+      }
+    });
+    IndexWriter w = new IndexWriter(dir, iwc);
+    final int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("id", Integer.toString(i), Store.NO));
+      w.addDocument(doc);
+    }
+    w.commit();
+    assertTrue(w.getSegmentCount() > maxMergeAtOnce);
+
+    final int maxSegmentCount = TestUtil.nextInt(random(), 1, 3);
+    w.forceMerge(maxSegmentCount);
+    assertEquals(maxSegmentCount, w.getSegmentCount());
+    assertTrue(maxFanIn.get() > 1);
+    assertTrue(maxFanIn.get() <= maxMergeAtOnce);
+    w.close();
+
+    DirectoryReader reader = DirectoryReader.open(dir);
+    assertEquals(numDocs, reader.numDocs());
+    reader.close();
+    dir.close();
+  }
+
+}
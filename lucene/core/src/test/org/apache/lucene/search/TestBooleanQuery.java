@@ -627,6 +627,72 @@ public class TestBooleanQuery extends LuceneTestCase {
     dir.close();
   }
 
+  public void testFlattenNestedConjunctions() throws IOException {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    final String[] values = new String[] { "a", "b", "c", "d" };
+    final int numDocs = atLeast(100);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      StringBuilder value = new StringBuilder();
+      for (String v : values) {
+        if (random().nextInt(3) > 0) {
+          value.append(v).append(' ');
+        }
+      }
+      doc.add(newTextField("field", value.toString(), Field.Store.NO));
+      w.addDocument(doc);
+    }
+
+    DirectoryReader reader = w.getReader();
+    // not LuceneTestCase.newSearcher to not have the asserting wrappers
+    // and do instanceof checks
+    final IndexSearcher searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(null);
+
+    BooleanQuery nested = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("field", "b")), Occur.MUST)
+        .add(new TermQuery(new Term("field", "c")), Occur.FILTER)
+        .add(new TermQuery(new Term("field", "d")), Occur.MUST_NOT)
+        .build();
+    BooleanQuery q = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("field", "a")), Occur.MUST)
+        .add(nested, Occur.FILTER)
+        .build();
+
+    final Weight weight = searcher.createNormalizedWeight(q, true);
+    for (LeafReaderContext context : reader.leaves()) {
+      ScorerSupplier scorerSupplier = weight.scorerSupplier(context);
+      if (scorerSupplier == null) {
+        continue;
+      }
+      assertTrue(scorerSupplier instanceof Boolean2ScorerSupplier);
+      Boolean2ScorerSupplier booleanScorerSupplier = (Boolean2ScorerSupplier) scorerSupplier;
+      assertEquals(1, booleanScorerSupplier.getSubs(Occur.MUST).size());
+      assertEquals(2, booleanScorerSupplier.getSubs(Occur.FILTER).size());
+      assertEquals(1, booleanScorerSupplier.getSubs(Occur.MUST_NOT).size());
+    }
+
+    // flattening does not change matches
+    BooleanQuery expected = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("field", "a")), Occur.MUST)
+        .add(new TermQuery(new Term("field", "b")), Occur.FILTER)
+        .add(new TermQuery(new Term("field", "c")), Occur.FILTER)
+        .add(new TermQuery(new Term("field", "d")), Occur.MUST_NOT)
+        .build();
+    TopDocs expectedTopDocs = searcher.search(expected, numDocs);
+    TopDocs actualTopDocs = searcher.search(q, numDocs);
+    assertEquals(expectedTopDocs.totalHits, actualTopDocs.totalHits);
+    for (int i = 0; i < expectedTopDocs.scoreDocs.length; ++i) {
+      assertEquals(expectedTopDocs.scoreDocs[i].doc, actualTopDocs.scoreDocs[i].doc);
+      assertEquals(expectedTopDocs.scoreDocs[i].score, actualTopDocs.scoreDocs[i].score, 0f);
+    }
+
+    reader.close();
+    w.close();
+    dir.close();
+  }
+
   public void testDisjunctionPropagatesApproximations() throws IOException {
     Directory dir = newDirectory();
     RandomIndexWriter w = new RandomIndexWriter(random(), dir);
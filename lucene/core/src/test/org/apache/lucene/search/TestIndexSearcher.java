@@ -19,6 +19,7 @@ package org.apache.lucene.search;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -30,6 +31,7 @@ import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
@@ -219,4 +221,67 @@ public class TestIndexSearcher extends LuceneTestCase {
     searcher = new IndexSearcher(new MultiReader());
     assertEquals(dummyPolicy, searcher.getQueryCachingPolicy());
   }
+
+  public void testIntraSegmentSlices() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    final int numDocs = atLeast(500);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new StringField("foo", random().nextBoolean() ? "bar" : "baz", Store.NO));
+      w.addDocument(doc);
+    }
+    final IndexReader reader = w.getReader();
+    w.close();
+
+    final int maxDocsPerSlice = TestUtil.nextInt(random(), 1, 100);
+    final int maxSegmentsPerSlice = TestUtil.nextInt(random(), 1, 5);
+    IndexSearcher.LeafSlice[] slices = IndexSearcher.slices(reader.leaves(), maxDocsPerSlice, maxSegmentsPerSlice);
+    // slices must cover all documents, in order
+    int nextDoc = 0;
+    for (IndexSearcher.LeafSlice slice : slices) {
+      assertTrue(slice.leaves.length <= maxSegmentsPerSlice);
+      int numSliceDocs = 0;
+      for (LeafReaderContext ctx : slice.leaves) {
+        final int minDoc = Math.max(0, slice.minDoc);
+        final int maxDoc = Math.min(ctx.reader().maxDoc(), slice.maxDoc);
+        assertEquals(nextDoc, ctx.docBase + minDoc);
+        nextDoc = ctx.docBase + maxDoc;
+        numSliceDocs += maxDoc - minDoc;
+      }
+      assertTrue(numSliceDocs <= maxDocsPerSlice);
+    }
+    assertEquals(reader.maxDoc(), nextDoc);
+
+    ExecutorService service = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(),
+        new NamedThreadFactory("TestIndexSearcher"));
+    IndexSearcher sequentialSearcher = newSearcher(reader);
+    IndexSearcher concurrentSearcher = new IndexSearcher(reader, service) {
+      @Override
+      protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+        return slices(leaves, maxDocsPerSlice, maxSegmentsPerSlice);
+      }
+    };
+    for (Query query : Arrays.asList(
+        new MatchAllDocsQuery(),
+        new TermQuery(new Term("foo", "bar")),
+        new BooleanQuery.Builder()
+          .add(new TermQuery(new Term("foo", "bar")), Occur.SHOULD)
+          .add(new TermQuery(new Term("foo", "baz")), Occur.SHOULD)
+          .build())) {
+      assertEquals(sequentialSearcher.count(query), concurrentSearcher.count(query));
+      TopDocs expected = sequentialSearcher.search(query, 10);
+      TopDocs actual = concurrentSearcher.search(query, 10);
+      assertEquals(expected.totalHits, actual.totalHits);
+      assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+      for (int i = 0; i < expected.scoreDocs.length; ++i) {
+        assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+      }
+    }
+
+    TestUtil.shutdownExecutorService(service);
+    reader.close();
+    dir.close();
+  }
 }
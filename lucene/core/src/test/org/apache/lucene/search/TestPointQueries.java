@@ -30,6 +30,10 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.analysis.MockAnalyzer;
@@ -66,6 +70,7 @@ import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.NamedThreadFactory;
 import org.apache.lucene.util.NumericUtils;
 import org.apache.lucene.util.StringHelper;
 import org.apache.lucene.util.TestUtil;
@@ -2115,4 +2120,68 @@ public class TestPointQueries extends LuceneTestCase {
     r.close();
     dir.close();
   }
+
+  public void testConcurrentIntersect() throws Exception {
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig();
+    // concurrent intersection requires the default points format
+    iwc.setCodec(TestUtil.getDefaultCodec());
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+    final int numDocs = atLeast(10000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new LongPoint("ts", random().nextInt(100000)));
+      if (random().nextInt(4) == 0) {
+        // multi-valued
+        doc.add(new LongPoint("ts", random().nextInt(100000)));
+      }
+      doc.add(new IntPoint("xy", random().nextInt(1000), random().nextInt(1000)));
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+
+    ExecutorService service = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(),
+        new NamedThreadFactory("TestPointQueries"));
+    try {
+      IndexSearcher sequentialSearcher = new IndexSearcher(reader);
+      IndexSearcher concurrentSearcher = new IndexSearcher(reader, service);
+      assertEquals(IndexSearcher.DEFAULT_CONCURRENT_POINTS_INTERSECT_MIN_COST, concurrentSearcher.getConcurrentPointsIntersectMinCost());
+      expectThrows(IllegalArgumentException.class, () -> {
+        concurrentSearcher.setConcurrentPointsIntersectMinCost(-1);
+      });
+      concurrentSearcher.setConcurrentPointsIntersectMinCost(random().nextInt(1000));
+      final int iters = atLeast(50);
+      for (int iter = 0; iter < iters; ++iter) {
+        final Query query;
+        if (random().nextBoolean()) {
+          long lower = random().nextInt(100000);
+          long upper = lower + random().nextInt(100000);
+          query = LongPoint.newRangeQuery("ts", lower, upper);
+        } else {
+          int[] lower = new int[] { random().nextInt(1000), random().nextInt(1000) };
+          int[] upper = new int[] { lower[0] + random().nextInt(1000), lower[1] + random().nextInt(1000) };
+          query = IntPoint.newRangeQuery("xy", lower, upper);
+        }
+        TotalHitCountCollector expected = new TotalHitCountCollector();
+        TotalHitCountCollector actual = new TotalHitCountCollector();
+        sequentialSearcher.search(query, expected);
+        concurrentSearcher.search(query, actual);
+        assertEquals(query.toString(), expected.getTotalHits(), actual.getTotalHits());
+
+        TopDocs expectedTopDocs = sequentialSearcher.search(query, 10);
+        TopDocs actualTopDocs = concurrentSearcher.search(query, 10);
+        assertEquals(expectedTopDocs.scoreDocs.length, actualTopDocs.scoreDocs.length);
+        for (int i = 0; i < expectedTopDocs.scoreDocs.length; ++i) {
+          assertEquals(expectedTopDocs.scoreDocs[i].doc, actualTopDocs.scoreDocs[i].doc);
+        }
+      }
+    } finally {
+      TestUtil.shutdownExecutorService(service);
+    }
+
+    reader.close();
+    dir.close();
+  }
 }
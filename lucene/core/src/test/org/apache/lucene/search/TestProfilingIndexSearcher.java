@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.util.Map;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.QueryProfile.Breakdown;
+import org.apache.lucene.search.QueryProfile.Timing;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+public class TestProfilingIndexSearcher extends LuceneTestCase {
+
+  public void testProfile() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    final String[] terms = new String[] { "a", "b", "c", "d" };
+    final int numDocs = atLeast(200);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      StringBuilder value = new StringBuilder();
+      final int numTerms = TestUtil.nextInt(random(), 1, 5);
+      for (int j = 0; j < numTerms; ++j) {
+        value.append(terms[random().nextInt(terms.length)]).append(' ');
+      }
+      doc.add(new TextField("foo", value.toString(), Store.NO));
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+
+    Query nested = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("foo", "c")), Occur.MUST)
+        .add(new TermQuery(new Term("foo", "d")), Occur.MUST)
+        .build();
+    Query query = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("foo", "a")), Occur.SHOULD)
+        .add(new PhraseQuery("foo", "a", "b"), Occur.SHOULD)
+        .add(nested, Occur.SHOULD)
+        .build();
+
+    IndexSearcher searcher = new IndexSearcher(reader);
+    ProfilingIndexSearcher profilingSearcher = new ProfilingIndexSearcher(reader);
+    TopDocs expected = searcher.search(query, 10);
+    TopDocs actual = profilingSearcher.search(query, 10);
+    CheckHits.checkEqual(query, expected.scoreDocs, actual.scoreDocs);
+
+    assertEquals(1, profilingSearcher.getProfiles().size());
+    QueryProfile profile = profilingSearcher.getProfiles().get(0);
+    assertEquals(query, profile.getQuery());
+    assertEquals(3, profile.getChildren().size());
+    assertEquals(new TermQuery(new Term("foo", "a")), profile.getChildren().get(0).getQuery());
+    assertEquals(new PhraseQuery("foo", "a", "b"), profile.getChildren().get(1).getQuery());
+    QueryProfile nestedProfile = profile.getChildren().get(2);
+    assertEquals(nested, nestedProfile.getQuery());
+    assertEquals(2, nestedProfile.getChildren().size());
+
+    assertEquals(1, profile.getBreakdown().getCount(Timing.CREATE_WEIGHT));
+    assertTrue(profile.getBreakdown().getTime(Timing.CREATE_WEIGHT) > 0);
+    // the conjunction is iterated by its parent
+    for (QueryProfile termProfile : nestedProfile.getChildren()) {
+      Breakdown breakdown = termProfile.getBreakdown();
+      assertTrue(breakdown.getCount(Timing.BUILD_SCORER) > 0);
+      assertTrue(breakdown.getCount(Timing.NEXT_DOC) + breakdown.getCount(Timing.ADVANCE) > 0);
+      assertTrue(breakdown.getTotalTime() > 0);
+      assertTrue(profile.getTotalTime() >= breakdown.getTotalTime());
+      long buildScorerCount = 0;
+      for (Map.Entry<Integer, Breakdown> entry : termProfile.getLeafBreakdowns().entrySet()) {
+        assertTrue(entry.getKey() >= 0 && entry.getKey() < reader.leaves().size());
+        buildScorerCount += entry.getValue().getCount(Timing.BUILD_SCORER);
+      }
+      assertEquals(breakdown.getCount(Timing.BUILD_SCORER), buildScorerCount);
+    }
+    assertTrue(profile.toString().contains("PhraseQuery"));
+
+    // every search records a new profile
+    assertEquals(searcher.count(query), profilingSearcher.count(query));
+    assertEquals(2, profilingSearcher.getProfiles().size());
+
+    reader.close();
+    dir.close();
+  }
+
+}
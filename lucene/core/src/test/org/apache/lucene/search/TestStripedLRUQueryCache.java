@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+public class TestStripedLRUQueryCache extends LuceneTestCase {
+
+  // IndexSearcher.count would use index statistics rather than the cache
+  private static int count(IndexSearcher searcher, Query query) throws IOException {
+    TotalHitCountCollector collector = new TotalHitCountCollector();
+    searcher.search(query, collector);
+    return collector.getTotalHits();
+  }
+
+  public void testStripes() throws Exception {
+    final int numStripes = TestUtil.nextInt(random(), 1, 8);
+    final StripedLRUQueryCache queryCache = new StripedLRUQueryCache(numStripes, 1000, 10000000, context -> true);
+    assertEquals(numStripes, queryCache.getNumStripes());
+
+    Directory dir = newDirectory();
+    final RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    Document doc = new Document();
+    StringField f = new StringField("id", "", Store.NO);
+    doc.add(f);
+    final int numDocs = atLeast(20);
+    for (int i = 0; i < numDocs; ++i) {
+      f.setStringValue(Integer.toString(i % 10));
+      w.addDocument(doc);
+    }
+    final DirectoryReader reader = w.getReader();
+    w.close();
+    final int segmentCount = reader.leaves().size();
+    final IndexSearcher searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(queryCache);
+    searcher.setQueryCachingPolicy(QueryCachingPolicy.ALWAYS_CACHE);
+
+    for (int i = 0; i < 10; ++i) {
+      final Query query = new TermQuery(new Term("id", Integer.toString(i)));
+      final int expectedCount = count(searcher, query);
+      assertEquals(expectedCount, count(searcher, query));
+      // the query only went to its stripe
+      assertEquals(1, queryCache.stripe(query).cachedQueries().stream().filter(query::equals).count());
+    }
+
+    assertEquals(10 * segmentCount, queryCache.getCacheSize());
+    assertEquals(10 * segmentCount, queryCache.getCacheCount());
+    assertEquals(10 * segmentCount, queryCache.getHitCount());
+    assertEquals(0, queryCache.getEvictionCount());
+    assertTrue(queryCache.ramBytesUsed() > 0);
+
+    final Query query = new TermQuery(new Term("id", "3"));
+    queryCache.clearQuery(query);
+    assertFalse(queryCache.stripe(query).cachedQueries().contains(query));
+    assertEquals(9 * segmentCount, queryCache.getCacheSize());
+
+    queryCache.clear();
+    assertEquals(0, queryCache.getCacheSize());
+    assertEquals(0, queryCache.ramBytesUsed());
+
+    reader.close();
+    dir.close();
+  }
+
+  public void testConcurrency() throws Exception {
+    final long maxRamBytesUsed = 1 + random().nextInt(10000);
+    final StripedLRUQueryCache queryCache = new StripedLRUQueryCache(4, 20, maxRamBytesUsed, context -> context.ord % 2 == 0);
+    Directory dir = newDirectory();
+    final RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    Document doc = new Document();
+    StringField f = new StringField("color", "", Store.NO);
+    doc.add(f);
+    final int numDocs = atLeast(100);
+    for (int i = 0; i < numDocs; ++i) {
+      f.setStringValue(Integer.toString(random().nextInt(30)));
+      w.addDocument(doc);
+    }
+    final DirectoryReader reader = w.getReader();
+    w.close();
+
+    final IndexSearcher uncachedSearcher = new IndexSearcher(reader);
+    uncachedSearcher.setQueryCache(null);
+    final int[] expectedCounts = new int[30];
+    for (int i = 0; i < expectedCounts.length; ++i) {
+      expectedCounts[i] = count(uncachedSearcher, new TermQuery(new Term("color", Integer.toString(i))));
+    }
+
+    final IndexSearcher searcher = new IndexSearcher(reader);
+    searcher.setQueryCache(queryCache);
+    searcher.setQueryCachingPolicy(QueryCachingPolicy.ALWAYS_CACHE);
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; ++t) {
+      final Random threadRandom = new Random(random().nextLong());
+      threads.add(new Thread() {
+        @Override
+        public void run() {
+          try {
+            for (int i = 0; i < 200; ++i) {
+              final int color = threadRandom.nextInt(expectedCounts.length);
+              final Query query = new TermQuery(new Term("color", Integer.toString(color)));
+              assertEquals(expectedCounts[color], count(searcher, query));
+            }
+          } catch (Throwable e) {
+            error.compareAndSet(null, e);
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (error.get() != null) {
+      throw new AssertionError(error.get());
+    }
+
+    for (int i = 0; i < queryCache.getNumStripes(); ++i) {
+      queryCache.stripes[i].assertConsistent();
+    }
+    assertTrue(queryCache.ramBytesUsed() <= maxRamBytesUsed);
+
+    reader.close();
+    dir.close();
+  }
+
+}
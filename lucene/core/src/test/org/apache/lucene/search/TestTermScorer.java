@@ -25,14 +25,17 @@ import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.similarities.ClassicSimilarity;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
 
 public class TestTermScorer extends LuceneTestCase {
   protected Directory directory;
@@ -192,4 +195,97 @@ public class TestTermScorer extends LuceneTestCase {
     // should not fail this time since norms are not necessary
     weight2.scorer(forbiddenNorms.getContext()).iterator().nextDoc();
   }
+
+  public void testBulkScoring() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, newIndexWriterConfig(new MockAnalyzer(random())));
+    final int numDocs = atLeast(1000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      StringBuilder value = new StringBuilder();
+      final int numTerms = TestUtil.nextInt(random(), 1, 5);
+      for (int j = 0; j < numTerms; ++j) {
+        value.append(random().nextInt(3) == 0 ? "foo " : "bar ");
+      }
+      doc.add(newTextField(FIELD, value.toString(), Field.Store.NO));
+      doc.add(newStringField("id", Integer.toString(i), Field.Store.NO));
+      w.addDocument(doc);
+      if (random().nextInt(20) == 0) {
+        w.deleteDocuments(new Term("id", Integer.toString(random().nextInt(i + 1))));
+      }
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+    IndexSearcher searcher = newSearcher(reader);
+
+    for (String value : new String[] { "foo", "bar" }) {
+      Term term = new Term(FIELD, value);
+
+      for (LeafReaderContext context : reader.leaves()) {
+        PostingsEnum expected = context.reader().postings(term, PostingsEnum.FREQS);
+        PostingsEnum actual = context.reader().postings(term, PostingsEnum.FREQS);
+        if (expected == null) {
+          continue;
+        }
+        final int[] docs = new int[TestUtil.nextInt(random(), 1, 200)];
+        final int[] freqs = new int[docs.length];
+        for (int count = actual.nextDocs(docs, freqs); count != 0; count = actual.nextDocs(docs, freqs)) {
+          for (int i = 0; i < count; ++i) {
+            assertEquals(expected.nextDoc(), docs[i]);
+            assertEquals(expected.freq(), freqs[i]);
+          }
+          assertEquals(expected.docID(), actual.docID());
+          assertEquals(expected.freq(), actual.freq());
+        }
+        assertEquals(DocIdSetIterator.NO_MORE_DOCS, expected.nextDoc());
+        assertEquals(DocIdSetIterator.NO_MORE_DOCS, actual.docID());
+      }
+
+      Weight weight = searcher.createNormalizedWeight(new TermQuery(term), true);
+      for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+        BulkScorer bulkScorer = weight.bulkScorer(context);
+        if (bulkScorer == null) {
+          continue;
+        }
+        final List<TestHit> expected = new ArrayList<>();
+        // scoring a range of documents does not use bulk decoding
+        bulkScorer.score(new HitCollector(expected), context.reader().getLiveDocs(), 0, context.reader().maxDoc());
+        final List<TestHit> actual = new ArrayList<>();
+        weight.bulkScorer(context).score(new HitCollector(actual), context.reader().getLiveDocs());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+          assertEquals(expected.get(i).doc, actual.get(i).doc);
+          assertEquals(expected.get(i).score, actual.get(i).score, 0f);
+        }
+      }
+    }
+
+    reader.close();
+    dir.close();
+  }
+
+  private class HitCollector extends SimpleCollector {
+    private final List<TestHit> hits;
+    private Scorer scorer;
+
+    HitCollector(List<TestHit> hits) {
+      this.hits = hits;
+    }
+
+    @Override
+    public void setScorer(Scorer scorer) {
+      this.scorer = scorer;
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+      assertEquals(doc, scorer.docID());
+      hits.add(new TestHit(doc, scorer.score()));
+    }
+
+    @Override
+    public boolean needsScores() {
+      return true;
+    }
+  }
 }
@@ -24,7 +24,9 @@ import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.MockRandomMergePolicy;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
@@ -259,4 +261,77 @@ public class TestTopFieldCollector extends LuceneTestCase {
     dir.close();
   }
 
+
+  public void testEarlyTerminationOnSortedSegments() throws Exception {
+    final Sort indexSort = new Sort(new SortField("ts", SortField.Type.LONG, true), new SortField("id", SortField.Type.INT));
+    Directory dir = newDirectory();
+    IndexWriterConfig iwc = newIndexWriterConfig();
+    if (iwc.getMergePolicy() instanceof MockRandomMergePolicy) {
+      // MockRandomMP randomly wraps the leaf readers which makes merging angry
+      iwc.setMergePolicy(newTieredMergePolicy());
+    }
+    iwc.setIndexSort(indexSort);
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+    final int numDocs = atLeast(1000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      doc.add(new NumericDocValuesField("ts", random().nextInt(100)));
+      doc.add(new NumericDocValuesField("id", i));
+      doc.add(new StringField("f", random().nextInt(4) == 0 ? "y" : "x", Store.NO));
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+    // do not wrap the reader so that the index sort remains visible
+    IndexSearcher searcher = new IndexSearcher(reader);
+
+    final Sort[] sorts = new Sort[] {
+        new Sort(indexSort.getSort()[0]),
+        indexSort,
+        // not a prefix of the index sort
+        new Sort(new SortField("id", SortField.Type.INT))
+    };
+    final Query[] queries = new Query[] {
+        new MatchAllDocsQuery(),
+        new TermQuery(new Term("f", "x"))
+    };
+    for (Sort sort : sorts) {
+      for (Query query : queries) {
+        final int numHits = TestUtil.nextInt(random(), 1, 20);
+        FieldDoc after = null;
+        for (int page = 0; page < 3; ++page) {
+          TopFieldCollector expectedCollector = TopFieldCollector.create(sort, numHits, after, true, false, false, true);
+          TopFieldCollector actualCollector = TopFieldCollector.create(sort, numHits, after, true, false, false, false);
+          searcher.search(query, expectedCollector);
+          searcher.search(query, actualCollector);
+          TopFieldDocs expected = expectedCollector.topDocs();
+          TopFieldDocs actual = actualCollector.topDocs();
+
+          assertFalse(expectedCollector.isEarlyTerminated());
+          assertFalse(expected.isTotalHitsLowerBound());
+          assertEquals(actualCollector.isEarlyTerminated(), actual.isTotalHitsLowerBound());
+          if (sort == sorts[2]) {
+            assertFalse(actualCollector.isEarlyTerminated());
+          }
+          if (actualCollector.isEarlyTerminated()) {
+            assertTrue(actual.totalHits <= expected.totalHits);
+          } else {
+            assertEquals(expected.totalHits, actual.totalHits);
+          }
+          assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+          for (int i = 0; i < expected.scoreDocs.length; ++i) {
+            assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+          }
+          if (expected.scoreDocs.length == 0) {
+            break;
+          }
+          after = (FieldDoc) expected.scoreDocs[expected.scoreDocs.length - 1];
+        }
+      }
+    }
+
+    reader.close();
+    dir.close();
+  }
+
 }
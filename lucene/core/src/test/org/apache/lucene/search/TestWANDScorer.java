@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.search;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.LuceneTestCase;
+import org.apache.lucene.util.TestUtil;
+
+public class TestWANDScorer extends LuceneTestCase {
+
+  public void testScalingFactor() {
+    doTestScalingFactor(1);
+    doTestScalingFactor(2);
+    doTestScalingFactor(Float.MIN_VALUE);
+    doTestScalingFactor(Math.nextUp(Float.MIN_VALUE));
+    doTestScalingFactor(Float.MAX_VALUE);
+    doTestScalingFactor(Math.nextDown(Float.MAX_VALUE));
+    assertEquals(WANDScorer.scalingFactor(Float.MIN_VALUE) - 1, WANDScorer.scalingFactor(0));
+    assertEquals(WANDScorer.scalingFactor(Float.MAX_VALUE) + 1, WANDScorer.scalingFactor(Float.POSITIVE_INFINITY));
+  }
+
+  private void doTestScalingFactor(float f) {
+    int scalingFactor = WANDScorer.scalingFactor(f);
+    float scaled = Math.scalb(f, scalingFactor);
+    assertTrue(""+scaled, scaled >= 1 << 23);
+    assertTrue(""+scaled, scaled < 1 << 24);
+  }
+
+  public void testOnlyUsedWhenSkippingNonCompetitiveHits() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, newIndexWriterConfig());
+    for (int i = 0; i < 10; ++i) {
+      Document doc = new Document();
+      doc.add(new TextField("foo", i % 2 == 0 ? "a b" : "a", Store.NO));
+      w.addDocument(doc);
+    }
+    w.forceMerge(1);
+    IndexReader reader = w.getReader();
+    w.close();
+    IndexSearcher searcher = new IndexSearcher(reader);
+    Query query = new BooleanQuery.Builder()
+        .add(new TermQuery(new Term("foo", "a")), Occur.SHOULD)
+        .add(new TermQuery(new Term("foo", "b")), Occur.SHOULD)
+        .build();
+    Weight weight = searcher.createNormalizedWeight(query, true);
+    LeafReaderContext context = reader.leaves().get(0);
+    // collectors that do not set a min competitive score keep using the disjunction scorer
+    assertFalse(weight.scorer(context) instanceof WANDScorer);
+    assertTrue(weight.topScoresScorer(context) instanceof WANDScorer);
+    // WAND requires scores
+    Weight noScoresWeight = searcher.createNormalizedWeight(query, false);
+    assertFalse(noScoresWeight.topScoresScorer(context) instanceof WANDScorer);
+    reader.close();
+    dir.close();
+  }
+
+  public void testRandomTopHits() throws Exception {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir, newIndexWriterConfig());
+    final String[] terms = new String[] { "a", "b", "c", "d", "e", "f" };
+    final int numDocs = atLeast(1000);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      StringBuilder value = new StringBuilder();
+      final int numTerms = TestUtil.nextInt(random(), 1, 10);
+      for (int j = 0; j < numTerms; ++j) {
+        // skew the distribution so that term frequencies differ
+        value.append(terms[Math.min(terms.length - 1, (int) Math.abs(random().nextGaussian() * 2))]).append(' ');
+      }
+      doc.add(new TextField("foo", value.toString(), Store.NO));
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+    IndexSearcher searcher = newSearcher(reader);
+    searcher.setSimilarity(new BM25Similarity());
+
+    final int iters = atLeast(50);
+    for (int iter = 0; iter < iters; ++iter) {
+      BooleanQuery.Builder builder = new BooleanQuery.Builder();
+      final int numClauses = TestUtil.nextInt(random(), 2, 5);
+      for (int i = 0; i < numClauses; ++i) {
+        Query q = new TermQuery(new Term("foo", terms[random().nextInt(terms.length)]));
+        if (random().nextBoolean()) {
+          q = new BoostQuery(q, TestUtil.nextInt(random(), 1, 10));
+        }
+        builder.add(q, Occur.SHOULD);
+      }
+      if (random().nextBoolean()) {
+        builder.add(new TermQuery(new Term("foo", terms[random().nextInt(terms.length)])), Occur.MUST_NOT);
+      }
+      Query query = builder.build();
+
+      final int numHits = TestUtil.nextInt(random(), 1, 20);
+      TopScoreDocCollector expectedCollector = TopScoreDocCollector.create(numHits, null, true);
+      TopScoreDocCollector actualCollector = TopScoreDocCollector.create(numHits, null, false);
+      assertFalse(expectedCollector.skipsNonCompetitiveHits());
+      assertTrue(actualCollector.skipsNonCompetitiveHits());
+      searcher.search(query, expectedCollector);
+      searcher.search(query, actualCollector);
+      TopDocs expected = expectedCollector.topDocs();
+      TopDocs actual = actualCollector.topDocs();
+
+      assertTrue(actual.totalHits <= expected.totalHits);
+      assertEquals(expected.scoreDocs.length, actual.scoreDocs.length);
+      for (int i = 0; i < expected.scoreDocs.length; ++i) {
+        assertEquals(expected.scoreDocs[i].doc, actual.scoreDocs[i].doc);
+        assertEquals(expected.scoreDocs[i].score, actual.scoreDocs[i].score, 0f);
+      }
+    }
+
+    reader.close();
+    dir.close();
+  }
+
+}
@@ -17,6 +17,7 @@
 package org.apache.lucene.store;
 
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Random;
@@ -386,4 +387,45 @@ public class TestMultiMMap extends BaseDirectoryTestCase {
       mmapDir.close();
     }    
   }
+
+  public void testPrefetch() throws Exception {
+    for (int i = 2; i < 12; i++) {
+      final int chunkSize = 1<<i;
+      MMapDirectory mmapDir = new MMapDirectory(createTempDir("testPrefetch"), chunkSize);
+      assertNull(mmapDir.getPrefetcher());
+      final ByteArrayOutputStream prefetched = new ByteArrayOutputStream();
+      mmapDir.setPrefetcher(region -> {
+        while (region.hasRemaining()) {
+          prefetched.write(region.get());
+        }
+      });
+      IndexOutput io = mmapDir.createOutput("bytes", newIOContext(random()));
+      int size = random().nextInt(chunkSize * 4) + 1;
+      byte bytes[] = new byte[size];
+      random().nextBytes(bytes);
+      io.writeBytes(bytes, bytes.length);
+      io.close();
+      IndexInput ii = mmapDir.openInput("bytes", newIOContext(random()));
+      int offset = random().nextInt(size);
+      IndexInput slice = ii.slice("slice", offset, random().nextInt(size - offset + 1));
+      for (int iter = 0; iter < 20; iter++) {
+        IndexInput in = random().nextBoolean() ? ii : slice;
+        int base = in == ii ? 0 : offset;
+        in.seek(random().nextInt((int) in.length() + 1));
+        long fp = in.getFilePointer();
+        // out-of-bounds bytes are ignored
+        long start = TestUtil.nextLong(random(), -5, in.length() + 5);
+        long length = TestUtil.nextLong(random(), -5, in.length() + 5);
+        prefetched.reset();
+        in.prefetch(start, length);
+        assertEquals(fp, in.getFilePointer());
+        int from = (int) Math.max(0, start);
+        int to = (int) Math.max(from, Math.min(in.length(), start + length));
+        assertEquals(new BytesRef(bytes, base + from, to - from), new BytesRef(prefetched.toByteArray()));
+      }
+      ii.close();
+      expectThrows(AlreadyClosedException.class, () -> ii.prefetch(0, size));
+      mmapDir.close();
+    }
+  }
 }
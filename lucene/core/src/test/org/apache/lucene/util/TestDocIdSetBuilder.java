@@ -19,11 +19,20 @@ package org.apache.lucene.util;
 
 import java.io.IOException;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.search.DocIdSet;
 import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.Directory;
 
 
 public class TestDocIdSetBuilder extends LuceneTestCase {
@@ -161,6 +170,47 @@ public class TestDocIdSetBuilder extends LuceneTestCase {
     assertEquals(new BitDocIdSet(expected), builder.build());
   }
 
+  public void testBulkPostings() throws IOException {
+    Directory dir = newDirectory();
+    RandomIndexWriter w = new RandomIndexWriter(random(), dir);
+    final int numDocs = atLeast(1000);
+    final int numTerms = TestUtil.nextInt(random(), 1, 50);
+    for (int i = 0; i < numDocs; ++i) {
+      Document doc = new Document();
+      // a mix of sparse and dense terms, with some docs that have no terms
+      final int numValues = random().nextInt(3);
+      for (int j = 0; j < numValues; ++j) {
+        doc.add(new StringField("f", Integer.toString((int) Math.sqrt(random().nextInt(numTerms * numTerms))), Store.NO));
+      }
+      w.addDocument(doc);
+    }
+    IndexReader reader = w.getReader();
+    w.close();
+
+    final int[] buffer = new int[TestUtil.nextInt(random(), 1, 200)];
+    for (LeafReaderContext context : reader.leaves()) {
+      final LeafReader leaf = context.reader();
+      final Terms terms = leaf.terms("f");
+      if (terms == null) {
+        continue;
+      }
+      final FixedBitSet expected = new FixedBitSet(leaf.maxDoc());
+      final DocIdSetBuilder builder = new DocIdSetBuilder(leaf.maxDoc(), terms);
+      final TermsEnum termsEnum = terms.iterator();
+      PostingsEnum postings = null;
+      while (termsEnum.next() != null) {
+        postings = termsEnum.postings(postings, PostingsEnum.NONE);
+        expected.or(postings);
+        postings = termsEnum.postings(postings, PostingsEnum.NONE);
+        builder.add(postings, buffer);
+      }
+      assertEquals(new BitDocIdSet(expected), builder.build());
+    }
+
+    reader.close();
+    dir.close();
+  }
+
   public void testEmptyPoints() throws IOException {
     PointValues values = new DummyPointValues(0, 0);
     DocIdSetBuilder builder = new DocIdSetBuilder(1, values, "foo");
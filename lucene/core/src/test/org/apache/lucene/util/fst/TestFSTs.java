@@ -1024,6 +1024,104 @@ public class TestFSTs extends LuceneTestCase {
   }
 
 
+  public void testBoundedSuffixRAM() throws Exception {
+    final Set<BytesRef> terms = new TreeSet<>();
+    final int numTerms = atLeast(10000);
+    while (terms.size() < numTerms) {
+      terms.add(new BytesRef(TestUtil.randomSimpleString(random(), 3, 12) + (random().nextBoolean() ? "ing" : "ed")));
+    }
+
+    final PositiveIntOutputs outputs = PositiveIntOutputs.getSingleton();
+    final Builder<Long> minimalBuilder = new Builder<>(FST.INPUT_TYPE.BYTE1, outputs);
+    // tiny limit: tables get dropped many times
+    final Builder<Long> boundedBuilder = new Builder<>(FST.INPUT_TYPE.BYTE1, 0, 0, true, true, Integer.MAX_VALUE,
+        outputs, true, 15, 0.001);
+    final IntsRefBuilder scratch = new IntsRefBuilder();
+    long ord = 0;
+    for (BytesRef term : terms) {
+      minimalBuilder.add(Util.toIntsRef(term, scratch), ord);
+      boundedBuilder.add(Util.toIntsRef(term, scratch), ord);
+      ord++;
+    }
+    final FST<Long> minimal = minimalBuilder.finish();
+    final FST<Long> bounded = boundedBuilder.finish();
+    assertTrue(boundedBuilder.getNodeCount() >= minimalBuilder.getNodeCount());
+
+    // the FST is larger but accepts the same inputs
+    ord = 0;
+    for (BytesRef term : terms) {
+      assertEquals(ord, Util.get(bounded, term).longValue());
+      ord++;
+    }
+    final BytesRefFSTEnum<Long> minimalEnum = new BytesRefFSTEnum<>(minimal);
+    final BytesRefFSTEnum<Long> boundedEnum = new BytesRefFSTEnum<>(bounded);
+    InputOutput<Long> expected;
+    while ((expected = minimalEnum.next()) != null) {
+      final InputOutput<Long> actual = boundedEnum.next();
+      assertEquals(expected.input, actual.input);
+      assertEquals(expected.output, actual.output);
+    }
+    assertNull(boundedEnum.next());
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      new Builder<>(FST.INPUT_TYPE.BYTE1, 0, 0, true, true, Integer.MAX_VALUE, outputs, true, 15, 0);
+    });
+  }
+
+  public void testOffHeap() throws Exception {
+    final PositiveIntOutputs outputs = PositiveIntOutputs.getSingleton();
+    final Builder<Long> builder = new Builder<>(FST.INPUT_TYPE.BYTE1, outputs);
+    final Set<BytesRef> terms = new TreeSet<>();
+    final int numTerms = atLeast(1000);
+    while (terms.size() < numTerms) {
+      terms.add(new BytesRef(TestUtil.randomSimpleString(random(), 1, 20)));
+    }
+    final IntsRefBuilder scratch = new IntsRefBuilder();
+    long ord = 0;
+    for (BytesRef term : terms) {
+      builder.add(Util.toIntsRef(term, scratch), ord++);
+    }
+    final FST<Long> fst = builder.finish();
+
+    Directory dir = newDirectory();
+    try (IndexOutput out = dir.createOutput("fst.bin", IOContext.DEFAULT)) {
+      out.writeVInt(42);
+      fst.save(out);
+      out.writeVInt(43);
+    }
+
+    try (IndexInput in = dir.openInput("fst.bin", IOContext.DEFAULT)) {
+      assertEquals(42, in.readVInt());
+      final FST<Long> offHeap = new FST<>(in, outputs, true);
+      // the input must be positioned right after the FST
+      assertEquals(43, in.readVInt());
+      assertTrue(offHeap.ramBytesUsed() < fst.ramBytesUsed());
+
+      ord = 0;
+      for (BytesRef term : terms) {
+        assertEquals(Long.valueOf(ord++), Util.get(offHeap, term));
+      }
+      for (int i = 0; i < 100; ++i) {
+        final BytesRef term = new BytesRef(TestUtil.randomSimpleString(random(), 1, 20));
+        assertEquals(Util.get(fst, term), Util.get(offHeap, term));
+      }
+
+      // saving an off-heap FST must produce a readable FST
+      try (IndexOutput out = dir.createOutput("fst2.bin", IOContext.DEFAULT)) {
+        offHeap.save(out);
+      }
+    }
+
+    try (IndexInput in = dir.openInput("fst2.bin", IOContext.DEFAULT)) {
+      final FST<Long> onHeap = new FST<>(in, outputs);
+      ord = 0;
+      for (BytesRef term : terms) {
+        assertEquals(Long.valueOf(ord++), Util.get(onHeap, term));
+      }
+    }
+    dir.close();
+  }
+
   /**
    * Test state expansion (array format) on close-to-root states. Creates
    * synthetic input that has one expanded state on each level.
@@ -114,6 +114,17 @@ public class TestDirectPacked extends LuceneTestCase {
       for (int j = 0; j < original.length; j++) {
         assertEquals("bpv=" + bpv, original[j], reader.get(j));
       }
+      // bulk reads of random ranges
+      long[] bulk = new long[original.length + 1];
+      for (int j = 0; j < 5 && original.length > 0; j++) {
+        final int start = random().nextInt(original.length);
+        final int len = TestUtil.nextInt(random(), 0, original.length - start);
+        final int off = random().nextInt(2);
+        reader.get(start, bulk, off, len);
+        for (int k = 0; k < len; k++) {
+          assertEquals("bpv=" + bpv, original[start + k], bulk[off + k]);
+        }
+      }
       input.close();
     }
   }
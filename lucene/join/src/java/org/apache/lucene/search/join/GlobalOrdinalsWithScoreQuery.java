@@ -156,6 +156,12 @@ final class GlobalOrdinalsWithScoreQuery extends Query {
       }
     }
 
+    @Override
+    public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+      // scores come from the join collector, not from the approximation
+      return scorer(context);
+    }
+
   }
 
   final static class OrdinalMapScorer extends BaseGlobalOrdinalScorer {
@@ -107,6 +107,12 @@ public class ToChildBlockJoinQuery extends Query {
       return new ToChildBlockJoinScorer(this, parentScorer, parents, doScores);
     }
 
+    @Override
+    public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+      // the parent scorer is not exposed to the collector
+      return scorer(context);
+    }
+
     @Override
     public Explanation explain(LeafReaderContext context, int doc) throws IOException {
       ToChildBlockJoinScorer scorer = (ToChildBlockJoinScorer) scorer(context);
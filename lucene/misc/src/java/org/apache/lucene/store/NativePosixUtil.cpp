@@ -237,7 +237,7 @@ JNIEXPORT jint JNICALL Java_org_apache_lucene_store_NativePosixUtil_posix_1madvi
   start = start & (~(page-1));
 
   // round end up to start of page
-  long long end = start + size;
+  long long end = (long long) p + size;
   end = (end + page-1)&(~(page-1));
   size = (end-start);
 
@@ -303,7 +303,7 @@ JNIEXPORT jint JNICALL Java_org_apache_lucene_store_NativePosixUtil_madvise(JNIE
   start = start & (~(page-1));
 
   // round end up to start of page
-  long long end = start + size;
+  long long end = (long long) p + size;
   end = (end + page-1)&(~(page-1));
   size = (end-start);
 
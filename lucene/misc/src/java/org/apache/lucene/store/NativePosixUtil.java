@@ -22,7 +22,7 @@ import java.nio.ByteBuffer;
 
 /**
  * Provides JNI access to native methods such as madvise() for
- * {@link NativeUnixDirectory}
+ * {@link NativeUnixDirectory} and {@link MMapDirectory}
  */
 public final class NativePosixUtil {
   public final static int NORMAL = 0;
@@ -48,5 +48,25 @@ public final class NativePosixUtil {
       throw new RuntimeException("posix_fadvise failed code=" + code);
     }
   }
+
+  /**
+   * Advises the OS that the given region of a mapped file will be needed
+   * soon, so that it starts reading it in the background. This can be used
+   * as a {@link MMapDirectory.Prefetcher}:
+   * <pre class="prettyprint">
+   *   mmapDir.setPrefetcher(NativePosixUtil::prefetch);
+   * </pre>
+   * Failures of {@code madvise} are ignored since the region can still be
+   * read, only without read-ahead.
+   */
+  public static void prefetch(ByteBuffer region) {
+    if (region.capacity() > 0) {
+      try {
+        madvise(region, WILLNEED);
+      } catch (IOException e) {
+        // ignore: this is only a hint
+      }
+    }
+  }
 }
     
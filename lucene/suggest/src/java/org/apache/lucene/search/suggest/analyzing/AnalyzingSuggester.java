@@ -195,6 +195,9 @@ public class AnalyzingSuggester extends Lookup implements Accountable {
   /** Whether position holes should appear in the automaton. */
   private boolean preservePositionIncrements;
 
+  /** Max amount of memory used to look up shared suffixes while building the FST. */
+  private final double suffixRAMLimitMB;
+
   /** Number of entries the lookup was built with */
   private long count = 0;
 
@@ -236,6 +239,24 @@ public class AnalyzingSuggester extends Lookup implements Accountable {
    */
   public AnalyzingSuggester(Directory tempDir, String tempFileNamePrefix, Analyzer indexAnalyzer, Analyzer queryAnalyzer, int options, int maxSurfaceFormsPerAnalyzedForm, int maxGraphExpansions,
       boolean preservePositionIncrements) {
+    this(tempDir, tempFileNamePrefix, indexAnalyzer, queryAnalyzer, options, maxSurfaceFormsPerAnalyzedForm, maxGraphExpansions,
+        preservePositionIncrements, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Creates a new suggester that uses a bounded amount of memory to share
+   * suffixes while building its FST. See
+   * {@link #AnalyzingSuggester(Directory,String,Analyzer,Analyzer,int,int,int,boolean)}
+   * for the documentation of other parameters.
+   *
+   * @param suffixRAMLimitMB Maximum amount of memory, in MB,
+   *   used to look up shared suffixes while building the FST.
+   *   Once this limit is reached, the FST may no longer be
+   *   minimal. Pass {@link Double#POSITIVE_INFINITY} for a
+   *   minimal FST.
+   */
+  public AnalyzingSuggester(Directory tempDir, String tempFileNamePrefix, Analyzer indexAnalyzer, Analyzer queryAnalyzer, int options, int maxSurfaceFormsPerAnalyzedForm, int maxGraphExpansions,
+      boolean preservePositionIncrements, double suffixRAMLimitMB) {
     this.indexAnalyzer = indexAnalyzer;
     this.queryAnalyzer = queryAnalyzer;
     if ((options & ~(EXACT_FIRST | PRESERVE_SEP)) != 0) {
@@ -260,6 +281,10 @@ public class AnalyzingSuggester extends Lookup implements Accountable {
     this.preservePositionIncrements = preservePositionIncrements;
     this.tempDir = tempDir;
     this.tempFileNamePrefix = tempFileNamePrefix;
+    if (suffixRAMLimitMB <= 0 || Double.isNaN(suffixRAMLimitMB)) {
+      throw new IllegalArgumentException("suffixRAMLimitMB must be > 0 (got: " + suffixRAMLimitMB + ")");
+    }
+    this.suffixRAMLimitMB = suffixRAMLimitMB;
   }
 
   /** Returns byte size of the underlying FST. */
@@ -494,7 +519,8 @@ public class AnalyzingSuggester extends Lookup implements Accountable {
       reader = new OfflineSorter.ByteSequencesReader(tempDir.openChecksumInput(tempSortedFileName, IOContext.READONCE), tempSortedFileName);
      
       PairOutputs<Long,BytesRef> outputs = new PairOutputs<>(PositiveIntOutputs.getSingleton(), ByteSequenceOutputs.getSingleton());
-      Builder<Pair<Long,BytesRef>> builder = new Builder<>(FST.INPUT_TYPE.BYTE1, outputs);
+      Builder<Pair<Long,BytesRef>> builder = new Builder<>(FST.INPUT_TYPE.BYTE1, 0, 0, true, true, Integer.MAX_VALUE,
+          outputs, true, 15, suffixRAMLimitMB);
 
       // Build FST:
       BytesRefBuilder previousAnalyzed = null;
@@ -158,7 +158,26 @@ public final class FuzzySuggester extends AnalyzingSuggester {
                         int options, int maxSurfaceFormsPerAnalyzedForm, int maxGraphExpansions,
                         boolean preservePositionIncrements, int maxEdits, boolean transpositions,
                         int nonFuzzyPrefix, int minFuzzyLength, boolean unicodeAware) {
-    super(tempDir, tempFileNamePrefix, indexAnalyzer, queryAnalyzer, options, maxSurfaceFormsPerAnalyzedForm, maxGraphExpansions, preservePositionIncrements);
+    this(tempDir, tempFileNamePrefix, indexAnalyzer, queryAnalyzer, options, maxSurfaceFormsPerAnalyzedForm, maxGraphExpansions,
+         preservePositionIncrements, maxEdits, transpositions, nonFuzzyPrefix, minFuzzyLength, unicodeAware, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Creates a {@link FuzzySuggester} instance that uses a bounded amount of
+   * memory to share suffixes while building its FST. See
+   * {@link #FuzzySuggester(Directory,String,Analyzer,Analyzer,int,int,int,boolean,int,boolean,int,int,boolean)}
+   * for the documentation of other parameters.
+   *
+   * @param suffixRAMLimitMB maximum amount of memory, in MB, used to look up shared
+   *        suffixes while building the FST, see
+   *        {@link AnalyzingSuggester#AnalyzingSuggester(Directory,String,Analyzer,Analyzer,int,int,int,boolean,double)}.
+   */
+  public FuzzySuggester(Directory tempDir, String tempFileNamePrefix, Analyzer indexAnalyzer, Analyzer queryAnalyzer,
+                        int options, int maxSurfaceFormsPerAnalyzedForm, int maxGraphExpansions,
+                        boolean preservePositionIncrements, int maxEdits, boolean transpositions,
+                        int nonFuzzyPrefix, int minFuzzyLength, boolean unicodeAware, double suffixRAMLimitMB) {
+    super(tempDir, tempFileNamePrefix, indexAnalyzer, queryAnalyzer, options, maxSurfaceFormsPerAnalyzedForm, maxGraphExpansions,
+          preservePositionIncrements, suffixRAMLimitMB);
     if (maxEdits < 0 || maxEdits > LevenshteinAutomata.MAXIMUM_SUPPORTED_DISTANCE) {
       throw new IllegalArgumentException("maxEdits must be between 0 and " + LevenshteinAutomata.MAXIMUM_SUPPORTED_DISTANCE);
     }
@@ -144,6 +144,11 @@ public class FSTCompletionBuilder {
    */
   private final int shareMaxTailLength;
 
+  /**
+   * Max amount of memory used to look up shared suffixes.
+   */
+  private final double suffixRAMLimitMB;
+
   /**
    * Creates an {@link FSTCompletion} with default options: 10 buckets, exact match
    * promoted to first position and {@link InMemorySorter} with a comparator obtained from
@@ -175,6 +180,23 @@ public class FSTCompletionBuilder {
    *          For minimal automata, set it to {@link Integer#MAX_VALUE}.
    */
   public FSTCompletionBuilder(int buckets, BytesRefSorter sorter, int shareMaxTailLength) {
+    this(buckets, sorter, shareMaxTailLength, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Creates an FSTCompletion with the specified options, using at most
+   * {@code suffixRAMLimitMB} of memory to share suffixes while building the
+   * automaton. See {@link #FSTCompletionBuilder(int, BytesRefSorter, int)}
+   * for the documentation of other parameters.
+   *
+   * @param suffixRAMLimitMB
+   *          Max amount of memory, in MB, used to look up shared suffixes.
+   *
+   *          See the description of this parameter in {@link Builder}'s constructor.
+   *          Once this limit is reached, the automaton may no longer be minimal.
+   *          For minimal automata, set it to {@link Double#POSITIVE_INFINITY}.
+   */
+  public FSTCompletionBuilder(int buckets, BytesRefSorter sorter, int shareMaxTailLength, double suffixRAMLimitMB) {
     if (buckets < 1 || buckets > 255) {
       throw new IllegalArgumentException("Buckets must be >= 1 and <= 255: "
           + buckets);
@@ -186,6 +208,10 @@ public class FSTCompletionBuilder {
     this.sorter = sorter;
     this.buckets = buckets;
     this.shareMaxTailLength = shareMaxTailLength;
+    if (suffixRAMLimitMB <= 0 || Double.isNaN(suffixRAMLimitMB)) {
+      throw new IllegalArgumentException("suffixRAMLimitMB must be > 0, got " + suffixRAMLimitMB);
+    }
+    this.suffixRAMLimitMB = suffixRAMLimitMB;
   }
 
   /**
@@ -236,7 +262,7 @@ public class FSTCompletionBuilder {
     final Object empty = outputs.getNoOutput();
     final Builder<Object> builder = new Builder<>(
         FST.INPUT_TYPE.BYTE1, 0, 0, true, true, 
-        shareMaxTailLength, outputs, true, 15);
+        shareMaxTailLength, outputs, true, 15, suffixRAMLimitMB);
     
     BytesRefBuilder scratch = new BytesRefBuilder();
     BytesRef entry;
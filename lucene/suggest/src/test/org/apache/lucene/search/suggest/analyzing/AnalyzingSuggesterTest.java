@@ -213,6 +213,36 @@ public class AnalyzingSuggesterTest extends LuceneTestCase {
     IOUtils.close(lineFile, indexAnalyzer, queryAnalyzer, tempDir);
   }
   
+  public void testBoundedSuffixRAM() throws Exception {
+    List<Input> keys = new ArrayList<>();
+    int howMany = atLeast(1000);
+    for (int i = 0; i < howMany; i++) {
+      keys.add(new Input(TestUtil.randomSimpleString(random(), 1, 20), random().nextInt(100)));
+    }
+    Analyzer analyzer = new MockAnalyzer(random(), MockTokenizer.KEYWORD, false);
+    Directory tempDir = getDirectory();
+
+    AnalyzingSuggester minimal = new AnalyzingSuggester(tempDir, "suggest", analyzer, analyzer,
+        AnalyzingSuggester.EXACT_FIRST | AnalyzingSuggester.PRESERVE_SEP, 256, -1, true);
+    minimal.build(new InputArrayIterator(keys));
+    AnalyzingSuggester bounded = new AnalyzingSuggester(tempDir, "suggest", analyzer, analyzer,
+        AnalyzingSuggester.EXACT_FIRST | AnalyzingSuggester.PRESERVE_SEP, 256, -1, true, 0.001);
+    bounded.build(new InputArrayIterator(keys));
+    // the FST may not be minimal, but it accepts the same inputs
+
+    for (Input key : keys) {
+      String prefix = key.term.utf8ToString().substring(0, 1 + random().nextInt(key.term.length));
+      assertEquals(minimal.lookup(prefix, false, 10).toString(), bounded.lookup(prefix, false, 10).toString());
+    }
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      new AnalyzingSuggester(tempDir, "suggest", analyzer, analyzer,
+          AnalyzingSuggester.EXACT_FIRST | AnalyzingSuggester.PRESERVE_SEP, 256, -1, true, 0);
+    });
+
+    IOUtils.close(analyzer, tempDir);
+  }
+
   // TODO: more tests
   /**
    * basic "standardanalyzer" test with stopword removal
@@ -199,6 +199,35 @@ public class FSTCompletionTest extends LuceneTestCase {
     tempDir.close();
   }
 
+  public void testBoundedSuffixRAM() throws Exception {
+    Random r = random();
+    FSTCompletionBuilder minimal = new FSTCompletionBuilder();
+    FSTCompletionBuilder bounded = new FSTCompletionBuilder(FSTCompletionBuilder.DEFAULT_BUCKETS,
+        new InMemorySorter(Comparator.naturalOrder()), Integer.MAX_VALUE, 0.001);
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      String key = TestUtil.randomSimpleString(r, 1, 20);
+      int bucket = r.nextInt(FSTCompletionBuilder.DEFAULT_BUCKETS);
+      keys.add(key);
+      minimal.add(new BytesRef(key), bucket);
+      bounded.add(new BytesRef(key), bucket);
+    }
+    FSTCompletion expected = minimal.build();
+    FSTCompletion actual = bounded.build();
+    // the automaton may not be minimal, but it accepts the same inputs
+    for (String key : keys) {
+      for (int len = 0; len <= key.length(); len++) {
+        CharSequence prefix = stringToCharSequence(key.substring(0, len));
+        assertEquals(expected.lookup(prefix, 10).toString(), actual.lookup(prefix, 10).toString());
+      }
+    }
+
+    expectThrows(IllegalArgumentException.class, () -> {
+      new FSTCompletionBuilder(FSTCompletionBuilder.DEFAULT_BUCKETS,
+          new InMemorySorter(Comparator.naturalOrder()), Integer.MAX_VALUE, 0);
+    });
+  }
+
   public void testEmptyInput() throws Exception {
     completion = new FSTCompletionBuilder().build();
     assertMatchEquals(completion.lookup(stringToCharSequence(""), 10));
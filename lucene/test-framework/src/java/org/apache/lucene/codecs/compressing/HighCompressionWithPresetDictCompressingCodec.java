@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.lucene.codecs.compressing;
+
+/** CompressionCodec that uses {@link CompressionMode#HIGH_COMPRESSION_WITH_PRESET_DICT} */
+public class HighCompressionWithPresetDictCompressingCodec extends CompressingCodec {
+
+  /** Constructor that allows to configure the chunk size. */
+  public HighCompressionWithPresetDictCompressingCodec(int chunkSize, int maxDocsPerChunk, boolean withSegmentSuffix, int blockSize) {
+    super("HighCompressionWithPresetDictCompressingStoredFields",
+          withSegmentSuffix ? "HighCompressionWithPresetDictCompressingStoredFields" : "",
+          CompressionMode.HIGH_COMPRESSION_WITH_PRESET_DICT, chunkSize, maxDocsPerChunk, blockSize);
+  }
+
+  /** Default constructor. */
+  public HighCompressionWithPresetDictCompressingCodec() {
+    // chunks are split into 10 sub-blocks that are decompressed independently
+    this(10 * 61440, 10 * 512, false, 1024);
+  }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.apache.lucene.analysis.MockAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldType;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.store.Directory;
@@ -148,6 +149,112 @@ public class BaseTestCheckIndex extends LuceneTestCase {
     analyzer.close();
   }
   
+  public void testConcurrentChecks(Directory dir) throws IOException {
+    IndexWriter iw = new IndexWriter(dir, newIndexWriterConfig(new MockAnalyzer(random()))
+                                             .setMergePolicy(NoMergePolicy.INSTANCE));
+    final int numSegments = TestUtil.nextInt(random(), 2, 10);
+    for (int i = 0; i < numSegments; i++) {
+      for (int j = 0; j < 10; j++) {
+        Document doc = new Document();
+        doc.add(newTextField("field", "aaa" + j, Field.Store.YES));
+        iw.addDocument(doc);
+      }
+      iw.commit();
+    }
+    iw.close();
+
+    CheckIndex checker = new CheckIndex(dir);
+    if (VERBOSE) checker.setInfoStream(System.out);
+    CheckIndex.Status expected = checker.checkIndex();
+    assertTrue(expected.clean);
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
+    checker.setInfoStream(new PrintStream(bos, true, IOUtils.UTF_8));
+    if (VERBOSE) checker.setInfoStream(System.out);
+    checker.setThreadCount(TestUtil.nextInt(random(), 2, 4));
+    CheckIndex.Status actual = checker.checkIndex();
+    assertTrue(actual.clean);
+    assertEquals(expected.segmentInfos.size(), actual.segmentInfos.size());
+    for (int i = 0; i < expected.segmentInfos.size(); i++) {
+      // segments are reported in order
+      assertEquals(expected.segmentInfos.get(i).name, actual.segmentInfos.get(i).name);
+      assertEquals(expected.segmentInfos.get(i).storedFieldStatus.docCount, actual.segmentInfos.get(i).storedFieldStatus.docCount);
+    }
+    assertEquals(expected.verifiedSegments, actual.verifiedSegments);
+    checker.close();
+  }
+
+  public void testVerifiedSegments(Directory dir) throws IOException {
+    IndexWriter iw = new IndexWriter(dir, newIndexWriterConfig(new MockAnalyzer(random()))
+                                             .setMergePolicy(NoMergePolicy.INSTANCE));
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 10; j++) {
+        Document doc = new Document();
+        doc.add(newStringField("id", i + "_" + j, Field.Store.YES));
+        iw.addDocument(doc);
+      }
+      iw.commit();
+    }
+    iw.close();
+
+    CheckIndex checker = new CheckIndex(dir);
+    if (VERBOSE) checker.setInfoStream(System.out);
+    CheckIndex.Status indexStatus = checker.checkIndex();
+    assertTrue(indexStatus.clean);
+    final int numSegments = indexStatus.segmentInfos.size();
+    assertEquals(numSegments, indexStatus.verifiedSegments.size());
+    final List<String> verifiedSegments = indexStatus.verifiedSegments;
+
+    // nothing changed: all segments are skipped
+    checker.setVerifiedSegments(verifiedSegments);
+    indexStatus = checker.checkIndex();
+    assertTrue(indexStatus.clean);
+    for (CheckIndex.Status.SegmentInfoStatus segInfoStat : indexStatus.segmentInfos) {
+      assertTrue(segInfoStat.previouslyVerified);
+      assertNull(segInfoStat.storedFieldStatus);
+    }
+    assertEquals(verifiedSegments, indexStatus.verifiedSegments);
+    checker.close();
+
+    // new deletes: the segment must be checked again
+    iw = new IndexWriter(dir, newIndexWriterConfig(new MockAnalyzer(random()))
+                                  .setMergePolicy(NoMergePolicy.INSTANCE));
+    iw.deleteDocuments(new Term("id", "1_3"));
+    iw.close();
+
+    checker = new CheckIndex(dir);
+    if (VERBOSE) checker.setInfoStream(System.out);
+    checker.setVerifiedSegments(verifiedSegments);
+    indexStatus = checker.checkIndex();
+    assertTrue(indexStatus.clean);
+    assertEquals(numSegments, indexStatus.segmentInfos.size());
+    int numChecked = 0;
+    for (CheckIndex.Status.SegmentInfoStatus segInfoStat : indexStatus.segmentInfos) {
+      if (segInfoStat.previouslyVerified == false) {
+        assertTrue(segInfoStat.hasDeletions);
+        assertNotNull(segInfoStat.storedFieldStatus);
+        numChecked++;
+      }
+    }
+    assertEquals(1, numChecked);
+    checker.close();
+
+    // segments that only passed checksums are checked again by full checks
+    checker = new CheckIndex(dir);
+    if (VERBOSE) checker.setInfoStream(System.out);
+    checker.setChecksumsOnly(true);
+    indexStatus = checker.checkIndex();
+    assertTrue(indexStatus.clean);
+    checker.setChecksumsOnly(false);
+    checker.setVerifiedSegments(indexStatus.verifiedSegments);
+    indexStatus = checker.checkIndex();
+    assertTrue(indexStatus.clean);
+    for (CheckIndex.Status.SegmentInfoStatus segInfoStat : indexStatus.segmentInfos) {
+      assertFalse(segInfoStat.previouslyVerified);
+    }
+    checker.close();
+  }
+
   public void testObtainsLock(Directory dir) throws IOException {
     IndexWriter iw = new IndexWriter(dir, newIndexWriterConfig(null));
     iw.addDocument(new Document());
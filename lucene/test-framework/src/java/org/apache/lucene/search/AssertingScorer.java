@@ -72,6 +72,18 @@ public class AssertingScorer extends Scorer {
     return score;
   }
 
+  @Override
+  public void setMinCompetitiveScore(float minScore) {
+    assert needsScores;
+    assert Float.isNaN(minScore) == false;
+    in.setMinCompetitiveScore(minScore);
+  }
+
+  @Override
+  public float maxScore() {
+    return in.maxScore();
+  }
+
   @Override
   public Collection<ChildScorer> getChildren() {
     // We cannot hide that we hold a single child, else
@@ -46,10 +46,17 @@ class AssertingWeight extends FilterWeight {
         // Evil: make sure computing the cost has no side effects
         scorerSupplier.cost();
       }
-      return scorerSupplier.get(false);
+      return scorerSupplier.get(Long.MAX_VALUE);
     }
   }
 
+  @Override
+  public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+    final Scorer inScorer = in.topScoresScorer(context);
+    assert inScorer == null || inScorer.docID() == -1;
+    return AssertingScorer.wrap(new Random(random.nextLong()), inScorer, needsScores);
+  }
+
   @Override
   public ScorerSupplier scorerSupplier(LeafReaderContext context) throws IOException {
     final ScorerSupplier inScorerSupplier = in.scorerSupplier(context);
@@ -59,10 +66,11 @@ class AssertingWeight extends FilterWeight {
     return new ScorerSupplier() {
       private boolean getCalled = false;
       @Override
-      public Scorer get(boolean randomAccess) throws IOException {
+      public Scorer get(long leadCost) throws IOException {
         assert getCalled == false;
+        assert leadCost >= 0 : leadCost;
         getCalled = true;
-        return AssertingScorer.wrap(new Random(random.nextLong()), inScorerSupplier.get(randomAccess), needsScores);
+        return AssertingScorer.wrap(new Random(random.nextLong()), inScorerSupplier.get(leadCost), needsScores);
       }
 
       @Override
@@ -78,7 +78,15 @@ public class RandomApproximationQuery extends Query {
 
     @Override
     public Scorer scorer(LeafReaderContext context) throws IOException {
-      final Scorer scorer = in.scorer(context);
+      return wrap(in.scorer(context));
+    }
+
+    @Override
+    public Scorer topScoresScorer(LeafReaderContext context) throws IOException {
+      return wrap(in.topScoresScorer(context));
+    }
+
+    private Scorer wrap(Scorer scorer) {
       if (scorer == null) {
         return null;
       }